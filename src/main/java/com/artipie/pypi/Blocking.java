@@ -0,0 +1,124 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi;
+
+import com.artipie.pypi.metrics.Metrics;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Executor of blocking work: archives reading, temp files operations and so on, to keep
+ * it off event loop and storage threads.
+ * <p>
+ * Default executor runs every task in a new virtual thread on Java 21 and later, and in
+ * a pool of two threads per processor (at least eight) on earlier versions. Tasks
+ * waiting for a pool thread are reported as {@link Metrics#BLOCKING_QUEUE} gauge, time
+ * tasks spent waiting is reported as {@link Metrics#BLOCKING_WAIT} timer.
+ *
+ * @since 0.8
+ */
+public final class Blocking implements Executor {
+
+    /**
+     * Default executor.
+     */
+    private static final Executor DEFAULT = Blocking.executor();
+
+    /**
+     * Executor.
+     */
+    private final Executor exec;
+
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor with default executor.
+     */
+    public Blocking() {
+        this(Metrics.NOP);
+    }
+
+    /**
+     * Ctor with default executor.
+     * @param metrics Metrics
+     */
+    public Blocking(final Metrics metrics) {
+        this(Blocking.DEFAULT, metrics);
+    }
+
+    /**
+     * Ctor.
+     * @param exec Executor
+     * @param metrics Metrics
+     */
+    public Blocking(final Executor exec, final Metrics metrics) {
+        this.exec = exec;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        final long queued = System.nanoTime();
+        this.metrics.gauge(Metrics.BLOCKING_QUEUE, 1);
+        this.exec.execute(
+            () -> {
+                this.metrics.gauge(Metrics.BLOCKING_QUEUE, -1);
+                this.metrics.timer(Metrics.BLOCKING_WAIT, System.nanoTime() - queued);
+                task.run();
+            }
+        );
+    }
+
+    /**
+     * Run blocking task, task rejected by the executor, e.g. by shut down one, fails
+     * the result rather than the call.
+     * @param task Task
+     * @param <T> Result type
+     * @return Task result
+     */
+    public <T> CompletableFuture<T> supply(final Supplier<T> task) {
+        CompletableFuture<T> res;
+        try {
+            res = CompletableFuture.supplyAsync(task, this);
+        } catch (final RejectedExecutionException ex) {
+            res = new CompletableFuture<>();
+            res.completeExceptionally(ex);
+        }
+        return res;
+    }
+
+    /**
+     * Default executor: virtual threads if supported by JVM, otherwise pool of daemon
+     * threads.
+     * @return Executor
+     */
+    private static Executor executor() {
+        Executor res;
+        try {
+            res = (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+        } catch (final ReflectiveOperationException ex) {
+            final AtomicInteger count = new AtomicInteger();
+            res = Executors.newFixedThreadPool(
+                Math.max(8, Runtime.getRuntime().availableProcessors() * 2),
+                runnable -> {
+                    final Thread thread = new Thread(
+                        runnable, String.format("pypi-blocking-%d", count.incrementAndGet())
+                    );
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            );
+        }
+        return res;
+    }
+}
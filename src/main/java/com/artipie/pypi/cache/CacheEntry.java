@@ -0,0 +1,104 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.cache;
+
+import com.artipie.asto.Key;
+
+/**
+ * Cached item access statistics.
+ * @since 0.8
+ */
+final class CacheEntry {
+
+    /**
+     * Item key.
+     */
+    private final Key key;
+
+    /**
+     * Item size in bytes, negative if unknown.
+     */
+    private long bytes;
+
+    /**
+     * Logical time of the last access.
+     */
+    private long last;
+
+    /**
+     * Amount of accesses.
+     */
+    private long hits;
+
+    /**
+     * Ctor.
+     * @param key Item key
+     * @param bytes Item size in bytes, negative if unknown
+     */
+    CacheEntry(final Key key, final long bytes) {
+        this.key = key;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Item key.
+     * @return Key
+     */
+    Key key() {
+        return this.key;
+    }
+
+    /**
+     * Item size.
+     * @return Size in bytes, negative if unknown
+     */
+    synchronized long size() {
+        return this.bytes;
+    }
+
+    /**
+     * Update item size.
+     * @param size Size in bytes
+     */
+    synchronized void size(final long size) {
+        this.bytes = size;
+    }
+
+    /**
+     * Logical time of the last access.
+     * @return Time
+     */
+    synchronized long last() {
+        return this.last;
+    }
+
+    /**
+     * Amount of accesses.
+     * @return Hits
+     */
+    synchronized long hits() {
+        return this.hits;
+    }
+
+    /**
+     * Copy of the entry, used to sort entries safely while they are accessed.
+     * @return Copy
+     */
+    synchronized CacheEntry snapshot() {
+        final CacheEntry res = new CacheEntry(this.key, this.bytes);
+        res.last = this.last;
+        res.hits = this.hits;
+        return res;
+    }
+
+    /**
+     * Record access.
+     * @param time Logical time of the access
+     */
+    synchronized void access(final long time) {
+        this.last = time;
+        this.hits = this.hits + 1;
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.cache;
+
+import com.artipie.http.auth.Authentication;
+import com.artipie.pypi.metrics.Metrics;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Authentication with cache of results.
+ * <p>
+ * Results of origin authentication are cached for the TTL, failed authentication results
+ * are cached for a shorter TTL, so new or changed credentials are picked up soon.
+ * Cache is keyed by HMAC-SHA256 of user name and password with random per-instance key,
+ * credentials are not stored in memory and keys can't be matched against precomputed
+ * hashes. When cache size reaches the limit, least recently used results are evicted.
+ * Accesses, evictions and amount of cached results are reported to {@link Metrics} with
+ * {@code cache} tag {@code auth}.
+ *
+ * @since 0.8
+ */
+public final class CachedAuthentication implements Authentication {
+
+    /**
+     * Default size limit.
+     */
+    private static final int SIZE = 10_000;
+
+    /**
+     * Default TTL of successful authentication.
+     */
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    /**
+     * Default TTL of failed authentication.
+     */
+    private static final Duration NEGATIVE = Duration.ofSeconds(30);
+
+    /**
+     * Credentials hash algorithm.
+     */
+    private static final String HMAC = "HmacSHA256";
+
+    /**
+     * Cache tag name.
+     */
+    private static final String TAG = "cache";
+
+    /**
+     * Cache tag value.
+     */
+    private static final String NAME = "auth";
+
+    /**
+     * Origin authentication.
+     */
+    private final Authentication origin;
+
+    /**
+     * TTL of successful authentication in nanoseconds.
+     */
+    private final long ttl;
+
+    /**
+     * TTL of failed authentication in nanoseconds.
+     */
+    private final long negative;
+
+    /**
+     * Time source in nanoseconds.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Credentials hash key.
+     */
+    private final SecretKeySpec secret;
+
+    /**
+     * Cached results by credentials hash in access order, guarded by itself.
+     */
+    private final Map<String, Result> results;
+
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor with default size limit and TTLs: 10 000 results, 5 minutes for successful
+     * and 30 seconds for failed authentication.
+     * @param origin Origin authentication
+     */
+    public CachedAuthentication(final Authentication origin) {
+        this(
+            origin, CachedAuthentication.SIZE,
+            CachedAuthentication.TTL, CachedAuthentication.NEGATIVE
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param origin Origin authentication
+     * @param size Max amount of cached results
+     * @param ttl TTL of successful authentication
+     * @param negative TTL of failed authentication
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public CachedAuthentication(final Authentication origin, final int size,
+        final Duration ttl, final Duration negative) {
+        this(origin, size, ttl, negative, Metrics.NOP);
+    }
+
+    /**
+     * Ctor.
+     * @param origin Origin authentication
+     * @param size Max amount of cached results
+     * @param ttl TTL of successful authentication
+     * @param negative TTL of failed authentication
+     * @param metrics Metrics
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public CachedAuthentication(final Authentication origin, final int size,
+        final Duration ttl, final Duration negative, final Metrics metrics) {
+        this(origin, size, ttl, negative, metrics, System::nanoTime);
+    }
+
+    /**
+     * Ctor.
+     * @param origin Origin authentication
+     * @param size Max amount of cached results
+     * @param ttl TTL of successful authentication
+     * @param negative TTL of failed authentication
+     * @param metrics Metrics
+     * @param clock Time source in nanoseconds
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    CachedAuthentication(final Authentication origin, final int size,
+        final Duration ttl, final Duration negative, final Metrics metrics,
+        final LongSupplier clock) {
+        this.origin = origin;
+        this.ttl = ttl.toNanos();
+        this.negative = negative.toNanos();
+        this.clock = clock;
+        final byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        this.secret = new SecretKeySpec(random, CachedAuthentication.HMAC);
+        this.metrics = metrics;
+        this.results = new Lru(size, metrics);
+    }
+
+    @Override
+    public Optional<User> user(final String name, final String password) {
+        final String key = this.hash(name, password);
+        final long now = this.clock.getAsLong();
+        Result cached;
+        synchronized (this.results) {
+            cached = this.results.get(key);
+            if (cached != null && cached.expired(now)) {
+                this.results.remove(key);
+                this.metrics.gauge(
+                    Metrics.CACHE_ITEMS, -1, CachedAuthentication.TAG, CachedAuthentication.NAME
+                );
+                cached = null;
+            }
+        }
+        String result = "hit";
+        if (cached == null) {
+            result = "miss";
+        }
+        this.metrics.counter(
+            Metrics.CACHE_ACCESS, 1,
+            CachedAuthentication.TAG, CachedAuthentication.NAME, "result", result
+        );
+        final Optional<User> res;
+        if (cached == null) {
+            res = this.origin.user(name, password);
+            final long expires;
+            if (res.isPresent()) {
+                expires = now + this.ttl;
+            } else {
+                expires = now + this.negative;
+            }
+            synchronized (this.results) {
+                final int before = this.results.size();
+                this.results.put(key, new Result(res, expires));
+                this.metrics.gauge(
+                    Metrics.CACHE_ITEMS, this.results.size() - before,
+                    CachedAuthentication.TAG, CachedAuthentication.NAME
+                );
+            }
+        } else {
+            res = cached.user;
+        }
+        return res;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s(%s)", this.getClass().getSimpleName(), this.origin);
+    }
+
+    /**
+     * Hash of the credentials.
+     * @param name User name
+     * @param password Password
+     * @return Hash
+     */
+    private String hash(final String name, final String password) {
+        final Mac mac;
+        try {
+            mac = Mac.getInstance(CachedAuthentication.HMAC);
+            mac.init(this.secret);
+        } catch (final NoSuchAlgorithmException | InvalidKeyException err) {
+            throw new IllegalStateException(err);
+        }
+        final byte[] user = name.getBytes(StandardCharsets.UTF_8);
+        mac.update(ByteBuffer.allocate(Integer.BYTES).putInt(0, user.length));
+        mac.update(user);
+        mac.update(password.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(mac.doFinal());
+    }
+
+    /**
+     * Cached authentication result.
+     * @since 0.8
+     */
+    private static final class Result {
+
+        /**
+         * Authenticated user.
+         */
+        private final Optional<User> user;
+
+        /**
+         * Expiration time in nanoseconds.
+         */
+        private final long expires;
+
+        /**
+         * Ctor.
+         * @param user Authenticated user
+         * @param expires Expiration time in nanoseconds
+         */
+        Result(final Optional<User> user, final long expires) {
+            this.user = user;
+            this.expires = expires;
+        }
+
+        /**
+         * Is result expired?
+         * @param now Current time in nanoseconds
+         * @return True if expired
+         */
+        boolean expired(final long now) {
+            return now - this.expires >= 0;
+        }
+    }
+
+    /**
+     * Least recently used results with size limit.
+     * @since 0.8
+     */
+    private static final class Lru extends LinkedHashMap<String, Result> {
+
+        /**
+         * Serial version.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Max size.
+         */
+        private final int limit;
+
+        /**
+         * Metrics.
+         */
+        private final transient Metrics metrics;
+
+        /**
+         * Ctor.
+         * @param limit Max size
+         * @param metrics Metrics
+         */
+        Lru(final int limit, final Metrics metrics) {
+            super(16, 0.75f, true);
+            this.limit = limit;
+            this.metrics = metrics;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Result> eldest) {
+            final boolean res = this.size() > this.limit;
+            if (res) {
+                this.metrics.counter(
+                    Metrics.CACHE_EVICTIONS, 1,
+                    CachedAuthentication.TAG, CachedAuthentication.NAME
+                );
+            }
+            return res;
+        }
+    }
+}
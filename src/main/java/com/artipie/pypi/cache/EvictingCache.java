@@ -0,0 +1,348 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.cache;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.cache.Cache;
+import com.artipie.asto.cache.CacheControl;
+import com.artipie.asto.cache.Remote;
+import com.artipie.pypi.metrics.Metrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Proxy cache with size budget.
+ * <p>
+ * Loads items with {@link StorageFirstCache} and records every access into lock-free
+ * queue, request path never waits for cache bookkeeping. Recorded accesses are applied
+ * to items statistics in batches by {@link #maintain()}, which also evicts items
+ * when cache size exceeds the budget: items are evicted in {@link EvictionPolicy} order
+ * until cache size drops below 90% of the budget. Statistics of items which are already in
+ * storage are initialized by the first maintenance run. Call {@link #maintain()}
+ * periodically in background, e.g. with {@link #schedule(ScheduledExecutorService, Duration)}.
+ * Accesses, evictions and cache size are reported to {@link Metrics} with {@code cache}
+ * tag {@code proxy}.
+ *
+ * @since 0.8
+ */
+public final class EvictingCache implements Cache {
+
+    /**
+     * Cache size after eviction, percents of the budget.
+     */
+    private static final long WATERMARK = 90;
+
+    /**
+     * Cache tag name.
+     */
+    private static final String TAG = "cache";
+
+    /**
+     * Cache tag value.
+     */
+    private static final String NAME = "proxy";
+
+    /**
+     * Cache storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Origin cache.
+     */
+    private final Cache origin;
+
+    /**
+     * Cache size budget in bytes.
+     */
+    private final long budget;
+
+    /**
+     * Eviction policy.
+     */
+    private final EvictionPolicy policy;
+
+    /**
+     * Recorded accesses to apply.
+     */
+    private final Queue<Access> accesses;
+
+    /**
+     * Items statistics by key.
+     */
+    private final Map<String, CacheEntry> entries;
+
+    /**
+     * Logical clock.
+     */
+    private final AtomicLong clock;
+
+    /**
+     * Is storage scanned for existing items?
+     */
+    private final AtomicBoolean scanned;
+
+    /**
+     * Is maintenance running?
+     */
+    private final AtomicBoolean running;
+
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Cache size reported to metrics.
+     */
+    private final AtomicLong reported;
+
+    /**
+     * Ctor.
+     * @param storage Cache storage
+     * @param budget Cache size budget in bytes
+     * @param policy Eviction policy
+     */
+    public EvictingCache(final Storage storage, final long budget, final EvictionPolicy policy) {
+        this(storage, budget, policy, Metrics.NOP);
+    }
+
+    /**
+     * Ctor.
+     * @param storage Cache storage
+     * @param budget Cache size budget in bytes
+     * @param policy Eviction policy
+     * @param metrics Metrics
+     */
+    public EvictingCache(final Storage storage, final long budget, final EvictionPolicy policy,
+        final Metrics metrics) {
+        this.storage = storage;
+        this.origin = new StorageFirstCache(storage);
+        this.budget = budget;
+        this.policy = policy;
+        this.accesses = new ConcurrentLinkedQueue<>();
+        this.entries = new ConcurrentHashMap<>();
+        this.clock = new AtomicLong();
+        this.scanned = new AtomicBoolean();
+        this.running = new AtomicBoolean();
+        this.metrics = metrics;
+        this.reported = new AtomicLong();
+    }
+
+    @Override
+    public CompletionStage<Optional<? extends Content>> load(
+        final Key key, final Remote remote, final CacheControl control
+    ) {
+        final AtomicBoolean fetched = new AtomicBoolean();
+        return this.origin.load(
+            key,
+            () -> remote.get().thenApply(
+                content -> {
+                    fetched.set(content.isPresent());
+                    return content;
+                }
+            ),
+            control
+        ).thenApply(
+            content -> {
+                if (content.isPresent()) {
+                    String result = "hit";
+                    if (fetched.get()) {
+                        result = "miss";
+                    }
+                    this.metrics.counter(
+                        Metrics.CACHE_ACCESS, 1, EvictingCache.TAG, EvictingCache.NAME,
+                        "result", result
+                    );
+                    this.accesses.add(new Access(key, content.get().size().orElse(-1L)));
+                }
+                return content;
+            }
+        );
+    }
+
+    /**
+     * Schedule periodic maintenance.
+     * @param executor Background executor
+     * @param period Maintenance period
+     * @return Scheduled task, cancel it to stop maintenance
+     */
+    public ScheduledFuture<?> schedule(final ScheduledExecutorService executor,
+        final Duration period) {
+        return executor.scheduleWithFixedDelay(
+            () -> this.maintain().toCompletableFuture().join(),
+            period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Apply recorded accesses and evict items if cache size exceeds the budget.
+     * Does nothing if maintenance is already running.
+     * @return Completion of the maintenance
+     */
+    public CompletionStage<Void> maintain() {
+        final CompletionStage<Void> res;
+        if (this.running.compareAndSet(false, true)) {
+            res = this.scan()
+                .thenCompose(nothing -> this.drain())
+                .thenCompose(nothing -> this.evict())
+                .whenComplete((nothing, throwable) -> this.running.set(false));
+        } else {
+            res = CompletableFuture.completedFuture(null);
+        }
+        return res;
+    }
+
+    /**
+     * Initialize statistics of items stored before this cache was created.
+     * @return Completion of the scan
+     */
+    private CompletionStage<Void> scan() {
+        final CompletionStage<Void> res;
+        if (this.scanned.compareAndSet(false, true)) {
+            res = this.storage.list(Key.ROOT).thenCompose(
+                keys -> CompletableFuture.allOf(
+                    keys.stream().map(
+                        key -> this.storage.size(key).thenAccept(
+                            size -> this.entries.putIfAbsent(
+                                key.string(), new CacheEntry(key, size)
+                            )
+                        )
+                    ).toArray(CompletableFuture[]::new)
+                )
+            );
+        } else {
+            res = CompletableFuture.completedFuture(null);
+        }
+        return res;
+    }
+
+    /**
+     * Apply recorded accesses to items statistics.
+     * @return Completion of sizes resolution for items with unknown size
+     */
+    private CompletionStage<Void> drain() {
+        final List<CompletableFuture<Void>> sizes = new ArrayList<>(0);
+        Access access = this.accesses.poll();
+        while (access != null) {
+            final Access item = access;
+            final CacheEntry entry = this.entries.computeIfAbsent(
+                item.key.string(), str -> new CacheEntry(item.key, item.size)
+            );
+            entry.access(this.clock.incrementAndGet());
+            if (item.size >= 0) {
+                entry.size(item.size);
+            } else if (entry.size() < 0) {
+                sizes.add(this.storage.size(item.key).thenAccept(entry::size));
+            }
+            access = this.accesses.poll();
+        }
+        return CompletableFuture.allOf(sizes.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Evict items while cache size exceeds the budget.
+     * @return Completion of the eviction
+     */
+    private CompletionStage<Void> evict() {
+        final Map<CacheEntry, CacheEntry> originals = new IdentityHashMap<>();
+        for (final CacheEntry entry : this.entries.values()) {
+            originals.put(entry.snapshot(), entry);
+        }
+        final List<CacheEntry> snapshot = new ArrayList<>(originals.keySet());
+        long used = snapshot.stream().mapToLong(entry -> Math.max(entry.size(), 0)).sum();
+        this.used(used);
+        final List<CacheEntry> victims = new ArrayList<>(0);
+        if (used > this.budget) {
+            snapshot.sort(this.policy.order());
+            final long target = this.budget * EvictingCache.WATERMARK / 100;
+            for (final CacheEntry entry : snapshot) {
+                if (used <= target) {
+                    break;
+                }
+                victims.add(entry);
+                used = used - Math.max(entry.size(), 0);
+            }
+        }
+        return CompletableFuture.allOf(
+            victims.stream().map(
+                entry -> this.storage.delete(entry.key()).handle(
+                    (nothing, throwable) -> {
+                        if (throwable == null) {
+                            this.entries.remove(entry.key().string(), originals.get(entry));
+                            this.metrics.counter(
+                                Metrics.CACHE_EVICTIONS, 1, EvictingCache.TAG, EvictingCache.NAME
+                            );
+                            this.metrics.counter(
+                                Metrics.CACHE_EVICTED_BYTES, Math.max(entry.size(), 0),
+                                EvictingCache.TAG, EvictingCache.NAME
+                            );
+                        }
+                        return nothing;
+                    }
+                )
+            ).toArray(CompletableFuture[]::new)
+        ).thenRun(
+            () -> this.used(
+                this.entries.values().stream()
+                    .mapToLong(entry -> Math.max(entry.size(), 0)).sum()
+            )
+        );
+    }
+
+    /**
+     * Report cache size.
+     * @param bytes Cache size in bytes
+     */
+    private void used(final long bytes) {
+        this.metrics.gauge(
+            Metrics.CACHE_BYTES, bytes - this.reported.getAndSet(bytes),
+            EvictingCache.TAG, EvictingCache.NAME
+        );
+    }
+
+    /**
+     * Recorded access.
+     * @since 0.8
+     */
+    private static final class Access {
+
+        /**
+         * Item key.
+         */
+        private final Key key;
+
+        /**
+         * Item size, negative if unknown.
+         */
+        private final long size;
+
+        /**
+         * Ctor.
+         * @param key Item key
+         * @param size Item size, negative if unknown
+         */
+        Access(final Key key, final long size) {
+            this.key = key;
+            this.size = size;
+        }
+    }
+}
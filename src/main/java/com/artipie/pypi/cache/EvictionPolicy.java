@@ -0,0 +1,55 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.cache;
+
+import java.util.Comparator;
+
+/**
+ * Cache eviction policy: defines the order in which cached items are evicted.
+ * @since 0.8
+ */
+public enum EvictionPolicy {
+
+    /**
+     * Least recently used items are evicted first.
+     */
+    LRU {
+        @Override
+        Comparator<CacheEntry> order() {
+            return Comparator.comparingLong(CacheEntry::last);
+        }
+    },
+
+    /**
+     * Least frequently used items are evicted first, least recently used
+     * of equally used items.
+     */
+    LFU {
+        @Override
+        Comparator<CacheEntry> order() {
+            return Comparator.comparingLong(CacheEntry::hits)
+                .thenComparingLong(CacheEntry::last);
+        }
+    },
+
+    /**
+     * Size aware policy: items with the least hits per byte are evicted first,
+     * so large rarely used artifacts go before small popular index pages.
+     */
+    SIZE {
+        @Override
+        Comparator<CacheEntry> order() {
+            return Comparator.comparingDouble(
+                (CacheEntry entry) -> (double) entry.hits() / Math.max(entry.size(), 1)
+            ).thenComparingLong(CacheEntry::last);
+        }
+    };
+
+    /**
+     * Eviction order.
+     * @return Comparator, items which compare lower are evicted first
+     */
+    abstract Comparator<CacheEntry> order();
+}
@@ -0,0 +1,118 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.cache;
+
+/**
+ * Approximate access frequency of items: count-min sketch with small saturating counters
+ * and periodic aging, as used by TinyLFU admission policy.
+ * <p>
+ * Every item increments one counter in each of four rows, item frequency is the minimum
+ * of its counters. When amount of increments reaches ten times the sketch width, all
+ * counters are halved, so frequencies reflect recent history. Not thread safe.
+ *
+ * @since 0.8
+ */
+final class FrequencySketch {
+
+    /**
+     * Rows seeds.
+     */
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L,
+    };
+
+    /**
+     * Max counter value.
+     */
+    private static final int MAX = 15;
+
+    /**
+     * Counters of all rows.
+     */
+    private final byte[] table;
+
+    /**
+     * Row width, power of two.
+     */
+    private final int width;
+
+    /**
+     * Increments before aging.
+     */
+    private final int sample;
+
+    /**
+     * Increments since last aging.
+     */
+    private int additions;
+
+    /**
+     * Ctor.
+     * @param items Expected amount of items
+     */
+    FrequencySketch(final int items) {
+        this.width = Integer.highestOneBit(Math.max(items, 8) - 1) << 1;
+        this.table = new byte[this.width * FrequencySketch.SEEDS.length];
+        this.sample = this.width * 10;
+    }
+
+    /**
+     * Record item access.
+     * @param item Item
+     */
+    void increment(final Object item) {
+        final int hash = item.hashCode();
+        boolean added = false;
+        for (int row = 0; row < FrequencySketch.SEEDS.length; row = row + 1) {
+            final int idx = this.index(hash, row);
+            if (this.table[idx] < FrequencySketch.MAX) {
+                this.table[idx] = (byte) (this.table[idx] + 1);
+                added = true;
+            }
+        }
+        if (added) {
+            this.additions = this.additions + 1;
+            if (this.additions >= this.sample) {
+                this.age();
+            }
+        }
+    }
+
+    /**
+     * Estimated item frequency.
+     * @param item Item
+     * @return Frequency
+     */
+    int frequency(final Object item) {
+        final int hash = item.hashCode();
+        int res = FrequencySketch.MAX;
+        for (int row = 0; row < FrequencySketch.SEEDS.length; row = row + 1) {
+            res = Math.min(res, this.table[this.index(hash, row)]);
+        }
+        return res;
+    }
+
+    /**
+     * Halve all counters.
+     */
+    private void age() {
+        for (int idx = 0; idx < this.table.length; idx = idx + 1) {
+            this.table[idx] = (byte) (this.table[idx] >>> 1);
+        }
+        this.additions = this.additions / 2;
+    }
+
+    /**
+     * Counter index of the item in the row.
+     * @param hash Item hash
+     * @param row Row
+     * @return Index in the table
+     */
+    private int index(final int hash, final int row) {
+        long mixed = (hash + FrequencySketch.SEEDS[row]) * FrequencySketch.SEEDS[row];
+        mixed = mixed ^ mixed >>> 32;
+        return row * this.width + ((int) mixed & this.width - 1);
+    }
+}
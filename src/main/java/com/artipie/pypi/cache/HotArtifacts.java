@@ -0,0 +1,332 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.cache;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.pypi.metrics.Metrics;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Storage with in-memory cache of small frequently downloaded artifacts.
+ * <p>
+ * Artifacts (wheels, sdists and eggs) not larger than the threshold are kept in direct
+ * (off-heap) buffers, cached artifact is served without storage access. Total size of
+ * cached artifacts does not exceed the budget: least recently used artifacts are evicted,
+ * but only if the candidate artifact is accessed more frequently than the victim
+ * (TinyLFU admission), so one-off downloads do not push popular artifacts out.
+ * Admission is checked before the artifact is read, artifact which is not admitted is
+ * streamed from origin storage without buffering.
+ * Artifacts are immutable, cached artifact is dropped only when it is saved, moved or
+ * deleted through this storage. Other keys are not cached. Accesses, evictions and cached
+ * bytes are reported to {@link Metrics} with {@code cache} tag {@code hot}.
+ *
+ * @since 0.8
+ */
+public final class HotArtifacts implements Storage {
+
+    /**
+     * Artifact key pattern.
+     */
+    private static final Pattern ARTIFACT = Pattern.compile(
+        ".*\\.(whl|tar\\.gz|zip|tar\\.bz2|tar\\.Z|tar|egg)"
+    );
+
+    /**
+     * Expected average artifact size to size frequency sketch.
+     */
+    private static final long AVERAGE = 64 * 1024;
+
+    /**
+     * Cache tag name.
+     */
+    private static final String TAG = "cache";
+
+    /**
+     * Cache tag value.
+     */
+    private static final String NAME = "hot";
+
+    /**
+     * Origin storage.
+     */
+    private final Storage origin;
+
+    /**
+     * Max size of cached artifact in bytes.
+     */
+    private final long threshold;
+
+    /**
+     * Total size budget in bytes.
+     */
+    private final long budget;
+
+    /**
+     * Cached artifacts in access order, guarded by itself.
+     */
+    private final LinkedHashMap<String, ByteBuffer> entries;
+
+    /**
+     * Access frequencies, guarded by entries.
+     */
+    private final FrequencySketch sketch;
+
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Cached bytes, guarded by entries.
+     */
+    private long used;
+
+    /**
+     * Invalidations count, guarded by entries: artifact read before invalidation
+     * is not admitted.
+     */
+    private long version;
+
+    /**
+     * Ctor.
+     * @param origin Origin storage
+     * @param threshold Max size of cached artifact in bytes
+     * @param budget Total size budget in bytes
+     */
+    public HotArtifacts(final Storage origin, final long threshold, final long budget) {
+        this(origin, threshold, budget, Metrics.NOP);
+    }
+
+    /**
+     * Ctor.
+     * @param origin Origin storage
+     * @param threshold Max size of cached artifact in bytes
+     * @param budget Total size budget in bytes
+     * @param metrics Metrics
+     */
+    public HotArtifacts(final Storage origin, final long threshold, final long budget,
+        final Metrics metrics) {
+        this.origin = origin;
+        this.threshold = threshold;
+        this.budget = budget;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.sketch = new FrequencySketch(
+            (int) Math.min(Integer.MAX_VALUE / 8, Math.max(budget / HotArtifacts.AVERAGE, 1))
+        );
+        this.metrics = metrics;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exists(final Key key) {
+        return this.origin.exists(key);
+    }
+
+    @Override
+    public CompletableFuture<Collection<Key>> list(final Key prefix) {
+        return this.origin.list(prefix);
+    }
+
+    @Override
+    public CompletableFuture<Void> save(final Key key, final Content content) {
+        return this.origin.save(key, content).thenApply(
+            nothing -> {
+                this.invalidate(key);
+                return nothing;
+            }
+        );
+    }
+
+    @Override
+    public CompletableFuture<Void> move(final Key source, final Key destination) {
+        return this.origin.move(source, destination).thenApply(
+            nothing -> {
+                this.invalidate(source);
+                this.invalidate(destination);
+                return nothing;
+            }
+        );
+    }
+
+    @Override
+    public CompletableFuture<Long> size(final Key key) {
+        return this.origin.size(key);
+    }
+
+    @Override
+    public CompletableFuture<Content> value(final Key key) {
+        final CompletableFuture<Content> res;
+        if (HotArtifacts.ARTIFACT.matcher(key.string()).matches()) {
+            final ByteBuffer cached;
+            final long seen;
+            synchronized (this.entries) {
+                this.sketch.increment(key.string());
+                cached = this.entries.get(key.string());
+                seen = this.version;
+            }
+            String result = "hit";
+            if (cached == null) {
+                result = "miss";
+            }
+            this.metrics.counter(
+                Metrics.CACHE_ACCESS, 1, HotArtifacts.TAG, HotArtifacts.NAME, "result", result
+            );
+            if (cached == null) {
+                res = this.load(key, seen);
+            } else {
+                res = CompletableFuture.completedFuture(HotArtifacts.content(cached));
+            }
+        } else {
+            res = this.origin.value(key);
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(final Key key) {
+        return this.origin.delete(key).thenApply(
+            nothing -> {
+                this.invalidate(key);
+                return nothing;
+            }
+        );
+    }
+
+    @Override
+    public <T> CompletionStage<T> exclusively(final Key key,
+        final Function<Storage, CompletionStage<T>> operation) {
+        return this.origin.exclusively(key, storage -> operation.apply(this));
+    }
+
+    /**
+     * Load artifact from origin and admit it to the cache if it is small enough and
+     * accessed more frequently than artifacts it would evict, otherwise artifact is
+     * streamed from origin.
+     * @param key Artifact key
+     * @param seen Invalidations count before load
+     * @return Artifact content
+     */
+    private CompletableFuture<Content> load(final Key key, final long seen) {
+        return this.origin.value(key).thenCompose(
+            content -> {
+                final CompletableFuture<Content> res;
+                if (content.size().isPresent() && content.size().get() <= this.threshold
+                    && this.admissible(key.string(), content.size().get())) {
+                    res = new PublisherAs(content).bytes().thenApply(
+                        bytes -> {
+                            final ByteBuffer buf = ByteBuffer.allocateDirect(bytes.length);
+                            buf.put(bytes).flip();
+                            final ByteBuffer cached = buf.asReadOnlyBuffer();
+                            this.admit(key.string(), cached, seen);
+                            return HotArtifacts.content(cached);
+                        }
+                    ).toCompletableFuture();
+                } else {
+                    res = CompletableFuture.completedFuture(content);
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Admit artifact to the cache, evicting least recently used artifacts if they are
+     * accessed less frequently than the candidate.
+     * @param key Artifact key
+     * @param buf Artifact bytes
+     * @param seen Invalidations count before artifact was read
+     */
+    private void admit(final String key, final ByteBuffer buf, final long seen) {
+        synchronized (this.entries) {
+            if (seen == this.version && !this.entries.containsKey(key)
+                && this.admissible(key, buf.capacity())) {
+                long freed = 0;
+                while (this.budget - this.used < buf.capacity()) {
+                    final Iterator<ByteBuffer> lru = this.entries.values().iterator();
+                    final long size = lru.next().capacity();
+                    lru.remove();
+                    this.used = this.used - size;
+                    freed = freed + size;
+                    this.metrics.counter(
+                        Metrics.CACHE_EVICTIONS, 1, HotArtifacts.TAG, HotArtifacts.NAME
+                    );
+                }
+                if (freed > 0) {
+                    this.metrics.counter(
+                        Metrics.CACHE_EVICTED_BYTES, freed, HotArtifacts.TAG, HotArtifacts.NAME
+                    );
+                }
+                this.entries.put(key, buf);
+                this.used = this.used + buf.capacity();
+                this.metrics.gauge(
+                    Metrics.CACHE_BYTES, buf.capacity() - freed,
+                    HotArtifacts.TAG, HotArtifacts.NAME
+                );
+            }
+        }
+    }
+
+    /**
+     * Can artifact be admitted: it fits the budget and is accessed more frequently than
+     * least recently used artifacts which have to be evicted to free space for it.
+     * @param key Artifact key
+     * @param size Artifact size
+     * @return True if artifact can be admitted
+     */
+    private boolean admissible(final String key, final long size) {
+        synchronized (this.entries) {
+            final int freq = this.sketch.frequency(key);
+            long free = this.budget - this.used;
+            boolean admit = size <= this.budget;
+            final Iterator<Map.Entry<String, ByteBuffer>> iter =
+                this.entries.entrySet().iterator();
+            while (free < size && admit && iter.hasNext()) {
+                final Map.Entry<String, ByteBuffer> victim = iter.next();
+                admit = freq > this.sketch.frequency(victim.getKey());
+                free = free + victim.getValue().capacity();
+            }
+            return admit && free >= size;
+        }
+    }
+
+    /**
+     * Drop cached artifact.
+     * @param key Key
+     */
+    private void invalidate(final Key key) {
+        synchronized (this.entries) {
+            this.version = this.version + 1;
+            final ByteBuffer removed = this.entries.remove(key.string());
+            if (removed != null) {
+                this.used = this.used - removed.capacity();
+                this.metrics.gauge(
+                    Metrics.CACHE_BYTES, -removed.capacity(), HotArtifacts.TAG, HotArtifacts.NAME
+                );
+            }
+        }
+    }
+
+    /**
+     * Content of cached artifact.
+     * @param buf Cached bytes
+     * @return Content
+     */
+    private static Content content(final ByteBuffer buf) {
+        return new Content.From(
+            (long) buf.remaining(), Flowable.fromCallable(buf::duplicate)
+        );
+    }
+}
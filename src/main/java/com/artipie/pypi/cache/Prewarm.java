@@ -0,0 +1,345 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.cache;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.http.Headers;
+import com.artipie.http.Slice;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.pypi.NormalizedProjectName;
+import com.artipie.pypi.meta.PackageInfo;
+import com.artipie.pypi.meta.ValidFilename;
+import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.reactivestreams.Publisher;
+
+/**
+ * Proxy cache pre-warming: downloads files of pinned requirements through python proxy
+ * slice, so they are stored in the proxy cache.
+ * <p>
+ * For every requirement project index page is requested from the proxy, files
+ * matching requirement version are found by the page links and downloaded with
+ * bounded concurrency. Progress messages are sent to the given consumer.
+ *
+ * @since 0.8
+ */
+public final class Prewarm {
+
+    /**
+     * Link on the index page.
+     */
+    private static final Pattern HREF = Pattern.compile("href=\"([^\"#]+)[^\"]*\"");
+
+    /**
+     * Python proxy slice.
+     */
+    private final Slice proxy;
+
+    /**
+     * Path prefix the proxy is served by, empty for root.
+     */
+    private final String prefix;
+
+    /**
+     * Maximum amount of parallel downloads.
+     */
+    private final int concurrency;
+
+    /**
+     * Progress messages consumer.
+     */
+    private final Consumer<String> progress;
+
+    /**
+     * Ctor.
+     * @param proxy Python proxy slice, e.g. {@link com.artipie.pypi.http.PyProxySlice}
+     * @param concurrency Maximum amount of parallel downloads
+     * @param progress Progress messages consumer
+     */
+    public Prewarm(final Slice proxy, final int concurrency, final Consumer<String> progress) {
+        this(proxy, "", concurrency, progress);
+    }
+
+    /**
+     * Ctor.
+     * @param proxy Slice serving python proxy by the path prefix, e.g. repositories
+     *  server where proxy repository is mounted by {@code /pypi-proxy}
+     * @param prefix Path prefix, e.g. {@code /pypi-proxy}, empty for root
+     * @param concurrency Maximum amount of parallel downloads
+     * @param progress Progress messages consumer
+     */
+    public Prewarm(final Slice proxy, final String prefix, final int concurrency,
+        final Consumer<String> progress) {
+        this.proxy = proxy;
+        this.prefix = prefix.replaceAll("/+$", "");
+        this.concurrency = concurrency;
+        this.progress = progress;
+    }
+
+    /**
+     * Download files of the requirements.
+     * @param requirements Project name and version entries, see {@link Requirements}
+     * @return Result
+     */
+    public CompletionStage<Result> run(final Collection<Map.Entry<String, String>> requirements) {
+        final Result result = new Result();
+        return Flowable.fromIterable(requirements)
+            .flatMapSingle(
+                req -> SingleInterop.fromFuture(this.files(req, result)),
+                false, this.concurrency
+            )
+            .flatMapIterable(paths -> paths)
+            .flatMapSingle(
+                path -> SingleInterop.fromFuture(
+                    Prewarm.get(this.proxy, path, Prewarm::drain).handle(
+                        (bytes, throwable) -> {
+                            if (throwable == null) {
+                                result.downloaded(bytes);
+                                this.progress.accept(
+                                    String.format("Cached %s (%d bytes)", path, bytes)
+                                );
+                            } else {
+                                result.failed(path);
+                                this.progress.accept(String.format("Failed to cache %s", path));
+                            }
+                            return bytes;
+                        }
+                    )
+                ).onErrorReturnItem(0L),
+                false, this.concurrency
+            )
+            .ignoreElements()
+            .andThen(Single.fromCallable(() -> result))
+            .to(SingleInterop.get());
+    }
+
+    /**
+     * Find paths of the requirement files on the project index page.
+     * @param req Requirement
+     * @param result Result
+     * @return Paths of the files
+     */
+    private CompletionStage<List<String>> files(final Map.Entry<String, String> req,
+        final Result result) {
+        final String index = String.format(
+            "%s/%s/", this.prefix, new NormalizedProjectName.Simple(req.getKey()).value()
+        );
+        final String requirement = String.format("%s==%s", req.getKey(), req.getValue());
+        return Prewarm.get(
+            this.proxy, index, body -> new PublisherAs(body).string(StandardCharsets.UTF_8)
+        ).thenApply(
+            page -> {
+                final List<String> paths = new ArrayList<>(0);
+                final Matcher matcher = Prewarm.HREF.matcher(page);
+                while (matcher.find()) {
+                    final URI link = URI.create(index).resolve(matcher.group(1));
+                    final String path = link.getRawPath();
+                    final String name = path.substring(path.lastIndexOf('/') + 1);
+                    if (link.getScheme() == null
+                        && new ValidFilename(new Pinned(req), name).valid()) {
+                        paths.add(path);
+                    }
+                }
+                if (paths.isEmpty()) {
+                    result.failed(requirement);
+                    this.progress.accept(String.format("No files found for %s", requirement));
+                } else {
+                    this.progress.accept(
+                        String.format("Found %d files for %s", paths.size(), requirement)
+                    );
+                }
+                return paths;
+            }
+        ).exceptionally(
+            err -> {
+                result.failed(requirement);
+                this.progress.accept(String.format("Failed to resolve %s", requirement));
+                return Collections.emptyList();
+            }
+        );
+    }
+
+    /**
+     * Send GET request and read response body.
+     * @param slice Slice
+     * @param path Request path
+     * @param reader Response body reader
+     * @param <T> Reader result type
+     * @return Reader result, fails on unsuccessful response status
+     */
+    private static <T> CompletionStage<T> get(final Slice slice, final String path,
+        final Function<Publisher<ByteBuffer>, CompletionStage<T>> reader) {
+        final CompletableFuture<T> res = new CompletableFuture<>();
+        slice.response(
+            new RequestLine(RqMethod.GET, path).toString(), Headers.EMPTY, Content.EMPTY
+        ).send(
+            (status, headers, body) -> {
+                final CompletionStage<Void> term;
+                if (status.success()) {
+                    term = reader.apply(body).thenAccept(res::complete);
+                } else {
+                    res.completeExceptionally(
+                        new IllegalStateException(
+                            String.format("Failed to get %s: %s", path, status.code())
+                        )
+                    );
+                    term = CompletableFuture.completedFuture(null);
+                }
+                return term;
+            }
+        ).whenComplete(
+            (nothing, throwable) -> {
+                if (throwable != null) {
+                    res.completeExceptionally(throwable);
+                }
+            }
+        );
+        return res;
+    }
+
+    /**
+     * Read the body without keeping it in memory.
+     * @param body Body
+     * @return Amount of read bytes
+     */
+    private static CompletionStage<Long> drain(final Publisher<ByteBuffer> body) {
+        return Flowable.fromPublisher(body)
+            .reduce(0L, (acc, buf) -> acc + buf.remaining())
+            .to(SingleInterop.get());
+    }
+
+    /**
+     * Pre-warming result.
+     * @since 0.8
+     */
+    public static final class Result {
+
+        /**
+         * Downloaded files.
+         */
+        private final AtomicLong count;
+
+        /**
+         * Downloaded bytes.
+         */
+        private final AtomicLong size;
+
+        /**
+         * Failed requirements and files.
+         */
+        private final List<String> failures;
+
+        /**
+         * Ctor.
+         */
+        Result() {
+            this.count = new AtomicLong();
+            this.size = new AtomicLong();
+            this.failures = Collections.synchronizedList(new ArrayList<>(0));
+        }
+
+        /**
+         * Amount of downloaded files.
+         * @return Files count
+         */
+        public long files() {
+            return this.count.get();
+        }
+
+        /**
+         * Amount of downloaded bytes.
+         * @return Bytes
+         */
+        public long bytes() {
+            return this.size.get();
+        }
+
+        /**
+         * Requirements without files and files failed to download.
+         * @return Failures
+         */
+        public List<String> failed() {
+            synchronized (this.failures) {
+                return new ArrayList<>(this.failures);
+            }
+        }
+
+        /**
+         * Record downloaded file.
+         * @param bytes File size
+         */
+        void downloaded(final long bytes) {
+            this.count.incrementAndGet();
+            this.size.addAndGet(bytes);
+        }
+
+        /**
+         * Record failure.
+         * @param item Failed requirement or file
+         */
+        void failed(final String item) {
+            this.failures.add(item);
+        }
+    }
+
+    /**
+     * Package info of pinned requirement.
+     * @since 0.8
+     */
+    private static final class Pinned implements PackageInfo {
+
+        /**
+         * Requirement.
+         */
+        private final Map.Entry<String, String> req;
+
+        /**
+         * Ctor.
+         * @param req Requirement
+         */
+        Pinned(final Map.Entry<String, String> req) {
+            this.req = req;
+        }
+
+        @Override
+        public String name() {
+            return this.req.getKey();
+        }
+
+        @Override
+        public String version() {
+            return this.req.getValue();
+        }
+
+        @Override
+        public String summary() {
+            return "";
+        }
+
+        @Override
+        public Optional<String> requiresPython() {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.cache;
+
+import com.artipie.asto.fs.FileStorage;
+import com.artipie.http.client.auth.Authenticator;
+import com.artipie.http.client.jetty.JettyClientSlices;
+import com.artipie.pypi.http.PyProxySlice;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Command line entry point of the proxy cache pre-warming.
+ * <p>
+ * Usage: {@code --remote URL [--remote URL]... --cache DIR [--requirements FILE]...
+ * [--concurrency N] [name==version]...}. Files of pinned requirements are downloaded
+ * from the remotes through {@link PyProxySlice} into the cache directory, the directory
+ * can be used as file storage of python proxy repository.
+ *
+ * @since 0.8
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+public final class PrewarmCli {
+
+    /**
+     * Default downloads concurrency.
+     */
+    private static final int CONCURRENCY = 4;
+
+    /**
+     * Command line arguments.
+     */
+    private final String[] args;
+
+    /**
+     * Ctor.
+     * @param args Command line arguments
+     */
+    public PrewarmCli(final String... args) {
+        this.args = args.clone();
+    }
+
+    /**
+     * Entry point.
+     * @param args Command line arguments
+     * @throws Exception On error
+     */
+    @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+    public static void main(final String... args) throws Exception {
+        final int code = new PrewarmCli(args).exec(System.out);
+        if (code != 0) {
+            System.exit(code);
+        }
+    }
+
+    /**
+     * Run pre-warming.
+     * @param out Progress output
+     * @return Exit code: 0 on success, 1 if some requirements failed, 2 on wrong usage
+     * @throws Exception On error
+     */
+    @SuppressWarnings("PMD.CyclomaticComplexity")
+    public int exec(final PrintStream out) throws Exception {
+        final List<URI> remotes = new ArrayList<>(0);
+        final List<Map.Entry<String, String>> reqs = new ArrayList<>(0);
+        final StringBuilder specs = new StringBuilder();
+        Optional<String> cache = Optional.empty();
+        int concurrency = PrewarmCli.CONCURRENCY;
+        for (int idx = 0; idx < this.args.length; idx = idx + 1) {
+            final String arg = this.args[idx];
+            if ("--remote".equals(arg)) {
+                idx = idx + 1;
+                remotes.add(URI.create(this.value(idx)));
+            } else if ("--cache".equals(arg)) {
+                idx = idx + 1;
+                cache = Optional.of(this.value(idx));
+            } else if ("--requirements".equals(arg)) {
+                idx = idx + 1;
+                reqs.addAll(PrewarmCli.read(this.value(idx)));
+            } else if ("--concurrency".equals(arg)) {
+                idx = idx + 1;
+                concurrency = Integer.parseInt(this.value(idx));
+            } else {
+                specs.append(arg).append('\n');
+            }
+        }
+        reqs.addAll(new Requirements(specs.toString()).pinned());
+        final int code;
+        if (remotes.isEmpty() || !cache.isPresent() || reqs.isEmpty() || concurrency < 1) {
+            out.println(
+                String.join(
+                    " ", "Usage: --remote URL [--remote URL]... --cache DIR",
+                    "[--requirements FILE]... [--concurrency N] [name==version]..."
+                )
+            );
+            code = 2;
+        } else {
+            final JettyClientSlices clients = new JettyClientSlices();
+            clients.start();
+            try {
+                final Prewarm.Result res = new Prewarm(
+                    new PyProxySlice(
+                        clients, remotes, Authenticator.ANONYMOUS,
+                        new FileStorage(Paths.get(cache.get()))
+                    ),
+                    concurrency,
+                    out::println
+                ).run(reqs).toCompletableFuture().join();
+                out.printf(
+                    "Cached %d files (%d bytes), %d failures%n",
+                    res.files(), res.bytes(), res.failed().size()
+                );
+                if (res.failed().isEmpty()) {
+                    code = 0;
+                } else {
+                    code = 1;
+                }
+            } finally {
+                clients.stop();
+            }
+        }
+        return code;
+    }
+
+    /**
+     * Option value.
+     * @param idx Value index
+     * @return Value
+     */
+    private String value(final int idx) {
+        if (idx >= this.args.length) {
+            throw new IllegalArgumentException(
+                String.format("Value is missing for %s option", this.args[idx - 1])
+            );
+        }
+        return this.args[idx];
+    }
+
+    /**
+     * Read requirements file.
+     * @param file File path
+     * @return Pinned requirements
+     * @throws IOException On error
+     */
+    private static List<Map.Entry<String, String>> read(final String file) throws IOException {
+        return new Requirements(
+            new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8)
+        ).pinned();
+    }
+}
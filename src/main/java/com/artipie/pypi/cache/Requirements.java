@@ -0,0 +1,69 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.cactoos.map.MapEntry;
+
+/**
+ * Pinned requirements from {@code requirements.txt} or {@code pip-compile} output.
+ * <p>
+ * Only pinned ({@code name==version}) requirements are returned, extras, environment
+ * markers, comments, options (like {@code -r} or {@code --index-url}) and hashes
+ * (including {@code \} continuation lines) are ignored.
+ *
+ * @since 0.8
+ */
+public final class Requirements {
+
+    /**
+     * Pinned requirement: name, optional extras and version.
+     */
+    private static final Pattern PINNED = Pattern.compile(
+        "([A-Za-z0-9][A-Za-z0-9._-]*)\\s*(?:\\[[^]]*])?\\s*===?\\s*([^\\s;,\\\\]+)"
+    );
+
+    /**
+     * Requirements text.
+     */
+    private final String text;
+
+    /**
+     * Ctor.
+     * @param text Requirements text
+     */
+    public Requirements(final String text) {
+        this.text = text;
+    }
+
+    /**
+     * Pinned requirements.
+     * @return List of project name and version entries
+     */
+    public List<Map.Entry<String, String>> pinned() {
+        final List<Map.Entry<String, String>> res = new ArrayList<>(0);
+        for (final String raw : this.text.split("\n")) {
+            String line = raw;
+            final int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("-")) {
+                continue;
+            }
+            final Matcher matcher = Requirements.PINNED.matcher(line);
+            if (matcher.lookingAt()) {
+                res.add(new MapEntry<>(matcher.group(1), matcher.group(2)));
+            }
+        }
+        return Collections.unmodifiableList(res);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.cache;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.cache.Cache;
+import com.artipie.asto.cache.CacheControl;
+import com.artipie.asto.cache.FromRemoteCache;
+import com.artipie.asto.cache.Remote;
+import com.artipie.asto.ext.KeyLastPart;
+import com.artipie.asto.ext.PublisherAs;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * Proxy cache which serves stored items validated by cache control without
+ * requesting remote, e.g. immutable artifacts with {@link CacheControl.Standard#ALWAYS}.
+ * Items which are not stored or not valid, e.g. index pages with
+ * {@link CacheControl.Standard#NO_CACHE}, are loaded with {@link FromRemoteCache}: they are
+ * requested from remote and stored, stored item is served regardless of cache control
+ * if remote is not available.
+ * <p>
+ * Proxy stores index page of the project as {@code <project>/index.html}, previous
+ * versions stored it as {@code <project>}, which file system storage can not keep along
+ * with the project artifacts. Index page stored with the legacy key is moved to the new key
+ * when the page is requested and is not stored with the new key yet, so it is still served
+ * if remote is not available and the legacy item is not left in the storage.
+ *
+ * @since 0.8
+ */
+public final class StorageFirstCache implements Cache {
+
+    /**
+     * File name of proxied index page in the project directory.
+     */
+    private static final String INDEX = "index.html";
+
+    /**
+     * Cache storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Cache to load items from remote.
+     */
+    private final Cache origin;
+
+    /**
+     * Ctor.
+     * @param storage Cache storage
+     */
+    public StorageFirstCache(final Storage storage) {
+        this.storage = storage;
+        this.origin = new FromRemoteCache(storage);
+    }
+
+    @Override
+    public CompletionStage<Optional<? extends Content>> load(
+        final Key key, final Remote remote, final CacheControl control
+    ) {
+        return this.storage.exists(key).thenCompose(
+            exists -> {
+                final CompletionStage<Boolean> stored;
+                if (exists) {
+                    stored = CompletableFuture.completedFuture(true);
+                } else {
+                    stored = this.migrated(key);
+                }
+                return stored;
+            }
+        ).thenCompose(
+            exists -> {
+                final CompletionStage<Boolean> valid;
+                if (exists) {
+                    valid = control.validate(key, remote);
+                } else {
+                    valid = CompletableFuture.completedFuture(false);
+                }
+                return valid;
+            }
+        ).thenCompose(
+            valid -> {
+                final CompletionStage<Optional<? extends Content>> res;
+                if (valid) {
+                    res = this.storage.value(key)
+                        .<Optional<? extends Content>>thenApply(Optional::of)
+                        .handle(
+                            (content, throwable) -> {
+                                final CompletionStage<Optional<? extends Content>> stored;
+                                if (throwable == null) {
+                                    stored = CompletableFuture.completedFuture(content);
+                                } else {
+                                    // item was evicted after the check
+                                    stored = this.origin.load(
+                                        key, remote, CacheControl.Standard.ALWAYS
+                                    );
+                                }
+                                return stored;
+                            }
+                        ).thenCompose(Function.identity());
+                } else {
+                    res = this.origin.load(key, remote, CacheControl.Standard.ALWAYS);
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Move index page stored with legacy key {@code <project>} to the key
+     * {@code <project>/index.html}. Legacy page is read before it is deleted, as file
+     * system storage can not create project directory while the legacy file exists.
+     * @param key Item key
+     * @return True if legacy page was moved to the key
+     */
+    private CompletionStage<Boolean> migrated(final Key key) {
+        final CompletionStage<Boolean> res;
+        final Optional<Key> legacy = key.parent();
+        if (legacy.isPresent() && StorageFirstCache.INDEX.equals(new KeyLastPart(key).get())) {
+            res = this.storage.exists(legacy.get()).thenCompose(
+                exists -> {
+                    final CompletionStage<Boolean> moved;
+                    if (exists) {
+                        moved = this.storage.value(legacy.get())
+                            .thenCompose(content -> new PublisherAs(content).bytes())
+                            .thenCompose(
+                                bytes -> this.storage.delete(legacy.get()).thenCompose(
+                                    nothing -> this.storage.save(key, new Content.From(bytes))
+                                )
+                            ).thenApply(nothing -> true);
+                    } else {
+                        moved = CompletableFuture.completedFuture(false);
+                    }
+                    return moved;
+                }
+            ).exceptionally(err -> false);
+        } else {
+            res = CompletableFuture.completedFuture(false);
+        }
+        return res;
+    }
+}
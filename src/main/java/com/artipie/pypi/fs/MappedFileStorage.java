@@ -0,0 +1,250 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.fs;
+
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.fs.FileStorage;
+import com.artipie.pypi.Blocking;
+import io.reactivex.Flowable;
+import io.reactivex.schedulers.Schedulers;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * File storage which reads values through memory mapped file regions.
+ * <p>
+ * Values are read by {@link FileChannel#map} in regions of up to 64 MB and emitted
+ * as read-only views of the mapped region, no heap buffers are allocated or copied per
+ * chunk. All other operations are performed by {@link FileStorage}.
+ * <p>
+ * Files are opened and mapped on the executor of blocking work, not on the thread
+ * requesting the content. Java unmaps a region only when the region and every chunk emitted
+ * from it become unreachable, so a read holds at most one mapped region at a time and drops
+ * it as soon as the last byte is emitted or the read is cancelled; consumers should not keep
+ * chunks after they are written.
+ *
+ * @since 0.8
+ */
+public final class MappedFileStorage implements Storage {
+
+    /**
+     * Mapped region size.
+     */
+    private static final long REGION = 64L * 1024 * 1024;
+
+    /**
+     * Emitted chunk size.
+     */
+    private static final int CHUNK = 1024 * 1024;
+
+    /**
+     * Storage directory.
+     */
+    private final Path dir;
+
+    /**
+     * File storage.
+     */
+    private final Storage origin;
+
+    /**
+     * Executor of blocking work.
+     */
+    private final Executor blocking;
+
+    /**
+     * Ctor.
+     * @param dir Storage directory
+     */
+    public MappedFileStorage(final Path dir) {
+        this(dir, new Blocking());
+    }
+
+    /**
+     * Ctor.
+     * @param dir Storage directory
+     * @param blocking Executor of blocking work: files opening and mapping
+     */
+    public MappedFileStorage(final Path dir, final Executor blocking) {
+        this.dir = dir;
+        this.origin = new FileStorage(dir);
+        this.blocking = blocking;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exists(final Key key) {
+        return this.origin.exists(key);
+    }
+
+    @Override
+    public CompletableFuture<Collection<Key>> list(final Key prefix) {
+        return this.origin.list(prefix);
+    }
+
+    @Override
+    public CompletableFuture<Void> save(final Key key, final Content content) {
+        return this.origin.save(key, content);
+    }
+
+    @Override
+    public CompletableFuture<Void> move(final Key source, final Key destination) {
+        return this.origin.move(source, destination);
+    }
+
+    @Override
+    public CompletableFuture<Long> size(final Key key) {
+        return this.origin.size(key);
+    }
+
+    @Override
+    public CompletableFuture<Content> value(final Key key) {
+        return this.origin.size(key).thenApply(
+            size -> new Content.From(size, this.read(this.path(key), size))
+        );
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(final Key key) {
+        return this.origin.delete(key);
+    }
+
+    @Override
+    public <T> CompletionStage<T> exclusively(final Key key,
+        final Function<Storage, CompletionStage<T>> operation) {
+        return this.origin.exclusively(key, operation);
+    }
+
+    /**
+     * Path of the key.
+     * @param key Key
+     * @return File path
+     */
+    private Path path(final Key key) {
+        if (Key.ROOT.equals(key)) {
+            throw new ArtipieIOException("Unable to load from root");
+        }
+        return Paths.get(this.dir.toString(), key.string());
+    }
+
+    /**
+     * Read file from mapped regions, file is opened on subscription, opening
+     * and mapping are performed on the executor of blocking work.
+     * @param path File path
+     * @param size File size
+     * @return File bytes
+     */
+    private Flowable<ByteBuffer> read(final Path path, final long size) {
+        return Flowable.using(
+            () -> FileChannel.open(path, StandardOpenOption.READ),
+            channel -> Flowable.<ByteBuffer, Cursor>generate(
+                () -> new Cursor(channel, size),
+                (cursor, emitter) -> {
+                    if (cursor.done()) {
+                        emitter.onComplete();
+                    } else {
+                        emitter.onNext(cursor.next());
+                    }
+                },
+                Cursor::release
+            ),
+            FileChannel::close
+        ).subscribeOn(Schedulers.from(this.blocking));
+    }
+
+    /**
+     * Reading position in mapped file.
+     * @since 0.8
+     */
+    private static final class Cursor {
+
+        /**
+         * File channel.
+         */
+        private final FileChannel channel;
+
+        /**
+         * End position, exclusive.
+         */
+        private final long end;
+
+        /**
+         * Current position.
+         */
+        private long pos;
+
+        /**
+         * Current mapped region.
+         */
+        private MappedByteBuffer region;
+
+        /**
+         * Position of the current region start.
+         */
+        private long start;
+
+        /**
+         * Ctor.
+         * @param channel File channel
+         * @param end End position, exclusive
+         */
+        Cursor(final FileChannel channel, final long end) {
+            this.channel = channel;
+            this.end = end;
+        }
+
+        /**
+         * Are all bytes read? Mapped region is released when done.
+         * @return True if done
+         */
+        boolean done() {
+            final boolean res = this.pos >= this.end;
+            if (res) {
+                this.release();
+            }
+            return res;
+        }
+
+        /**
+         * Release mapped region, so it can be unmapped once emitted chunks are collected.
+         */
+        void release() {
+            this.region = null;
+        }
+
+        /**
+         * Next chunk: view of the mapped region.
+         * @return Chunk
+         * @throws IOException On error
+         */
+        ByteBuffer next() throws IOException {
+            if (this.region == null || this.pos >= this.start + this.region.capacity()) {
+                this.start = this.pos;
+                this.region = this.channel.map(
+                    FileChannel.MapMode.READ_ONLY, this.pos,
+                    Math.min(MappedFileStorage.REGION, this.end - this.pos)
+                );
+            }
+            final ByteBuffer chunk = this.region.duplicate();
+            final int from = (int) (this.pos - this.start);
+            chunk.position(from);
+            chunk.limit(Math.min(from + MappedFileStorage.CHUNK, chunk.capacity()));
+            this.pos = this.pos + chunk.remaining();
+            return chunk;
+        }
+    }
+}
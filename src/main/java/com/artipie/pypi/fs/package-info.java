@@ -0,0 +1,11 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+
+/**
+ * Python adapter file system storage.
+ *
+ * @since 0.8
+ */
+package com.artipie.pypi.fs;
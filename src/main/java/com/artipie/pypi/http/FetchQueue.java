@@ -0,0 +1,348 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.http.Slice;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.pypi.metrics.Metrics;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Upstream fetches scheduler: limits amount of requests in flight to one upstream
+ * and queues the rest by priority.
+ * <p>
+ * Index pages go first, then small artifacts (metadata, source archives and pure python
+ * wheels) and then platform specific wheels, which are usually the largest ones. Requests
+ * of the same priority are started in arrival order. Request slot is occupied until the
+ * response is sent, i.e. until the response body is read. Time spent in the queue by
+ * every request is recorded to {@link Metrics#FETCH_WAIT} timer by {@code upstream} tag,
+ * totals are also exposed by {@link #delay()} and {@link #maxDelay()}.
+ * <p>
+ * Requests completed synchronously, e.g. immediate upstream errors, hand their slot over
+ * to the next waiting request in a loop, not recursively, so a long backlog of such
+ * requests does not grow the stack.
+ *
+ * @since 0.8
+ */
+public final class FetchQueue {
+
+    /**
+     * Artifact path.
+     */
+    private static final Pattern ARTIFACT =
+        Pattern.compile(".*\\.(whl|tar\\.gz|zip|tar\\.bz2|tar\\.Z|tar|egg)");
+
+    /**
+     * Pure python wheel: compatible with any platform and usually small.
+     */
+    private static final Pattern PURE = Pattern.compile(".*-none-any\\.whl");
+
+    /**
+     * Maximum amount of requests in flight.
+     */
+    private final int limit;
+
+    /**
+     * Upstream name to tag metrics with.
+     */
+    private final String upstream;
+
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Waiting requests.
+     */
+    private final Queue<Task> waiting;
+
+    /**
+     * Requests sequence.
+     */
+    private final AtomicLong seq;
+
+    /**
+     * Started requests count.
+     */
+    private final AtomicLong started;
+
+    /**
+     * Total queueing delay in nanoseconds.
+     */
+    private final AtomicLong waited;
+
+    /**
+     * Maximum queueing delay in nanoseconds.
+     */
+    private final AtomicLong longest;
+
+    /**
+     * Requests in flight, guarded by waiting queue.
+     */
+    private int active;
+
+    /**
+     * Ctor.
+     * @param limit Maximum amount of requests in flight
+     */
+    public FetchQueue(final int limit) {
+        this(limit, "", Metrics.NOP);
+    }
+
+    /**
+     * Ctor.
+     * @param limit Maximum amount of requests in flight
+     * @param upstream Upstream name to tag metrics with, e.g. its host
+     * @param metrics Metrics
+     */
+    public FetchQueue(final int limit, final String upstream, final Metrics metrics) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit of requests in flight should be positive");
+        }
+        this.limit = limit;
+        this.upstream = upstream;
+        this.metrics = metrics;
+        this.waiting = new PriorityQueue<>(
+            Comparator.<Task>comparingInt(task -> task.priority).thenComparingLong(task -> task.seq)
+        );
+        this.seq = new AtomicLong();
+        this.started = new AtomicLong();
+        this.waited = new AtomicLong();
+        this.longest = new AtomicLong();
+    }
+
+    /**
+     * Slice which sends requests to origin through this queue.
+     * @param origin Upstream slice
+     * @return Scheduled slice
+     */
+    public Slice slice(final Slice origin) {
+        return (line, headers, body) -> connection -> this.submit(
+            FetchQueue.priority(line),
+            () -> origin.response(line, headers, body).send(connection)
+        );
+    }
+
+    /**
+     * Amount of waiting requests.
+     * @return Queue size
+     */
+    public int waiting() {
+        synchronized (this.waiting) {
+            return this.waiting.size();
+        }
+    }
+
+    /**
+     * Amount of requests in flight.
+     * @return Active requests
+     */
+    public int inflight() {
+        synchronized (this.waiting) {
+            return this.active;
+        }
+    }
+
+    /**
+     * Amount of started requests.
+     * @return Requests count
+     */
+    public long fetches() {
+        return this.started.get();
+    }
+
+    /**
+     * Total time requests spent in the queue.
+     * @param unit Time unit
+     * @return Queueing delay
+     */
+    public long delay(final TimeUnit unit) {
+        return unit.convert(this.waited.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Total time requests spent in the queue.
+     * @return Queueing delay in milliseconds
+     */
+    public long delay() {
+        return this.delay(TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Longest time request spent in the queue.
+     * @return Queueing delay in milliseconds
+     */
+    public long maxDelay() {
+        return TimeUnit.NANOSECONDS.toMillis(this.longest.get());
+    }
+
+    /**
+     * Request priority, lower goes first.
+     * @param line Request line
+     * @return Priority
+     */
+    static int priority(final String line) {
+        final String path = new RequestLineFrom(line).uri().getPath();
+        final int res;
+        if (!FetchQueue.ARTIFACT.matcher(path).matches()) {
+            res = 0;
+        } else if (path.endsWith(".whl") && !FetchQueue.PURE.matcher(path).matches()) {
+            res = 2;
+        } else {
+            res = 1;
+        }
+        return res;
+    }
+
+    /**
+     * Start action when there is a free slot, or queue it.
+     * @param priority Priority
+     * @param action Action
+     * @return Completion of the action
+     */
+    private CompletionStage<Void> submit(final int priority,
+        final Supplier<CompletionStage<Void>> action) {
+        final Task task = new Task(priority, this.seq.getAndIncrement(), action);
+        final boolean start;
+        synchronized (this.waiting) {
+            start = this.active < this.limit;
+            if (start) {
+                this.active = this.active + 1;
+            } else {
+                this.waiting.add(task);
+            }
+        }
+        if (start) {
+            this.run(task);
+        }
+        return task.done;
+    }
+
+    /**
+     * Run task and start the next one when it is done. Tasks completed synchronously
+     * are followed by the next waiting task in this loop, other tasks start the next one
+     * from their completion callback.
+     * @param first Task to run, nothing is run if it is null
+     */
+    private void run(final Task first) {
+        Task task = first;
+        while (task != null) {
+            final Task current = task;
+            final AtomicBoolean inline = new AtomicBoolean(true);
+            this.start(current).whenComplete(
+                (nothing, throwable) -> {
+                    if (throwable == null) {
+                        current.done.complete(nothing);
+                    } else {
+                        current.done.completeExceptionally(throwable);
+                    }
+                    if (!inline.compareAndSet(true, false)) {
+                        this.run(this.next());
+                    }
+                }
+            );
+            if (inline.compareAndSet(true, false)) {
+                task = null;
+            } else {
+                task = this.next();
+            }
+        }
+    }
+
+    /**
+     * Record task queueing delay and start its action.
+     * @param task Task
+     * @return Completion of the action
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private CompletionStage<Void> start(final Task task) {
+        final long delay = System.nanoTime() - task.created;
+        this.started.incrementAndGet();
+        this.waited.addAndGet(delay);
+        this.longest.accumulateAndGet(delay, Math::max);
+        this.metrics.timer(Metrics.FETCH_WAIT, delay, "upstream", this.upstream);
+        CompletionStage<Void> stage;
+        try {
+            stage = task.action.get();
+        // @checkstyle IllegalCatchCheck (1 line)
+        } catch (final RuntimeException err) {
+            final CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(err);
+            stage = failed;
+        }
+        return stage;
+    }
+
+    /**
+     * Release request slot: take next waiting task to run in it or free it.
+     * @return Next task, null if slot is freed
+     */
+    private Task next() {
+        final Task next;
+        synchronized (this.waiting) {
+            next = this.waiting.poll();
+            if (next == null) {
+                this.active = this.active - 1;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Scheduled request.
+     * @since 0.8
+     */
+    private static final class Task {
+
+        /**
+         * Priority.
+         */
+        private final int priority;
+
+        /**
+         * Arrival order.
+         */
+        private final long seq;
+
+        /**
+         * Creation time in nanoseconds.
+         */
+        private final long created;
+
+        /**
+         * Action to run.
+         */
+        private final Supplier<CompletionStage<Void>> action;
+
+        /**
+         * Completion of the action.
+         */
+        private final CompletableFuture<Void> done;
+
+        /**
+         * Ctor.
+         * @param priority Priority
+         * @param seq Arrival order
+         * @param action Action to run
+         */
+        Task(final int priority, final long seq, final Supplier<CompletionStage<Void>> action) {
+            this.priority = priority;
+            this.seq = seq;
+            this.created = System.nanoTime();
+            this.action = action;
+            this.done = new CompletableFuture<>();
+        }
+    }
+}
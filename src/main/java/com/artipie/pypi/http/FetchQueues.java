@@ -0,0 +1,84 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.pypi.metrics.Metrics;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fetch queues of python proxy upstreams, one {@link FetchQueue} per upstream host,
+ * queues report queueing delay to metrics tagged with the upstream host.
+ * @since 0.8
+ */
+public final class FetchQueues {
+
+    /**
+     * Default maximum amount of requests in flight to one upstream host.
+     */
+    public static final int DEFAULT = 32;
+
+    /**
+     * Maximum amount of requests in flight to one upstream host.
+     */
+    private final int limit;
+
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Queues by upstream host.
+     */
+    private final Map<String, FetchQueue> all;
+
+    /**
+     * Ctor with default limit.
+     */
+    public FetchQueues() {
+        this(FetchQueues.DEFAULT);
+    }
+
+    /**
+     * Ctor.
+     * @param limit Maximum amount of requests in flight to one upstream host
+     */
+    public FetchQueues(final int limit) {
+        this(limit, Metrics.NOP);
+    }
+
+    /**
+     * Ctor.
+     * @param limit Maximum amount of requests in flight to one upstream host
+     * @param metrics Metrics
+     */
+    public FetchQueues(final int limit, final Metrics metrics) {
+        this.limit = limit;
+        this.metrics = metrics;
+        this.all = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Queue of the upstream host.
+     * @param uri Upstream URI
+     * @return Fetch queue
+     */
+    public FetchQueue queue(final URI uri) {
+        return this.all.computeIfAbsent(
+            uri.getAuthority(), host -> new FetchQueue(this.limit, host, this.metrics)
+        );
+    }
+
+    /**
+     * Queues by upstream host, e.g. to report their metrics.
+     * @return Queues
+     */
+    public Map<String, FetchQueue> queues() {
+        return Collections.unmodifiableMap(this.all);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.pypi.NormalizedProjectName;
+import com.artipie.pypi.meta.PackageInfo;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Upload form fields describing the uploaded file, sent by twine along with the file:
+ * {@code metadata_version}, {@code name}, {@code version}, {@code sha256_digest} and
+ * others. Declared name and version are checked against metadata read from the file,
+ * declared SHA-256 digest is checked against the file bytes.
+ * @since 0.8
+ */
+final class FormFields {
+
+    /**
+     * Upload form data.
+     */
+    private final Multipart.Data data;
+
+    /**
+     * Ctor.
+     * @param data Upload form data
+     */
+    FormFields(final Multipart.Data data) {
+        this.data = data;
+    }
+
+    /**
+     * Does form declare package metadata?
+     * @return True if metadata version, name and version fields are present
+     */
+    boolean declared() {
+        return this.data.field("metadata_version").isPresent()
+            && this.data.field("name").isPresent()
+            && this.data.field("version").isPresent();
+    }
+
+    /**
+     * Check declared fields correspond to package metadata and file bytes.
+     * @param info Package metadata read from the file
+     * @return The same package metadata
+     * @throws IllegalArgumentException If fields do not correspond
+     */
+    PackageInfo verified(final PackageInfo info) {
+        final Optional<String> name = this.data.field("name");
+        if (name.isPresent() && !new NormalizedProjectName.Simple(name.get()).value()
+            .equals(new NormalizedProjectName.Simple(info.name()).value())) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "Form field name '%s' does not correspond to file metadata name '%s'",
+                    name.get(), info.name()
+                )
+            );
+        }
+        final Optional<String> version = this.data.field("version");
+        if (version.isPresent() && !version.get().trim().equals(info.version())) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "Form field version '%s' does not correspond to file metadata version '%s'",
+                    version.get(), info.version()
+                )
+            );
+        }
+        final Optional<String> digest = this.data.field("sha256_digest")
+            .map(String::trim).filter(value -> !value.isEmpty());
+        if (digest.isPresent() && !digest.get().toLowerCase(Locale.ROOT).equals(this.sha256())) {
+            throw new IllegalArgumentException(
+                "Form field sha256_digest does not correspond to file digest"
+            );
+        }
+        return info;
+    }
+
+    /**
+     * SHA-256 digest of the file.
+     * @return Hex digest
+     */
+    private String sha256() {
+        try {
+            return String.format(
+                "%064x",
+                new BigInteger(1, MessageDigest.getInstance("SHA-256").digest(this.data.bytes()))
+            );
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
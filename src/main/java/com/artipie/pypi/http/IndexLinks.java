@@ -0,0 +1,169 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import io.reactivex.Flowable;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.reactivestreams.Publisher;
+
+/**
+ * Links of the proxied index page (html or json).
+ * <p>
+ * Upstream index pages usually link artifacts by absolute URLs of the files host
+ * (like {@code https://files.pythonhosted.org/packages/../name-0.1.tar.gz#sha256=..}),
+ * this class rewrites such links to point to the proxy, keeping the URL fragment
+ * with the checksum, and finds original artifact URL by the file name.
+ * <p>
+ * Page is rewritten in streaming manner: text is processed up to the last
+ * tag or json value end ({@code >}, {@code ,} or a new line) in the received chunk,
+ * the rest is kept until the next chunk arrives.
+ *
+ * @since 0.8
+ */
+final class IndexLinks {
+
+    /**
+     * Absolute artifact URL, the group is the file name.
+     */
+    private static final Pattern LINK = Pattern.compile(
+        // @checkstyle LineLengthCheck (1 line)
+        "https?://[^\\s\"'<>#?/]+(?:/[^\\s\"'<>#?/]+)*/([^\\s\"'<>#?/]+\\.(?:whl|tar\\.gz|zip|tar\\.bz2|tar\\.Z|tar|egg))(?=[\\s\"'<>#?]|$)"
+    );
+
+    /**
+     * Path where proxy serves project artifacts.
+     */
+    private final String base;
+
+    /**
+     * Ctor.
+     * @param base Path where proxy serves project artifacts, e.g. {@code /my-project}
+     */
+    IndexLinks(final String base) {
+        this.base = base;
+    }
+
+    /**
+     * Rewrite artifacts links of the page.
+     * @param page Index page
+     * @return Page with rewritten links
+     */
+    Publisher<ByteBuffer> rewrite(final Publisher<ByteBuffer> page) {
+        return Flowable.defer(
+            () -> {
+                final Carry carry = new Carry();
+                return Flowable.fromPublisher(page).map(carry::next)
+                    .concatWith(Flowable.fromCallable(carry::last))
+                    .filter(ByteBuffer::hasRemaining);
+            }
+        );
+    }
+
+    /**
+     * Find original URL of the artifact on the index page.
+     * @param page Index page
+     * @param filename Artifact file name
+     * @return Absolute artifact URL if found
+     */
+    static Optional<URI> origin(final String page, final String filename) {
+        final Matcher matcher = IndexLinks.LINK.matcher(page);
+        Optional<URI> res = Optional.empty();
+        while (matcher.find()) {
+            if (matcher.group(1).equals(filename)) {
+                res = Optional.of(URI.create(matcher.group()));
+                break;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Rewrite links in the text.
+     * @param text Text
+     * @return Text with rewritten links
+     */
+    private String rewrite(final String text) {
+        final Matcher matcher = IndexLinks.LINK.matcher(text);
+        final StringBuffer res = new StringBuffer(text.length());
+        while (matcher.find()) {
+            matcher.appendReplacement(
+                res, Matcher.quoteReplacement(String.format("%s/%s", this.base, matcher.group(1)))
+            );
+        }
+        matcher.appendTail(res);
+        return res.toString();
+    }
+
+    /**
+     * Is byte a delimiter after which the text can be rewritten?
+     * @param chr Byte
+     * @return True if delimiter
+     */
+    private static boolean delimiter(final byte chr) {
+        return chr == '>' || chr == ',' || chr == '\n';
+    }
+
+    /**
+     * Part of the page which can not be rewritten yet.
+     * @since 0.8
+     */
+    private final class Carry {
+
+        /**
+         * Pending bytes.
+         */
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+
+        /**
+         * Accept next chunk of the page.
+         * @param chunk Chunk
+         * @return Rewritten part which is ready to be sent
+         */
+        ByteBuffer next(final ByteBuffer chunk) {
+            final byte[] bytes = new byte[chunk.remaining()];
+            chunk.duplicate().get(bytes);
+            int split = bytes.length - 1;
+            while (split >= 0 && !IndexLinks.delimiter(bytes[split])) {
+                split = split - 1;
+            }
+            final ByteBuffer res;
+            if (split < 0) {
+                this.pending.write(bytes, 0, bytes.length);
+                res = ByteBuffer.allocate(0);
+            } else {
+                this.pending.write(bytes, 0, split + 1);
+                res = this.flush();
+                this.pending.write(bytes, split + 1, bytes.length - split - 1);
+            }
+            return res;
+        }
+
+        /**
+         * Rewrite the rest of the page.
+         * @return Rewritten rest
+         */
+        ByteBuffer last() {
+            return this.flush();
+        }
+
+        /**
+         * Rewrite and clear pending bytes.
+         * @return Rewritten bytes
+         */
+        private ByteBuffer flush() {
+            final String text = new String(this.pending.toByteArray(), StandardCharsets.UTF_8);
+            this.pending.reset();
+            return ByteBuffer.wrap(
+                IndexLinks.this.rewrite(text).getBytes(StandardCharsets.UTF_8)
+            );
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.pypi.metrics.Metrics;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.reactivestreams.Publisher;
+
+/**
+ * Slice reporting requests metrics of the route: latency until response is sent, by
+ * response status, requests in flight and response bytes.
+ * @since 0.8
+ */
+final class MeteredSlice implements Slice {
+
+    /**
+     * Origin slice.
+     */
+    private final Slice origin;
+
+    /**
+     * Route name.
+     */
+    private final String route;
+
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     * @param origin Origin slice
+     * @param route Route name
+     * @param metrics Metrics
+     */
+    MeteredSlice(final Slice origin, final String route, final Metrics metrics) {
+        this.origin = origin;
+        this.route = route;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers, final Publisher<ByteBuffer> body) {
+        final Response response = this.origin.response(line, headers, body);
+        return connection -> {
+            final long start = System.nanoTime();
+            final AtomicReference<String> status = new AtomicReference<>("none");
+            this.metrics.gauge(Metrics.INFLIGHT, 1, "route", this.route);
+            return response.send(
+                (rsstatus, rsheaders, rsbody) -> {
+                    status.set(rsstatus.code());
+                    return connection.accept(
+                        rsstatus, rsheaders,
+                        Flowable.fromPublisher(rsbody).doOnNext(
+                            buf -> this.metrics.counter(
+                                Metrics.BYTES, buf.remaining(), "route", this.route
+                            )
+                        )
+                    );
+                }
+            ).whenComplete(
+                (nothing, err) -> {
+                    this.metrics.gauge(Metrics.INFLIGHT, -1, "route", this.route);
+                    this.metrics.timer(
+                        Metrics.REQUESTS, System.nanoTime() - start,
+                        "route", this.route, "status", status.get()
+                    );
+                }
+            );
+        };
+    }
+}
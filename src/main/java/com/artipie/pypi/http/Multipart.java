@@ -5,17 +5,27 @@
 package com.artipie.pypi.http;
 
 import com.artipie.asto.Content;
-import com.artipie.asto.ext.PublisherAs;
+import hu.akarnokd.rxjava2.interop.CompletableInterop;
+import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.function.Function;
 import java.util.stream.StreamSupport;
 import org.apache.commons.fileupload.MultipartStream;
 import org.apache.commons.fileupload.ParameterParser;
@@ -33,11 +43,6 @@ final class Multipart {
      */
     private static final int BUFFER = 4096;
 
-    /**
-     * Pattern to obtain filename from multipart header.
-     */
-    private static final Pattern FILENAME = Pattern.compile(".*filename=\"(.*)\"(.*\\s*)*");
-
     /**
      * Request headers.
      */
@@ -68,10 +73,29 @@ final class Multipart {
      * @return Data.
      */
     public CompletionStage<Data> content() {
-        return new PublisherAs(this.body).bytes()
-            .thenApply(ByteArrayInputStream::new)
-            .thenApply(input -> new MultipartStream(input, this.boundary(), Multipart.BUFFER, null))
-            .thenApply(Multipart::content);
+        return this.content(name -> CompletableFuture.completedFuture(null));
+    }
+
+    /**
+     * Read content of file checking its name as soon as headers of the file part
+     * arrive: if the check fails, the rest of the body is not read.
+     *
+     * @param check File name check.
+     * @return Data.
+     */
+    public CompletionStage<Data> content(
+        final Function<String, CompletionStage<Void>> check
+    ) {
+        return Single.defer(
+            () -> {
+                final Received received = new Received(this.boundary());
+                return Flowable.fromPublisher(this.body).concatMapCompletable(
+                    buf -> received.append(buf)
+                        .map(name -> CompletableInterop.fromFuture(check.apply(name)))
+                        .orElseGet(Completable::complete)
+                ).toSingle(received::stream);
+            }
+        ).map(Multipart::content).to(SingleInterop.get());
     }
 
     /**
@@ -97,30 +121,198 @@ final class Multipart {
     }
 
     /**
-     * Read content of file.
+     * Read content of the first file part and values of form fields.
      *
      * @param stream Multipart stream.
-     * @return Binary content of file.
+     * @return File and fields.
      */
     private static Data content(final MultipartStream stream) {
-        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final Map<String, List<String>> fields = new HashMap<>();
+        String filename = null;
+        byte[] file = null;
         try {
             boolean next = stream.skipPreamble();
             while (next) {
-                final String header = stream.readHeaders();
-                if (header.contains("filename")) {
-                    final Matcher matcher = FILENAME.matcher(header);
+                final PartHeaders headers = new PartHeaders(stream.readHeaders());
+                final Optional<String> fname = headers.filename();
+                final Optional<String> name = headers.name();
+                if (fname.isPresent() && file == null) {
+                    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
                     stream.readBodyData(bos);
-                    matcher.matches();
-                    return new Data(matcher.group(1), bos.toByteArray());
+                    filename = fname.get();
+                    file = bos.toByteArray();
+                } else if (!fname.isPresent() && name.isPresent()) {
+                    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                    stream.readBodyData(bos);
+                    fields.computeIfAbsent(name.get(), key -> new ArrayList<>(1))
+                        .add(new String(bos.toByteArray(), StandardCharsets.UTF_8));
+                } else {
+                    stream.discardBodyData();
                 }
-                stream.discardBodyData();
                 next = stream.readBoundary();
             }
         } catch (final IOException ex) {
             throw new IllegalStateException("Failed to read body as multipart", ex);
         }
-        throw new IllegalStateException("Body has no file data");
+        if (file == null) {
+            throw new IllegalStateException("Body has no file data");
+        }
+        return new Data(filename, file, fields);
+    }
+
+    /**
+     * Body bytes received so far, scanned for the file part headers until they are found.
+     * Every byte is scanned once, except for incomplete part headers, which are limited
+     * in size.
+     * @since 0.8
+     */
+    private static final class Received {
+
+        /**
+         * Max size of part headers, as in {@link MultipartStream}.
+         */
+        private static final int HEADERS_MAX = 10_240;
+
+        /**
+         * End of part headers.
+         */
+        private static final byte[] HEAD_END = {'\r', '\n', '\r', '\n'};
+
+        /**
+         * Part delimiter: dashes and boundary.
+         */
+        private final byte[] delim;
+
+        /**
+         * Boundary.
+         */
+        private final byte[] boundary;
+
+        /**
+         * Received bytes, first {@code size} bytes are used.
+         */
+        private byte[] data;
+
+        /**
+         * Amount of received bytes.
+         */
+        private int size;
+
+        /**
+         * Position to continue scanning from.
+         */
+        private int pos;
+
+        /**
+         * Scanning is done: file part headers are found or body has no more parts.
+         */
+        private boolean done;
+
+        /**
+         * Ctor.
+         * @param boundary Boundary
+         */
+        Received(final byte[] boundary) {
+            this.boundary = boundary;
+            this.delim = new byte[boundary.length + 2];
+            this.delim[0] = '-';
+            this.delim[1] = '-';
+            System.arraycopy(boundary, 0, this.delim, 2, boundary.length);
+            this.data = new byte[Multipart.BUFFER];
+        }
+
+        /**
+         * Append bytes to received ones.
+         * @param buf Bytes
+         * @return File name, if file part headers arrived with these bytes
+         */
+        Optional<String> append(final ByteBuffer buf) {
+            final int len = buf.remaining();
+            if (this.size + len > this.data.length) {
+                this.data = Arrays.copyOf(
+                    this.data, Math.max(this.data.length * 2, this.size + len)
+                );
+            }
+            buf.duplicate().get(this.data, this.size, len);
+            this.size = this.size + len;
+            Optional<String> res = Optional.empty();
+            if (!this.done) {
+                res = this.filename();
+            }
+            return res;
+        }
+
+        /**
+         * Multipart stream of all received bytes.
+         * @return Stream
+         */
+        MultipartStream stream() {
+            return new MultipartStream(
+                new ByteArrayInputStream(this.data, 0, this.size),
+                this.boundary, Multipart.BUFFER, null
+            );
+        }
+
+        /**
+         * Scan received bytes for file part headers.
+         * @return File name if headers of file part are found
+         * @checkstyle NestedIfDepthCheck (50 lines)
+         */
+        @SuppressWarnings("PMD.CognitiveComplexity")
+        private Optional<String> filename() {
+            Optional<String> res = Optional.empty();
+            boolean more = true;
+            while (more && !this.done) {
+                final int idx = this.indexOf(this.delim, this.pos);
+                if (idx < 0) {
+                    this.pos = Math.max(this.pos, this.size - this.delim.length - 1);
+                    more = false;
+                } else if (idx > 0
+                    && (idx < 2 || this.data[idx - 2] != '\r' || this.data[idx - 1] != '\n')) {
+                    this.pos = idx + 1;
+                } else {
+                    final int start = idx + this.delim.length;
+                    final int end = this.indexOf(Received.HEAD_END, start);
+                    if (this.size - start >= 2 && this.data[start] == '-'
+                        && this.data[start + 1] == '-') {
+                        this.done = true;
+                    } else if (end < 0) {
+                        if (this.size - start > Received.HEADERS_MAX) {
+                            throw new IllegalStateException("Part headers are too large");
+                        }
+                        this.pos = idx;
+                        more = false;
+                    } else {
+                        res = new PartHeaders(
+                            new String(this.data, start, end - start, StandardCharsets.UTF_8)
+                        ).filename();
+                        this.pos = end + Received.HEAD_END.length;
+                        this.done = res.isPresent();
+                    }
+                }
+            }
+            return res;
+        }
+
+        /**
+         * Position of bytes sequence in received bytes.
+         * @param seq Bytes sequence
+         * @param from Position to search from
+         * @return Position, negative if not found
+         */
+        private int indexOf(final byte[] seq, final int from) {
+            int res = -1;
+            for (int idx = from; idx <= this.size - seq.length && res < 0; idx = idx + 1) {
+                int len = 0;
+                while (len < seq.length && this.data[idx + len] == seq[len]) {
+                    len = len + 1;
+                }
+                if (len == seq.length) {
+                    res = idx;
+                }
+            }
+            return res;
+        }
     }
 
     /**
@@ -140,14 +332,30 @@ final class Multipart {
          */
         private final byte[] buffer;
 
+        /**
+         * Form fields values by names.
+         */
+        private final Map<String, List<String>> fields;
+
         /**
          * Ctor.
          * @param filename Filename
          * @param buffer Content
          */
         Data(final String filename, final byte[] buffer) {
+            this(filename, buffer, Collections.emptyMap());
+        }
+
+        /**
+         * Ctor.
+         * @param filename Filename
+         * @param buffer Content
+         * @param fields Form fields values by names
+         */
+        Data(final String filename, final byte[] buffer, final Map<String, List<String>> fields) {
             this.fname = filename;
             this.buffer = buffer;
+            this.fields = fields;
         }
 
         /**
@@ -165,5 +373,25 @@ final class Multipart {
         public byte[] bytes() {
             return this.buffer;
         }
+
+        /**
+         * Form fields sent along with the file, e.g. by twine: {@code name},
+         * {@code version}, {@code sha256_digest}, {@code classifiers} and others.
+         * @return Fields values by names, field can have several values
+         */
+        public Map<String, List<String>> fields() {
+            return Collections.unmodifiableMap(this.fields);
+        }
+
+        /**
+         * First value of form field.
+         * @param name Field name
+         * @return Value if field is present
+         */
+        public Optional<String> field(final String name) {
+            return Optional.ofNullable(this.fields.get(name))
+                .filter(values -> !values.isEmpty())
+                .map(values -> values.get(0));
+        }
     }
 }
@@ -0,0 +1,260 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Headers of 'multipart/form-data' body part, see
+ * <a href="https://tools.ietf.org/html/rfc7578#section-4.2">RFC 7578</a>.
+ * <p>
+ * Headers are parsed by single scan of every character, without regular expressions,
+ * so parsing time is linear in headers length for any input. {@code Content-Disposition}
+ * parameters values are tokens or quoted strings, backslash escapes quote and backslash
+ * only: file names with Windows paths are kept as is. File name given as
+ * {@code filename*} extended value, see
+ * <a href="https://tools.ietf.org/html/rfc5987#section-3.2">RFC 5987</a>, is preferred
+ * over {@code filename}. Directories are removed from file name.
+ *
+ * @since 0.8
+ */
+final class PartHeaders {
+
+    /**
+     * Content disposition header.
+     */
+    private static final String DISPOSITION = "content-disposition";
+
+    /**
+     * Headers of the part as returned by multipart stream: lines separated by CRLF.
+     */
+    private final String raw;
+
+    /**
+     * Ctor.
+     * @param raw Headers of the part
+     */
+    PartHeaders(final String raw) {
+        this.raw = raw;
+    }
+
+    /**
+     * Form field name.
+     * @return Name if present
+     */
+    Optional<String> name() {
+        return Optional.ofNullable(this.disposition().get("name"));
+    }
+
+    /**
+     * File name without directories, present only for file parts.
+     * @return File name if present and not empty
+     */
+    Optional<String> filename() {
+        final Map<String, String> params = this.disposition();
+        Optional<String> res = Optional.empty();
+        if (params.containsKey("filename*")) {
+            res = PartHeaders.extended(params.get("filename*"));
+        }
+        if (!res.isPresent() && params.containsKey("filename")) {
+            res = Optional.of(params.get("filename"));
+        }
+        return res.map(PartHeaders::basename).filter(name -> !name.isEmpty());
+    }
+
+    /**
+     * Content type of the part.
+     * @return Content type if present
+     */
+    Optional<String> contentType() {
+        return this.header("content-type");
+    }
+
+    /**
+     * Content disposition parameters by lower case names.
+     * @return Parameters, empty if header is absent
+     */
+    private Map<String, String> disposition() {
+        return this.header(PartHeaders.DISPOSITION).map(PartHeaders::params)
+            .orElseGet(HashMap::new);
+    }
+
+    /**
+     * First header value by name, folded lines are joined. Colon position is searched
+     * once for all lines before it, so lines without colons do not make scan quadratic.
+     * @param name Header name
+     * @return Trimmed value if found
+     */
+    private Optional<String> header(final String name) {
+        Optional<String> res = Optional.empty();
+        int start = 0;
+        int colon = -1;
+        while (start < this.raw.length() && !res.isPresent()) {
+            int end = this.raw.indexOf('\n', start);
+            while (end >= 0 && end + 1 < this.raw.length()
+                && (this.raw.charAt(end + 1) == ' ' || this.raw.charAt(end + 1) == '\t')) {
+                end = this.raw.indexOf('\n', end + 1);
+            }
+            if (end < 0) {
+                end = this.raw.length();
+            }
+            if (colon < start) {
+                colon = this.raw.indexOf(':', start);
+                if (colon < 0) {
+                    colon = this.raw.length();
+                }
+            }
+            if (colon > start && colon < end
+                && this.raw.substring(start, colon).trim().equalsIgnoreCase(name)) {
+                res = Optional.of(
+                    this.raw.substring(colon + 1, end).replace("\r", "").replace("\n", "").trim()
+                );
+            }
+            start = end + 1;
+        }
+        return res;
+    }
+
+    /**
+     * Parameters of header value: disposition type is skipped, parameters are
+     * separated by semicolons, values are tokens or quoted strings.
+     * @param value Header value
+     * @return Parameters by lower case names, first occurrence wins
+     * @checkstyle CyclomaticComplexityCheck (50 lines)
+     * @checkstyle ExecutableStatementCountCheck (50 lines)
+     */
+    @SuppressWarnings({"PMD.CyclomaticComplexity", "PMD.CognitiveComplexity"})
+    private static Map<String, String> params(final String value) {
+        final Map<String, String> res = new HashMap<>();
+        int pos = value.indexOf(';');
+        if (pos < 0) {
+            pos = value.length();
+        }
+        final int len = value.length();
+        while (pos < len) {
+            while (pos < len
+                && (value.charAt(pos) == ';' || Character.isWhitespace(value.charAt(pos)))) {
+                pos = pos + 1;
+            }
+            final int start = pos;
+            while (pos < len && value.charAt(pos) != '=' && value.charAt(pos) != ';') {
+                pos = pos + 1;
+            }
+            final String name = value.substring(start, pos).trim().toLowerCase(Locale.ROOT);
+            final StringBuilder val = new StringBuilder();
+            if (pos < len && value.charAt(pos) == '=') {
+                pos = pos + 1;
+                while (pos < len && Character.isWhitespace(value.charAt(pos))) {
+                    pos = pos + 1;
+                }
+                if (pos < len && value.charAt(pos) == '"') {
+                    pos = pos + 1;
+                    while (pos < len && value.charAt(pos) != '"') {
+                        if (value.charAt(pos) == '\\' && pos + 1 < len
+                            && (value.charAt(pos + 1) == '"' || value.charAt(pos + 1) == '\\')) {
+                            pos = pos + 1;
+                        }
+                        val.append(value.charAt(pos));
+                        pos = pos + 1;
+                    }
+                    while (pos < len && value.charAt(pos) != ';') {
+                        pos = pos + 1;
+                    }
+                } else {
+                    final int tstart = pos;
+                    while (pos < len && value.charAt(pos) != ';') {
+                        pos = pos + 1;
+                    }
+                    val.append(value, tstart, pos);
+                }
+            }
+            if (!name.isEmpty() && !res.containsKey(name)) {
+                res.put(name, val.toString().trim());
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Decode extended parameter value: charset, optional language and percent-encoded
+     * bytes separated by single quotes.
+     * @param value Extended value
+     * @return Decoded value, empty if value is malformed or charset is not supported
+     */
+    private static Optional<String> extended(final String value) {
+        final int first = value.indexOf('\'');
+        final int second = value.indexOf('\'', first + 1);
+        Optional<String> res = Optional.empty();
+        if (first > 0 && second > first) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(value.length());
+            boolean valid = true;
+            int pos = second + 1;
+            while (pos < value.length() && valid) {
+                final char chr = value.charAt(pos);
+                if (chr == '%') {
+                    final int high = PartHeaders.hex(value, pos + 1);
+                    final int low = PartHeaders.hex(value, pos + 2);
+                    valid = high >= 0 && low >= 0;
+                    bytes.write(high * 16 + low);
+                    pos = pos + 3;
+                } else {
+                    valid = chr < 128;
+                    bytes.write(chr);
+                    pos = pos + 1;
+                }
+            }
+            if (valid) {
+                res = PartHeaders.charset(value.substring(0, first))
+                    .map(charset -> new String(bytes.toByteArray(), charset));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Hex digit value at position.
+     * @param value String
+     * @param pos Position
+     * @return Digit value, negative if position is out of string or it is not hex digit
+     */
+    private static int hex(final String value, final int pos) {
+        int res = -1;
+        if (pos < value.length()) {
+            res = Character.digit(value.charAt(pos), 16);
+        }
+        return res;
+    }
+
+    /**
+     * Charset by name.
+     * @param name Charset name
+     * @return Charset if supported
+     */
+    private static Optional<Charset> charset(final String name) {
+        Optional<Charset> res;
+        try {
+            res = Optional.of(Charset.forName(name.trim()));
+        } catch (final IllegalCharsetNameException | UnsupportedCharsetException ex) {
+            res = Optional.empty();
+        }
+        return res;
+    }
+
+    /**
+     * File name without directories.
+     * @param name File name
+     * @return Last path segment
+     */
+    private static String basename(final String name) {
+        return name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1);
+    }
+}
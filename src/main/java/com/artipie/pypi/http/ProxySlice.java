@@ -10,23 +10,34 @@ import com.artipie.asto.cache.Cache;
 import com.artipie.asto.cache.CacheControl;
 import com.artipie.asto.cache.Remote;
 import com.artipie.asto.ext.KeyLastPart;
+import com.artipie.asto.ext.PublisherAs;
 import com.artipie.http.Headers;
 import com.artipie.http.Response;
 import com.artipie.http.Slice;
 import com.artipie.http.async.AsyncResponse;
 import com.artipie.http.headers.Header;
+import com.artipie.http.rq.RequestLine;
 import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RequestLinePrefix;
+import com.artipie.http.rq.RqMethod;
 import com.artipie.http.rs.RsFull;
 import com.artipie.http.rs.RsStatus;
 import com.artipie.http.rs.RsWithStatus;
 import com.artipie.http.slice.KeyFromPath;
 import com.artipie.pypi.NormalizedProjectName;
+import com.artipie.pypi.jfr.Span;
+import com.artipie.pypi.jfr.Trace;
+import com.artipie.pypi.metrics.Metrics;
 import io.reactivex.Flowable;
 import java.net.URI;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.StreamSupport;
@@ -41,9 +52,21 @@ import org.reactivestreams.Publisher;
 final class ProxySlice implements Slice {
 
     /**
-     * Python artifacts formats.
+     * Python artifacts formats, including core metadata files of artifacts (PEP 658).
      */
-    private static final String FORMATS = ".*\\.(whl|tar\\.gz|zip|tar\\.bz2|tar\\.Z|tar|egg)";
+    private static final String FORMATS =
+        ".*\\.(whl|tar\\.gz|zip|tar\\.bz2|tar\\.Z|tar|egg)(\\.metadata)?";
+
+    /**
+     * Core metadata file extension.
+     */
+    private static final String METADATA = ".metadata";
+
+    /**
+     * File name of cached index page in the project directory: the page is stored
+     * apart from the project artifacts, so file system storage can keep both.
+     */
+    private static final String INDEX = "index.html";
 
     /**
      * Origin.
@@ -55,57 +78,107 @@ final class ProxySlice implements Slice {
      */
     private final Cache cache;
 
+    /**
+     * Slices to access artifacts by absolute URLs from upstream index pages: function
+     * accepts URI with scheme and authority only. When empty, index pages are returned as is.
+     */
+    private final Optional<Function<URI, Slice>> files;
+
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
     /**
      * Ctor.
      * @param origin Origin
      * @param cache Cache
      */
     ProxySlice(final Slice origin, final Cache cache) {
+        this(origin, cache, Optional.empty(), Metrics.NOP);
+    }
+
+    /**
+     * Ctor for proxy which rewrites absolute artifacts links of index pages to itself,
+     * so artifacts are downloaded through the proxy and cached.
+     * @param origin Origin
+     * @param cache Cache
+     * @param files Slices to access artifacts by absolute URLs
+     */
+    ProxySlice(final Slice origin, final Cache cache, final Function<URI, Slice> files) {
+        this(origin, cache, files, Metrics.NOP);
+    }
+
+    /**
+     * Ctor for proxy which rewrites absolute artifacts links of index pages to itself
+     * and reports cache hits and misses.
+     * @param origin Origin
+     * @param cache Cache
+     * @param files Slices to access artifacts by absolute URLs
+     * @param metrics Metrics
+     */
+    ProxySlice(final Slice origin, final Cache cache, final Function<URI, Slice> files,
+        final Metrics metrics) {
+        this(origin, cache, Optional.of(files), metrics);
+    }
+
+    /**
+     * Primary ctor.
+     * @param origin Origin
+     * @param cache Cache
+     * @param files Slices to access artifacts by absolute URLs
+     * @param metrics Metrics
+     */
+    private ProxySlice(final Slice origin, final Cache cache,
+        final Optional<Function<URI, Slice>> files, final Metrics metrics) {
         this.origin = origin;
         this.cache = cache;
+        this.files = files;
+        this.metrics = metrics;
     }
 
     @Override
     public Response response(
-        final String line, final Iterable<Map.Entry<String, String>> ignored,
+        final String line, final Iterable<Map.Entry<String, String>> rqheaders,
         final Publisher<ByteBuffer> pub
     ) {
-        final AtomicReference<Headers> headers = new AtomicReference<>();
+        final AtomicReference<Headers> headers = new AtomicReference<>(Headers.EMPTY);
+        final Key key = ProxySlice.keyFromPath(line);
+        final AtomicBoolean requested = new AtomicBoolean();
+        final AtomicBoolean missed = new AtomicBoolean();
+        final Span loading = Trace.FETCH.start("load");
+        CacheControl control = CacheControl.Standard.NO_CACHE;
+        if (ProxySlice.artifact(line)) {
+            control = CacheControl.Standard.ALWAYS;
+        }
         return new AsyncResponse(
             this.cache.load(
-                ProxySlice.keyFromPath(line),
+                key,
                 new Remote.WithErrorHandling(
                     () -> {
-                        final CompletableFuture<Optional<? extends Content>> promise =
-                            new CompletableFuture<>();
-                        this.origin.response(line, Headers.EMPTY, Content.EMPTY).send(
-                            (rsstatus, rsheaders, rsbody) -> {
-                                final CompletableFuture<Void> term = new CompletableFuture<>();
-                                headers.set(rsheaders);
-                                if (rsstatus.success()) {
-                                    final Flowable<ByteBuffer> body = Flowable.fromPublisher(rsbody)
-                                        .doOnError(term::completeExceptionally)
-                                        .doOnTerminate(() -> term.complete(null));
-                                    promise.complete(Optional.of(new Content.From(body)));
-                                } else {
-                                    promise.complete(Optional.empty());
-                                }
-                                return term;
+                        requested.set(true);
+                        return this.remote(key, line, headers).thenApply(
+                            remote -> {
+                                missed.set(remote.isPresent());
+                                return remote;
                             }
                         );
-                        return promise;
                     }
                 ),
-                CacheControl.Standard.ALWAYS
+                control
             ).handle(
                 (content, throwable) -> {
+                    if (throwable == null && content.isPresent()) {
+                        this.access(line, requested.get(), missed.get());
+                    }
+                    ProxySlice.loaded(loading, key, content);
                     final CompletableFuture<Response> result = new CompletableFuture<>();
                     if (throwable == null && content.isPresent()) {
                         result.complete(
                             new RsFull(
                                 RsStatus.OK,
                                 new Headers.From(ProxySlice.contentType(headers.get(), line)),
-                                content.get()
+                                this.body(key, line, rqheaders, content.get())
                             )
                         );
                     } else {
@@ -117,6 +190,203 @@ final class ProxySlice implements Slice {
         );
     }
 
+    /**
+     * Report access to the item served by the proxy: {@code hit} if item is served from
+     * cache without remote request, {@code miss} if item is loaded from remote and
+     * {@code stale} if item is served from cache because remote is not available.
+     * @param line Request line
+     * @param requested Was remote requested
+     * @param missed Was item loaded from remote
+     */
+    private void access(final String line, final boolean requested, final boolean missed) {
+        String result = "hit";
+        if (missed) {
+            result = "miss";
+        } else if (requested) {
+            result = "stale";
+        }
+        String item = "index";
+        if (ProxySlice.artifact(line)) {
+            item = "artifact";
+        }
+        this.metrics.counter(Metrics.CACHE, 1, "result", result, "item", item);
+    }
+
+    /**
+     * Response body: index pages links are rewritten if files slices are present.
+     * @param key Item key
+     * @param line Request line
+     * @param headers Request headers
+     * @param content Cached content
+     * @return Response body
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private Content body(final Key key, final String line,
+        final Iterable<Map.Entry<String, String>> headers, final Content content) {
+        final Content res;
+        if (this.files.isPresent() && !ProxySlice.artifact(line)) {
+            res = new Content.From(
+                new IndexLinks(
+                    String.format(
+                        "%s/%s",
+                        new RequestLinePrefix(new RequestLineFrom(line).uri().getPath(), headers)
+                            .get(),
+                        key.parent().get().string()
+                    )
+                ).rewrite(content)
+            );
+        } else {
+            res = content;
+        }
+        return res;
+    }
+
+    /**
+     * Load item from remote: artifacts linked by absolute URLs from cached index page
+     * are loaded from files slices, everything else is loaded from origin.
+     * @param key Item key
+     * @param line Request line
+     * @param headers Reference to save remote response headers to
+     * @return Content if found
+     */
+    private CompletionStage<Optional<? extends Content>> remote(final Key key, final String line,
+        final AtomicReference<Headers> headers) {
+        final CompletionStage<Optional<? extends Content>> res;
+        if (this.files.isPresent() && ProxySlice.artifact(line) && key.parent().isPresent()) {
+            res = this.originUrl(key).thenCompose(
+                url -> {
+                    final CompletionStage<Optional<? extends Content>> loaded;
+                    if (url.isPresent()) {
+                        final URI uri = url.get();
+                        loaded = ProxySlice.fetch(
+                            this.files.get().apply(
+                                URI.create(
+                                    String.format("%s://%s", uri.getScheme(), uri.getRawAuthority())
+                                )
+                            ),
+                            new RequestLine(RqMethod.GET, uri.getRawPath()).toString(),
+                            headers
+                        );
+                    } else {
+                        loaded = ProxySlice.fetch(this.origin, line, headers);
+                    }
+                    return loaded;
+                }
+            );
+        } else {
+            res = ProxySlice.fetch(this.origin, line, headers);
+        }
+        return res;
+    }
+
+    /**
+     * Find original absolute URL of the artifact in cached project index page, URL of
+     * artifact core metadata file is the URL of the artifact with {@code .metadata}
+     * extension.
+     * @param key Artifact key
+     * @return URL if found
+     */
+    private CompletionStage<Optional<URI>> originUrl(final Key key) {
+        final String name = new KeyLastPart(key).get();
+        final String suffix;
+        if (name.endsWith(ProxySlice.METADATA)) {
+            suffix = ProxySlice.METADATA;
+        } else {
+            suffix = "";
+        }
+        final String filename = name.substring(0, name.length() - suffix.length());
+        return this.cache.load(
+            new Key.From(key.parent().get(), ProxySlice.INDEX), Remote.EMPTY,
+            CacheControl.Standard.ALWAYS
+        ).thenCompose(
+            content -> {
+                final CompletionStage<Optional<URI>> res;
+                if (content.isPresent()) {
+                    res = new PublisherAs(content.get()).string(StandardCharsets.UTF_8)
+                        .thenApply(
+                            page -> IndexLinks.origin(page, filename).map(
+                                uri -> URI.create(String.format("%s%s", uri, suffix))
+                            )
+                        );
+                } else {
+                    res = CompletableFuture.completedFuture(Optional.empty());
+                }
+                return res;
+            }
+        ).exceptionally(err -> Optional.empty());
+    }
+
+    /**
+     * Request item from remote slice. Response is sent, e.g. upstream connection or
+     * fetch queue slot is released, when success response body is read by the cache or
+     * when body of unsuccessful response is cancelled.
+     * @param slice Remote slice
+     * @param line Request line
+     * @param headers Reference to save remote response headers to
+     * @return Content if remote responded with success
+     */
+    private static CompletionStage<Optional<? extends Content>> fetch(final Slice slice,
+        final String line, final AtomicReference<Headers> headers) {
+        final CompletableFuture<Optional<? extends Content>> promise = new CompletableFuture<>();
+        final Span fetching = Trace.FETCH.start("fetch");
+        slice.response(line, Headers.EMPTY, Content.EMPTY).send(
+            (rsstatus, rsheaders, rsbody) -> {
+                final CompletableFuture<Void> term = new CompletableFuture<>();
+                headers.set(rsheaders);
+                if (rsstatus.success()) {
+                    final AtomicLong size = new AtomicLong();
+                    final Flowable<ByteBuffer> body = Flowable.fromPublisher(rsbody)
+                        .doOnNext(buf -> size.addAndGet(buf.remaining()))
+                        .doOnError(term::completeExceptionally)
+                        .doOnTerminate(
+                            () -> {
+                                fetching.end(
+                                    null, size.get(), new RequestLineFrom(line).uri().getPath()
+                                );
+                                term.complete(null);
+                            }
+                        );
+                    promise.complete(Optional.of(new Content.From(body)));
+                } else {
+                    fetching.end(null, -1, new RequestLineFrom(line).uri().getPath());
+                    Flowable.fromPublisher(rsbody).take(0).ignoreElements().subscribe(
+                        () -> term.complete(null), term::completeExceptionally
+                    );
+                    promise.complete(Optional.empty());
+                }
+                return term;
+            }
+        );
+        return promise;
+    }
+
+    /**
+     * End loading span, project name is computed only if span is recorded.
+     * @param span Loading span
+     * @param key Item key
+     * @param content Loaded content
+     */
+    private static void loaded(final Span span, final Key key,
+        final Optional<? extends Content> content) {
+        if (span != Span.NONE) {
+            final Key project = key.parent().orElse(key);
+            long size = -1;
+            if (content != null && content.isPresent()) {
+                size = content.get().size().orElse(-1L);
+            }
+            span.end(new KeyLastPart(project).get(), size, key.string());
+        }
+    }
+
+    /**
+     * Is request line requests an artifact?
+     * @param line Request line
+     * @return True if artifact is requested
+     */
+    private static boolean artifact(final String line) {
+        return new RequestLineFrom(line).uri().toString().matches(ProxySlice.FORMATS);
+    }
+
     /**
      * Obtains content-type from remote's headers or trays to guess it by request line.
      * @param headers Header
@@ -130,7 +400,7 @@ final class ProxySlice implements Slice {
             .findFirst().map(Header::new).orElseGet(
                 () -> {
                     Header res = new Header(name, "text/html");
-                    if (new RequestLineFrom(line).uri().toString().matches(ProxySlice.FORMATS)) {
+                    if (ProxySlice.artifact(line)) {
                         res = new Header(name, "multipart/form-data");
                     }
                     return res;
@@ -139,19 +409,23 @@ final class ProxySlice implements Slice {
     }
 
     /**
-     * Obtains key from request line with names normalization.
+     * Obtains key from request line with names normalization, index page is stored
+     * in the project directory, see {@link #INDEX}.
      * @param line Request line
      * @return Instance of {@link Key}.
      */
     private static Key keyFromPath(final String line) {
         final URI uri = new RequestLineFrom(line).uri();
         Key res = new KeyFromPath(uri.getPath());
-        if (!uri.toString().matches(ProxySlice.FORMATS)) {
+        if (!ProxySlice.artifact(line)) {
             final String last = new KeyLastPart(res).get();
             res = new Key.From(
-                res.string().replaceAll(
-                    String.format("%s$", last), new NormalizedProjectName.Simple(last).value()
-                )
+                new Key.From(
+                    res.string().replaceAll(
+                        String.format("%s$", last), new NormalizedProjectName.Simple(last).value()
+                    )
+                ),
+                ProxySlice.INDEX
             );
         }
         return res;
@@ -5,7 +5,7 @@
 package com.artipie.pypi.http;
 
 import com.artipie.asto.Storage;
-import com.artipie.asto.cache.FromRemoteCache;
+import com.artipie.asto.cache.Cache;
 import com.artipie.http.Slice;
 import com.artipie.http.client.ClientSlices;
 import com.artipie.http.client.UriClientSlice;
@@ -19,7 +19,14 @@ import com.artipie.http.rt.RtRule;
 import com.artipie.http.rt.RtRulePath;
 import com.artipie.http.rt.SliceRoute;
 import com.artipie.http.slice.SliceSimple;
+import com.artipie.pypi.cache.StorageFirstCache;
+import com.artipie.pypi.metrics.Metrics;
 import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Python proxy slice.
@@ -46,28 +53,214 @@ public final class PyProxySlice extends Slice.Wrap {
      * @param cache Repository cache storage
      * @checkstyle ParameterNumberCheck (500 lines)
      */
-    @SuppressWarnings("PMD.UnusedFormalParameter")
     public PyProxySlice(
         final ClientSlices clients,
         final URI remote,
         final Authenticator auth,
         final Storage cache
+    ) {
+        this(clients, Collections.singletonList(remote), auth, cache);
+    }
+
+    /**
+     * Ctor for proxy with several remotes (mirrors).
+     * @param clients Http clients
+     * @param remotes Remote URIs
+     * @param auth Authenticator
+     * @param cache Repository cache storage
+     */
+    public PyProxySlice(
+        final ClientSlices clients,
+        final List<URI> remotes,
+        final Authenticator auth,
+        final Storage cache
+    ) {
+        this(clients, remotes, auth, new StorageFirstCache(cache), new Settings());
+    }
+
+    /**
+     * Ctor for proxy with several remotes (mirrors), custom cache, e.g.
+     * {@link com.artipie.pypi.cache.EvictingCache}, and optional settings. Cache is asked
+     * to load artifacts with {@link com.artipie.asto.cache.CacheControl.Standard#ALWAYS}
+     * and index pages with {@link com.artipie.asto.cache.CacheControl.Standard#NO_CACHE},
+     * it should serve stored index pages when remote is not available, as
+     * {@link StorageFirstCache} does.
+     * Remotes health is tracked passively, requests are sent to the fastest healthy remote
+     * and fail over to the next one on errors. Absolute artifacts links of remote index
+     * pages are rewritten to point to this proxy, so artifacts are downloaded through it
+     * and cached. Requests to every upstream host go through its {@link FetchQueue}.
+     * @param clients Http clients
+     * @param remotes Remote URIs
+     * @param auth Authenticator
+     * @param cache Repository cache
+     * @param settings Proxy settings
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public PyProxySlice(
+        final ClientSlices clients,
+        final List<URI> remotes,
+        final Authenticator auth,
+        final Cache cache,
+        final Settings settings
+    ) {
+        this(
+            clients, remotes, auth, cache, settings.hedge,
+            settings.queues.orElseGet(
+                () -> new FetchQueues(FetchQueues.DEFAULT, settings.metrics)
+            ),
+            settings.metrics
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param clients Http clients
+     * @param remotes Remote URIs
+     * @param auth Authenticator
+     * @param cache Repository cache
+     * @param hedge Delay to send hedged request to the next remote, empty to disable
+     * @param queues Upstream fetch queues
+     * @param metrics Metrics
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    private PyProxySlice(
+        final ClientSlices clients,
+        final List<URI> remotes,
+        final Authenticator auth,
+        final Cache cache,
+        final Optional<Duration> hedge,
+        final FetchQueues queues,
+        final Metrics metrics
     ) {
         super(
-            new SliceRoute(
-                new RtRulePath(
-                    new ByMethodsRule(RqMethod.GET),
-                    new ProxySlice(
-                        new AuthClientSlice(new UriClientSlice(clients, remote), auth),
-                        new FromRemoteCache(cache)
+            new MeteredSlice(
+                new SliceRoute(
+                    new RtRulePath(
+                        new ByMethodsRule(RqMethod.GET),
+                        new ProxySlice(
+                            new UpstreamsSlice(
+                                remotes.stream().map(
+                                    remote -> new Upstream(
+                                        remote.toString(),
+                                        queues.queue(remote).slice(
+                                            new AuthClientSlice(
+                                                new UriClientSlice(clients, remote), auth
+                                            )
+                                        )
+                                    )
+                                ).collect(Collectors.toList()),
+                                hedge
+                            ),
+                            cache,
+                            uri -> queues.queue(uri).slice(
+                                PyProxySlice.files(clients, remotes, auth, uri)
+                            ),
+                            metrics
+                        )
+                    ),
+                    new RtRulePath(
+                        RtRule.FALLBACK,
+                        new SliceSimple(new RsWithStatus(RsStatus.METHOD_NOT_ALLOWED))
                     )
                 ),
-                new RtRulePath(
-                    RtRule.FALLBACK,
-                    new SliceSimple(new RsWithStatus(RsStatus.METHOD_NOT_ALLOWED))
-                )
+                "proxy",
+                metrics
             )
         );
     }
 
+    /**
+     * Slice to access artifacts by absolute URL. Authenticator is used only for
+     * the hosts of the remotes, credentials are never sent to other hosts.
+     * @param clients Http clients
+     * @param remotes Remote URIs
+     * @param auth Authenticator
+     * @param uri Artifacts URI with scheme and authority
+     * @return Slice
+     */
+    private static Slice files(final ClientSlices clients, final List<URI> remotes,
+        final Authenticator auth, final URI uri) {
+        final Slice res;
+        if (remotes.stream().anyMatch(remote -> uri.getAuthority().equals(remote.getAuthority()))) {
+            res = new AuthClientSlice(new UriClientSlice(clients, uri), auth);
+        } else {
+            res = new UriClientSlice(clients, uri);
+        }
+        return res;
+    }
+
+    /**
+     * Optional settings of the proxy, every setting has default value.
+     * Settings are immutable, every {@code with} method returns new settings.
+     * @since 0.8
+     */
+    public static final class Settings {
+
+        /**
+         * Delay to send hedged request to the next remote, empty to disable.
+         */
+        private final Optional<Duration> hedge;
+
+        /**
+         * Upstream fetch queues, empty for default queues.
+         */
+        private final Optional<FetchQueues> queues;
+
+        /**
+         * Metrics.
+         */
+        private final Metrics metrics;
+
+        /**
+         * Default settings: no hedged requests, default upstream fetch queues and
+         * no metrics.
+         */
+        public Settings() {
+            this(Optional.empty(), Optional.empty(), Metrics.NOP);
+        }
+
+        /**
+         * Ctor.
+         * @param hedge Delay to send hedged request to the next remote, empty to disable
+         * @param queues Upstream fetch queues, empty for default queues
+         * @param metrics Metrics
+         */
+        private Settings(final Optional<Duration> hedge, final Optional<FetchQueues> queues,
+            final Metrics metrics) {
+            this.hedge = hedge;
+            this.queues = queues;
+            this.metrics = metrics;
+        }
+
+        /**
+         * Send hedged request to the next remote if the first one does not respond
+         * within given delay.
+         * @param value Delay to send hedged request
+         * @return Settings
+         */
+        public Settings withHedge(final Duration value) {
+            return new Settings(Optional.of(value), this.queues, this.metrics);
+        }
+
+        /**
+         * Send requests to upstream hosts through given fetch queues. Queues report
+         * queueing delay to metrics they are created with; default queues report it to
+         * the proxy metrics.
+         * @param value Upstream fetch queues
+         * @return Settings
+         */
+        public Settings withQueues(final FetchQueues value) {
+            return new Settings(this.hedge, Optional.of(value), this.metrics);
+        }
+
+        /**
+         * Report requests metrics by {@code proxy} route, cache hits and misses and
+         * queueing delay of default fetch queues.
+         * @param value Metrics
+         * @return Settings
+         */
+        public Settings withMetrics(final Metrics value) {
+            return new Settings(this.hedge, this.queues, value);
+        }
+    }
 }
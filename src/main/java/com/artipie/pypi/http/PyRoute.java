@@ -0,0 +1,154 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RqMethod;
+import java.util.Map;
+
+/**
+ * Routes of python repository.
+ * <p>
+ * Request is sorted into the route in one pass over its method, path and content-type
+ * headers, without regular expressions: the route is the same as the one
+ * matched by path and content-type patterns of {@link PySlice} routes.
+ *
+ * @since 0.8
+ */
+enum PyRoute {
+
+    /**
+     * Artifact download: GET of wheel, sdist, egg or core metadata file of wheel.
+     */
+    ARTIFACT,
+
+    /**
+     * Artifact upload: POST of multipart form.
+     */
+    UPLOAD,
+
+    /**
+     * Search: POST of XML-RPC text.
+     */
+    SEARCH,
+
+    /**
+     * Index page: GET of root or project path.
+     */
+    INDEX,
+
+    /**
+     * Redirect to normalized project name: any other GET.
+     */
+    REDIRECT,
+
+    /**
+     * Not found: any other request.
+     */
+    NOT_FOUND;
+
+    /**
+     * Artifact file extensions, including core metadata file extension.
+     */
+    private static final String[] EXTENSIONS = {
+        ".whl", ".tar.gz", ".zip", ".tar.bz2", ".tar.Z", ".tar", ".egg", ".metadata",
+    };
+
+    /**
+     * Route of the request.
+     * @param line Request line
+     * @param headers Request headers
+     * @return Route
+     */
+    static PyRoute of(final String line, final Iterable<Map.Entry<String, String>> headers) {
+        final RequestLineFrom rql = new RequestLineFrom(line);
+        final RqMethod method = rql.method();
+        final PyRoute res;
+        if (method == RqMethod.GET) {
+            final String path = rql.uri().getPath();
+            if (PyRoute.artifact(path)) {
+                res = ARTIFACT;
+            } else if (PyRoute.index(path)) {
+                res = INDEX;
+            } else {
+                res = REDIRECT;
+            }
+        } else if (method == RqMethod.POST) {
+            res = PyRoute.form(headers);
+        } else {
+            res = NOT_FOUND;
+        }
+        return res;
+    }
+
+    /**
+     * Is path an artifact path?
+     * @param path Path
+     * @return True if path has artifact extension
+     */
+    private static boolean artifact(final String path) {
+        boolean res = false;
+        for (final String ext : PyRoute.EXTENSIONS) {
+            if (path.endsWith(ext)) {
+                res = true;
+                break;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Is path an index path: root or path ending with project name segment,
+     * which consists of lowercase letters, digits and dashes, with optional slash?
+     * @param path Path
+     * @return True if path is index path
+     */
+    private static boolean index(final String path) {
+        boolean res = "/".equals(path);
+        if (!res) {
+            int end = path.length();
+            if (end > 0 && path.charAt(end - 1) == '/') {
+                end = end - 1;
+            }
+            int pos = end - 1;
+            while (pos >= 0 && PyRoute.name(path.charAt(pos))) {
+                pos = pos - 1;
+            }
+            res = pos >= 0 && pos < end - 1 && path.charAt(pos) == '/';
+        }
+        return res;
+    }
+
+    /**
+     * Is char allowed in project name segment of index path?
+     * @param chr Char
+     * @return True if allowed
+     */
+    private static boolean name(final char chr) {
+        return chr >= 'a' && chr <= 'z' || chr >= '0' && chr <= '9' || chr == '-';
+    }
+
+    /**
+     * Route of POST request by content type: multipart form is upload, text is search.
+     * @param headers Request headers
+     * @return Route
+     */
+    private static PyRoute form(final Iterable<Map.Entry<String, String>> headers) {
+        PyRoute res = NOT_FOUND;
+        for (final Map.Entry<String, String> header : headers) {
+            if ("content-type".equalsIgnoreCase(header.getKey())) {
+                final String type = header.getValue();
+                if (type.regionMatches(true, 0, "multipart", 0, "multipart".length())) {
+                    res = UPLOAD;
+                    break;
+                }
+                if (type.regionMatches(true, 0, "text", 0, "text".length())) {
+                    res = SEARCH;
+                }
+            }
+        }
+        return res;
+    }
+}
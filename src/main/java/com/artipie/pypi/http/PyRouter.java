@@ -0,0 +1,71 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithStatus;
+import com.artipie.pypi.metrics.Metrics;
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.reactivestreams.Publisher;
+
+/**
+ * Python repository router: request is sorted into {@link PyRoute} once and is passed
+ * to the slice of the route. Requests of routes without slice get 404.
+ * @since 0.8
+ */
+final class PyRouter implements Slice {
+
+    /**
+     * Slices by route.
+     */
+    private final Map<PyRoute, Slice> routes;
+
+    /**
+     * Ctor.
+     * @param routes Slices by route
+     */
+    PyRouter(final Map<PyRoute, Slice> routes) {
+        this.routes = new EnumMap<>(PyRoute.class);
+        this.routes.putAll(routes);
+    }
+
+    /**
+     * Ctor for router reporting requests metrics of every route, route is reported
+     * by its lower case name.
+     * @param routes Slices by route
+     * @param metrics Metrics
+     */
+    PyRouter(final Map<PyRoute, Slice> routes, final Metrics metrics) {
+        this(
+            routes.entrySet().stream().collect(
+                Collectors.toMap(
+                    Map.Entry::getKey,
+                    entry -> new MeteredSlice(
+                        entry.getValue(), entry.getKey().name().toLowerCase(Locale.ROOT), metrics
+                    )
+                )
+            )
+        );
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers, final Publisher<ByteBuffer> body) {
+        final Slice slice = this.routes.get(PyRoute.of(line, headers));
+        final Response res;
+        if (slice == null) {
+            res = new RsWithStatus(RsStatus.NOT_FOUND);
+        } else {
+            res = slice.response(line, headers, body);
+        }
+        return res;
+    }
+}
@@ -14,17 +14,17 @@ import com.artipie.http.auth.BasicAuthSlice;
 import com.artipie.http.auth.Permission;
 import com.artipie.http.auth.Permissions;
 import com.artipie.http.headers.ContentType;
-import com.artipie.http.rq.RqMethod;
-import com.artipie.http.rs.RsStatus;
-import com.artipie.http.rs.RsWithStatus;
-import com.artipie.http.rt.ByMethodsRule;
-import com.artipie.http.rt.RtRule;
-import com.artipie.http.rt.RtRulePath;
-import com.artipie.http.rt.SliceRoute;
 import com.artipie.http.slice.SliceDownload;
-import com.artipie.http.slice.SliceSimple;
 import com.artipie.http.slice.SliceWithHeaders;
-import java.util.regex.Pattern;
+import com.artipie.pypi.Blocking;
+import com.artipie.pypi.fs.MappedFileStorage;
+import com.artipie.pypi.index.ProjectLock;
+import com.artipie.pypi.metrics.Metrics;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * PyPi HTTP entry point.
@@ -50,74 +50,241 @@ public final class PySlice extends Slice.Wrap {
      * @param auth Concrete identities.
      */
     public PySlice(final Storage storage, final Permissions perms, final Authentication auth) {
-        super(
-            new SliceRoute(
-                new RtRulePath(
-                    new RtRule.All(
-                        new ByMethodsRule(RqMethod.GET),
-                        new RtRule.ByPath(".*\\.(whl|tar\\.gz|zip|tar\\.bz2|tar\\.Z|tar|egg)")
-                    ),
-                    new BasicAuthSlice(
-                        new SliceWithHeaders(
-                            new SliceDownload(storage),
-                            new Headers.From(new ContentType("application/octet-stream"))
-                        ),
-                        auth,
-                        new Permission.ByName(perms, Action.Standard.READ)
-                    )
-                ),
-                new RtRulePath(
-                    new RtRule.All(
-                        new ByMethodsRule(RqMethod.POST),
-                        new RtRule.ByHeader(
-                            "content-type", Pattern.compile("multipart.*", Pattern.CASE_INSENSITIVE)
-                        )
-                    ),
-                    new BasicAuthSlice(
-                        new WheelSlice(storage),
-                        auth,
-                        new Permission.ByName(perms, Action.Standard.WRITE)
-                    )
-                ),
-                new RtRulePath(
-                    new RtRule.All(
-                        new ByMethodsRule(RqMethod.POST),
-                        new RtRule.ByHeader(
-                            "content-type", Pattern.compile("text.*", Pattern.CASE_INSENSITIVE)
-                        )
-                    ),
-                    new BasicAuthSlice(
-                        new SearchSlice(storage),
-                        auth,
-                        new Permission.ByName(perms, Action.Standard.WRITE)
-                    )
-                ),
-                new RtRulePath(
-                    new RtRule.All(
-                        new ByMethodsRule(RqMethod.GET),
-                        new RtRule.ByPath("(^\\/)|(.*(\\/[a-z0-9\\-]+?\\/?$))")
-                    ),
-                    new BasicAuthSlice(
-                        new SliceIndex(storage),
-                        auth,
-                        new Permission.ByName(perms, Action.Standard.READ)
-                    )
-                ),
-                new RtRulePath(
-                    new RtRule.All(
-                        new ByMethodsRule(RqMethod.GET)
-                    ),
-                    new BasicAuthSlice(
-                        new RedirectSlice(),
-                        auth,
-                        new Permission.ByName(perms, Action.Standard.READ)
-                    )
-                ),
-                new RtRulePath(
-                    RtRule.FALLBACK,
-                    new SliceSimple(new RsWithStatus(RsStatus.NOT_FOUND))
+        this(storage, perms, auth, new Settings());
+    }
+
+    /**
+     * Ctor with optional settings of the repository, e.g. metrics, upload limits or
+     * coordination of uploads of several nodes sharing the storage.
+     * @param storage The storage.
+     * @param perms Access permissions.
+     * @param auth Concrete identities.
+     * @param settings Repository settings.
+     */
+    public PySlice(final Storage storage, final Permissions perms, final Authentication auth,
+        final Settings settings) {
+        super(PySlice.router(storage, perms, auth, settings));
+    }
+
+    /**
+     * Repository router.
+     * @param storage The storage.
+     * @param perms Access permissions.
+     * @param auth Concrete identities.
+     * @param settings Repository settings.
+     * @return Router slice
+     */
+    private static Slice router(final Storage storage, final Permissions perms,
+        final Authentication auth, final Settings settings) {
+        final Blocking blocking = settings.blocking.orElseGet(
+            () -> new Blocking(settings.metrics)
+        );
+        final Storage artifacts = settings.files
+            .<Storage>map(dir -> new MappedFileStorage(dir, blocking))
+            .orElse(storage);
+        return new PyRouter(
+            PySlice.routes(
+                storage, artifacts, perms, auth, settings.metrics, blocking,
+                new WheelSlice(
+                    storage, settings.metrics, blocking, settings.limits,
+                    settings.lock.orElseGet(ProjectLock.Striped::new), settings.window
                 )
+            ),
+            settings.metrics
+        );
+    }
+
+    /**
+     * Slices of repository routes, every route slice authenticates the request once
+     * and checks permission of the route action.
+     * @param storage The storage.
+     * @param artifacts The storage to download artifacts from.
+     * @param perms Access permissions.
+     * @param auth Concrete identities.
+     * @param metrics Metrics.
+     * @param blocking Executor of blocking work.
+     * @param upload Upload slice.
+     * @return Slices by route
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static Map<PyRoute, Slice> routes(final Storage storage, final Storage artifacts,
+        final Permissions perms, final Authentication auth, final Metrics metrics,
+        final Blocking blocking, final Slice upload) {
+        final Permission read = new Permission.ByName(perms, Action.Standard.READ);
+        final Permission write = new Permission.ByName(perms, Action.Standard.WRITE);
+        final Map<PyRoute, Slice> routes = new EnumMap<>(PyRoute.class);
+        routes.put(
+            PyRoute.ARTIFACT,
+            new BasicAuthSlice(
+                new SliceWithHeaders(
+                    new SliceDownload(artifacts),
+                    new Headers.From(new ContentType("application/octet-stream"))
+                ),
+                auth,
+                read
             )
         );
+        routes.put(
+            PyRoute.UPLOAD,
+            new BasicAuthSlice(upload, auth, write)
+        );
+        routes.put(
+            PyRoute.SEARCH,
+            new BasicAuthSlice(new SearchSlice(storage, metrics, blocking), auth, write)
+        );
+        routes.put(
+            PyRoute.INDEX, new BasicAuthSlice(new SliceIndex(storage, metrics), auth, read)
+        );
+        routes.put(PyRoute.REDIRECT, new BasicAuthSlice(new RedirectSlice(), auth, read));
+        return routes;
+    }
+
+    /**
+     * Optional settings of the repository, every setting has default value.
+     * Settings are immutable, every {@code with} method returns new settings.
+     * @since 0.8
+     */
+    public static final class Settings {
+
+        /**
+         * Metrics.
+         */
+        private final Metrics metrics;
+
+        /**
+         * Executor of blocking work, empty for default executor.
+         */
+        private final Optional<Blocking> blocking;
+
+        /**
+         * Upload limits.
+         */
+        private final UploadLimits limits;
+
+        /**
+         * Coordination of project uploads commits, empty for in-process lock.
+         */
+        private final Optional<ProjectLock> lock;
+
+        /**
+         * Time to coalesce project catalog updates within.
+         */
+        private final Duration window;
+
+        /**
+         * Directory of the file storage to read artifacts downloads through memory mapped
+         * regions, empty to read them with the storage.
+         */
+        private final Optional<Path> files;
+
+        /**
+         * Default settings: no metrics, default executor of blocking work, no upload
+         * limits, in-process coordination of uploads, no coalescing window and artifacts
+         * downloads read with the storage.
+         */
+        public Settings() {
+            this(
+                Metrics.NOP, Optional.empty(), UploadLimits.UNLIMITED, Optional.empty(),
+                Duration.ZERO, Optional.empty()
+            );
+        }
+
+        /**
+         * Ctor.
+         * @param metrics Metrics
+         * @param blocking Executor of blocking work, empty for default executor
+         * @param limits Upload limits
+         * @param lock Coordination of project uploads commits, empty for in-process lock
+         * @param window Time to coalesce project catalog updates within
+         * @param files Directory of the file storage to read artifacts downloads from
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        private Settings(final Metrics metrics, final Optional<Blocking> blocking,
+            final UploadLimits limits, final Optional<ProjectLock> lock,
+            final Duration window, final Optional<Path> files) {
+            this.metrics = metrics;
+            this.blocking = blocking;
+            this.limits = limits;
+            this.lock = lock;
+            this.window = window;
+            this.files = files;
+        }
+
+        /**
+         * Report requests, uploads and metadata reading metrics.
+         * @param value Metrics
+         * @return Settings
+         */
+        public Settings withMetrics(final Metrics value) {
+            return new Settings(
+                value, this.blocking, this.limits, this.lock, this.window, this.files
+            );
+        }
+
+        /**
+         * Run blocking work, such as archives reading and temp files operations, in given
+         * executor; by default the executor reports its metrics to repository metrics.
+         * @param value Executor of blocking work
+         * @return Settings
+         */
+        public Settings withBlocking(final Blocking value) {
+            return new Settings(
+                this.metrics, Optional.of(value), this.limits, this.lock, this.window,
+                this.files
+            );
+        }
+
+        /**
+         * Limit upload size and storage quota.
+         * @param value Upload limits
+         * @return Settings
+         */
+        public Settings withLimits(final UploadLimits value) {
+            return new Settings(
+                this.metrics, this.blocking, value, this.lock, this.window, this.files
+            );
+        }
+
+        /**
+         * Coordinate uploads of the same project with given lock, e.g.
+         * {@link ProjectLock.Leased} for several nodes sharing the storage. Pass the same
+         * lock to {@link com.artipie.pypi.index.Backfill} and
+         * {@link com.artipie.pypi.index.BulkImport} of the repository.
+         * @param value Coordination of project uploads commits
+         * @return Settings
+         */
+        public Settings withLock(final ProjectLock value) {
+            return new Settings(
+                this.metrics, this.blocking, this.limits, Optional.of(value), this.window,
+                this.files
+            );
+        }
+
+        /**
+         * Coalesce project catalog updates of uploads within given time, e.g. for
+         * release pipelines uploading many wheels of the project at once.
+         * @param value Time to coalesce project catalog updates within
+         * @return Settings
+         */
+        public Settings withWindow(final Duration value) {
+            return new Settings(
+                this.metrics, this.blocking, this.limits, this.lock, value, this.files
+            );
+        }
+
+        /**
+         * Read artifacts downloads through memory mapped file regions, without heap copies,
+         * see {@link MappedFileStorage}. Repository storage should be
+         * {@link com.artipie.asto.fs.FileStorage} in the given directory; uploads, index pages
+         * and search still use the repository storage.
+         * @param dir Directory of the file storage
+         * @return Settings
+         */
+        public Settings withMappedFiles(final Path dir) {
+            return new Settings(
+                this.metrics, this.blocking, this.limits, this.lock, this.window,
+                Optional.of(dir)
+            );
+        }
     }
 }
@@ -0,0 +1,122 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.pypi.index.Sidecars;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Storage size quota of the repository archives. Derived data, such as sidecar files,
+ * catalogs and generation markers, is small and is not counted, see
+ * {@link Sidecars#derived(Key)}. Used size is summed up by listing the storage
+ * once, on the first reservation, and then it is kept by reservations and releases
+ * of uploads, so files added or removed bypassing uploads are not taken into account
+ * until restart. Repository without quota never lists the storage.
+ * @since 0.8
+ */
+final class Quota {
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Max total size in bytes.
+     */
+    private final long limit;
+
+    /**
+     * Used size, loaded once.
+     */
+    private final AtomicReference<CompletableFuture<AtomicLong>> used;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param limit Max total size in bytes, {@link Long#MAX_VALUE} for no quota
+     */
+    Quota(final Storage storage, final long limit) {
+        this.storage = storage;
+        this.limit = limit;
+        this.used = new AtomicReference<>();
+    }
+
+    /**
+     * Reserve bytes for upload. Negative amount returns part of earlier reservation
+     * and always succeeds.
+     * @param bytes Amount of bytes
+     * @return True if reserved, false if reservation exceeds the quota
+     */
+    CompletionStage<Boolean> reserve(final long bytes) {
+        final CompletionStage<Boolean> res;
+        if (this.limit == Long.MAX_VALUE) {
+            res = CompletableFuture.completedFuture(true);
+        } else {
+            res = this.usage().thenApply(
+                usage -> {
+                    boolean reserved = false;
+                    long current = usage.get();
+                    while (!reserved && (bytes <= 0 || current + bytes <= this.limit)) {
+                        reserved = usage.compareAndSet(current, current + bytes);
+                        current = usage.get();
+                    }
+                    return reserved;
+                }
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Release reservation of failed upload.
+     * @param bytes Reserved bytes
+     */
+    void release(final long bytes) {
+        final CompletableFuture<AtomicLong> usage = this.used.get();
+        if (usage != null && bytes != 0) {
+            usage.thenAccept(value -> value.addAndGet(-bytes));
+        }
+    }
+
+    /**
+     * Used size of the storage, listed on first call, failed listing is retried
+     * on next call.
+     * @return Used size
+     */
+    private CompletableFuture<AtomicLong> usage() {
+        CompletableFuture<AtomicLong> res = this.used.get();
+        if (res == null || res.isCompletedExceptionally()) {
+            final CompletableFuture<AtomicLong> loading = new CompletableFuture<>();
+            if (this.used.compareAndSet(res, loading)) {
+                this.storage.list(Key.ROOT).thenCompose(
+                    keys -> {
+                        final AtomicLong total = new AtomicLong();
+                        return CompletableFuture.allOf(
+                            keys.stream().filter(key -> !Sidecars.derived(key)).map(
+                                key -> this.storage.size(key).thenAccept(total::addAndGet)
+                            ).toArray(CompletableFuture[]::new)
+                        ).thenApply(nothing -> total);
+                    }
+                ).whenComplete(
+                    (total, err) -> {
+                        if (err == null) {
+                            loading.complete(total);
+                        } else {
+                            loading.completeExceptionally(err);
+                        }
+                    }
+                );
+            }
+            res = this.used.get();
+        }
+        return res;
+    }
+}
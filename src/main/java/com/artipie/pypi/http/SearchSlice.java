@@ -18,9 +18,14 @@ import com.artipie.http.async.AsyncResponse;
 import com.artipie.http.rs.RsFull;
 import com.artipie.http.rs.RsStatus;
 import com.artipie.http.rs.common.RsError;
+import com.artipie.pypi.Blocking;
 import com.artipie.pypi.NormalizedProjectName;
+import com.artipie.pypi.index.Sidecars;
+import com.artipie.pypi.jfr.Span;
+import com.artipie.pypi.jfr.Trace;
 import com.artipie.pypi.meta.Metadata;
 import com.artipie.pypi.meta.PackageInfo;
+import com.artipie.pypi.metrics.Metrics;
 import com.jcabi.xml.XMLDocument;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
@@ -28,6 +33,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Comparator;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import org.apache.commons.io.FileUtils;
@@ -48,37 +54,69 @@ public final class SearchSlice implements Slice {
      */
     private final Storage storage;
 
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Executor of blocking work.
+     */
+    private final Blocking blocking;
+
     /**
      * Ctor.
      * @param storage Storage
      */
     public SearchSlice(final Storage storage) {
+        this(storage, Metrics.NOP);
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param metrics Metrics
+     */
+    public SearchSlice(final Storage storage, final Metrics metrics) {
+        this(storage, metrics, new Blocking(metrics));
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param metrics Metrics
+     * @param blocking Executor of blocking work: temp files operations and archive reading
+     */
+    public SearchSlice(final Storage storage, final Metrics metrics, final Blocking blocking) {
         this.storage = storage;
+        this.metrics = metrics;
+        this.blocking = blocking;
     }
 
     @Override
     public Response response(final String line, final Iterable<Map.Entry<String, String>> headers,
         final Publisher<ByteBuffer> body) {
-        final Path temp = new Unchecked<>(() -> Files.createTempDirectory("py-artifact-")).value();
         return new AsyncResponse(
             new NameFromXml(body).get().thenCompose(
                 name -> {
                     final Key.From key = new Key.From(
                         new NormalizedProjectName.Simple(name).value()
                     );
+                    final Span listing = Trace.SEARCH.start("list");
                     return this.storage.list(key).thenCompose(
                         list -> {
+                            listing.end(name, -1, key.string());
+                            final Optional<Key> latest = list.stream()
+                                .filter(item -> !Sidecars.derived(item))
+                                .map(Key::string)
+                                .max(Comparator.naturalOrder())
+                                .map(Key.From::new);
                             CompletableFuture<Content> res = new CompletableFuture<>();
-                            if (list.isEmpty()) {
-                                res.complete(new Content.From(SearchSlice.empty()));
-                            } else {
-                                final Key latest = list.stream().map(Key::string)
-                                    .max(Comparator.naturalOrder())
-                                    .map(Key.From::new)
-                                    .orElseThrow(IllegalStateException::new);
-                                res = this.tempArtifact(new Key.From(latest), temp)
-                                    .thenApply(path -> new Metadata.FromArchive(path).read())
+                            if (latest.isPresent()) {
+                                res = this.info(name, latest.get())
                                     .thenApply(info -> new Content.From(SearchSlice.found(info)));
+                            } else {
+                                res.complete(new Content.From(SearchSlice.empty()));
                             }
                             return res;
                         }
@@ -96,7 +134,6 @@ public final class SearchSlice implements Slice {
                             new ArtipieHttpException(RsStatus.INTERNAL_ERROR, throwable)
                         );
                     }
-                    FileUtils.deleteQuietly(temp.toFile());
                     return res;
                 }
             )
@@ -159,14 +196,61 @@ public final class SearchSlice implements Slice {
     }
 
     /**
-     * Copy artifact to the temp storage.
+     * Read package info of the artifact in temp directory, temp directory is created,
+     * read and removed by blocking executor.
+     * @param name Searched project name
+     * @param artifact Artifact key
+     * @return Package info
+     */
+    private CompletableFuture<PackageInfo> info(final String name, final Key artifact) {
+        return this.blocking.supply(
+            new Unchecked<>(() -> Files.createTempDirectory("py-artifact-"))::value
+        ).thenCompose(
+            temp -> this.tempArtifact(artifact, temp)
+                .thenCompose(path -> this.blocking.supply(() -> this.metadata(name, path)))
+                .whenCompleteAsync(
+                    (info, err) -> FileUtils.deleteQuietly(temp.toFile()), this.blocking
+                )
+        );
+    }
+
+    /**
+     * Read metadata of the artifact measuring reading time, artifact size is read only
+     * if the span is recorded.
+     * @param name Searched project name
+     * @param artifact Artifact path
+     * @return Package info
+     */
+    private PackageInfo metadata(final String name, final Path artifact) {
+        final Span reading = Trace.METADATA.start("search");
+        final long start = System.nanoTime();
+        final PackageInfo info = new Metadata.FromArchive(artifact).read();
+        this.metrics.timer(Metrics.METADATA, System.nanoTime() - start);
+        if (reading != Span.NONE) {
+            reading.end(name, artifact.toFile().length(), artifact.getFileName().toString());
+        }
+        return info;
+    }
+
+    /**
+     * Copy artifact to the temp storage, copied file size is read only if the span is
+     * recorded.
      * @param artifact Artifact key to copy
      * @param temp Temp dir
      * @return Path of the temp file
      */
     private CompletableFuture<Path> tempArtifact(final Key artifact, final Path temp) {
+        final Span copying = Trace.SEARCH.start("copy");
         return new Copy(this.storage, new ListOf<>(artifact)).copy(new FileStorage(temp))
-            .thenApply(nothing -> temp.resolve(artifact.string()));
+            .thenApply(
+                nothing -> {
+                    final Path path = temp.resolve(artifact.string());
+                    if (copying != Span.NONE) {
+                        copying.end(null, path.toFile().length(), artifact.string());
+                    }
+                    return path;
+                }
+            );
     }
 
     /**
@@ -10,44 +10,127 @@ import com.artipie.asto.Storage;
 import com.artipie.asto.ext.ContentDigest;
 import com.artipie.asto.ext.Digests;
 import com.artipie.asto.ext.KeyLastPart;
+import com.artipie.asto.ext.PublisherAs;
 import com.artipie.http.Response;
 import com.artipie.http.Slice;
 import com.artipie.http.async.AsyncResponse;
 import com.artipie.http.headers.ContentType;
+import com.artipie.http.headers.Header;
 import com.artipie.http.rq.RequestLineFrom;
 import com.artipie.http.rq.RequestLinePrefix;
+import com.artipie.http.rq.RqHeaders;
 import com.artipie.http.rs.RsStatus;
 import com.artipie.http.rs.RsWithBody;
 import com.artipie.http.rs.RsWithHeaders;
 import com.artipie.http.rs.RsWithStatus;
 import com.artipie.http.slice.KeyFromPath;
+import com.artipie.pypi.index.Catalog;
+import com.artipie.pypi.index.Catalogs;
+import com.artipie.pypi.index.GenerationCache;
+import com.artipie.pypi.index.Sidecars;
+import com.artipie.pypi.jfr.Span;
+import com.artipie.pypi.jfr.Trace;
+import com.artipie.pypi.metrics.Metrics;
 import hu.akarnokd.rxjava2.interop.SingleInterop;
 import io.reactivex.Flowable;
 import io.reactivex.Single;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObjectBuilder;
 import org.reactivestreams.Publisher;
 
 /**
  * SliceIndex returns formatted html output with index of repository packages.
+ * <p>
+ * Json page of <a href="https://peps.python.org/pep-0691/">PEP 691</a> is returned
+ * if client prefers it in {@code Accept} header. Core metadata files of wheels,
+ * stored next to them with {@code .metadata} extension, are not listed themselves but
+ * advertised by artifacts links with their digests, see
+ * <a href="https://peps.python.org/pep-0658/">PEP 658</a> and
+ * <a href="https://peps.python.org/pep-0714/">PEP 714</a>. Supported python versions
+ * of the artifact, stored next to it with {@code .requires-python} extension on upload,
+ * are advertised by {@code data-requires-python} attribute, see
+ * <a href="https://peps.python.org/pep-0503/">PEP 503</a>.
+ * <p>
+ * Links of artifacts in project catalog, see {@link Catalogs}, are built from catalog
+ * entries; artifacts missing from catalog are read and hashed on every request.
+ * Links of projects are cached in memory while project generation marker stays the same,
+ * see {@link GenerationCache}, so every request of cached project reads the marker only,
+ * and project updated by another node sharing the storage is not served stale.
  *
  * @since 0.2
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  */
 final class SliceIndex implements Slice {
 
+    /**
+     * Json index page content type.
+     */
+    private static final String JSON = "application/vnd.pypi.simple.v1+json";
+
+    /**
+     * Accept header.
+     */
+    private static final String ACCEPT = "Accept";
+
+    /**
+     * Default max amount of cached projects links.
+     */
+    private static final int CACHED = 1024;
+
     /**
      * Artipie artifacts storage.
      */
     private final Storage storage;
 
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Cache of projects links.
+     */
+    private final GenerationCache<List<Link>> cache;
+
     /**
      * Ctor.
      * @param storage Storage
      */
     SliceIndex(final Storage storage) {
+        this(storage, Metrics.NOP);
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param metrics Metrics
+     */
+    SliceIndex(final Storage storage, final Metrics metrics) {
+        this(storage, metrics, SliceIndex.CACHED);
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param metrics Metrics
+     * @param cached Max amount of cached projects links, zero to disable cache
+     */
+    SliceIndex(final Storage storage, final Metrics metrics, final int cached) {
         this.storage = storage;
+        this.metrics = metrics;
+        this.cache = new GenerationCache<>(storage, cached);
     }
 
     @Override
@@ -58,38 +141,398 @@ final class SliceIndex implements Slice {
     ) {
         final Key rqkey = new KeyFromPath(new RequestLineFrom(line).uri().toString());
         final String prefix = new RequestLinePrefix(rqkey.string(), headers).get();
+        final boolean json = SliceIndex.jsonPreferred(headers);
+        final CompletionStage<List<Link>> links;
+        if (rqkey.string().isEmpty()) {
+            links = this.links(rqkey, prefix);
+        } else {
+            links = this.cache.get(rqkey, prefix, () -> this.links(rqkey, prefix));
+        }
         return new AsyncResponse(
-            SingleInterop.fromFuture(this.storage.list(rqkey))
-                .flatMapPublisher(Flowable::fromIterable)
-                .flatMapSingle(
-                    key -> Single.fromFuture(
-                        this.storage.value(key).thenCompose(
-                            value -> new ContentDigest(value, Digests.SHA256).hex()
-                        ).thenApply(
-                            hex -> String.format(
-                                "<a href=\"%s#sha256=%s\">%s</a><br/>",
-                                String.format("%s/%s", prefix, key.string()),
-                                hex,
-                                new KeyLastPart(key).get()
+            links.thenApply(
+                list -> {
+                    final Response res;
+                    if (json) {
+                        res = SliceIndex.json(rqkey, list);
+                    } else {
+                        res = SliceIndex.html(list);
+                    }
+                    return res;
+                }
+            )
+        );
+    }
+
+    /**
+     * Links of artifacts in the requested directory.
+     * @param rqkey Requested key
+     * @param prefix Links prefix
+     * @return Links
+     */
+    private CompletionStage<List<Link>> links(final Key rqkey, final String prefix) {
+        final Span listing = Trace.INDEX.start("list");
+        return SingleInterop.fromFuture(this.storage.list(rqkey))
+            .doOnSuccess(keys -> listing.end(rqkey.string(), -1, rqkey.string()))
+            .zipWith(SingleInterop.fromFuture(this.catalog(rqkey)), SimpleEntry::new)
+            .flatMap(
+                listed -> {
+                    final Set<String> names = listed.getKey().stream().map(Key::string)
+                        .collect(Collectors.toSet());
+                    return Flowable.fromIterable(listed.getKey())
+                        .filter(key -> !Sidecars.derived(key))
+                        .flatMapSingle(
+                            key -> Single.fromFuture(
+                                this.link(rqkey, prefix, key, names, listed.getValue())
                             )
-                        )
-                    )
-                )
-                .collect(StringBuilder::new, StringBuilder::append)
-                .<Response>map(
-                    resp -> new RsWithBody(
-                        new RsWithHeaders(
-                            new RsWithStatus(RsStatus.OK),
-                            new ContentType("text/html")
-                        ),
-                        String.format(
-                            "<!DOCTYPE html>\n<html>\n  </body>\n%s\n</body>\n</html>",
-                            resp.toString()
-                        ),
-                        StandardCharsets.UTF_8
-                    )
+                        ).toList();
+                }
+            )
+            .to(SingleInterop.get());
+    }
+
+    /**
+     * Catalog of the requested project directory.
+     * @param rqkey Requested key
+     * @return Catalog, empty catalog if there is no catalog or storage root is requested
+     */
+    private CompletionStage<Catalog> catalog(final Key rqkey) {
+        final CompletionStage<Catalog> res;
+        if (rqkey.string().isEmpty()) {
+            res = CompletableFuture.completedFuture(new Catalog());
+        } else {
+            final Span loading = Trace.INDEX.start("catalog");
+            res = new Catalogs(this.storage).load(rqkey).thenApply(
+                catalog -> {
+                    loading.end(rqkey.string(), -1, rqkey.string());
+                    return catalog.orElseGet(Catalog::new);
+                }
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Link of the artifact from catalog entry of the artifact, if catalog of requested
+     * directory has it, otherwise from the artifact and its sidecar files.
+     * @param rqkey Requested key
+     * @param prefix Links prefix
+     * @param key Artifact key
+     * @param names Listed keys
+     * @param catalog Catalog of requested directory
+     * @return Link
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private CompletableFuture<Link> link(final Key rqkey, final String prefix,
+        final Key key, final Set<String> names, final Catalog catalog) {
+        final String url = String.format("%s/%s", prefix, key.string());
+        final Optional<Catalog.Entry> entry = key.parent()
+            .filter(parent -> parent.string().equals(rqkey.string()))
+            .flatMap(parent -> catalog.entry(new KeyLastPart(key).get()));
+        final CompletableFuture<Link> res;
+        if (entry.isPresent()) {
+            res = CompletableFuture.completedFuture(
+                new Link(
+                    url, entry.get().filename(), entry.get().sha256(), entry.get().core(),
+                    entry.get().python()
                 )
+            );
+        } else {
+            res = this.link(rqkey.string(), url, key, names);
+        }
+        return res;
+    }
+
+    /**
+     * Link of the artifact with SHA-256 digests of the artifact and its core metadata file
+     * and with supported python versions.
+     * @param project Project
+     * @param url Artifact URL
+     * @param key Artifact key
+     * @param names Listed keys
+     * @return Link
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private CompletableFuture<Link> link(final String project, final String url,
+        final Key key, final Set<String> names) {
+        final String meta = String.format("%s%s", key.string(), Sidecars.METADATA);
+        final CompletableFuture<Optional<String>> core;
+        if (names.contains(meta)) {
+            core = this.storage.value(new Key.From(meta))
+                .thenCompose(value -> new ContentDigest(value, Digests.SHA256).hex())
+                .thenApply(Optional::of);
+        } else {
+            core = CompletableFuture.completedFuture(Optional.empty());
+        }
+        final String python = String.format("%s%s", key.string(), Sidecars.PYTHON);
+        final CompletableFuture<Optional<String>> requires;
+        if (names.contains(python)) {
+            requires = this.storage.value(new Key.From(python))
+                .thenCompose(value -> new PublisherAs(value).string(StandardCharsets.UTF_8))
+                .thenApply(value -> Optional.of(value.trim()))
+                .toCompletableFuture();
+        } else {
+            requires = CompletableFuture.completedFuture(Optional.empty());
+        }
+        return this.digest(project, key).thenCombine(
+            core,
+            (hex, mhex) -> new Link(url, new KeyLastPart(key).get(), hex, mhex)
+        ).thenCombine(requires, Link::requiring);
+    }
+
+    /**
+     * SHA-256 digest of the artifact.
+     * @param project Project
+     * @param key Artifact key
+     * @return Hex digest
+     */
+    private CompletableFuture<String> digest(final String project, final Key key) {
+        final Span hashing = Trace.INDEX.start("hash");
+        return this.storage.value(key).thenCompose(
+            value -> {
+                final long size = value.size().orElse(-1L);
+                if (size >= 0) {
+                    this.metrics.counter(Metrics.HASHED, size);
+                }
+                return new ContentDigest(value, Digests.SHA256).hex().thenApply(
+                    hex -> {
+                        hashing.end(project, size, key.string());
+                        return hex;
+                    }
+                );
+            }
+        );
+    }
+
+    /**
+     * Html index page.
+     * @param links Artifacts links
+     * @return Response
+     */
+    private static Response html(final List<Link> links) {
+        return new RsWithBody(
+            new RsWithHeaders(
+                new RsWithStatus(RsStatus.OK),
+                new ContentType("text/html")
+            ),
+            String.format(
+                "<!DOCTYPE html>\n<html>\n  </body>\n%s\n</body>\n</html>",
+                links.stream().map(Link::html).collect(Collectors.joining())
+            ),
+            StandardCharsets.UTF_8
         );
     }
 
+    /**
+     * Json index page, see <a href="https://peps.python.org/pep-0691/">PEP 691</a>.
+     * @param rqkey Requested key
+     * @param links Artifacts links
+     * @return Response
+     */
+    private static Response json(final Key rqkey, final List<Link> links) {
+        final JsonArrayBuilder files = Json.createArrayBuilder();
+        links.forEach(link -> files.add(link.json()));
+        String name = "";
+        if (!rqkey.string().isEmpty()) {
+            name = new KeyLastPart(rqkey).get();
+        }
+        return new RsWithBody(
+            new RsWithHeaders(
+                new RsWithStatus(RsStatus.OK),
+                new ContentType(SliceIndex.JSON),
+                new Header("Vary", SliceIndex.ACCEPT)
+            ),
+            Json.createObjectBuilder()
+                .add("meta", Json.createObjectBuilder().add("api-version", "1.0"))
+                .add("name", name)
+                .add("files", files)
+                .build().toString(),
+            StandardCharsets.UTF_8
+        );
+    }
+
+    /**
+     * Does client prefer json index page? Json is sent only if its quality in
+     * {@code Accept} header is higher than quality of html.
+     * @param headers Request headers
+     * @return True for json
+     */
+    private static boolean jsonPreferred(final Iterable<Map.Entry<String, String>> headers) {
+        double json = 0;
+        double html = 0;
+        for (final String header : new RqHeaders(headers, SliceIndex.ACCEPT)) {
+            for (final String range : header.split(",")) {
+                final String[] params = range.split(";");
+                final String type = params[0].trim().toLowerCase(Locale.US);
+                double quality = 1;
+                for (int idx = 1; idx < params.length; idx = idx + 1) {
+                    final String param = params[idx].trim();
+                    if (param.startsWith("q=")) {
+                        quality = SliceIndex.quality(param.substring(2));
+                    }
+                }
+                if (SliceIndex.JSON.equals(type)
+                    || "application/vnd.pypi.simple.latest+json".equals(type)) {
+                    json = Math.max(json, quality);
+                } else if (type.endsWith("html") || "*/*".equals(type)) {
+                    html = Math.max(html, quality);
+                }
+            }
+        }
+        return json > html;
+    }
+
+    /**
+     * Quality value of media range.
+     * @param value Value
+     * @return Quality, zero if value is malformed
+     */
+    private static double quality(final String value) {
+        double res;
+        try {
+            res = Double.parseDouble(value.trim());
+        } catch (final NumberFormatException ex) {
+            res = 0;
+        }
+        return res;
+    }
+
+    /**
+     * Link of the artifact on index page.
+     * @since 0.8
+     */
+    private static final class Link {
+
+        /**
+         * Artifact URL.
+         */
+        private final String url;
+
+        /**
+         * File name.
+         */
+        private final String filename;
+
+        /**
+         * Artifact SHA-256 hex digest.
+         */
+        private final String sha;
+
+        /**
+         * Core metadata file SHA-256 hex digest, empty if artifact has no such file.
+         */
+        private final Optional<String> core;
+
+        /**
+         * Supported python versions specifier, empty if not declared.
+         */
+        private final Optional<String> python;
+
+        /**
+         * Ctor.
+         * @param url Artifact URL
+         * @param filename File name
+         * @param sha Artifact SHA-256 hex digest
+         * @param core Core metadata file SHA-256 hex digest
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Link(final String url, final String filename, final String sha,
+            final Optional<String> core) {
+            this(url, filename, sha, core, Optional.empty());
+        }
+
+        /**
+         * Ctor.
+         * @param url Artifact URL
+         * @param filename File name
+         * @param sha Artifact SHA-256 hex digest
+         * @param core Core metadata file SHA-256 hex digest
+         * @param python Supported python versions specifier
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Link(final String url, final String filename, final String sha,
+            final Optional<String> core, final Optional<String> python) {
+            this.url = url;
+            this.filename = filename;
+            this.sha = sha;
+            this.core = core;
+            this.python = python;
+        }
+
+        /**
+         * Link with supported python versions.
+         * @param spec Supported python versions specifier
+         * @return Link
+         */
+        Link requiring(final Optional<String> spec) {
+            return new Link(this.url, this.filename, this.sha, this.core, spec);
+        }
+
+        /**
+         * Html anchor, core metadata file is advertised by both PEP 714 and
+         * PEP 658 attributes for older pip versions.
+         * @return Anchor
+         */
+        String html() {
+            return String.format(
+                "<a href=\"%s#sha256=%s\"%s%s>%s</a><br/>",
+                this.url, this.sha,
+                this.python.map(
+                    spec -> String.format(" data-requires-python=\"%s\"", Link.escaped(spec))
+                ).orElse(""),
+                this.core.map(
+                    hex -> String.format(
+                        String.join(
+                            " ", "", "data-dist-info-metadata=\"sha256=%1$s\"",
+                            "data-core-metadata=\"sha256=%1$s\""
+                        ),
+                        hex
+                    )
+                ).orElse(""),
+                this.filename
+            );
+        }
+
+        /**
+         * Json file object.
+         * @return Json
+         */
+        JsonObjectBuilder json() {
+            final JsonObjectBuilder res = Json.createObjectBuilder()
+                .add("filename", this.filename)
+                .add("url", String.format("%s#sha256=%s", this.url, this.sha))
+                .add("hashes", Json.createObjectBuilder().add("sha256", this.sha));
+            this.python.ifPresent(spec -> res.add("requires-python", spec));
+            this.core.ifPresent(
+                hex -> res
+                    .add("core-metadata", Json.createObjectBuilder().add("sha256", hex))
+                    .add("dist-info-metadata", Json.createObjectBuilder().add("sha256", hex))
+            );
+            return res;
+        }
+
+        /**
+         * Html attribute value with special characters escaped.
+         * @param value Value
+         * @return Escaped value
+         */
+        private static String escaped(final String value) {
+            final StringBuilder res = new StringBuilder(value.length() + 8);
+            for (final char chr : value.toCharArray()) {
+                if (chr == '&') {
+                    res.append("&amp;");
+                } else if (chr == '<') {
+                    res.append("&lt;");
+                } else if (chr == '>') {
+                    res.append("&gt;");
+                } else if (chr == '"') {
+                    res.append("&quot;");
+                } else if (chr == '\'') {
+                    res.append("&#39;");
+                } else {
+                    res.append(chr);
+                }
+            }
+            return res.toString();
+        }
+    }
 }
@@ -0,0 +1,54 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+/**
+ * Upload limits of python repository: max size of upload request body and
+ * total size quota of the repository archives, in bytes.
+ * @since 0.8
+ */
+public final class UploadLimits {
+
+    /**
+     * No limits.
+     */
+    public static final UploadLimits UNLIMITED = new UploadLimits(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    /**
+     * Max size of upload request body.
+     */
+    private final long body;
+
+    /**
+     * Max total size of repository archives.
+     */
+    private final long total;
+
+    /**
+     * Ctor.
+     * @param body Max size of upload request body in bytes
+     * @param total Max total size of repository archives in bytes
+     */
+    public UploadLimits(final long body, final long total) {
+        this.body = body;
+        this.total = total;
+    }
+
+    /**
+     * Max size of upload request body.
+     * @return Size in bytes
+     */
+    public long size() {
+        return this.body;
+    }
+
+    /**
+     * Max total size of repository archives.
+     * @return Size in bytes, {@link Long#MAX_VALUE} if repository has no quota
+     */
+    public long quota() {
+        return this.total;
+    }
+}
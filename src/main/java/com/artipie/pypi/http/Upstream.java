@@ -0,0 +1,167 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.http.Slice;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Remote repository used by python proxy with passive health tracking.
+ * <p>
+ * Every finished request is reported with {@link #success(long)} or {@link #failure()},
+ * upstream keeps exponentially weighted moving averages (EWMA) of the response latency
+ * and of the error rate. Upstream with error rate above the threshold is considered
+ * unhealthy until cooldown period after the last failure passes.
+ *
+ * @since 0.8
+ */
+final class Upstream {
+
+    /**
+     * Default EWMA smoothing factor.
+     */
+    private static final double ALPHA = 0.3;
+
+    /**
+     * Error rate threshold: upstream is unhealthy when its error rate exceeds it.
+     */
+    private static final double THRESHOLD = 0.5;
+
+    /**
+     * Default cooldown in milliseconds.
+     */
+    private static final long COOLDOWN = 30_000L;
+
+    /**
+     * Upstream name, usually remote URI.
+     */
+    private final String name;
+
+    /**
+     * Slice to access upstream.
+     */
+    private final Slice origin;
+
+    /**
+     * Cooldown period in nanoseconds.
+     */
+    private final long cooldown;
+
+    /**
+     * Time source in nanoseconds.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Latency EWMA in nanoseconds.
+     */
+    private double latency;
+
+    /**
+     * Error rate EWMA, from 0 to 1.
+     */
+    private double errors;
+
+    /**
+     * Time of the last failure in nanoseconds.
+     */
+    private long failed;
+
+    /**
+     * Ctor.
+     * @param name Upstream name
+     * @param origin Slice to access upstream
+     */
+    Upstream(final String name, final Slice origin) {
+        this(name, origin, Upstream.COOLDOWN, System::nanoTime);
+    }
+
+    /**
+     * Ctor.
+     * @param name Upstream name
+     * @param origin Slice to access upstream
+     * @param cooldown Cooldown period in milliseconds
+     * @param clock Time source in nanoseconds
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    Upstream(final String name, final Slice origin, final long cooldown,
+        final LongSupplier clock) {
+        this.name = name;
+        this.origin = origin;
+        this.cooldown = TimeUnit.MILLISECONDS.toNanos(cooldown);
+        this.clock = clock;
+    }
+
+    /**
+     * Upstream name.
+     * @return Name
+     */
+    String name() {
+        return this.name;
+    }
+
+    /**
+     * Slice to access upstream.
+     * @return Slice
+     */
+    Slice slice() {
+        return this.origin;
+    }
+
+    /**
+     * Report successful request.
+     * @param nanos Request latency in nanoseconds
+     */
+    synchronized void success(final long nanos) {
+        if (this.latency == 0) {
+            this.latency = nanos;
+        } else {
+            this.latency = Upstream.ALPHA * nanos + (1 - Upstream.ALPHA) * this.latency;
+        }
+        this.errors = (1 - Upstream.ALPHA) * this.errors;
+    }
+
+    /**
+     * Report failed request.
+     */
+    synchronized void failure() {
+        this.errors = Upstream.ALPHA + (1 - Upstream.ALPHA) * this.errors;
+        this.failed = this.clock.getAsLong();
+    }
+
+    /**
+     * Is upstream healthy? Unhealthy upstream becomes healthy again when cooldown passes,
+     * so it gets a chance to serve requests and restore its error rate.
+     * @return True if upstream can serve requests
+     */
+    synchronized boolean healthy() {
+        return this.errors <= Upstream.THRESHOLD
+            || this.clock.getAsLong() - this.failed >= this.cooldown;
+    }
+
+    /**
+     * Latency EWMA.
+     * @return Latency in milliseconds
+     */
+    synchronized double latency() {
+        return this.latency / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Error rate EWMA.
+     * @return Error rate from 0 to 1
+     */
+    synchronized double errorRate() {
+        return this.errors;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%s[latency=%.1fms, errors=%.2f]", this.name, this.latency(), this.errorRate()
+        );
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Content;
+import com.artipie.http.Connection;
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithStatus;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.reactivestreams.Publisher;
+
+/**
+ * Slice that sends requests to one of several upstreams.
+ * <p>
+ * Upstreams are tried in order: healthy ones first, the fastest (by latency EWMA) of them
+ * first. When upstream fails (responds with server error or fails to respond at all),
+ * request is sent to the next upstream. Optionally, when upstream does not respond
+ * within hedge delay, the request is also sent to the next upstream and the first
+ * successful response wins. Request body is not sent to upstreams, this slice is meant
+ * to proxy body-less GET requests only.
+ *
+ * @since 0.8
+ */
+final class UpstreamsSlice implements Slice {
+
+    /**
+     * Scheduler for hedged requests.
+     */
+    private static final ScheduledExecutorService TIMER =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                final Thread thread = new Thread(runnable, "pypi-proxy-hedge");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+
+    /**
+     * Upstreams.
+     */
+    private final List<Upstream> upstreams;
+
+    /**
+     * Hedge delay.
+     */
+    private final Optional<Duration> hedge;
+
+    /**
+     * Ctor.
+     * @param upstreams Upstreams
+     */
+    UpstreamsSlice(final List<Upstream> upstreams) {
+        this(upstreams, Optional.empty());
+    }
+
+    /**
+     * Ctor.
+     * @param upstreams Upstreams
+     * @param hedge Delay to send hedged request to the next upstream, empty to disable
+     */
+    UpstreamsSlice(final List<Upstream> upstreams, final Optional<Duration> hedge) {
+        if (upstreams.isEmpty()) {
+            throw new IllegalArgumentException("At least one upstream is required");
+        }
+        this.upstreams = upstreams;
+        this.hedge = hedge;
+    }
+
+    @Override
+    public Response response(
+        final String line,
+        final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body
+    ) {
+        return new AsyncResponse(
+            new Race(this.ordered(), line, headers).start().handle(
+                (captured, throwable) -> {
+                    final Response res;
+                    if (throwable == null) {
+                        res = captured;
+                    } else {
+                        res = new RsWithStatus(RsStatus.UNAVAILABLE);
+                    }
+                    return res;
+                }
+            )
+        );
+    }
+
+    /**
+     * Upstreams in order of preference: healthy first, then by latency. Upstreams
+     * never requested yet have no latency and are ranked by mean latency of the others,
+     * so a cold upstream does not jump ahead of the fast ones.
+     * @return Ordered upstreams
+     */
+    private List<Upstream> ordered() {
+        final double neutral = this.upstreams.stream().mapToDouble(Upstream::latency)
+            .filter(latency -> latency > 0).average().orElse(0);
+        final List<Upstream> res = new ArrayList<>(this.upstreams);
+        res.sort(
+            Comparator.comparing((Upstream upstream) -> !upstream.healthy())
+                .thenComparingDouble(upstream -> UpstreamsSlice.latency(upstream, neutral))
+        );
+        return res;
+    }
+
+    /**
+     * Latency of the upstream to rank it by.
+     * @param upstream Upstream
+     * @param neutral Latency of upstream never requested yet
+     * @return Latency in milliseconds
+     */
+    private static double latency(final Upstream upstream, final double neutral) {
+        double res = upstream.latency();
+        if (res == 0) {
+            res = neutral;
+        }
+        return res;
+    }
+
+    /**
+     * Requests to upstreams racing for the response.
+     * @since 0.8
+     */
+    private final class Race {
+
+        /**
+         * Upstreams to try.
+         */
+        private final List<Upstream> order;
+
+        /**
+         * Request line.
+         */
+        private final String line;
+
+        /**
+         * Request headers.
+         */
+        private final Iterable<Map.Entry<String, String>> headers;
+
+        /**
+         * Race result.
+         */
+        private final CompletableFuture<Captured> result;
+
+        /**
+         * Index of the next upstream to try.
+         */
+        private final AtomicInteger next;
+
+        /**
+         * Amount of requests in progress.
+         */
+        private final AtomicInteger running;
+
+        /**
+         * Ctor.
+         * @param order Upstreams to try
+         * @param line Request line
+         * @param headers Request headers
+         */
+        Race(final List<Upstream> order, final String line,
+            final Iterable<Map.Entry<String, String>> headers) {
+            this.order = order;
+            this.line = line;
+            this.headers = headers;
+            this.result = new CompletableFuture<>();
+            this.next = new AtomicInteger();
+            this.running = new AtomicInteger();
+        }
+
+        /**
+         * Start the race.
+         * @return First successful response
+         */
+        CompletableFuture<Captured> start() {
+            this.launch();
+            return this.result;
+        }
+
+        /**
+         * Send request to the next upstream, fail the race if there is nothing to try.
+         */
+        private void launch() {
+            final int idx = this.next.getAndIncrement();
+            if (idx >= this.order.size()) {
+                if (this.running.get() == 0) {
+                    this.result.completeExceptionally(
+                        new IllegalStateException("All upstreams failed")
+                    );
+                }
+                return;
+            }
+            this.running.incrementAndGet();
+            final CompletableFuture<Captured> one = UpstreamsSlice.fetch(
+                this.order.get(idx), this.line, this.headers
+            );
+            UpstreamsSlice.this.hedge.ifPresent(
+                delay -> UpstreamsSlice.TIMER.schedule(
+                    () -> {
+                        if (!one.isDone() && !this.result.isDone()) {
+                            this.launch();
+                        }
+                    },
+                    delay.toMillis(), TimeUnit.MILLISECONDS
+                )
+            );
+            one.whenComplete(
+                (captured, throwable) -> {
+                    this.running.decrementAndGet();
+                    if (throwable == null) {
+                        if (!this.result.complete(captured)) {
+                            captured.discard();
+                        }
+                    } else if (!this.result.isDone()) {
+                        this.launch();
+                    }
+                }
+            );
+        }
+    }
+
+    /**
+     * Send request to upstream and capture the response, server errors
+     * complete result exceptionally.
+     * @param upstream Upstream
+     * @param line Request line
+     * @param headers Request headers
+     * @return Captured response
+     */
+    private static CompletableFuture<Captured> fetch(final Upstream upstream,
+        final String line, final Iterable<Map.Entry<String, String>> headers) {
+        final CompletableFuture<Captured> res = new CompletableFuture<>();
+        final long start = System.nanoTime();
+        CompletableFuture.completedFuture(upstream.slice()).thenCompose(
+            slice -> slice.response(line, headers, Content.EMPTY).send(
+                (status, rsheaders, rsbody) -> {
+                    final Captured captured = new Captured(status, rsheaders, rsbody);
+                    if (status.serverError()) {
+                        upstream.failure();
+                        captured.discard();
+                        res.completeExceptionally(
+                            new IllegalStateException(
+                                String.format(
+                                    "Upstream %s responded with %s",
+                                    upstream.name(), status.code()
+                                )
+                            )
+                        );
+                    } else {
+                        upstream.success(System.nanoTime() - start);
+                        res.complete(captured);
+                    }
+                    return captured.term();
+                }
+            )
+        ).whenComplete(
+            (nothing, throwable) -> {
+                if (throwable != null && !res.isDone()) {
+                    upstream.failure();
+                    res.completeExceptionally(throwable);
+                }
+            }
+        );
+        return res;
+    }
+
+    /**
+     * Upstream response captured to be sent later.
+     * @since 0.8
+     */
+    private static final class Captured implements Response {
+
+        /**
+         * Response status.
+         */
+        private final RsStatus status;
+
+        /**
+         * Response headers.
+         */
+        private final Headers headers;
+
+        /**
+         * Response body.
+         */
+        private final Publisher<ByteBuffer> body;
+
+        /**
+         * Completes when response body is consumed or discarded.
+         */
+        private final CompletableFuture<Void> done;
+
+        /**
+         * Ctor.
+         * @param status Response status
+         * @param headers Response headers
+         * @param body Response body
+         */
+        Captured(final RsStatus status, final Headers headers,
+            final Publisher<ByteBuffer> body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.done = new CompletableFuture<>();
+        }
+
+        @Override
+        public CompletionStage<Void> send(final Connection connection) {
+            return connection.accept(this.status, this.headers, this.body).whenComplete(
+                (nothing, throwable) -> this.done.complete(null)
+            );
+        }
+
+        /**
+         * Discard response body: body is cancelled without reading it, so the
+         * connection to upstream is released rather than held by unread body.
+         */
+        void discard() {
+            Flowable.fromPublisher(this.body).take(0).ignoreElements().subscribe(
+                () -> this.done.complete(null),
+                err -> this.done.complete(null)
+            );
+        }
+
+        /**
+         * Future to complete when response body is consumed.
+         * @return Completion stage
+         */
+        CompletionStage<Void> term() {
+            return this.done;
+        }
+    }
+}
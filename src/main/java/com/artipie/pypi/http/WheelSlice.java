@@ -9,25 +9,47 @@ import com.artipie.asto.Content;
 import com.artipie.asto.Copy;
 import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
+import com.artipie.asto.ext.KeyLastPart;
 import com.artipie.asto.fs.FileStorage;
 import com.artipie.http.ArtipieHttpException;
 import com.artipie.http.Response;
 import com.artipie.http.Slice;
 import com.artipie.http.async.AsyncResponse;
 import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RqHeaders;
 import com.artipie.http.rs.RsStatus;
 import com.artipie.http.rs.RsWithStatus;
 import com.artipie.http.rs.common.RsError;
 import com.artipie.http.slice.KeyFromPath;
+import com.artipie.pypi.Blocking;
 import com.artipie.pypi.NormalizedProjectName;
+import com.artipie.pypi.index.Catalog;
+import com.artipie.pypi.index.CatalogUpdates;
+import com.artipie.pypi.index.Catalogs;
+import com.artipie.pypi.index.Generations;
+import com.artipie.pypi.index.ProjectLock;
+import com.artipie.pypi.index.Sidecars;
+import com.artipie.pypi.jfr.Span;
+import com.artipie.pypi.jfr.Trace;
+import com.artipie.pypi.meta.ArchiveName;
 import com.artipie.pypi.meta.Metadata;
 import com.artipie.pypi.meta.PackageInfo;
 import com.artipie.pypi.meta.ValidFilename;
+import com.artipie.pypi.metrics.Metrics;
+import io.reactivex.Flowable;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 import org.apache.commons.io.FileUtils;
 import org.cactoos.list.ListOf;
 import org.cactoos.scalar.Unchecked;
@@ -35,24 +57,148 @@ import org.reactivestreams.Publisher;
 
 /**
  * WheelSlice save and manage whl and tgz entries.
+ * <p>
+ * Uploads are rejected before the body is read when {@code Content-Length} exceeds max
+ * upload size (413) or repository quota (413), and before file data is read when file
+ * name has no valid project name (400) or file already exists (409). Body without
+ * {@code Content-Length} is checked against the limits while it is read.
+ * <p>
+ * Sidecar files of the archive are saved before the archive, see {@link Sidecars}, and
+ * archive is added to project catalog after it is saved, see {@link Catalogs}. Archive is
+ * read, hashed and copied to the storage in parallel with other uploads, only the short
+ * commit step, which saves sidecar files and moves the archive, is performed exclusively
+ * for the project, see {@link ProjectLock}. Catalog updates of concurrent uploads of the
+ * project are coalesced into one write, see {@link CatalogUpdates}, upload is completed
+ * after its archive is added to the catalog.
  *
  * @since 0.2
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  */
 final class WheelSlice implements Slice {
 
+    /**
+     * Project name pattern, see {@link NormalizedProjectName.Simple}.
+     */
+    private static final Pattern PROJECT = Pattern.compile("[A-Za-z0-9.\\-_]+");
+
+    /**
+     * Digits pattern.
+     */
+    private static final Pattern DIGITS = Pattern.compile("\\d{1,18}");
+
+    /**
+     * Upload too large error message.
+     */
+    private static final String TOO_LARGE = "Upload exceeds max size";
+
+    /**
+     * Quota exceeded error message.
+     */
+    private static final String QUOTA = "Repository storage quota exceeded";
+
     /**
      * The Storage.
      */
     private final Storage storage;
 
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Executor of blocking work.
+     */
+    private final Blocking blocking;
+
+    /**
+     * Upload limits.
+     */
+    private final UploadLimits limits;
+
+    /**
+     * Repository storage quota.
+     */
+    private final Quota quota;
+
+    /**
+     * Coordination of project commits.
+     */
+    private final ProjectLock lock;
+
+    /**
+     * Project catalogs updates.
+     */
+    private final CatalogUpdates updates;
+
     /**
      * Ctor.
      *
      * @param storage Storage.
      */
     WheelSlice(final Storage storage) {
+        this(storage, Metrics.NOP, new Blocking());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage Storage.
+     * @param metrics Metrics.
+     * @param blocking Executor of blocking work.
+     */
+    WheelSlice(final Storage storage, final Metrics metrics, final Blocking blocking) {
+        this(storage, metrics, blocking, UploadLimits.UNLIMITED);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage Storage.
+     * @param metrics Metrics.
+     * @param blocking Executor of blocking work.
+     * @param limits Upload limits.
+     */
+    WheelSlice(final Storage storage, final Metrics metrics, final Blocking blocking,
+        final UploadLimits limits) {
+        this(storage, metrics, blocking, limits, new ProjectLock.Striped());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage Storage.
+     * @param metrics Metrics.
+     * @param blocking Executor of blocking work.
+     * @param limits Upload limits.
+     * @param lock Coordination of project commits.
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    WheelSlice(final Storage storage, final Metrics metrics, final Blocking blocking,
+        final UploadLimits limits, final ProjectLock lock) {
+        this(storage, metrics, blocking, limits, lock, Duration.ZERO);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage Storage.
+     * @param metrics Metrics.
+     * @param blocking Executor of blocking work.
+     * @param limits Upload limits.
+     * @param lock Coordination of project commits.
+     * @param window Time to coalesce project catalog updates within.
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    WheelSlice(final Storage storage, final Metrics metrics, final Blocking blocking,
+        final UploadLimits limits, final ProjectLock lock, final Duration window) {
         this.storage = storage;
+        this.metrics = metrics;
+        this.blocking = blocking;
+        this.limits = limits;
+        this.quota = new Quota(storage, limits.quota());
+        this.lock = lock;
+        this.updates = new CatalogUpdates(storage, lock, window);
     }
 
     @Override
@@ -61,51 +207,362 @@ final class WheelSlice implements Slice {
         final Iterable<Map.Entry<String, String>> iterable,
         final Publisher<ByteBuffer> publisher
     ) {
-        final Path path = new Unchecked<>(() -> Files.createTempDirectory("py-artifact-")).value();
+        final long length = new RqHeaders(iterable, "Content-Length").stream()
+            .filter(value -> WheelSlice.DIGITS.matcher(value).matches())
+            .findFirst().map(Long::parseLong).orElse(0L);
+        final Response res;
+        if (length > this.limits.size()) {
+            res = this.rejected(
+                new ArtipieHttpException(RsStatus.PAYLOAD_TOO_LARGE, WheelSlice.TOO_LARGE)
+            );
+        } else {
+            res = new AsyncResponse(
+                this.quota.reserve(length).thenCompose(
+                    reserved -> {
+                        final CompletionStage<Response> rsp;
+                        if (reserved) {
+                            rsp = this.blocking.supply(
+                                new Unchecked<>(
+                                    () -> Files.createTempDirectory("py-artifact-")
+                                )::value
+                            ).whenComplete(
+                                (path, err) -> {
+                                    if (err != null) {
+                                        this.quota.release(length);
+                                    }
+                                }
+                            ).thenCompose(
+                                path -> this.upload(
+                                    line, iterable, this.limited(publisher), path,
+                                    new AtomicLong(length)
+                                ).whenCompleteAsync(
+                                    (rs, err) -> FileUtils.deleteQuietly(path.toFile()),
+                                    this.blocking
+                                )
+                            );
+                        } else {
+                            rsp = CompletableFuture.completedFuture(
+                                this.rejected(
+                                    new ArtipieHttpException(
+                                        RsStatus.PAYLOAD_TOO_LARGE, WheelSlice.QUOTA
+                                    )
+                                )
+                            );
+                        }
+                        return rsp;
+                    }
+                )
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Upload archive from multipart body through temp directory. File name is checked
+     * as soon as file part headers arrive: project name should be valid and file should
+     * not exist in the repository.
+     * @param line Request line
+     * @param iterable Request headers
+     * @param publisher Request body
+     * @param path Temp directory
+     * @param held Bytes reserved in repository quota
+     * @return Response
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private CompletionStage<Response> upload(final String line,
+        final Iterable<Map.Entry<String, String>> iterable, final Publisher<ByteBuffer> publisher,
+        final Path path, final AtomicLong held) {
         final Path file = path.resolve(UUID.randomUUID().toString());
         final Storage temp = new FileStorage(path);
         final Key.From key = new Key.From(file.getFileName().toString());
+        final Span parsing = Trace.UPLOAD.start("multipart");
         // @checkstyle ReturnCountCheck (50 lines)
-        return new AsyncResponse(
-            new Multipart(iterable, publisher).content().thenCompose(
-                data -> temp.save(key, new Content.From(data.bytes()))
-                    .thenCompose(nothing -> new Copy(temp, new ListOf<>(key)).copy(this.storage))
-                    .thenCompose(
-                        ignored -> {
-                            final PackageInfo info =
-                                new Metadata.FromArchive(file, data.fileName()).read();
-                            if (new ValidFilename(info, data.fileName()).valid()) {
-                                return this.storage.move(
-                                    key,
-                                    new Key.From(
-                                        new KeyFromPath(new RequestLineFrom(line).uri().toString()),
-                                        new NormalizedProjectName.Simple(info.name()).value(),
-                                        data.fileName()
-                                    )
+        return new Multipart(iterable, publisher).content(name -> this.check(line, name))
+            .thenCompose(
+                data -> {
+                    final long size = data.bytes().length;
+                    parsing.end(null, size, data.fileName());
+                    return this.quota.reserve(size - held.get()).thenCompose(
+                        reserved -> {
+                            if (!reserved) {
+                                throw new ArtipieHttpException(
+                                    RsStatus.PAYLOAD_TOO_LARGE, WheelSlice.QUOTA
                                 );
-                            } else {
-                                return this.storage.delete(key).thenApply(
+                            }
+                            held.set(size);
+                            final Span saving = Trace.UPLOAD.start("temp");
+                            return temp.save(key, new Content.From(data.bytes()))
+                                .thenApply(
                                     nothing -> {
-                                        throw new IllegalArgumentException(
-                                            "Uploaded filename does not correspond to file metadata"
-                                        );
+                                        saving.end(null, size, file.toString());
+                                        return data;
                                     }
                                 );
-                            }
                         }
-                    )
+                    );
+                }
+            )
+            .thenCompose(
+                data -> this.blocking.supply(() -> this.metadata(file, data)).thenCompose(
+                    info -> {
+                        final long size = data.bytes().length;
+                        final Key dest = WheelSlice.destination(
+                            line, info.name(), data.fileName()
+                        );
+                        final Span copying = Trace.UPLOAD.start("copy");
+                        return new Sidecars(this.storage, this.blocking)
+                            .prepare(dest, file, info.requiresPython())
+                            .thenCompose(
+                                prepared -> this.discarding(
+                                    key,
+                                    new Copy(temp, new ListOf<>(key))
+                                        .copy(this.storage)
+                                        .thenCompose(
+                                            nothing -> {
+                                                copying.end(info.name(), size, key.string());
+                                                return this.lock.exclusively(
+                                                    dest.parent().get(),
+                                                    () -> this.commit(key, dest, prepared)
+                                                );
+                                            }
+                                        )
+                                ).thenCompose(entry -> this.catalog(dest, entry))
+                            );
+                    }
+                )
             ).handle(
                 (ignored, throwable) -> {
-                    Response res = new RsWithStatus(RsStatus.CREATED);
-                    if (throwable != null) {
-                        res = new RsError(
-                            new ArtipieHttpException(RsStatus.BAD_REQUEST, throwable)
-                        );
+                    final Response res;
+                    if (throwable == null) {
+                        res = new RsWithStatus(RsStatus.CREATED);
+                        this.metrics.counter(Metrics.UPLOADS, 1, "result", "success");
+                    } else {
+                        this.quota.release(held.get());
+                        res = this.failed(throwable);
                     }
-                    FileUtils.deleteQuietly(path.toFile());
                     return res;
                 }
-            )
+            );
+    }
+
+    /**
+     * Commit uploaded archive copied to the storage, performed exclusively for the
+     * project: archive existence is checked again, as it could be uploaded concurrently,
+     * then sidecar files are saved, archive is moved to destination and next generation
+     * of the project is started, so cached index links of the project are not served
+     * without the archive even if the catalog update fails, see {@link Generations}.
+     * @param key Key of the archive copy
+     * @param dest Archive destination key
+     * @param prepared Sidecar files of the archive
+     * @return Catalog entry of the archive
+     */
+    private CompletionStage<Catalog.Entry> commit(final Key key, final Key dest,
+        final Sidecars.Prepared prepared) {
+        return this.storage.exists(dest).thenCompose(
+            exists -> {
+                if (exists) {
+                    throw new ArtipieHttpException(
+                        RsStatus.CONFLICT,
+                        String.format("File already exists: %s", new KeyLastPart(dest).get())
+                    );
+                }
+                final Span moving = Trace.UPLOAD.start("move");
+                return prepared.save()
+                    .thenCompose(entry -> this.storage.move(key, dest))
+                    .thenCompose(nothing -> new Generations(this.storage).next(dest.parent().get()))
+                    .thenApply(
+                        nothing -> {
+                            moving.end(
+                                new KeyLastPart(dest.parent().get()).get(), -1, dest.string()
+                            );
+                            return prepared.entry();
+                        }
+                    );
+            }
+        );
+    }
+
+    /**
+     * Delete the archive copy from the storage if the commit fails for any reason,
+     * e.g. conflict, failed copy or failed save of sidecar files, so failed upload leaves
+     * no files in the storage.
+     * @param key Key of the archive copy
+     * @param commit Copy and commit of the archive
+     * @return Catalog entry of the archive
+     */
+    private CompletionStage<Catalog.Entry> discarding(final Key key,
+        final CompletionStage<Catalog.Entry> commit) {
+        return commit.handle(
+            (entry, err) -> {
+                final CompletionStage<Catalog.Entry> res;
+                if (err == null) {
+                    res = CompletableFuture.completedFuture(entry);
+                } else {
+                    res = this.storage.delete(key).handle(
+                        (nothing, ignored) -> {
+                            throw new CompletionException(err);
+                        }
+                    );
+                }
+                return res;
+            }
+        ).thenCompose(Function.identity());
+    }
+
+    /**
+     * Add uploaded archive to project catalog, updates of the project catalog by
+     * concurrent uploads are coalesced, see {@link CatalogUpdates}. Catalog update
+     * failure does not fail the upload: index page reads archives missing from catalog.
+     * @param dest Archive destination key
+     * @param entry Catalog entry of the archive
+     * @return Completion
+     */
+    private CompletionStage<Void> catalog(final Key dest, final Catalog.Entry entry) {
+        final Span updating = Trace.UPLOAD.start("catalog");
+        final Key dir = dest.parent().get();
+        return this.updates.add(dir, entry).handle(
+            (nothing, err) -> {
+                updating.end(new KeyLastPart(dir).get(), -1, dest.string());
+                return null;
+            }
+        );
+    }
+
+    /**
+     * Check uploaded file name before file data is read.
+     * @param line Request line
+     * @param filename File name
+     * @return Completed stage if file can be uploaded
+     */
+    private CompletionStage<Void> check(final String line, final String filename) {
+        final Optional<String> project = new ArchiveName(filename).project()
+            .filter(name -> WheelSlice.PROJECT.matcher(name).matches());
+        final CompletionStage<Void> res;
+        if (project.isPresent()) {
+            res = this.storage.exists(WheelSlice.destination(line, project.get(), filename))
+                .thenAccept(
+                    exists -> {
+                        if (exists) {
+                            throw new ArtipieHttpException(
+                                RsStatus.CONFLICT,
+                                String.format("File already exists: %s", filename)
+                            );
+                        }
+                    }
+                );
+        } else {
+            final CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(
+                new ArtipieHttpException(
+                    RsStatus.BAD_REQUEST,
+                    String.format("Invalid python package file name: %s", filename)
+                )
+            );
+            res = failed;
+        }
+        return res;
+    }
+
+    /**
+     * Request body failing with payload too large error as soon as it exceeds
+     * max upload size, body without {@code Content-Length} header is checked this way.
+     * @param publisher Request body
+     * @return Limited body
+     */
+    private Publisher<ByteBuffer> limited(final Publisher<ByteBuffer> publisher) {
+        final Publisher<ByteBuffer> res;
+        if (this.limits.size() == Long.MAX_VALUE) {
+            res = publisher;
+        } else {
+            final AtomicLong read = new AtomicLong();
+            res = Flowable.fromPublisher(publisher).doOnNext(
+                buf -> {
+                    if (read.addAndGet(buf.remaining()) > this.limits.size()) {
+                        throw new ArtipieHttpException(
+                            RsStatus.PAYLOAD_TOO_LARGE, WheelSlice.TOO_LARGE
+                        );
+                    }
+                }
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Response to failed upload: upload rejected by limits or file name checks gets
+     * status of the check, other failures are bad requests.
+     * @param throwable Failure
+     * @return Response
+     */
+    private Response failed(final Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        final Response res;
+        if (cause instanceof ArtipieHttpException) {
+            res = this.rejected((ArtipieHttpException) cause);
+        } else {
+            res = new RsError(new ArtipieHttpException(RsStatus.BAD_REQUEST, throwable));
+            this.metrics.counter(Metrics.UPLOADS, 1, "result", "failure");
+        }
+        return res;
+    }
+
+    /**
+     * Response to rejected upload.
+     * @param err Rejection reason
+     * @return Response
+     */
+    private Response rejected(final ArtipieHttpException err) {
+        this.metrics.counter(Metrics.UPLOADS, 1, "result", "rejected");
+        return new RsError(err);
+    }
+
+    /**
+     * Read metadata of uploaded archive and check it corresponds to file name. When upload
+     * form declares package metadata, as twine does, only metadata file of the archive is
+     * read and form fields are checked against it, otherwise the archive is scanned
+     * for metadata.
+     * @param file Archive path
+     * @param data Upload form data
+     * @return Package info
+     * @throws IllegalArgumentException If metadata does not correspond to file name or
+     *  form fields
+     */
+    private PackageInfo metadata(final Path file, final Multipart.Data data) {
+        final Span reading = Trace.METADATA.start("upload");
+        final long start = System.nanoTime();
+        final FormFields form = new FormFields(data);
+        final PackageInfo info;
+        if (form.declared()) {
+            info = form.verified(new Metadata.FromEntry(file, data.fileName()).read());
+        } else {
+            info = new Metadata.FromArchive(file, data.fileName()).read();
+        }
+        this.metrics.timer(Metrics.METADATA, System.nanoTime() - start);
+        reading.end(info.name(), data.bytes().length, data.fileName());
+        if (!new ValidFilename(info, data.fileName()).valid()) {
+            throw new IllegalArgumentException(
+                "Uploaded filename does not correspond to file metadata"
+            );
+        }
+        return info;
+    }
+
+    /**
+     * Destination key of the uploaded archive in project directory.
+     * @param line Request line
+     * @param project Project name
+     * @param filename Archive file name
+     * @return Key
+     */
+    private static Key destination(final String line, final String project,
+        final String filename) {
+        return new Key.From(
+            new KeyFromPath(new RequestLineFrom(line).uri().toString()),
+            new NormalizedProjectName.Simple(project).value(),
+            filename
         );
     }
 }
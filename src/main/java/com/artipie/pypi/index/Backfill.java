@@ -0,0 +1,658 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.index;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.KeyLastPart;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.asto.fs.FileStorage;
+import com.artipie.pypi.Blocking;
+import com.artipie.pypi.meta.Metadata;
+import hu.akarnokd.rxjava2.interop.CompletableInterop;
+import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.apache.commons.io.FileUtils;
+import org.cactoos.scalar.Unchecked;
+
+/**
+ * Backfill of index data for artifacts stored before it was computed on upload:
+ * sidecar files and catalogs of all projects in the storage.
+ * <p>
+ * Artifacts are grouped by project directories, artifacts missing from project
+ * catalog are read with bounded concurrency, their sidecar files are saved and
+ * catalog is updated once all missing artifacts of the project are read. Storage
+ * reads are throttled to the given rate, so backfill can run on live repository.
+ * <p>
+ * Projects are processed in directories order, the last directory such that it and
+ * all directories before it are done is saved to the storage as checkpoint: run after
+ * a crash starts after it, and projects already in catalogs are skipped anyway.
+ * Checkpoint is removed when all projects are done. Artifacts in storage root
+ * directory have no catalog and are not processed.
+ * <p>
+ * Catalogs are updated under the project lock of the repository, so backfill running
+ * along with uploads does not lose their catalog entries: pass the lock repository
+ * uploads use, e.g. {@link ProjectLock.Leased} if the repository is served by other
+ * process.
+ *
+ * @since 0.8
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+public final class Backfill {
+
+    /**
+     * Checkpoint key.
+     */
+    static final Key CHECKPOINT = new Key.From(".pypi", "backfill");
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Executor of blocking work.
+     */
+    private final Blocking blocking;
+
+    /**
+     * Maximum amount of artifacts read in parallel.
+     */
+    private final int concurrency;
+
+    /**
+     * Storage reads throttle.
+     */
+    private final Throttle throttle;
+
+    /**
+     * Progress messages consumer.
+     */
+    private final Consumer<String> progress;
+
+    /**
+     * Coordination of catalog updates with uploads.
+     */
+    private final ProjectLock lock;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param concurrency Maximum amount of artifacts read in parallel
+     * @param rate Max storage read rate in bytes per second, {@link Long#MAX_VALUE}
+     *  for no throttling
+     * @param progress Progress messages consumer
+     * @param lock Coordination of catalog updates, the one of repository uploads
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Backfill(final Storage storage, final int concurrency, final long rate,
+        final Consumer<String> progress, final ProjectLock lock) {
+        this(storage, new Blocking(), concurrency, rate, progress, lock);
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param blocking Executor of blocking work
+     * @param concurrency Maximum amount of artifacts read in parallel
+     * @param rate Max storage read rate in bytes per second, {@link Long#MAX_VALUE}
+     *  for no throttling
+     * @param progress Progress messages consumer
+     * @param lock Coordination of catalog updates, the one of repository uploads
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Backfill(final Storage storage, final Blocking blocking, final int concurrency,
+        final long rate, final Consumer<String> progress, final ProjectLock lock) {
+        this.storage = storage;
+        this.blocking = blocking;
+        this.concurrency = concurrency;
+        this.throttle = new Throttle(rate);
+        this.progress = progress;
+        this.lock = lock;
+    }
+
+    /**
+     * Backfill index data of all projects.
+     * @return Result
+     */
+    public CompletionStage<Result> run() {
+        final Result result = new Result();
+        return this.checkpoint().thenCompose(
+            from -> this.storage.list(Key.ROOT).thenApply(keys -> Backfill.projects(keys, from))
+        ).thenCompose(
+            projects -> {
+                final Watermark marks = new Watermark(projects.keySet());
+                return Flowable.fromIterable(projects.entrySet())
+                    .flatMapSingle(
+                        entry -> SingleInterop.fromFuture(
+                            this.pending(entry.getKey(), entry.getValue(), result, marks)
+                        ),
+                        false, this.concurrency
+                    )
+                    .concatMapIterable(Project::tasks)
+                    .flatMapCompletable(
+                        task -> CompletableInterop.fromFuture(
+                            this.artifact(task.getKey(), task.getValue(), result, marks)
+                        ),
+                        false, this.concurrency
+                    )
+                    .andThen(
+                        Completable.defer(
+                            () -> CompletableInterop.fromFuture(this.finish(marks))
+                        )
+                    )
+                    .andThen(Single.fromCallable(() -> result))
+                    .to(SingleInterop.get());
+            }
+        );
+    }
+
+    /**
+     * Find project artifacts missing from its catalog.
+     * @param dir Project directory
+     * @param keys Project artifacts
+     * @param result Result
+     * @param marks Done projects
+     * @return Project with missing artifacts
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private CompletionStage<Project> pending(final String dir, final List<Key> keys,
+        final Result result, final Watermark marks) {
+        return new Catalogs(this.storage).load(new Key.From(dir)).thenCompose(
+            catalog -> {
+                final List<Key> missing = keys.stream().filter(
+                    key -> !catalog.flatMap(ctl -> ctl.entry(new KeyLastPart(key).get()))
+                        .isPresent()
+                ).collect(Collectors.toList());
+                final Project project = new Project(dir, missing);
+                final CompletionStage<Project> res;
+                if (missing.isEmpty()) {
+                    result.skipped();
+                    res = this.done(dir, marks).thenApply(nothing -> project);
+                } else {
+                    res = CompletableFuture.completedFuture(project);
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Index the artifact and update project catalog if it is the last artifact of
+     * the project.
+     * @param key Artifact key
+     * @param project Project
+     * @param result Result
+     * @param marks Done projects
+     * @return Completion
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private CompletionStage<Void> artifact(final Key key, final Project project,
+        final Result result, final Watermark marks) {
+        return this.blocking.supply(
+            new Unchecked<>(() -> Files.createTempDirectory("py-backfill-"))::value
+        ).thenCompose(
+            tmp -> this.entry(key, tmp, result).whenCompleteAsync(
+                (entry, err) -> FileUtils.deleteQuietly(tmp.toFile()), this.blocking
+            )
+        ).handle(
+            (entry, err) -> {
+                if (err == null) {
+                    project.indexed(entry);
+                } else {
+                    project.failed();
+                    result.failed(key.string());
+                    this.progress.accept(String.format("Failed to index %s", key.string()));
+                }
+                return project.last();
+            }
+        ).thenCompose(
+            last -> {
+                final CompletionStage<Void> res;
+                if (last) {
+                    res = this.commit(project, result, marks);
+                } else {
+                    res = CompletableFuture.completedFuture(null);
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Copy the artifact to temp directory and save its sidecar files.
+     * @param key Artifact key
+     * @param tmp Temp directory
+     * @param result Result
+     * @return Catalog entry
+     */
+    private CompletionStage<Catalog.Entry> entry(final Key key, final Path tmp,
+        final Result result) {
+        final String filename = new KeyLastPart(key).get();
+        final Path file = tmp.resolve(filename);
+        return this.storage.value(key).thenCompose(
+            content -> new FileStorage(tmp).save(
+                new Key.From(filename), new Content.From(this.throttle.content(content))
+            )
+        ).thenCompose(
+            nothing -> this.blocking.supply(
+                () -> {
+                    result.read(file.toFile().length());
+                    return Backfill.python(file, filename);
+                }
+            )
+        ).thenCompose(
+            python -> new Sidecars(this.storage, this.blocking).save(key, file, python)
+        );
+    }
+
+    /**
+     * Add indexed artifacts to project catalog.
+     * @param project Project
+     * @param result Result
+     * @param marks Done projects
+     * @return Completion
+     */
+    private CompletionStage<Void> commit(final Project project, final Result result,
+        final Watermark marks) {
+        final Key dir = new Key.From(project.dir);
+        return this.lock.exclusively(
+            dir, () -> new Catalogs(this.storage).add(dir, project.entries())
+        ).thenCompose(
+            nothing -> {
+                final CompletionStage<Void> res;
+                this.progress.accept(
+                    String.format(
+                        "Indexed %d files of %s", project.entries().size(), project.dir
+                    )
+                );
+                if (project.complete()) {
+                    result.updated();
+                    res = this.done(project.dir, marks);
+                } else {
+                    res = CompletableFuture.completedFuture(null);
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Mark project done and save checkpoint if it moves.
+     * @param dir Project directory
+     * @param marks Done projects
+     * @return Completion
+     */
+    private CompletionStage<Void> done(final String dir, final Watermark marks) {
+        return marks.done(dir).map(
+            mark -> this.storage.save(
+                Backfill.CHECKPOINT, new Content.From(mark.getBytes(StandardCharsets.UTF_8))
+            )
+        ).orElseGet(() -> CompletableFuture.completedFuture(null));
+    }
+
+    /**
+     * Remove checkpoint if all projects are done.
+     * @param marks Done projects
+     * @return Completion
+     */
+    private CompletionStage<Void> finish(final Watermark marks) {
+        final CompletionStage<Void> res;
+        if (marks.complete()) {
+            res = this.storage.exists(Backfill.CHECKPOINT).thenCompose(
+                exists -> {
+                    final CompletionStage<Void> del;
+                    if (exists) {
+                        del = this.storage.delete(Backfill.CHECKPOINT);
+                    } else {
+                        del = CompletableFuture.completedFuture(null);
+                    }
+                    return del;
+                }
+            );
+        } else {
+            res = CompletableFuture.completedFuture(null);
+        }
+        return res;
+    }
+
+    /**
+     * Read checkpoint.
+     * @return Last done project directory, empty string if there is no checkpoint
+     */
+    private CompletionStage<String> checkpoint() {
+        return this.storage.exists(Backfill.CHECKPOINT).thenCompose(
+            exists -> {
+                final CompletionStage<String> res;
+                if (exists) {
+                    res = this.storage.value(Backfill.CHECKPOINT).thenCompose(
+                        value -> new PublisherAs(value).string(StandardCharsets.UTF_8)
+                    );
+                } else {
+                    res = CompletableFuture.completedFuture("");
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Supported python versions specifier of the artifact.
+     * @param file Artifact file
+     * @param filename Artifact file name
+     * @return Specifier, empty if not declared or metadata can not be read
+     */
+    private static Optional<String> python(final Path file, final String filename) {
+        Optional<String> res;
+        try {
+            res = new Metadata.FromEntry(file, filename).read().requiresPython();
+        } catch (final IllegalArgumentException | UnsupportedOperationException ex) {
+            res = Optional.empty();
+        }
+        return res;
+    }
+
+    /**
+     * Artifacts grouped by project directories after the checkpoint.
+     * @param keys Storage keys
+     * @param from Checkpoint
+     * @return Artifacts by directories in directories order
+     */
+    private static Map<String, List<Key>> projects(final Collection<Key> keys,
+        final String from) {
+        final Map<String, List<Key>> res = new TreeMap<>();
+        for (final Key key : keys) {
+            final Optional<Key> parent = key.parent();
+            if (!Sidecars.derived(key) && parent.isPresent()
+                && !parent.get().string().isEmpty()
+                && parent.get().string().compareTo(from) > 0) {
+                res.computeIfAbsent(parent.get().string(), dir -> new ArrayList<>(1))
+                    .add(key);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Backfill result.
+     * @since 0.8
+     */
+    public static final class Result {
+
+        /**
+         * Projects with updated catalogs.
+         */
+        private final AtomicLong projects;
+
+        /**
+         * Projects already in catalogs.
+         */
+        private final AtomicLong up;
+
+        /**
+         * Read bytes.
+         */
+        private final AtomicLong size;
+
+        /**
+         * Failed artifacts.
+         */
+        private final List<String> failures;
+
+        /**
+         * Ctor.
+         */
+        Result() {
+            this.projects = new AtomicLong();
+            this.up = new AtomicLong();
+            this.size = new AtomicLong();
+            this.failures = Collections.synchronizedList(new ArrayList<>(0));
+        }
+
+        /**
+         * Amount of projects with updated catalogs.
+         * @return Projects count
+         */
+        public long indexed() {
+            return this.projects.get();
+        }
+
+        /**
+         * Amount of projects which catalogs had all artifacts.
+         * @return Projects count
+         */
+        public long upToDate() {
+            return this.up.get();
+        }
+
+        /**
+         * Amount of bytes read from storage.
+         * @return Bytes
+         */
+        public long bytes() {
+            return this.size.get();
+        }
+
+        /**
+         * Artifacts failed to index.
+         * @return Failures
+         */
+        public List<String> failed() {
+            synchronized (this.failures) {
+                return new ArrayList<>(this.failures);
+            }
+        }
+
+        /**
+         * Record project with updated catalog.
+         */
+        void updated() {
+            this.projects.incrementAndGet();
+        }
+
+        /**
+         * Record up to date project.
+         */
+        void skipped() {
+            this.up.incrementAndGet();
+        }
+
+        /**
+         * Record read bytes.
+         * @param bytes Bytes
+         */
+        void read(final long bytes) {
+            this.size.addAndGet(bytes);
+        }
+
+        /**
+         * Record failure.
+         * @param item Failed artifact
+         */
+        void failed(final String item) {
+            this.failures.add(item);
+        }
+    }
+
+    /**
+     * Project with artifacts missing from catalog.
+     * @since 0.8
+     */
+    private static final class Project {
+
+        /**
+         * Project directory.
+         */
+        private final String dir;
+
+        /**
+         * Missing artifacts.
+         */
+        private final List<Key> missing;
+
+        /**
+         * Indexed artifacts entries.
+         */
+        private final Queue<Catalog.Entry> indexed;
+
+        /**
+         * Artifacts not finished yet.
+         */
+        private final AtomicInteger remaining;
+
+        /**
+         * Did any artifact fail?
+         */
+        private final AtomicBoolean failure;
+
+        /**
+         * Ctor.
+         * @param dir Project directory
+         * @param missing Missing artifacts
+         */
+        Project(final String dir, final List<Key> missing) {
+            this.dir = dir;
+            this.missing = missing;
+            this.indexed = new ConcurrentLinkedQueue<>();
+            this.remaining = new AtomicInteger(missing.size());
+            this.failure = new AtomicBoolean();
+        }
+
+        /**
+         * Tasks to index missing artifacts.
+         * @return Artifacts with this project
+         */
+        List<Map.Entry<Key, Project>> tasks() {
+            return this.missing.stream()
+                .<Map.Entry<Key, Project>>map(key -> new AbstractMap.SimpleEntry<>(key, this))
+                .collect(Collectors.toList());
+        }
+
+        /**
+         * Record indexed artifact.
+         * @param entry Catalog entry
+         */
+        void indexed(final Catalog.Entry entry) {
+            this.indexed.add(entry);
+        }
+
+        /**
+         * Record failed artifact.
+         */
+        void failed() {
+            this.failure.set(true);
+        }
+
+        /**
+         * Finish artifact.
+         * @return True if it was the last artifact of the project
+         */
+        boolean last() {
+            return this.remaining.decrementAndGet() == 0;
+        }
+
+        /**
+         * Were all artifacts indexed?
+         * @return True if no artifact failed
+         */
+        boolean complete() {
+            return !this.failure.get();
+        }
+
+        /**
+         * Indexed artifacts entries.
+         * @return Entries
+         */
+        Collection<Catalog.Entry> entries() {
+            return new ArrayList<>(this.indexed);
+        }
+    }
+
+    /**
+     * Done projects in directories order.
+     * @since 0.8
+     */
+    private static final class Watermark {
+
+        /**
+         * Project directories in order.
+         */
+        private final List<String> dirs;
+
+        /**
+         * Done directories, guarded by this.
+         */
+        private final Set<String> finished;
+
+        /**
+         * Amount of directories in order done, guarded by this.
+         */
+        private int mark;
+
+        /**
+         * Ctor.
+         * @param dirs Project directories in order
+         */
+        Watermark(final Collection<String> dirs) {
+            this.dirs = new ArrayList<>(dirs);
+            this.finished = new HashSet<>();
+        }
+
+        /**
+         * Mark project done.
+         * @param dir Project directory
+         * @return Last directory such that all directories before it are done, if
+         *  it moved
+         */
+        synchronized Optional<String> done(final String dir) {
+            this.finished.add(dir);
+            final int before = this.mark;
+            while (this.mark < this.dirs.size()
+                && this.finished.contains(this.dirs.get(this.mark))) {
+                this.mark = this.mark + 1;
+            }
+            final Optional<String> res;
+            if (this.mark > before) {
+                res = Optional.of(this.dirs.get(this.mark - 1));
+            } else {
+                res = Optional.empty();
+            }
+            return res;
+        }
+
+        /**
+         * Are all projects done?
+         * @return True if done
+         */
+        synchronized boolean complete() {
+            return this.mark == this.dirs.size();
+        }
+    }
+}
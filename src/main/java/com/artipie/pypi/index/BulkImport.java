@@ -0,0 +1,406 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.index;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.fs.FileStorage;
+import com.artipie.pypi.Blocking;
+import com.artipie.pypi.NormalizedProjectName;
+import com.artipie.pypi.meta.ArchiveName;
+import com.artipie.pypi.meta.Metadata;
+import com.artipie.pypi.meta.PackageInfo;
+import com.artipie.pypi.meta.ValidFilename;
+import hu.akarnokd.rxjava2.interop.CompletableInterop;
+import hu.akarnokd.rxjava2.interop.SingleInterop;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Bulk import of python packages from local directory, e.g. pip wheelhouse or devpi
+ * export, to the repository.
+ * <p>
+ * Package archives are found in the directory tree by file names, every archive metadata
+ * is read and checked to correspond to file name, see {@link ValidFilename}, and the
+ * archive is stored with its sidecar files by normalized project name, as it is stored on
+ * upload. Archives are imported with bounded concurrency, project catalogs are updated
+ * once per project after all archives are imported. Archives already present in the
+ * repository or found in the tree more than once are skipped and are not added to
+ * catalogs.
+ * <p>
+ * Catalogs are updated under the project lock of the repository, so import running
+ * along with uploads does not lose their catalog entries: pass the lock repository
+ * uploads use, e.g. {@link ProjectLock.Leased} if the repository is served by other
+ * process.
+ *
+ * @since 0.8
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+public final class BulkImport {
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Repository prefix to store projects in.
+     */
+    private final Key prefix;
+
+    /**
+     * Executor of blocking work.
+     */
+    private final Blocking blocking;
+
+    /**
+     * Maximum amount of archives imported in parallel.
+     */
+    private final int concurrency;
+
+    /**
+     * Progress messages consumer.
+     */
+    private final Consumer<String> progress;
+
+    /**
+     * Coordination of catalog updates with uploads.
+     */
+    private final ProjectLock lock;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param concurrency Maximum amount of archives imported in parallel
+     * @param progress Progress messages consumer
+     * @param lock Coordination of catalog updates, the one of repository uploads
+     */
+    public BulkImport(final Storage storage, final int concurrency,
+        final Consumer<String> progress, final ProjectLock lock) {
+        this(storage, Key.ROOT, new Blocking(), concurrency, progress, lock);
+    }
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param prefix Repository prefix to store projects in
+     * @param blocking Executor of blocking work
+     * @param concurrency Maximum amount of archives imported in parallel
+     * @param progress Progress messages consumer
+     * @param lock Coordination of catalog updates, the one of repository uploads
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public BulkImport(final Storage storage, final Key prefix, final Blocking blocking,
+        final int concurrency, final Consumer<String> progress, final ProjectLock lock) {
+        this.storage = storage;
+        this.prefix = prefix;
+        this.blocking = blocking;
+        this.concurrency = concurrency;
+        this.progress = progress;
+        this.lock = lock;
+    }
+
+    /**
+     * Import package archives of the directory tree.
+     * @param dir Directory
+     * @return Result
+     */
+    public CompletionStage<Result> run(final Path dir) {
+        final Result result = new Result();
+        final Map<Key, Queue<Catalog.Entry>> projects = new ConcurrentHashMap<>();
+        return this.blocking.supply(() -> BulkImport.archives(dir)).thenCompose(
+            files -> Flowable.fromIterable(this.unique(files, result))
+                .flatMapCompletable(
+                    file -> CompletableInterop.fromFuture(this.archive(file, result, projects)),
+                    false, this.concurrency
+                )
+                .andThen(Flowable.defer(() -> Flowable.fromIterable(projects.entrySet())))
+                .flatMapCompletable(
+                    project -> CompletableInterop.fromFuture(
+                        this.lock.exclusively(
+                            project.getKey(),
+                            () -> new Catalogs(this.storage).add(
+                                project.getKey(), new ArrayList<>(project.getValue())
+                            )
+                        ).thenAccept(nothing -> result.cataloged())
+                    ),
+                    false, this.concurrency
+                )
+                .andThen(Single.fromCallable(() -> result))
+                .to(SingleInterop.get())
+        );
+    }
+
+    /**
+     * Archives with distinct destination keys: archives with the same file name, e.g. in
+     * different directories of the tree, are stored to the same key, so only the first of
+     * them is imported and the rest are skipped, as if they were present in the repository.
+     * @param files Archive files
+     * @param result Result
+     * @return Archive files to import
+     */
+    private List<Path> unique(final List<Path> files, final Result result) {
+        final Set<String> dests = new HashSet<>();
+        final List<Path> res = new ArrayList<>(files.size());
+        for (final Path file : files) {
+            final String filename = file.getFileName().toString();
+            final Key dest = new Key.From(
+                this.prefix,
+                new NormalizedProjectName.Simple(new ArchiveName(filename).project().get())
+                    .value(),
+                filename
+            );
+            if (dests.add(dest.string())) {
+                res.add(file);
+            } else {
+                result.skipped();
+                this.progress.accept(String.format("Skipped duplicate %s", file));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Import the archive.
+     * @param file Archive file
+     * @param result Result
+     * @param projects Catalog entries of imported archives by project directories
+     * @return Completion
+     */
+    private CompletionStage<Void> archive(final Path file, final Result result,
+        final Map<Key, Queue<Catalog.Entry>> projects) {
+        final String filename = file.getFileName().toString();
+        return this.blocking.supply(() -> BulkImport.metadata(file, filename)).thenCompose(
+            info -> {
+                final Key dir = new Key.From(
+                    this.prefix, new NormalizedProjectName.Simple(info.name()).value()
+                );
+                final Key dest = new Key.From(dir, filename);
+                return this.storage.exists(dest).thenCompose(
+                    exists -> {
+                        final CompletionStage<Void> res;
+                        if (exists) {
+                            result.skipped();
+                            this.progress.accept(
+                                String.format("Skipped existing %s", dest.string())
+                            );
+                            res = CompletableFuture.completedFuture(null);
+                        } else {
+                            res = this.store(file, dest, info).thenAccept(
+                                entry -> {
+                                    projects.computeIfAbsent(
+                                        dir, key -> new ConcurrentLinkedQueue<>()
+                                    ).add(entry);
+                                    result.imported(file.toFile().length());
+                                    this.progress.accept(
+                                        String.format("Imported %s", dest.string())
+                                    );
+                                }
+                            );
+                        }
+                        return res;
+                    }
+                );
+            }
+        ).exceptionally(
+            err -> {
+                result.failed(file.toString());
+                this.progress.accept(String.format("Failed to import %s", file));
+                return null;
+            }
+        );
+    }
+
+    /**
+     * Store the archive with its sidecar files, sidecar files are stored first.
+     * @param file Archive file
+     * @param dest Archive key
+     * @param info Package info
+     * @return Catalog entry of the archive
+     */
+    private CompletionStage<Catalog.Entry> store(final Path file, final Key dest,
+        final PackageInfo info) {
+        return new Sidecars(this.storage, this.blocking)
+            .save(dest, file, info.requiresPython())
+            .thenCompose(
+                entry -> new FileStorage(file.getParent())
+                    .value(new Key.From(file.getFileName().toString()))
+                    .thenCompose(content -> this.storage.save(dest, content))
+                    .thenApply(nothing -> entry)
+            );
+    }
+
+    /**
+     * Read metadata of the archive and check it corresponds to file name.
+     * @param file Archive file
+     * @param filename Archive file name
+     * @return Package info
+     * @throws IllegalArgumentException If metadata does not correspond to file name
+     */
+    private static PackageInfo metadata(final Path file, final String filename) {
+        final PackageInfo info = new Metadata.FromEntry(file, filename).read();
+        if (!new ValidFilename(info, filename).valid()) {
+            throw new IllegalArgumentException(
+                String.format("File name does not correspond to metadata: %s", filename)
+            );
+        }
+        return info;
+    }
+
+    /**
+     * Package archives in the directory tree.
+     * @param dir Directory
+     * @return Archive files
+     */
+    private static List<Path> archives(final Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile)
+                .filter(
+                    file -> new ArchiveName(file.getFileName().toString()).project().isPresent()
+                )
+                .sorted()
+                .collect(Collectors.toList());
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Import result.
+     * @since 0.8
+     */
+    public static final class Result {
+
+        /**
+         * Imported archives.
+         */
+        private final AtomicLong count;
+
+        /**
+         * Imported bytes.
+         */
+        private final AtomicLong size;
+
+        /**
+         * Archives already present in the repository or duplicated in the tree.
+         */
+        private final AtomicLong present;
+
+        /**
+         * Updated project catalogs.
+         */
+        private final AtomicLong catalogs;
+
+        /**
+         * Failed archives.
+         */
+        private final List<String> failures;
+
+        /**
+         * Ctor.
+         */
+        Result() {
+            this.count = new AtomicLong();
+            this.size = new AtomicLong();
+            this.present = new AtomicLong();
+            this.catalogs = new AtomicLong();
+            this.failures = Collections.synchronizedList(new ArrayList<>(0));
+        }
+
+        /**
+         * Amount of imported archives.
+         * @return Archives count
+         */
+        public long files() {
+            return this.count.get();
+        }
+
+        /**
+         * Amount of imported bytes.
+         * @return Bytes
+         */
+        public long bytes() {
+            return this.size.get();
+        }
+
+        /**
+         * Amount of archives skipped as already present in the repository or duplicated
+         * in the imported tree.
+         * @return Archives count
+         */
+        public long existing() {
+            return this.present.get();
+        }
+
+        /**
+         * Amount of projects with updated catalogs.
+         * @return Projects count
+         */
+        public long projects() {
+            return this.catalogs.get();
+        }
+
+        /**
+         * Archives failed to import: invalid, not corresponding to their names or
+         * failed to store.
+         * @return Failed archives paths
+         */
+        public List<String> failed() {
+            synchronized (this.failures) {
+                return new ArrayList<>(this.failures);
+            }
+        }
+
+        /**
+         * Record imported archive.
+         * @param bytes Archive size
+         */
+        void imported(final long bytes) {
+            this.count.incrementAndGet();
+            this.size.addAndGet(bytes);
+        }
+
+        /**
+         * Record skipped archive.
+         */
+        void skipped() {
+            this.present.incrementAndGet();
+        }
+
+        /**
+         * Record updated catalog.
+         */
+        void cataloged() {
+            this.catalogs.incrementAndGet();
+        }
+
+        /**
+         * Record failure.
+         * @param item Failed archive
+         */
+        void failed(final String item) {
+            this.failures.add(item);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.index;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonReader;
+import javax.json.JsonValue;
+
+/**
+ * Catalog of project artifacts: materialized index data of every artifact of the
+ * project directory, so index page is built by one read instead of reading
+ * every artifact and its sidecar files.
+ * <p>
+ * Catalog is stored as json, e.g.
+ * {@code {"files":[{"filename":"abc-0.1.tar.gz","sha256":"..","requires-python":">=3.6"}]}},
+ * wheels entries have {@code core-metadata} digest of their core metadata file.
+ *
+ * @since 0.8
+ */
+public final class Catalog {
+
+    /**
+     * File name field.
+     */
+    private static final String FILENAME = "filename";
+
+    /**
+     * Artifact digest field.
+     */
+    private static final String SHA = "sha256";
+
+    /**
+     * Core metadata file digest field.
+     */
+    private static final String CORE = "core-metadata";
+
+    /**
+     * Supported python versions field.
+     */
+    private static final String PYTHON = "requires-python";
+
+    /**
+     * Files field.
+     */
+    private static final String FILES = "files";
+
+    /**
+     * Entries by file names.
+     */
+    private final Map<String, Entry> entries;
+
+    /**
+     * Ctor of empty catalog.
+     */
+    public Catalog() {
+        this(Collections.emptyList());
+    }
+
+    /**
+     * Ctor.
+     * @param entries Entries
+     */
+    public Catalog(final Collection<Entry> entries) {
+        this.entries = new TreeMap<>();
+        entries.forEach(entry -> this.entries.put(entry.filename(), entry));
+    }
+
+    /**
+     * Entry of the artifact.
+     * @param filename Artifact file name
+     * @return Entry if catalog has it
+     */
+    public Optional<Entry> entry(final String filename) {
+        return Optional.ofNullable(this.entries.get(filename));
+    }
+
+    /**
+     * All entries ordered by file names.
+     * @return Entries
+     */
+    public Collection<Entry> entries() {
+        return Collections.unmodifiableCollection(this.entries.values());
+    }
+
+    /**
+     * Catalog with added entries, entries of the same artifacts are replaced.
+     * @param added Added entries
+     * @return Catalog
+     */
+    public Catalog with(final Collection<Entry> added) {
+        final Collection<Entry> all = new ArrayList<>(this.entries.values());
+        all.addAll(added);
+        return new Catalog(all);
+    }
+
+    /**
+     * Catalog as json.
+     * @return Json bytes
+     */
+    public byte[] bytes() {
+        final JsonArrayBuilder files = Json.createArrayBuilder();
+        for (final Entry entry : this.entries.values()) {
+            final JsonObjectBuilder file = Json.createObjectBuilder()
+                .add(Catalog.FILENAME, entry.filename())
+                .add(Catalog.SHA, entry.sha256());
+            entry.core().ifPresent(hex -> file.add(Catalog.CORE, hex));
+            entry.python().ifPresent(spec -> file.add(Catalog.PYTHON, spec));
+            files.add(file);
+        }
+        return Json.createObjectBuilder().add(Catalog.FILES, files).build().toString()
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read catalog from json.
+     * @param bytes Json bytes
+     * @return Catalog
+     * @throws JsonException If json is malformed
+     * @throws ClassCastException If json fields have unexpected types
+     */
+    public static Catalog read(final byte[] bytes) {
+        try (JsonReader reader = Json.createReader(new ByteArrayInputStream(bytes))) {
+            final JsonObject json = reader.readObject();
+            if (!json.containsKey(Catalog.FILES)) {
+                throw new JsonException("Catalog has no files");
+            }
+            final Collection<Entry> entries = new ArrayList<>(0);
+            for (final JsonValue value : json.getJsonArray(Catalog.FILES)) {
+                final JsonObject file = (JsonObject) value;
+                entries.add(
+                    new Entry(
+                        Catalog.required(file, Catalog.FILENAME),
+                        Catalog.required(file, Catalog.SHA),
+                        Optional.ofNullable(file.getString(Catalog.CORE, null)),
+                        Optional.ofNullable(file.getString(Catalog.PYTHON, null))
+                    )
+                );
+            }
+            return new Catalog(entries);
+        }
+    }
+
+    /**
+     * Required string field.
+     * @param json Json object
+     * @param name Field name
+     * @return Field value
+     * @throws JsonException If field is absent
+     */
+    private static String required(final JsonObject json, final String name) {
+        final String res = json.getString(name, null);
+        if (res == null) {
+            throw new JsonException(String.format("Catalog entry has no %s", name));
+        }
+        return res;
+    }
+
+    /**
+     * Index data of the artifact.
+     * @since 0.8
+     */
+    public static final class Entry {
+
+        /**
+         * Artifact file name.
+         */
+        private final String name;
+
+        /**
+         * Artifact SHA-256 hex digest.
+         */
+        private final String sha;
+
+        /**
+         * Core metadata file SHA-256 hex digest.
+         */
+        private final Optional<String> meta;
+
+        /**
+         * Supported python versions specifier.
+         */
+        private final Optional<String> spec;
+
+        /**
+         * Ctor.
+         * @param name Artifact file name
+         * @param sha Artifact SHA-256 hex digest
+         * @param meta Core metadata file SHA-256 hex digest, empty if artifact has no
+         *  such file
+         * @param spec Supported python versions specifier, empty if not declared
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        public Entry(final String name, final String sha, final Optional<String> meta,
+            final Optional<String> spec) {
+            this.name = name;
+            this.sha = sha;
+            this.meta = meta;
+            this.spec = spec;
+        }
+
+        /**
+         * Artifact file name.
+         * @return File name
+         */
+        public String filename() {
+            return this.name;
+        }
+
+        /**
+         * Artifact SHA-256 hex digest.
+         * @return Hex digest
+         */
+        public String sha256() {
+            return this.sha;
+        }
+
+        /**
+         * Core metadata file SHA-256 hex digest.
+         * @return Hex digest, empty if artifact has no core metadata file
+         */
+        public Optional<String> core() {
+            return this.meta;
+        }
+
+        /**
+         * Supported python versions specifier.
+         * @return Specifier, empty if not declared
+         */
+        public Optional<String> python() {
+            return this.spec;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.index;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import io.reactivex.Completable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesced updates of project catalogs: entries added to the same project within the
+ * window, or while previous catalog update of the project is performed, are written to
+ * the catalog at once, so a burst of uploads rewrites the catalog once per batch.
+ * Catalog is updated exclusively for the project, see {@link ProjectLock}. Every addition
+ * is completed after the catalog with its entry is saved, so it is visible to the uploader.
+ *
+ * @since 0.8
+ */
+public final class CatalogUpdates {
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Coordination of catalog updates.
+     */
+    private final ProjectLock lock;
+
+    /**
+     * Time to wait for more entries of the project before catalog update.
+     */
+    private final Duration window;
+
+    /**
+     * Batches of entries waiting for catalog update by project directories,
+     * guarded by itself.
+     */
+    private final Map<Key, Batch> pending;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param lock Coordination of catalog updates
+     * @param window Time to wait for more entries of the project before catalog update,
+     *  zero to coalesce only entries added while previous update is performed
+     */
+    public CatalogUpdates(final Storage storage, final ProjectLock lock,
+        final Duration window) {
+        this.storage = storage;
+        this.lock = lock;
+        this.window = window;
+        this.pending = new HashMap<>();
+    }
+
+    /**
+     * Add entry to the project catalog.
+     * @param dir Project directory
+     * @param entry Catalog entry
+     * @return Completion, when the catalog with the entry is saved
+     */
+    public CompletionStage<Void> add(final Key dir, final Catalog.Entry entry) {
+        final Batch batch;
+        final boolean opened;
+        synchronized (this.pending) {
+            final Batch current = this.pending.get(dir);
+            opened = current == null;
+            if (opened) {
+                batch = new Batch();
+                this.pending.put(dir, batch);
+            } else {
+                batch = current;
+            }
+            batch.entries.add(entry);
+        }
+        if (opened) {
+            Completable.timer(this.window.toNanos(), TimeUnit.NANOSECONDS)
+                .subscribe(() -> this.flush(dir, batch));
+        }
+        return batch.done;
+    }
+
+    /**
+     * Write batch entries to the catalog. Batch is closed when the update starts, so
+     * entries added during the update form the next batch.
+     * @param dir Project directory
+     * @param batch Batch
+     */
+    private void flush(final Key dir, final Batch batch) {
+        this.lock.exclusively(
+            dir,
+            () -> {
+                final List<Catalog.Entry> entries;
+                synchronized (this.pending) {
+                    this.pending.remove(dir, batch);
+                    entries = new ArrayList<>(batch.entries);
+                }
+                return new Catalogs(this.storage).add(dir, entries);
+            }
+        ).whenComplete(
+            (nothing, err) -> {
+                if (err == null) {
+                    batch.done.complete(null);
+                } else {
+                    batch.done.completeExceptionally(err);
+                }
+            }
+        );
+    }
+
+    /**
+     * Entries waiting for catalog update.
+     * @since 0.8
+     */
+    private static final class Batch {
+
+        /**
+         * Entries, guarded by pending batches.
+         */
+        private final List<Catalog.Entry> entries;
+
+        /**
+         * Completion of catalog update.
+         */
+        private final CompletableFuture<Void> done;
+
+        /**
+         * Ctor.
+         */
+        Batch() {
+            this.entries = new ArrayList<>(1);
+            this.done = new CompletableFuture<>();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.index;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import javax.json.JsonException;
+
+/**
+ * Catalogs of projects in the storage, catalog of the project is stored in project
+ * directory as {@code .catalog.json} file. Malformed catalog is treated as absent
+ * and is replaced by the next update.
+ *
+ * @since 0.8
+ */
+public final class Catalogs {
+
+    /**
+     * Catalog file name.
+     */
+    public static final String NAME = ".catalog.json";
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     */
+    public Catalogs(final Storage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Load catalog of the project.
+     * @param dir Project directory
+     * @return Catalog, empty if project has no catalog
+     */
+    public CompletionStage<Optional<Catalog>> load(final Key dir) {
+        final Key key = Catalogs.key(dir);
+        return this.storage.exists(key).thenCompose(
+            exists -> {
+                final CompletionStage<Optional<Catalog>> res;
+                if (exists) {
+                    res = this.storage.value(key)
+                        .thenCompose(value -> new PublisherAs(value).bytes())
+                        .thenApply(Catalogs::parsed);
+                } else {
+                    res = CompletableFuture.completedFuture(Optional.empty());
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Add entries to catalog of the project, catalog is created if absent. Next generation
+     * of the project is started when the catalog is saved, see {@link Generations}.
+     * @param dir Project directory
+     * @param entries Entries
+     * @return Completion
+     */
+    public CompletionStage<Void> add(final Key dir, final Collection<Catalog.Entry> entries) {
+        return this.load(dir).thenCompose(
+            catalog -> this.storage.save(
+                Catalogs.key(dir),
+                new Content.From(catalog.orElseGet(Catalog::new).with(entries).bytes())
+            )
+        ).thenCompose(nothing -> new Generations(this.storage).next(dir));
+    }
+
+    /**
+     * Catalog key of the project.
+     * @param dir Project directory
+     * @return Key
+     */
+    static Key key(final Key dir) {
+        return new Key.From(dir, Catalogs.NAME);
+    }
+
+    /**
+     * Parse catalog.
+     * @param bytes Catalog bytes
+     * @return Catalog, empty if malformed
+     */
+    private static Optional<Catalog> parsed(final byte[] bytes) {
+        Optional<Catalog> res;
+        try {
+            res = Optional.of(Catalog.read(bytes));
+        } catch (final JsonException | ClassCastException ex) {
+            res = Optional.empty();
+        }
+        return res;
+    }
+}
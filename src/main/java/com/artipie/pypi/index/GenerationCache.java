@@ -0,0 +1,148 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.index;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache of project data, e.g. index page links, valid while generation of
+ * the project is the same, see {@link Generations}. Every read checks generation marker
+ * of the project, so data updated by another node sharing the storage is not served
+ * stale. Data of projects without marker is not cached. Least recently used data is
+ * evicted when the cache is full.
+ *
+ * @param <T> Data type
+ * @since 0.8
+ */
+public final class GenerationCache<T> {
+
+    /**
+     * Generations of projects.
+     */
+    private final Generations generations;
+
+    /**
+     * Max amount of cached items.
+     */
+    private final int size;
+
+    /**
+     * Cached items by project directory and variant, guarded by itself.
+     */
+    private final Map<String, Item<T>> items;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param size Max amount of cached items, zero to disable cache
+     */
+    public GenerationCache(final Storage storage, final int size) {
+        this.generations = new Generations(storage);
+        this.size = size;
+        this.items = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Data of the project, cached or loaded.
+     * @param dir Project directory
+     * @param variant Variant of the data, e.g. links prefix
+     * @param load Data loader
+     * @return Data
+     */
+    public CompletionStage<T> get(final Key dir, final String variant,
+        final Supplier<CompletionStage<T>> load) {
+        final CompletionStage<T> res;
+        if (this.size == 0) {
+            res = load.get();
+        } else {
+            final String name = String.format("%s\n%s", dir.string(), variant);
+            res = this.generations.current(dir).thenCompose(
+                generation -> {
+                    final Optional<T> cached = generation.flatMap(
+                        gen -> this.cached(name, gen)
+                    );
+                    final CompletionStage<T> data;
+                    if (cached.isPresent()) {
+                        data = CompletableFuture.completedFuture(cached.get());
+                    } else {
+                        data = load.get().thenApply(
+                            value -> {
+                                generation.ifPresent(gen -> this.put(name, gen, value));
+                                return value;
+                            }
+                        );
+                    }
+                    return data;
+                }
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Cached data of the generation.
+     * @param name Item name
+     * @param generation Generation
+     * @return Data, empty if not cached or cached for another generation
+     */
+    private Optional<T> cached(final String name, final String generation) {
+        synchronized (this.items) {
+            return Optional.ofNullable(this.items.get(name))
+                .filter(item -> item.generation.equals(generation))
+                .map(item -> item.value);
+        }
+    }
+
+    /**
+     * Cache data of the generation, generation is read before the data is loaded, so
+     * data updated during loading is reloaded by the next read.
+     * @param name Item name
+     * @param generation Generation
+     * @param value Data
+     */
+    private void put(final String name, final String generation, final T value) {
+        synchronized (this.items) {
+            this.items.put(name, new Item<>(generation, value));
+            if (this.items.size() > this.size) {
+                this.items.remove(this.items.keySet().iterator().next());
+            }
+        }
+    }
+
+    /**
+     * Cached data with its generation.
+     * @param <T> Data type
+     * @since 0.8
+     */
+    private static final class Item<T> {
+
+        /**
+         * Generation.
+         */
+        private final String generation;
+
+        /**
+         * Data.
+         */
+        private final T value;
+
+        /**
+         * Ctor.
+         * @param generation Generation
+         * @param value Data
+         */
+        Item(final String generation, final T value) {
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+}
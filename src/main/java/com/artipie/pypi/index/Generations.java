@@ -0,0 +1,91 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.index;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ValueNotFoundException;
+import com.artipie.asto.ext.PublisherAs;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Generation markers of projects in the storage: marker of the project is stored in
+ * project directory as {@code .generation} file and is replaced with a new unique value
+ * whenever project derived data changes. Nodes sharing the storage keep in-memory data
+ * of the project while its marker is the same, so they need one small read to find out
+ * the data is stale, without any messages between nodes.
+ *
+ * @since 0.8
+ */
+public final class Generations {
+
+    /**
+     * Generation marker file name.
+     */
+    public static final String NAME = ".generation";
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     */
+    public Generations(final Storage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Current generation of the project.
+     * @param dir Project directory
+     * @return Generation, empty if project has no marker
+     */
+    public CompletionStage<Optional<String>> current(final Key dir) {
+        return this.storage.value(Generations.key(dir))
+            .thenCompose(value -> new PublisherAs(value).string(StandardCharsets.UTF_8))
+            .thenApply(Optional::of)
+            .exceptionally(
+                err -> {
+                    Throwable cause = err;
+                    if (cause instanceof CompletionException && cause.getCause() != null) {
+                        cause = cause.getCause();
+                    }
+                    if (!(cause instanceof ValueNotFoundException)) {
+                        throw new CompletionException(cause);
+                    }
+                    return Optional.empty();
+                }
+            );
+    }
+
+    /**
+     * Start next generation of the project.
+     * @param dir Project directory
+     * @return Completion
+     */
+    public CompletableFuture<Void> next(final Key dir) {
+        return this.storage.save(
+            Generations.key(dir),
+            new Content.From(UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8))
+        );
+    }
+
+    /**
+     * Generation marker key of the project.
+     * @param dir Project directory
+     * @return Key
+     */
+    static Key key(final Key dir) {
+        return new Key.From(dir, Generations.NAME);
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.index;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.lock.Lock;
+import com.artipie.asto.lock.storage.StorageLock;
+import hu.akarnokd.rxjava2.interop.CompletableInterop;
+import io.reactivex.Completable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Coordination of writes to project derived data: actions of the same project are
+ * performed one by one, actions of different projects are performed in parallel.
+ *
+ * @since 0.8
+ */
+public interface ProjectLock {
+
+    /**
+     * Perform action exclusively for the project.
+     * @param dir Project directory
+     * @param action Action, started when previous actions of the project are completed
+     * @param <T> Result type
+     * @return Action result
+     */
+    <T> CompletionStage<T> exclusively(Key dir, Supplier<CompletionStage<T>> action);
+
+    /**
+     * In-process lock striping: projects are mapped to stripes by directory hash,
+     * actions of every stripe are queued and started one by one, so waiting actions
+     * hold no threads. Different projects of the same stripe are serialized too,
+     * amount of stripes makes it unlikely.
+     * @since 0.8
+     */
+    final class Striped implements ProjectLock {
+
+        /**
+         * Default amount of stripes.
+         */
+        private static final int STRIPES = 256;
+
+        /**
+         * Completion of the last queued action of every stripe, guarded by itself.
+         */
+        private final CompletableFuture<?>[] tails;
+
+        /**
+         * Ctor with default amount of stripes.
+         */
+        public Striped() {
+            this(Striped.STRIPES);
+        }
+
+        /**
+         * Ctor.
+         * @param stripes Amount of stripes
+         */
+        public Striped(final int stripes) {
+            this.tails = new CompletableFuture<?>[stripes];
+            for (int idx = 0; idx < stripes; idx = idx + 1) {
+                this.tails[idx] = CompletableFuture.completedFuture(null);
+            }
+        }
+
+        @Override
+        public <T> CompletionStage<T> exclusively(final Key dir,
+            final Supplier<CompletionStage<T>> action) {
+            final int idx = Math.floorMod(dir.string().hashCode(), this.tails.length);
+            final CompletableFuture<T> res = new CompletableFuture<>();
+            final CompletableFuture<?> prev;
+            synchronized (this.tails) {
+                prev = this.tails[idx];
+                this.tails[idx] = res.handle((val, err) -> null);
+            }
+            prev.whenComplete(
+                (ignored, error) -> {
+                    try {
+                        action.get().whenComplete(
+                            (val, err) -> {
+                                if (err == null) {
+                                    res.complete(val);
+                                } else {
+                                    res.completeExceptionally(err);
+                                }
+                            }
+                        );
+                    // @checkstyle IllegalCatchCheck (1 line)
+                    } catch (final RuntimeException ex) {
+                        res.completeExceptionally(ex);
+                    }
+                }
+            );
+            return res;
+        }
+    }
+
+    /**
+     * Lock for several nodes sharing the storage: action of the project is performed
+     * under in-process lock and under storage lease of the project, see
+     * {@link StorageLock}. Lease expires after the given time, so lease of crashed
+     * node does not block the project forever. Lease is retried with random
+     * exponential backoff until the wait timeout.
+     * @since 0.8
+     */
+    final class Leased implements ProjectLock {
+
+        /**
+         * First retry delay in milliseconds.
+         */
+        private static final long FIRST = 10;
+
+        /**
+         * Max retry delay in milliseconds.
+         */
+        private static final long MAX = 1000;
+
+        /**
+         * Storage.
+         */
+        private final Storage storage;
+
+        /**
+         * Lease time.
+         */
+        private final Duration ttl;
+
+        /**
+         * Max time to wait for the lease.
+         */
+        private final Duration wait;
+
+        /**
+         * In-process lock.
+         */
+        private final ProjectLock local;
+
+        /**
+         * Ctor.
+         * @param storage Storage
+         * @param ttl Lease time, should be longer than any action
+         */
+        public Leased(final Storage storage, final Duration ttl) {
+            this(storage, ttl, ttl.multipliedBy(2), new Striped());
+        }
+
+        /**
+         * Ctor.
+         * @param storage Storage
+         * @param ttl Lease time, should be longer than any action
+         * @param wait Max time to wait for the lease
+         * @param local In-process lock
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        public Leased(final Storage storage, final Duration ttl, final Duration wait,
+            final ProjectLock local) {
+            this.storage = storage;
+            this.ttl = ttl;
+            this.wait = wait;
+            this.local = local;
+        }
+
+        @Override
+        public <T> CompletionStage<T> exclusively(final Key dir,
+            final Supplier<CompletionStage<T>> action) {
+            return this.local.exclusively(
+                dir,
+                () -> this.acquire(dir, System.nanoTime() + this.wait.toNanos(), 0)
+                    .thenCompose(
+                        lease -> {
+                            CompletionStage<T> res;
+                            try {
+                                res = action.get();
+                            // @checkstyle IllegalCatchCheck (1 line)
+                            } catch (final RuntimeException ex) {
+                                final CompletableFuture<T> failed = new CompletableFuture<>();
+                                failed.completeExceptionally(ex);
+                                res = failed;
+                            }
+                            return res.handle(
+                                (val, err) -> lease.release().thenCompose(
+                                    released -> {
+                                        final CompletableFuture<T> done =
+                                            new CompletableFuture<>();
+                                        if (err == null) {
+                                            done.complete(val);
+                                        } else {
+                                            done.completeExceptionally(err);
+                                        }
+                                        return done;
+                                    }
+                                )
+                            ).thenCompose(stage -> stage);
+                        }
+                    )
+            );
+        }
+
+        /**
+         * Acquire storage lease of the project, retrying until deadline.
+         * @param dir Project directory
+         * @param deadline Deadline as {@link System#nanoTime()}
+         * @param delay Delay before next attempt in milliseconds
+         * @return Acquired lease
+         */
+        private CompletionStage<Lock> acquire(final Key dir, final long deadline,
+            final long delay) {
+            final Lock lease = new StorageLock(this.storage, dir, Instant.now().plus(this.ttl));
+            return lease.acquire().handle(
+                (nothing, err) -> {
+                    final CompletionStage<Lock> res;
+                    if (err == null) {
+                        res = CompletableFuture.completedFuture(lease);
+                    } else if (System.nanoTime() - deadline < 0) {
+                        final long next = Math.min(
+                            Math.max(delay * 2, Leased.FIRST), Leased.MAX
+                        );
+                        res = Completable.timer(
+                            ThreadLocalRandom.current().nextLong(next / 2, next + 1),
+                            TimeUnit.MILLISECONDS
+                        ).to(CompletableInterop.await()).thenCompose(
+                            ignored -> this.acquire(dir, deadline, next)
+                        );
+                    } else {
+                        final CompletableFuture<Lock> failed = new CompletableFuture<>();
+                        failed.completeExceptionally(err);
+                        res = failed;
+                    }
+                    return res;
+                }
+            ).thenCompose(stage -> stage);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.index;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.KeyLastPart;
+import com.artipie.pypi.Blocking;
+import com.artipie.pypi.meta.Metadata;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Stream;
+
+/**
+ * Sidecar files of the artifact, stored next to it: core metadata file of the wheel
+ * as {@code .metadata} file, see <a href="https://peps.python.org/pep-0658/">PEP 658</a>,
+ * and {@code Requires-Python} metadata field as {@code .requires-python} file.
+ * Metadata of source distributions can be dynamic and is not saved.
+ *
+ * @since 0.8
+ */
+public final class Sidecars {
+
+    /**
+     * Core metadata file extension.
+     */
+    public static final String METADATA = ".metadata";
+
+    /**
+     * Supported python versions file extension.
+     */
+    public static final String PYTHON = ".requires-python";
+
+    /**
+     * Storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Executor of blocking work.
+     */
+    private final Blocking blocking;
+
+    /**
+     * Ctor.
+     * @param storage Storage
+     * @param blocking Executor of blocking work
+     */
+    public Sidecars(final Storage storage, final Blocking blocking) {
+        this.storage = storage;
+        this.blocking = blocking;
+    }
+
+    /**
+     * Save sidecar files of the artifact.
+     * @param dest Artifact key
+     * @param file Local copy of the artifact
+     * @param python Supported python versions specifier of the artifact
+     * @return Catalog entry of the artifact
+     */
+    public CompletionStage<Catalog.Entry> save(final Key dest, final Path file,
+        final Optional<String> python) {
+        return this.prepare(dest, file, python).thenCompose(Prepared::save);
+    }
+
+    /**
+     * Read sidecar files of the artifact and compute its digests without saving
+     * anything, so sidecar files are saved later by short storage operations.
+     * @param dest Artifact key
+     * @param file Local copy of the artifact
+     * @param python Supported python versions specifier of the artifact
+     * @return Prepared sidecar files
+     */
+    public CompletionStage<Prepared> prepare(final Key dest, final Path file,
+        final Optional<String> python) {
+        final String filename = new KeyLastPart(dest).get();
+        return this.blocking.supply(
+            () -> {
+                final Optional<byte[]> meta;
+                if (filename.endsWith(".whl")) {
+                    meta = new Metadata.FromEntry(file, filename).file();
+                } else {
+                    meta = Optional.empty();
+                }
+                return new Prepared(
+                    this.storage, dest,
+                    new Catalog.Entry(
+                        filename, Sidecars.digest(file), meta.map(Sidecars::hex), python
+                    ),
+                    meta
+                );
+            }
+        );
+    }
+
+    /**
+     * Is the key derived data rather than artifact: sidecar file, catalog or other
+     * file or directory with name starting with dot.
+     * @param key Key
+     * @return True if key is not an artifact
+     */
+    public static boolean derived(final Key key) {
+        final String str = key.string();
+        return str.endsWith(Sidecars.METADATA) || str.endsWith(Sidecars.PYTHON)
+            || Stream.of(str.split("/")).anyMatch(part -> part.startsWith("."));
+    }
+
+    /**
+     * Sidecar file key.
+     * @param dest Artifact key
+     * @param ext Sidecar file extension
+     * @return Key
+     */
+    private static Key key(final Key dest, final String ext) {
+        return new Key.From(String.format("%s%s", dest.string(), ext));
+    }
+
+    /**
+     * SHA-256 hex digest of the file.
+     * @param file File
+     * @return Hex digest
+     */
+    private static String digest(final Path file) {
+        try (InputStream input = Files.newInputStream(file)) {
+            final MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            final byte[] buf = new byte[64 * 1024];
+            int read = input.read(buf);
+            while (read >= 0) {
+                sha.update(buf, 0, read);
+                read = input.read(buf);
+            }
+            return String.format("%064x", new BigInteger(1, sha.digest()));
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * SHA-256 hex digest of the bytes.
+     * @param bytes Bytes
+     * @return Hex digest
+     */
+    private static String hex(final byte[] bytes) {
+        try {
+            return String.format(
+                "%064x", new BigInteger(1, MessageDigest.getInstance("SHA-256").digest(bytes))
+            );
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Sidecar files of the artifact ready to be saved.
+     * @since 0.8
+     */
+    public static final class Prepared {
+
+        /**
+         * Storage.
+         */
+        private final Storage storage;
+
+        /**
+         * Artifact key.
+         */
+        private final Key dest;
+
+        /**
+         * Catalog entry of the artifact.
+         */
+        private final Catalog.Entry entry;
+
+        /**
+         * Core metadata file.
+         */
+        private final Optional<byte[]> meta;
+
+        /**
+         * Ctor.
+         * @param storage Storage
+         * @param dest Artifact key
+         * @param entry Catalog entry of the artifact
+         * @param meta Core metadata file
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Prepared(final Storage storage, final Key dest, final Catalog.Entry entry,
+            final Optional<byte[]> meta) {
+            this.storage = storage;
+            this.dest = dest;
+            this.entry = entry;
+            this.meta = meta;
+        }
+
+        /**
+         * Catalog entry of the artifact.
+         * @return Entry
+         */
+        public Catalog.Entry entry() {
+            return this.entry;
+        }
+
+        /**
+         * Save sidecar files.
+         * @return Catalog entry of the artifact
+         */
+        public CompletionStage<Catalog.Entry> save() {
+            final CompletableFuture<Void> core = this.meta.map(
+                bytes -> this.storage.save(
+                    Sidecars.key(this.dest, Sidecars.METADATA), new Content.From(bytes)
+                )
+            ).orElseGet(() -> CompletableFuture.completedFuture(null));
+            final CompletableFuture<Void> spec = this.entry.python().map(
+                value -> this.storage.save(
+                    Sidecars.key(this.dest, Sidecars.PYTHON),
+                    new Content.From(value.getBytes(StandardCharsets.UTF_8))
+                )
+            ).orElseGet(() -> CompletableFuture.completedFuture(null));
+            return core.thenCombine(spec, (first, second) -> this.entry);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.index;
+
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.reactivestreams.Publisher;
+
+/**
+ * Storage reads throttle: content bytes are passed at most at the given rate shared by
+ * all throttled contents. Every buffer is delayed until the previous bytes are paid for
+ * at the rate, so reads are paced rather than sent in bursts.
+ *
+ * @since 0.8
+ */
+final class Throttle {
+
+    /**
+     * Nanoseconds in second.
+     */
+    private static final double NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Max rate in bytes per second, {@link Long#MAX_VALUE} for no throttling.
+     */
+    private final long rate;
+
+    /**
+     * Time when next bytes can be passed, guarded by this.
+     */
+    private long next;
+
+    /**
+     * Ctor.
+     * @param rate Max rate in bytes per second, {@link Long#MAX_VALUE} for no throttling
+     */
+    Throttle(final long rate) {
+        this.rate = rate;
+        this.next = System.nanoTime();
+    }
+
+    /**
+     * Throttled content.
+     * @param content Content
+     * @return Content passed at the rate
+     */
+    Publisher<ByteBuffer> content(final Publisher<ByteBuffer> content) {
+        final Publisher<ByteBuffer> res;
+        if (this.rate == Long.MAX_VALUE) {
+            res = content;
+        } else {
+            res = Flowable.fromPublisher(content).concatMap(
+                buf -> {
+                    final long delay = this.delay(buf.remaining());
+                    final Flowable<ByteBuffer> passed;
+                    if (delay > 0) {
+                        passed = Flowable.timer(delay, TimeUnit.NANOSECONDS).map(tick -> buf);
+                    } else {
+                        passed = Flowable.just(buf);
+                    }
+                    return passed;
+                }
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Reserve time for the bytes.
+     * @param bytes Amount of bytes
+     * @return Nanoseconds to wait before passing the bytes
+     */
+    synchronized long delay(final long bytes) {
+        final long now = System.nanoTime();
+        final long start;
+        if (this.next - now > 0) {
+            start = this.next;
+        } else {
+            start = now;
+        }
+        this.next = start + (long) (bytes * Throttle.NANOS / this.rate);
+        return start - now;
+    }
+}
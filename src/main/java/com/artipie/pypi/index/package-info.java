@@ -0,0 +1,12 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+
+/**
+ * Index data derived from artifacts: sidecar files, per-project catalogs and
+ * their backfill for pre-existing repositories.
+ *
+ * @since 0.8
+ */
+package com.artipie.pypi.index;
@@ -0,0 +1,19 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Python proxy loading from cache or remote event.
+ * @since 0.8
+ */
+@Name("com.artipie.pypi.Fetch")
+@Label("PyPI Proxy Fetch")
+@Description("Python proxy loading from cache or remote")
+final class FetchEvent extends PhaseEvent {
+}
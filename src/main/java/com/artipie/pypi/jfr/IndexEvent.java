@@ -0,0 +1,19 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Python index page rendering phase event.
+ * @since 0.8
+ */
+@Name("com.artipie.pypi.Index")
+@Label("PyPI Index")
+@Description("Python index page rendering phase")
+final class IndexEvent extends PhaseEvent {
+}
@@ -0,0 +1,19 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Python package metadata reading from archive event.
+ * @since 0.8
+ */
+@Name("com.artipie.pypi.Metadata")
+@Label("PyPI Metadata")
+@Description("Python package metadata reading from archive")
+final class MetadataEvent extends PhaseEvent {
+}
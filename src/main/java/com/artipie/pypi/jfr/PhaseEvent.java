@@ -0,0 +1,92 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Flight Recorder event of operation phase. Event is created only if Flight Recorder
+ * API is available, see {@link Trace}. Fields are protected: Flight Recorder does not
+ * record private fields of event superclass.
+ * @since 0.8
+ * @checkstyle VisibilityModifierCheck (40 lines)
+ */
+@Category({"Artipie", "PyPI"})
+abstract class PhaseEvent extends Event implements Span {
+
+    /**
+     * Phase name.
+     */
+    @Label("Phase")
+    protected String phase;
+
+    /**
+     * Project name.
+     */
+    @Label("Project")
+    protected String project;
+
+    /**
+     * Size.
+     */
+    @Label("Size")
+    @DataAmount
+    protected long size;
+
+    /**
+     * Storage key or file name.
+     */
+    @Label("Key")
+    protected String key;
+
+    @Override
+    public final void end(final String name, final long bytes, final String item) {
+        if (this.shouldCommit()) {
+            this.project = name;
+            this.size = bytes;
+            this.key = item;
+            this.commit();
+        }
+    }
+
+    /**
+     * Start event of the operation phase.
+     * @param trace Operation
+     * @param phase Phase name
+     * @return Started event or {@link Span#NONE} if event is not enabled
+     */
+    static Span start(final Trace trace, final String phase) {
+        final PhaseEvent event;
+        switch (trace) {
+            case UPLOAD:
+                event = new UploadEvent();
+                break;
+            case INDEX:
+                event = new IndexEvent();
+                break;
+            case SEARCH:
+                event = new SearchEvent();
+                break;
+            case METADATA:
+                event = new MetadataEvent();
+                break;
+            default:
+                event = new FetchEvent();
+                break;
+        }
+        final Span res;
+        if (event.isEnabled()) {
+            event.phase = phase;
+            event.begin();
+            res = event;
+        } else {
+            res = Span.NONE;
+        }
+        return res;
+    }
+}
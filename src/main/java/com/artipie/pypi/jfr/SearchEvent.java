@@ -0,0 +1,19 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Python packages search phase event.
+ * @since 0.8
+ */
+@Name("com.artipie.pypi.Search")
+@Label("PyPI Search")
+@Description("Python packages search phase")
+final class SearchEvent extends PhaseEvent {
+}
@@ -0,0 +1,37 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.jfr;
+
+/**
+ * Traced phase of operation, started by {@link Trace#start(String)}.
+ * @since 0.8
+ */
+public interface Span {
+
+    /**
+     * Span which is not recorded.
+     */
+    Span NONE = new None();
+
+    /**
+     * End the phase.
+     * @param project Project name, null if not known
+     * @param size Size in bytes, negative if not known
+     * @param key Storage key or file name, null if not known
+     */
+    void end(String project, long size, String key);
+
+    /**
+     * Span which is not recorded.
+     * @since 0.8
+     */
+    final class None implements Span {
+
+        @Override
+        public void end(final String project, final long size, final String key) {
+            // not recorded
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.jfr;
+
+/**
+ * Traced operations of python repository, every operation is recorded as
+ * JDK Flight Recorder event of its own type with phase, project, size and key fields:
+ * <pre>
+ * final Span span = Trace.UPLOAD.start("move");
+ * ...
+ * span.end(project, size, key);
+ * </pre>
+ * Events are recorded with {@code jcmd <pid> JFR.start}, events types are named
+ * {@code com.artipie.pypi.Upload}, {@code com.artipie.pypi.Index} and so on. When
+ * recording is off or JVM has no Flight Recorder (Java 8 before 8u262), started span
+ * is {@link Span#NONE} and tracing costs one check.
+ * @since 0.8
+ */
+public enum Trace {
+
+    /**
+     * Upload phases: multipart body parsing, saving to temp file, copying to storage
+     * and moving to project directory.
+     */
+    UPLOAD,
+
+    /**
+     * Index page phases: listing and hashing artifacts.
+     */
+    INDEX,
+
+    /**
+     * Search phases: listing and copying the latest artifact.
+     */
+    SEARCH,
+
+    /**
+     * Reading metadata from archive.
+     */
+    METADATA,
+
+    /**
+     * Proxy phases: loading from cache or remote and fetching from remote.
+     */
+    FETCH;
+
+    /**
+     * Is Flight Recorder API available in JVM.
+     */
+    private static final boolean JFR = Trace.available();
+
+    /**
+     * Start the phase of operation.
+     * @param phase Phase name
+     * @return Span to end
+     */
+    public Span start(final String phase) {
+        final Span res;
+        if (Trace.JFR) {
+            res = PhaseEvent.start(this, phase);
+        } else {
+            res = Span.NONE;
+        }
+        return res;
+    }
+
+    /**
+     * Check Flight Recorder API is available.
+     * @return True if available
+     */
+    private static boolean available() {
+        boolean res;
+        try {
+            Class.forName("jdk.jfr.Event", false, Trace.class.getClassLoader());
+            res = true;
+        } catch (final ClassNotFoundException ex) {
+            res = false;
+        }
+        return res;
+    }
+}
@@ -0,0 +1,19 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Python package upload phase event.
+ * @since 0.8
+ */
+@Name("com.artipie.pypi.Upload")
+@Label("PyPI Upload")
+@Description("Python package upload phase")
+final class UploadEvent extends PhaseEvent {
+}
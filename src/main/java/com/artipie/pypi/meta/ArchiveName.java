@@ -0,0 +1,77 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Project name and version from python package file name, read without opening
+ * the archive: wheel names are parsed by
+ * <a href="https://www.python.org/dev/peps/pep-0427/#file-name-convention">PEP 427</a>,
+ * other archives names are expected to be {@code name-version.extension}.
+ * @since 0.8
+ */
+public final class ArchiveName {
+
+    /**
+     * Pattern to obtain package name from uploaded file name: for file name
+     * 'Artipie-Testpkg-0.0.3.tar.gz', then package name is 'Artipie-Testpkg'.
+     */
+    private static final Pattern ARCHIVE_PTRN =
+        Pattern.compile("(?<name>.*)-(?<version>[0-9a-z.]+?)\\.([a-zA-Z.]+)");
+
+    /**
+     * Python wheel package name pattern, for more details see
+     * <a href="https://www.python.org/dev/peps/pep-0427/#file-name-convention">docs</a>:
+     * {@code name-version[-build]-python-abi-platform.whl}, version and build tag start
+     * with a digit, tags are not constrained, e.g. {@code cp39} or {@code manylinux2014_x86_64}.
+     */
+    private static final Pattern WHEEL_PTRN = Pattern.compile(
+        "(?<name>.*?)-(?<version>\\d[^-]*)(-\\d[^-]*)?-[^-]+-[^-]+-[^-]+\\.whl"
+    );
+
+    /**
+     * File name.
+     */
+    private final String filename;
+
+    /**
+     * Ctor.
+     * @param filename File name
+     */
+    public ArchiveName(final String filename) {
+        this.filename = filename;
+    }
+
+    /**
+     * Project name as written in file name, not normalized.
+     * @return Name if file name matches wheel or archive pattern
+     */
+    public Optional<String> project() {
+        return this.matcher().map(matcher -> matcher.group("name"));
+    }
+
+    /**
+     * Project version.
+     * @return Version if file name matches wheel or archive pattern
+     */
+    public Optional<String> version() {
+        return this.matcher().map(matcher -> matcher.group("version"));
+    }
+
+    /**
+     * Matched file name, wheel pattern is tried first.
+     * @return Matcher if file name matches any pattern
+     */
+    private Optional<Matcher> matcher() {
+        return Stream.of(
+            ArchiveName.WHEEL_PTRN.matcher(this.filename),
+            ArchiveName.ARCHIVE_PTRN.matcher(this.filename)
+        ).filter(Matcher::matches).findFirst();
+    }
+}
@@ -11,11 +11,16 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Optional;
 import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
@@ -200,4 +205,146 @@ public interface Metadata {
 
     }
 
+    /**
+     * Metadata read from the metadata file of archive only: {@code METADATA} of wheel
+     * {@code .dist-info} directory, {@code EGG-INFO/PKG-INFO} of egg or {@code PKG-INFO}
+     * of source distribution top directory. Zip based archives entries are looked up
+     * in central directory, so only metadata file is decompressed; tar based archives
+     * are read until metadata file. If metadata file is not found at its place, metadata
+     * is read by {@link FromArchive}.
+     * @since 0.8
+     */
+    final class FromEntry implements Metadata {
+
+        /**
+         * Path to archive.
+         */
+        private final Path file;
+
+        /**
+         * Name of the file.
+         */
+        private final String filename;
+
+        /**
+         * Ctor.
+         * @param file Path to archive
+         * @param filename Filename
+         */
+        public FromEntry(final Path file, final String filename) {
+            this.file = file;
+            this.filename = filename;
+        }
+
+        @Override
+        public PackageInfo read() {
+            return this.file()
+                .<PackageInfo>map(
+                    bytes -> new PackageInfo.FromMetadata(new String(bytes, StandardCharsets.UTF_8))
+                )
+                .orElseGet(() -> new FromArchive(this.file, this.filename).read());
+        }
+
+        /**
+         * Metadata file as it is stored in the archive, e.g. to serve it as
+         * core metadata file of the distribution, see
+         * <a href="https://peps.python.org/pep-0658/">PEP 658</a>.
+         * @return Metadata file bytes, empty if metadata file is not found at its place
+         */
+        public Optional<byte[]> file() {
+            final Optional<byte[]> res;
+            if (Stream.of("zip", "whl", "egg").anyMatch(this.filename::endsWith)) {
+                res = this.zipEntry();
+            } else if (Stream.of("tar", "tar.gz", "tar.Z", "tar.bz2")
+                .anyMatch(this.filename::endsWith)) {
+                res = this.tarEntry();
+            } else {
+                res = Optional.empty();
+            }
+            return res;
+        }
+
+        /**
+         * Read metadata file of zip based archive.
+         * @return Metadata if found
+         */
+        private Optional<byte[]> zipEntry() {
+            try (ZipFile zip = new ZipFile(this.file.toFile())) {
+                final Optional<? extends ZipEntry> entry = Collections.list(zip.entries())
+                    .stream().filter(item -> !item.isDirectory())
+                    .filter(item -> FromEntry.metadata(item.getName()))
+                    .findFirst();
+                final Optional<byte[]> res;
+                if (entry.isPresent()) {
+                    try (InputStream input = zip.getInputStream(entry.get())) {
+                        res = Optional.of(IOUtils.toByteArray(input));
+                    }
+                } else {
+                    res = Optional.empty();
+                }
+                return res;
+            } catch (final IOException ex) {
+                throw new IllegalArgumentException("Failed to parse python package", ex);
+            }
+        }
+
+        /**
+         * Read metadata file of tar based archive.
+         * @return Metadata if found
+         */
+        @SuppressWarnings("PMD.AssignmentInOperand")
+        private Optional<byte[]> tarEntry() {
+            try (
+                InputStream origin = new BufferedInputStream(Files.newInputStream(this.file));
+                TarArchiveInputStream tar = new TarArchiveInputStream(this.decompressed(origin))
+            ) {
+                Optional<byte[]> res = Optional.empty();
+                TarArchiveEntry entry;
+                while (!res.isPresent() && (entry = tar.getNextTarEntry()) != null) {
+                    if (entry.isFile() && FromEntry.metadata(entry.getName())) {
+                        res = Optional.of(IOUtils.toByteArray(tar));
+                    }
+                }
+                return res;
+            } catch (final IOException ex) {
+                throw new IllegalArgumentException("Failed to parse python package", ex);
+            }
+        }
+
+        /**
+         * Decompressed tar stream.
+         * @param origin Archive stream
+         * @return Tar stream
+         * @throws IOException On error
+         */
+        private InputStream decompressed(final InputStream origin) throws IOException {
+            final InputStream res;
+            if (this.filename.endsWith("tar.gz")) {
+                res = new GzipCompressorInputStream(origin);
+            } else if (this.filename.endsWith("tar.bz2")) {
+                res = new BZip2CompressorInputStream(origin);
+            } else if (this.filename.endsWith("tar.Z")) {
+                res = new ZCompressorInputStream(origin);
+            } else {
+                res = origin;
+            }
+            return res;
+        }
+
+        /**
+         * Is archive entry the metadata file: {@code PKG-INFO} or {@code METADATA} in
+         * top level directory.
+         * @param entry Entry name
+         * @return True if entry is metadata file
+         */
+        private static boolean metadata(final String entry) {
+            String name = entry;
+            if (name.startsWith("./")) {
+                name = name.substring(2);
+            }
+            final int slash = name.indexOf('/');
+            return slash > 0 && slash == name.lastIndexOf('/')
+                && (name.endsWith("/PKG-INFO") || name.endsWith(".dist-info/METADATA"));
+        }
+    }
 }
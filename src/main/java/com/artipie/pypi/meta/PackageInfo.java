@@ -4,6 +4,7 @@
  */
 package com.artipie.pypi.meta;
 
+import java.util.Optional;
 import java.util.stream.Stream;
 
 /**
@@ -30,6 +31,12 @@ public interface PackageInfo {
      */
     String summary();
 
+    /**
+     * Python versions supported by the package, {@code Requires-Python} field.
+     * @return Version specifier if declared
+     */
+    Optional<String> requiresPython();
+
     /**
      * Implementation of {@link PackageInfo} that parses python metadata PKG-INFO file to obtain
      * required information. For more details see
@@ -66,21 +73,35 @@ public interface PackageInfo {
             return this.read("Summary");
         }
 
+        @Override
+        public Optional<String> requiresPython() {
+            return this.optional("Requires-Python").filter(value -> !value.isEmpty());
+        }
+
         /**
          * Reads header value by name.
          * @param header Header name
          * @return Header value
          */
         private String read(final String header) {
-            final String name = String.format("%s:", header);
-            return Stream.of(this.input.split("\n"))
-                .filter(line -> line.startsWith(name)).findFirst()
-                .map(line ->  line.replace(name, "").trim())
+            return this.optional(header)
                 .orElseThrow(
                     () -> new IllegalArgumentException(
                         String.format("Invalid metadata file, header %s not found", header)
                     )
                 );
         }
+
+        /**
+         * Reads value of optional header by name.
+         * @param header Header name
+         * @return Header value if header is present
+         */
+        private Optional<String> optional(final String header) {
+            final String name = String.format("%s:", header);
+            return Stream.of(this.input.split("\n"))
+                .filter(line -> line.startsWith(name)).findFirst()
+                .map(line ->  line.replace(name, "").trim());
+        }
     }
 }
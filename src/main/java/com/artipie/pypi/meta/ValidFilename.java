@@ -5,9 +5,6 @@
 package com.artipie.pypi.meta;
 
 import com.artipie.pypi.NormalizedProjectName;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Stream;
 
 /**
  * Python package valid filename.
@@ -15,20 +12,6 @@ import java.util.stream.Stream;
  */
 public final class ValidFilename {
 
-    /**
-     * Pattern to obtain package name from uploaded file name: for file name
-     * 'Artipie-Testpkg-0.0.3.tar.gz', then package name is 'Artipie-Testpkg'.
-     */
-    private static final Pattern ARCHIVE_PTRN =
-        Pattern.compile("(?<name>.*)-(?<version>[0-9a-z.]+?)\\.([a-zA-Z.]+)");
-
-    /**
-     * Python wheel package name pattern, for more details see
-     * <a href="https://www.python.org/dev/peps/pep-0427/#file-name-convention">docs</a>.
-     */
-    private static final Pattern WHEEL_PTRN =
-        Pattern.compile("(?<name>.*?)-(?<version>[0-9a-z.]+)(-\\d+)?-((py\\d.?)+)-(.*)-(.*).whl");
-
     /**
      * Package info data.
      */
@@ -54,14 +37,12 @@ public final class ValidFilename {
      * @return True if filename corresponds to project metadata, false - otherwise.
      */
     public boolean valid() {
-        return Stream.of(
-            ValidFilename.WHEEL_PTRN.matcher(this.filename),
-            ValidFilename.ARCHIVE_PTRN.matcher(this.filename)
-        ).filter(Matcher::matches).findFirst().map(
-            matcher -> {
+        final ArchiveName archive = new ArchiveName(this.filename);
+        return archive.project().map(
+            project -> {
                 final String name = new NormalizedProjectName.Simple(this.data.name()).value();
-                return name.equals(new NormalizedProjectName.Simple(matcher.group("name")).value())
-                    && this.data.version().equals(matcher.group("version"));
+                return name.equals(new NormalizedProjectName.Simple(project).value())
+                    && this.data.version().equals(archive.version().get());
             }
         ).orElse(false);
     }
@@ -0,0 +1,165 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.metrics;
+
+/**
+ * Metrics of python repository, implement it to report metrics to monitoring system,
+ * e.g. with {@link MicrometerMetrics}.
+ * <p>
+ * Metrics are identified by name and tags, tags are given as key-value pairs:
+ * {@code "route", "index"}. Repository reports:
+ * <ul>
+ *  <li>{@link #REQUESTS} timer, {@link #INFLIGHT} gauge and {@link #BYTES} counter
+ *  of requests by {@code route} tag</li>
+ *  <li>{@link #UPLOADS} counter by {@code result} tag: {@code success} or
+ *  {@code failure}</li>
+ *  <li>{@link #METADATA} timer of metadata reading from archives</li>
+ *  <li>{@link #HASHED} counter of artifacts bytes hashed to render index pages</li>
+ *  <li>{@link #CACHE} counter of proxy cache accesses by {@code result} tag: {@code hit},
+ *  {@code miss} or {@code stale} (served from cache because remote is not available),
+ *  and {@code item} tag: {@code index} or {@code artifact}</li>
+ *  <li>{@link #CACHE_ACCESS} counter of accesses to repository caches by {@code cache}
+ *  tag and {@code result} tag: {@code hit} or {@code miss}, {@link #CACHE_EVICTIONS} and
+ *  {@link #CACHE_EVICTED_BYTES} counters of evicted items and their bytes and
+ *  {@link #CACHE_BYTES} gauge of artifacts caches size in bytes and {@link #CACHE_ITEMS}
+ *  gauge of other caches size in items by {@code cache} tag</li>
+ *  <li>{@link #BLOCKING_QUEUE} gauge of blocking tasks waiting for a thread and
+ *  {@link #BLOCKING_WAIT} timer of their waiting time</li>
+ *  <li>{@link #FETCH_WAIT} timer of proxy upstream fetches waiting in fetch queues by
+ *  {@code upstream} tag: upstream host</li>
+ * </ul>
+ * Implementations should be thread safe and fast, they are called on request path.
+ *
+ * @since 0.8
+ */
+public interface Metrics {
+
+    /**
+     * Metrics which are not reported anywhere.
+     */
+    Metrics NOP = new Nop();
+
+    /**
+     * Requests latency timer.
+     */
+    String REQUESTS = "pypi.requests";
+
+    /**
+     * Requests in flight gauge.
+     */
+    String INFLIGHT = "pypi.requests.inflight";
+
+    /**
+     * Response bytes counter.
+     */
+    String BYTES = "pypi.bytes.served";
+
+    /**
+     * Uploads counter.
+     */
+    String UPLOADS = "pypi.uploads";
+
+    /**
+     * Metadata reading timer.
+     */
+    String METADATA = "pypi.metadata.read";
+
+    /**
+     * Bytes hashed by index pages counter.
+     */
+    String HASHED = "pypi.index.hashed.bytes";
+
+    /**
+     * Proxy cache accesses counter.
+     */
+    String CACHE = "pypi.proxy.cache";
+
+    /**
+     * Repository caches accesses counter.
+     */
+    String CACHE_ACCESS = "pypi.cache.access";
+
+    /**
+     * Evicted cache items counter.
+     */
+    String CACHE_EVICTIONS = "pypi.cache.evictions";
+
+    /**
+     * Evicted cache bytes counter.
+     */
+    String CACHE_EVICTED_BYTES = "pypi.cache.evicted.bytes";
+
+    /**
+     * Artifacts cache size in bytes gauge.
+     */
+    String CACHE_BYTES = "pypi.cache.bytes";
+
+    /**
+     * Cached items gauge of caches which are not sized in bytes.
+     */
+    String CACHE_ITEMS = "pypi.cache.items";
+
+    /**
+     * Blocking tasks queue gauge.
+     */
+    String BLOCKING_QUEUE = "pypi.blocking.queued";
+
+    /**
+     * Blocking tasks waiting timer.
+     */
+    String BLOCKING_WAIT = "pypi.blocking.wait";
+
+    /**
+     * Proxy upstream fetches queueing delay timer.
+     */
+    String FETCH_WAIT = "pypi.proxy.fetch.wait";
+
+    /**
+     * Increment counter.
+     * @param name Counter name
+     * @param amount Amount to add
+     * @param tags Tags as key-value pairs
+     */
+    void counter(String name, long amount, String... tags);
+
+    /**
+     * Record duration to timer.
+     * @param name Timer name
+     * @param nanos Duration in nanoseconds
+     * @param tags Tags as key-value pairs
+     */
+    void timer(String name, long nanos, String... tags);
+
+    /**
+     * Change gauge value, e.g. increment it when request starts and decrement when
+     * request ends.
+     * @param name Gauge name
+     * @param delta Value change
+     * @param tags Tags as key-value pairs
+     */
+    void gauge(String name, long delta, String... tags);
+
+    /**
+     * Metrics which are not reported anywhere.
+     * @since 0.8
+     */
+    final class Nop implements Metrics {
+
+        @Override
+        public void counter(final String name, final long amount, final String... tags) {
+            // not reported
+        }
+
+        @Override
+        public void timer(final String name, final long nanos, final String... tags) {
+            // not reported
+        }
+
+        @Override
+        public void gauge(final String name, final long delta, final String... tags) {
+            // not reported
+        }
+    }
+}
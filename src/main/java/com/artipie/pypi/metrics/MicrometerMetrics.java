@@ -0,0 +1,81 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics reported to Micrometer registry. Timers publish percentiles histograms.
+ * Micrometer is optional dependency of the adapter, add {@code micrometer-core}
+ * to use this class.
+ * @since 0.8
+ */
+public final class MicrometerMetrics implements Metrics {
+
+    /**
+     * Meter registry.
+     */
+    private final MeterRegistry registry;
+
+    /**
+     * Gauges values by name and tags.
+     */
+    private final Map<String, AtomicLong> gauges;
+
+    /**
+     * Timers by name and tags, timer is built once since building of the timer with
+     * percentiles histogram costs much more than recording.
+     */
+    private final Map<String, Timer> timers;
+
+    /**
+     * Ctor.
+     * @param registry Meter registry
+     */
+    public MicrometerMetrics(final MeterRegistry registry) {
+        this.registry = registry;
+        this.gauges = new ConcurrentHashMap<>();
+        this.timers = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void counter(final String name, final long amount, final String... tags) {
+        this.registry.counter(name, tags).increment(amount);
+    }
+
+    @Override
+    public void timer(final String name, final long nanos, final String... tags) {
+        this.timers.computeIfAbsent(
+            MicrometerMetrics.id(name, tags),
+            key -> Timer.builder(name).tags(tags).publishPercentileHistogram()
+                .register(this.registry)
+        ).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void gauge(final String name, final long delta, final String... tags) {
+        this.gauges.computeIfAbsent(
+            MicrometerMetrics.id(name, tags),
+            key -> this.registry.gauge(name, Tags.of(tags), new AtomicLong())
+        ).addAndGet(delta);
+    }
+
+    /**
+     * Meter identifier.
+     * @param name Meter name
+     * @param tags Meter tags
+     * @return Identifier
+     */
+    private static String id(final String name, final String... tags) {
+        return String.join("\n", name, Arrays.toString(tags));
+    }
+}
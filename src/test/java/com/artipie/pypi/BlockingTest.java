@@ -0,0 +1,96 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi;
+
+import com.artipie.pypi.metrics.Metrics;
+import com.artipie.pypi.metrics.MicrometerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.cactoos.scalar.Unchecked;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link Blocking}.
+ * @since 0.8
+ */
+class BlockingTest {
+
+    /**
+     * Single thread executor.
+     */
+    private ExecutorService exec;
+
+    @BeforeEach
+    void init() {
+        this.exec = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "blocking-test")
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.exec.shutdownNow();
+    }
+
+    @Test
+    void runsTaskInExecutor() {
+        MatcherAssert.assertThat(
+            new Blocking(this.exec, Metrics.NOP)
+                .supply(() -> Thread.currentThread().getName()).join(),
+            new IsEqual<>("blocking-test")
+        );
+    }
+
+    @Test
+    void runsTaskInDefaultExecutor() {
+        MatcherAssert.assertThat(
+            new Blocking().supply(() -> Thread.currentThread().getName()).join(),
+            new IsNot<>(new IsEqual<>(Thread.currentThread().getName()))
+        );
+    }
+
+    @Test
+    void reportsQueuedTasks() throws InterruptedException {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final Blocking blocking = new Blocking(this.exec, new MicrometerMetrics(registry));
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CompletableFuture<Boolean> first = blocking.supply(
+            () -> {
+                started.countDown();
+                return new Unchecked<>(() -> release.await(1, TimeUnit.MINUTES)).value();
+            }
+        );
+        started.await();
+        final CompletableFuture<Integer> second = blocking.supply(() -> 1);
+        MatcherAssert.assertThat(
+            "Reports waiting task",
+            registry.get(Metrics.BLOCKING_QUEUE).gauge().value(),
+            new IsEqual<>(1.0)
+        );
+        release.countDown();
+        first.join();
+        second.join();
+        MatcherAssert.assertThat(
+            "Reports no waiting tasks",
+            registry.get(Metrics.BLOCKING_QUEUE).gauge().value(),
+            new IsEqual<>(0.0)
+        );
+        MatcherAssert.assertThat(
+            "Records waiting time of every task",
+            registry.get(Metrics.BLOCKING_WAIT).timer().count(),
+            new IsEqual<>(2L)
+        );
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.cache;
+
+import com.artipie.http.auth.Authentication;
+import com.artipie.pypi.metrics.Metrics;
+import com.artipie.pypi.metrics.MicrometerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link CachedAuthentication}.
+ * @since 0.8
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class CachedAuthenticationTest {
+
+    /**
+     * Origin authentication calls count.
+     */
+    private AtomicInteger calls;
+
+    /**
+     * Time in nanoseconds.
+     */
+    private AtomicLong time;
+
+    /**
+     * Counting origin authentication.
+     */
+    private Authentication origin;
+
+    /**
+     * Meter registry.
+     */
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void init() {
+        this.registry = new SimpleMeterRegistry();
+        this.calls = new AtomicInteger();
+        this.time = new AtomicLong();
+        final Authentication single = new Authentication.Single("alice", "secret");
+        this.origin = (name, pass) -> {
+            this.calls.incrementAndGet();
+            return single.user(name, pass);
+        };
+    }
+
+    @Test
+    void cachesSuccessfulAuthenticationForTtl() {
+        final CachedAuthentication auth = this.auth(10);
+        auth.user("alice", "secret");
+        this.time.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        MatcherAssert.assertThat(
+            "Returns cached user",
+            auth.user("alice", "secret").map(Authentication.User::name),
+            new IsEqual<>(Optional.of("alice"))
+        );
+        MatcherAssert.assertThat(
+            "Does not call origin within TTL",
+            this.calls.get(),
+            new IsEqual<>(1)
+        );
+        this.time.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        auth.user("alice", "secret");
+        MatcherAssert.assertThat(
+            "Calls origin after TTL",
+            this.calls.get(),
+            new IsEqual<>(2)
+        );
+    }
+
+    @Test
+    void cachesFailedAuthenticationForShorterTtl() {
+        final CachedAuthentication auth = this.auth(10);
+        auth.user("alice", "wrong");
+        this.time.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        MatcherAssert.assertThat(
+            "Returns cached failure",
+            auth.user("alice", "wrong").isPresent(),
+            new IsEqual<>(false)
+        );
+        this.time.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        auth.user("alice", "wrong");
+        MatcherAssert.assertThat(
+            "Calls origin after negative TTL",
+            this.calls.get(),
+            new IsEqual<>(2)
+        );
+    }
+
+    @Test
+    void distinguishesCredentials() {
+        final CachedAuthentication auth = this.auth(10);
+        auth.user("alice", "secret");
+        MatcherAssert.assertThat(
+            "Other password is not authenticated by cached result",
+            auth.user("alice", "secret2").isPresent(),
+            new IsEqual<>(false)
+        );
+        MatcherAssert.assertThat(
+            "Shifted user name and password are not confused",
+            auth.user("alices", "ecret").isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void reportsAccessesEvictionsAndCachedResults() {
+        final CachedAuthentication auth = this.auth(2);
+        auth.user("alice", "secret");
+        auth.user("alice", "secret");
+        auth.user("bob", "one");
+        auth.user("bob", "two");
+        auth.user("alice", "secret");
+        MatcherAssert.assertThat(
+            "Counts hits",
+            this.registry.get(Metrics.CACHE_ACCESS).tags("cache", "auth", "result", "hit")
+                .counter().count(),
+            new IsEqual<>(1.0)
+        );
+        MatcherAssert.assertThat(
+            "Counts misses",
+            this.registry.get(Metrics.CACHE_ACCESS).tags("cache", "auth", "result", "miss")
+                .counter().count(),
+            new IsEqual<>(4.0)
+        );
+        MatcherAssert.assertThat(
+            "Counts evicted results",
+            this.registry.get(Metrics.CACHE_EVICTIONS).tags("cache", "auth").counter().count(),
+            new IsEqual<>(2.0)
+        );
+        MatcherAssert.assertThat(
+            "Does not report evicted results as bytes",
+            this.registry.find(Metrics.CACHE_EVICTED_BYTES).counter(),
+            new IsNull<>()
+        );
+        MatcherAssert.assertThat(
+            "Counts cached results",
+            this.registry.get(Metrics.CACHE_ITEMS).tags("cache", "auth").gauge().value(),
+            new IsEqual<>(2.0)
+        );
+    }
+
+    /**
+     * Cached authentication with 60 seconds TTL and 10 seconds negative TTL.
+     * @param size Size limit
+     * @return Authentication
+     */
+    private CachedAuthentication auth(final int size) {
+        return new CachedAuthentication(
+            this.origin, size, Duration.ofSeconds(60), Duration.ofSeconds(10),
+            new MicrometerMetrics(this.registry), this.time::get
+        );
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.cache;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.cache.CacheControl;
+import com.artipie.asto.cache.Remote;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.pypi.metrics.Metrics;
+import com.artipie.pypi.metrics.MicrometerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link EvictingCache}.
+ * @since 0.8
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class EvictingCacheTest {
+
+    /**
+     * Test storage.
+     */
+    private Storage storage;
+
+    /**
+     * Meter registry.
+     */
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void init() {
+        this.storage = new InMemoryStorage();
+        this.registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        final EvictingCache cache = this.cache(100, EvictionPolicy.LRU);
+        EvictingCacheTest.load(cache, "abc", 10);
+        cache.load(
+            new Key.From("abc"), new Remote.Failed(new IllegalStateException()),
+            CacheControl.Standard.ALWAYS
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Counts miss",
+            this.counter(Metrics.CACHE_ACCESS, "result", "miss"),
+            new IsEqual<>(1.0)
+        );
+        MatcherAssert.assertThat(
+            "Counts hit",
+            this.counter(Metrics.CACHE_ACCESS, "result", "hit"),
+            new IsEqual<>(1.0)
+        );
+    }
+
+    @Test
+    void servesStoredItemWithoutRemote() {
+        this.storage.save(new Key.From("stored"), new Content.From(new byte[10])).join();
+        MatcherAssert.assertThat(
+            new EvictingCache(this.storage, 100, EvictionPolicy.LRU).load(
+                new Key.From("stored"),
+                () -> {
+                    throw new IllegalStateException("Remote is requested");
+                },
+                CacheControl.Standard.ALWAYS
+            ).toCompletableFuture().join().isPresent(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        final EvictingCache cache = this.cache(25, EvictionPolicy.LRU);
+        EvictingCacheTest.load(cache, "one", 10);
+        EvictingCacheTest.load(cache, "two", 10);
+        EvictingCacheTest.load(cache, "one", 10);
+        EvictingCacheTest.load(cache, "three", 10);
+        cache.maintain().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Least recently used item is evicted",
+            this.storage.exists(new Key.From("two")).join(),
+            new IsEqual<>(false)
+        );
+        MatcherAssert.assertThat(
+            "Recently used items stay",
+            this.storage.exists(new Key.From("one")).join()
+                && this.storage.exists(new Key.From("three")).join(),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Eviction metrics are updated",
+            this.counter(Metrics.CACHE_EVICTED_BYTES),
+            new IsEqual<>(10.0)
+        );
+        MatcherAssert.assertThat(
+            "Cache size is updated",
+            this.registry.get(Metrics.CACHE_BYTES).tags("cache", "proxy").gauge().value(),
+            new IsEqual<>(20.0)
+        );
+    }
+
+    @Test
+    void evictsLeastFrequentlyUsed() {
+        final EvictingCache cache = new EvictingCache(this.storage, 25, EvictionPolicy.LFU);
+        EvictingCacheTest.load(cache, "popular", 10);
+        EvictingCacheTest.load(cache, "popular", 10);
+        EvictingCacheTest.load(cache, "rare", 10);
+        EvictingCacheTest.load(cache, "last", 10);
+        EvictingCacheTest.load(cache, "last", 10);
+        cache.maintain().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            this.storage.exists(new Key.From("rare")).join(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void evictsLargeItemsFirstBySizePolicy() {
+        final EvictingCache cache = new EvictingCache(this.storage, 100, EvictionPolicy.SIZE);
+        EvictingCacheTest.load(cache, "index", 5);
+        EvictingCacheTest.load(cache, "wheel", 90);
+        EvictingCacheTest.load(cache, "index", 5);
+        EvictingCacheTest.load(cache, "other", 10);
+        cache.maintain().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Large item is evicted",
+            this.storage.exists(new Key.From("wheel")).join(),
+            new IsEqual<>(false)
+        );
+        MatcherAssert.assertThat(
+            "Small items stay",
+            this.storage.list(Key.ROOT).join(),
+            Matchers.hasSize(2)
+        );
+    }
+
+    @Test
+    void evictsItemsStoredBefore() {
+        this.storage.save(new Key.From("old"), new Content.From(new byte[30])).join();
+        final EvictingCache cache = new EvictingCache(this.storage, 30, EvictionPolicy.LRU);
+        EvictingCacheTest.load(cache, "new", 10);
+        cache.maintain().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            this.storage.list(Key.ROOT).join(),
+            Matchers.contains(new Key.From("new"))
+        );
+    }
+
+    @Test
+    void doesNotEvictWithinBudget() {
+        final EvictingCache cache = this.cache(100, EvictionPolicy.LRU);
+        EvictingCacheTest.load(cache, "abc", 50);
+        cache.maintain().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Item stays",
+            this.storage.exists(new Key.From("abc")).join(),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Evictions are not counted",
+            this.registry.find(Metrics.CACHE_EVICTIONS).counter(),
+            new IsNull<>()
+        );
+    }
+
+    @Test
+    void maintainsInBackground() throws Exception {
+        final EvictingCache cache = new EvictingCache(this.storage, 10, EvictionPolicy.LRU);
+        EvictingCacheTest.load(cache, "big", 20);
+        final ScheduledExecutorService exec = Executors.newSingleThreadScheduledExecutor();
+        final ScheduledFuture<?> task = cache.schedule(exec, Duration.ofMillis(10));
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (this.storage.exists(new Key.From("big")).join()
+            && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        task.cancel(false);
+        exec.shutdown();
+        MatcherAssert.assertThat(
+            this.storage.exists(new Key.From("big")).join(),
+            new IsEqual<>(false)
+        );
+    }
+
+    /**
+     * Cache reporting metrics to test registry.
+     * @param budget Cache size budget in bytes
+     * @param policy Eviction policy
+     * @return Cache
+     */
+    private EvictingCache cache(final long budget, final EvictionPolicy policy) {
+        return new EvictingCache(
+            this.storage, budget, policy, new MicrometerMetrics(this.registry)
+        );
+    }
+
+    /**
+     * Counter value of the proxy cache.
+     * @param name Counter name
+     * @param tags Additional tags
+     * @return Value
+     */
+    private double counter(final String name, final String... tags) {
+        return this.registry.get(name).tag("cache", "proxy").tags(tags).counter().count();
+    }
+
+    /**
+     * Load item to cache from remote.
+     * @param cache Cache
+     * @param key Item key
+     * @param size Item size
+     */
+    private static void load(final EvictingCache cache, final String key, final int size) {
+        cache.load(
+            new Key.From(key),
+            () -> CompletableFuture.completedFuture(Optional.of(new Content.From(new byte[size]))),
+            CacheControl.Standard.ALWAYS
+        ).toCompletableFuture().join();
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.cache;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link FrequencySketch}.
+ * @since 0.8
+ */
+class FrequencySketchTest {
+
+    @Test
+    void countsFrequency() {
+        final FrequencySketch sketch = new FrequencySketch(16);
+        for (int cnt = 0; cnt < 5; cnt = cnt + 1) {
+            sketch.increment("one");
+        }
+        sketch.increment("two");
+        MatcherAssert.assertThat(
+            sketch.frequency("one"),
+            new IsEqual<>(5)
+        );
+    }
+
+    @Test
+    void saturatesCounters() {
+        final FrequencySketch sketch = new FrequencySketch(16);
+        for (int cnt = 0; cnt < 100; cnt = cnt + 1) {
+            sketch.increment("one");
+        }
+        MatcherAssert.assertThat(
+            sketch.frequency("one"),
+            new IsEqual<>(15)
+        );
+    }
+
+    @Test
+    void agesCounters() {
+        final FrequencySketch sketch = new FrequencySketch(8);
+        for (int cnt = 0; cnt < 10; cnt = cnt + 1) {
+            sketch.increment("old");
+        }
+        for (int cnt = 0; cnt < 1000; cnt = cnt + 1) {
+            sketch.increment(String.valueOf(cnt));
+        }
+        MatcherAssert.assertThat(
+            sketch.frequency("old"),
+            Matchers.lessThan(10)
+        );
+    }
+}
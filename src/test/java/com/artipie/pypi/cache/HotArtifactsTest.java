@@ -0,0 +1,324 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.cache;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.pypi.metrics.Metrics;
+import com.artipie.pypi.metrics.MicrometerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.reactivex.Flowable;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link HotArtifacts}.
+ * @since 0.8
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class HotArtifactsTest {
+
+    /**
+     * Origin storage.
+     */
+    private Storage origin;
+
+    /**
+     * Meter registry.
+     */
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void init() {
+        this.origin = new InMemoryStorage();
+        this.registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void servesCachedArtifact() {
+        final HotArtifacts hot = this.hot(100, 1000);
+        final Key key = new Key.From("abc", "abc-0.1.whl");
+        this.origin.save(key, new Content.From("abc".getBytes())).join();
+        HotArtifactsTest.read(hot, key);
+        this.origin.save(key, new Content.From("xyz".getBytes())).join();
+        MatcherAssert.assertThat(
+            "Serves artifact from cache",
+            HotArtifactsTest.read(hot, key),
+            new IsEqual<>("abc")
+        );
+        MatcherAssert.assertThat(
+            "Counts hit and miss",
+            this.counter(Metrics.CACHE_ACCESS, "result", "hit")
+                + this.counter(Metrics.CACHE_ACCESS, "result", "miss") * 10,
+            new IsEqual<>(11.0)
+        );
+        MatcherAssert.assertThat(
+            "Counts used bytes",
+            this.used(),
+            new IsEqual<>(3.0)
+        );
+    }
+
+    @Test
+    void servesCachedArtifactManyTimes() {
+        final HotArtifacts hot = new HotArtifacts(this.origin, 100, 1000);
+        final Key key = new Key.From("abc", "abc-0.1.tar.gz");
+        this.origin.save(key, new Content.From("abc".getBytes())).join();
+        HotArtifactsTest.read(hot, key);
+        HotArtifactsTest.read(hot, key);
+        MatcherAssert.assertThat(
+            HotArtifactsTest.read(hot, key),
+            new IsEqual<>("abc")
+        );
+    }
+
+    @Test
+    void doesNotCacheLargeArtifactsAndOtherKeys() {
+        final HotArtifacts hot = new HotArtifacts(this.origin, 2, 1000);
+        final Key large = new Key.From("abc", "abc-0.1.whl");
+        final Key index = new Key.From("abc", "index.html");
+        this.origin.save(large, new Content.From("abc".getBytes())).join();
+        this.origin.save(index, new Content.From("a".getBytes())).join();
+        HotArtifactsTest.read(hot, large);
+        HotArtifactsTest.read(hot, index);
+        this.origin.save(large, new Content.From("xyz".getBytes())).join();
+        this.origin.save(index, new Content.From("b".getBytes())).join();
+        MatcherAssert.assertThat(
+            "Large artifact is read from origin",
+            HotArtifactsTest.read(hot, large),
+            new IsEqual<>("xyz")
+        );
+        MatcherAssert.assertThat(
+            "Index is read from origin",
+            HotArtifactsTest.read(hot, index),
+            new IsEqual<>("b")
+        );
+    }
+
+    @Test
+    void invalidatesOnOverwriteMoveAndDelete() {
+        final HotArtifacts hot = this.hot(100, 1000);
+        final Key key = new Key.From("abc", "abc-0.1.zip");
+        final Key other = new Key.From("abc", "abc-0.2.zip");
+        hot.save(key, new Content.From("one".getBytes())).join();
+        HotArtifactsTest.read(hot, key);
+        hot.save(key, new Content.From("two".getBytes())).join();
+        MatcherAssert.assertThat(
+            "Overwritten artifact is reloaded",
+            HotArtifactsTest.read(hot, key),
+            new IsEqual<>("two")
+        );
+        hot.save(other, new Content.From("old".getBytes())).join();
+        HotArtifactsTest.read(hot, other);
+        hot.move(key, other).join();
+        MatcherAssert.assertThat(
+            "Moved artifact is reloaded",
+            HotArtifactsTest.read(hot, other),
+            new IsEqual<>("two")
+        );
+        hot.delete(other).join();
+        MatcherAssert.assertThat(
+            "Deleted artifact is dropped",
+            hot.exists(other).join() || this.used() > 0,
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void admitsOnlyMoreFrequentArtifacts() {
+        final HotArtifacts hot = this.hot(10, 10);
+        final Key popular = new Key.From("a", "a-1.whl");
+        final Key rare = new Key.From("b", "b-1.whl");
+        this.origin.save(popular, new Content.From("aaaaaa".getBytes())).join();
+        this.origin.save(rare, new Content.From("bbbbbb".getBytes())).join();
+        for (int cnt = 0; cnt < 3; cnt = cnt + 1) {
+            HotArtifactsTest.read(hot, popular);
+        }
+        HotArtifactsTest.read(hot, rare);
+        MatcherAssert.assertThat(
+            "Rare artifact is not admitted",
+            this.registry.find(Metrics.CACHE_EVICTIONS).counter(),
+            new IsNull<>()
+        );
+        for (int cnt = 0; cnt < 5; cnt = cnt + 1) {
+            HotArtifactsTest.read(hot, rare);
+        }
+        MatcherAssert.assertThat(
+            "Frequent artifact replaces less frequent one",
+            this.counter(Metrics.CACHE_EVICTIONS),
+            new IsEqual<>(1.0)
+        );
+        MatcherAssert.assertThat(
+            "Budget is not exceeded",
+            this.used(),
+            new IsEqual<>(6.0)
+        );
+    }
+
+    @Test
+    void streamsNotAdmittedArtifactFromOrigin() {
+        final Subscriptions subs = new Subscriptions(this.origin);
+        final HotArtifacts hot = new HotArtifacts(subs, 10, 10);
+        final Key popular = new Key.From("a", "a-1.whl");
+        final Key rare = new Key.From("b", "b-1.whl");
+        this.origin.save(popular, new Content.From("aaaaaa".getBytes())).join();
+        this.origin.save(rare, new Content.From("bbbbbb".getBytes())).join();
+        for (int cnt = 0; cnt < 3; cnt = cnt + 1) {
+            HotArtifactsTest.read(hot, popular);
+        }
+        final int before = subs.count.get();
+        final Content content = hot.value(rare).join();
+        MatcherAssert.assertThat(
+            "Not admitted artifact is not read before it is consumed",
+            subs.count.get(),
+            new IsEqual<>(before)
+        );
+        MatcherAssert.assertThat(
+            "Not admitted artifact is streamed",
+            new PublisherAs(content).asciiString().toCompletableFuture().join(),
+            new IsEqual<>("bbbbbb")
+        );
+    }
+
+    @Test
+    void delegatesOtherOperations() {
+        final HotArtifacts hot = new HotArtifacts(this.origin, 10, 10);
+        final Key key = new Key.From("a", "a-1.whl");
+        hot.exclusively(
+            key, storage -> storage.save(key, new Content.From("a".getBytes()))
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Lists and sizes origin values",
+            hot.list(new Key.From("a")).join().size() + hot.size(key).join(),
+            new IsEqual<>(2L)
+        );
+    }
+
+    /**
+     * Hot artifacts reporting metrics to test registry.
+     * @param threshold Max size of cached artifact in bytes
+     * @param budget Total size budget in bytes
+     * @return Storage
+     */
+    private HotArtifacts hot(final long threshold, final long budget) {
+        return new HotArtifacts(
+            this.origin, threshold, budget, new MicrometerMetrics(this.registry)
+        );
+    }
+
+    /**
+     * Counter value of the hot artifacts cache.
+     * @param name Counter name
+     * @param tags Additional tags
+     * @return Value
+     */
+    private double counter(final String name, final String... tags) {
+        return this.registry.get(name).tag("cache", "hot").tags(tags).counter().count();
+    }
+
+    /**
+     * Cached bytes.
+     * @return Value
+     */
+    private double used() {
+        return this.registry.get(Metrics.CACHE_BYTES).tag("cache", "hot").gauge().value();
+    }
+
+    /**
+     * Read value as string.
+     * @param storage Storage
+     * @param key Key
+     * @return Value
+     */
+    private static String read(final Storage storage, final Key key) {
+        return new PublisherAs(storage.value(key).join())
+            .string(StandardCharsets.UTF_8).toCompletableFuture().join();
+    }
+
+    /**
+     * Storage counting subscriptions to values content.
+     * @since 0.8
+     */
+    private static final class Subscriptions implements Storage {
+
+        /**
+         * Subscriptions count.
+         */
+        private final AtomicInteger count;
+
+        /**
+         * Origin storage.
+         */
+        private final Storage origin;
+
+        /**
+         * Ctor.
+         * @param origin Origin storage
+         */
+        Subscriptions(final Storage origin) {
+            this.origin = origin;
+            this.count = new AtomicInteger();
+        }
+
+        @Override
+        public CompletableFuture<Boolean> exists(final Key key) {
+            return this.origin.exists(key);
+        }
+
+        @Override
+        public CompletableFuture<Collection<Key>> list(final Key prefix) {
+            return this.origin.list(prefix);
+        }
+
+        @Override
+        public CompletableFuture<Void> save(final Key key, final Content content) {
+            return this.origin.save(key, content);
+        }
+
+        @Override
+        public CompletableFuture<Void> move(final Key source, final Key destination) {
+            return this.origin.move(source, destination);
+        }
+
+        @Override
+        public CompletableFuture<Long> size(final Key key) {
+            return this.origin.size(key);
+        }
+
+        @Override
+        public CompletableFuture<Content> value(final Key key) {
+            return this.origin.value(key).thenApply(
+                content -> new Content.From(
+                    content.size(),
+                    Flowable.fromPublisher(content)
+                        .doOnSubscribe(sub -> this.count.incrementAndGet())
+                )
+            );
+        }
+
+        @Override
+        public CompletableFuture<Void> delete(final Key key) {
+            return this.origin.delete(key);
+        }
+
+        @Override
+        public <T> CompletionStage<T> exclusively(final Key key,
+            final Function<Storage, CompletionStage<T>> operation) {
+            return this.origin.exclusively(key, operation);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.cache;
+
+import com.artipie.asto.Content;
+import com.artipie.http.Response;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithBody;
+import com.artipie.http.rs.RsWithStatus;
+import com.artipie.vertx.VertxSliceServer;
+import io.vertx.reactivex.core.Vertx;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link PrewarmCli}.
+ * @since 0.8
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class PrewarmCliTest {
+
+    /**
+     * Vertx instance.
+     */
+    private static final Vertx VERTX = Vertx.vertx();
+
+    /**
+     * Temporary directory.
+     * @checkstyle VisibilityModifierCheck (5 lines)
+     */
+    @TempDir
+    Path tmp;
+
+    /**
+     * Stand-in upstream server.
+     */
+    private VertxSliceServer upstream;
+
+    /**
+     * Upstream URL.
+     */
+    private String url;
+
+    @BeforeEach
+    void setUp() {
+        this.upstream = new VertxSliceServer(
+            PrewarmCliTest.VERTX,
+            (line, headers, body) -> {
+                final String path = new RequestLineFrom(line).uri().getPath();
+                final Response res;
+                if ("/alarmtime/".equals(path)) {
+                    res = new RsWithBody(
+                        new Content.From(
+                            String.join(
+                                "\n",
+                                "<a href=\"../packages/alarmtime-0.1.5.tar.gz\">0.1.5</a>",
+                                "<a href=\"../packages/alarmtime-0.1.4.tar.gz\">0.1.4</a>"
+                            ).getBytes(StandardCharsets.UTF_8)
+                        )
+                    );
+                } else if (path.startsWith("/packages/alarmtime-")) {
+                    res = new RsWithBody(new Content.From(new byte[]{1, 2, 3}));
+                } else {
+                    res = new RsWithStatus(RsStatus.NOT_FOUND);
+                }
+                return res;
+            }
+        );
+        this.url = String.format("http://localhost:%d", this.upstream.start());
+    }
+
+    @Test
+    void prewarmsCacheFromRequirementsFile() throws Exception {
+        final Path reqs = this.tmp.resolve("requirements.txt");
+        Files.write(
+            reqs,
+            "alarmtime==0.1.5 \\\n    --hash=sha256:123\n".getBytes(StandardCharsets.UTF_8)
+        );
+        final Path cache = this.tmp.resolve("cache");
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final int code = new PrewarmCli(
+            "--remote", this.url, "--cache", cache.toString(),
+            "--requirements", reqs.toString(), "--concurrency", "2"
+        ).exec(new PrintStream(out, true, StandardCharsets.UTF_8.name()));
+        MatcherAssert.assertThat(
+            "Exits with success code",
+            code,
+            new IsEqual<>(0)
+        );
+        MatcherAssert.assertThat(
+            "Artifact is cached",
+            Files.exists(cache.resolve("packages").resolve("alarmtime-0.1.5.tar.gz")),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Reports result",
+            new String(out.toByteArray(), StandardCharsets.UTF_8),
+            Matchers.containsString("Cached 1 files (3 bytes), 0 failures")
+        );
+    }
+
+    @Test
+    void failsOnMissingRequirement() throws Exception {
+        MatcherAssert.assertThat(
+            new PrewarmCli(
+                "--remote", this.url, "--cache", this.tmp.toString(), "missing==1.0"
+            ).exec(new PrintStream(new ByteArrayOutputStream(), true, "UTF-8")),
+            new IsEqual<>(1)
+        );
+    }
+
+    @Test
+    void printsUsage() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MatcherAssert.assertThat(
+            "Exits with usage code",
+            new PrewarmCli("--cache", this.tmp.toString())
+                .exec(new PrintStream(out, true, StandardCharsets.UTF_8.name())),
+            new IsEqual<>(2)
+        );
+        MatcherAssert.assertThat(
+            "Prints usage",
+            new String(out.toByteArray(), StandardCharsets.UTF_8),
+            Matchers.startsWith("Usage:")
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.upstream.stop();
+    }
+
+    @AfterAll
+    static void close() {
+        PrewarmCliTest.VERTX.close();
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.cache;
+
+import com.artipie.asto.Content;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithBody;
+import com.artipie.http.rs.RsWithStatus;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.cactoos.map.MapEntry;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link Prewarm}.
+ * @since 0.8
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class PrewarmTest {
+
+    /**
+     * Index page of `abc` project.
+     */
+    private static final String INDEX = String.join(
+        "\n",
+        "<a href=\"abc-0.1-py3-none-any.whl#sha256=123\">abc-0.1-py3-none-any.whl</a>",
+        "<a href=\"/abc/abc-0.1.tar.gz\">abc-0.1.tar.gz</a>",
+        "<a href=\"abc-0.2.tar.gz\">abc-0.2.tar.gz</a>",
+        "<a href=\"https://files.example.com/abc-0.1.zip\">abc-0.1.zip</a>"
+    );
+
+    @Test
+    void downloadsMatchingFiles() {
+        final List<String> requested = new CopyOnWriteArrayList<>();
+        final List<String> messages = new CopyOnWriteArrayList<>();
+        final Prewarm.Result res = new Prewarm(
+            PrewarmTest.upstream(requested), 2, messages::add
+        ).run(Collections.singletonList(new MapEntry<>("ABC", "0.1")))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Requests index and matching files",
+            requested,
+            Matchers.containsInAnyOrder(
+                "/abc/", "/abc/abc-0.1-py3-none-any.whl", "/abc/abc-0.1.tar.gz"
+            )
+        );
+        MatcherAssert.assertThat(
+            "Counts downloaded files",
+            res.files(),
+            new IsEqual<>(2L)
+        );
+        MatcherAssert.assertThat(
+            "Counts downloaded bytes",
+            res.bytes(),
+            new IsEqual<>(
+                (long) ("/abc/abc-0.1-py3-none-any.whl".length() + "/abc/abc-0.1.tar.gz".length())
+            )
+        );
+        MatcherAssert.assertThat(
+            "Reports progress",
+            messages,
+            Matchers.hasItem("Found 2 files for ABC==0.1")
+        );
+    }
+
+    @Test
+    void reportsFailedRequirementsAndFiles() {
+        final Prewarm.Result res = new Prewarm(
+            PrewarmTest.upstream(new CopyOnWriteArrayList<>()), 1, msg -> { }
+        ).run(
+            Arrays.asList(
+                new MapEntry<>("abc", "0.2"),
+                new MapEntry<>("abc", "9.9"),
+                new MapEntry<>("missing", "1.0")
+            )
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            res.failed(),
+            Matchers.containsInAnyOrder("/abc/abc-0.2.tar.gz", "abc==9.9", "missing==1.0")
+        );
+    }
+
+    @Test
+    void limitsConcurrency() {
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final Slice upstream = PrewarmTest.upstream(new CopyOnWriteArrayList<>());
+        new Prewarm(
+            (line, headers, body) -> connection -> {
+                max.accumulateAndGet(active.incrementAndGet(), Math::max);
+                return upstream.response(line, headers, body).send(connection)
+                    .whenComplete((nothing, err) -> active.decrementAndGet());
+            },
+            1, msg -> { }
+        ).run(
+            Arrays.asList(new MapEntry<>("abc", "0.1"), new MapEntry<>("abc", "0.2"))
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            max.get(),
+            new IsEqual<>(1)
+        );
+    }
+
+    @Test
+    void downloadsPlatformWheelsByPathPrefix() {
+        final List<String> requested = new CopyOnWriteArrayList<>();
+        final String wheel = "/proxy/abc/abc-0.1-cp39-cp39-manylinux2014_x86_64.whl";
+        final Prewarm.Result res = new Prewarm(
+            (line, headers, body) -> {
+                final String path = new RequestLineFrom(line).uri().getPath();
+                requested.add(path);
+                final Response rsp;
+                if ("/proxy/abc/".equals(path)) {
+                    rsp = new RsWithBody(
+                        new Content.From(
+                            String.format("<a href=\"%s#sha256=1\">abc</a>", wheel)
+                                .getBytes(StandardCharsets.UTF_8)
+                        )
+                    );
+                } else if (wheel.equals(path)) {
+                    rsp = new RsWithBody(new Content.From(new byte[10]));
+                } else {
+                    rsp = new RsWithStatus(RsStatus.NOT_FOUND);
+                }
+                return rsp;
+            },
+            "/proxy/", 1, msg -> { }
+        ).run(Collections.singletonList(new MapEntry<>("abc", "0.1")))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Requests index and wheel by prefix",
+            requested,
+            Matchers.contains("/proxy/abc/", wheel)
+        );
+        MatcherAssert.assertThat(
+            "Downloads wheel",
+            res.files(),
+            new IsEqual<>(1L)
+        );
+    }
+
+    /**
+     * Stub upstream: serves index of `abc` project and files, except `abc-0.2.tar.gz`.
+     * Every file body is the file path.
+     * @param requested Requested paths
+     * @return Slice
+     */
+    private static Slice upstream(final List<String> requested) {
+        return (line, headers, body) -> {
+            final String path = new RequestLineFrom(line).uri().getPath();
+            requested.add(path);
+            final byte[] content;
+            if ("/abc/".equals(path)) {
+                content = PrewarmTest.INDEX.getBytes(StandardCharsets.UTF_8);
+            } else {
+                content = path.getBytes(StandardCharsets.UTF_8);
+            }
+            final Response res;
+            if (path.startsWith("/abc/") && !path.endsWith("0.2.tar.gz")) {
+                res = new RsWithBody(new Content.From(content));
+            } else {
+                res = new RsWithStatus(RsStatus.NOT_FOUND);
+            }
+            return res;
+        };
+    }
+}
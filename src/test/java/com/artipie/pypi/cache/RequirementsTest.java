@@ -0,0 +1,51 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.cache;
+
+import org.cactoos.map.MapEntry;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link Requirements}.
+ * @since 0.8
+ */
+class RequirementsTest {
+
+    @Test
+    void readsPinnedRequirements() {
+        MatcherAssert.assertThat(
+            new Requirements(
+                String.join(
+                    "\n",
+                    "# comment",
+                    "--index-url https://pypi.org/simple",
+                    "-r other.txt",
+                    "requests==2.25.1  # via -r requirements.in",
+                    "Django[argon2] == 3.1.5 ; python_version >= \"3.6\"",
+                    "certifi===2020.12.5 \\",
+                    "    --hash=sha256:abc",
+                    "flask>=1.1",
+                    "pytz",
+                    ""
+                )
+            ).pinned(),
+            Matchers.contains(
+                new MapEntry<>("requests", "2.25.1"),
+                new MapEntry<>("Django", "3.1.5"),
+                new MapEntry<>("certifi", "2020.12.5")
+            )
+        );
+    }
+
+    @Test
+    void returnsEmptyForNoPinned() {
+        MatcherAssert.assertThat(
+            new Requirements("numpy\nscipy>1.0").pinned(),
+            Matchers.empty()
+        );
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.cache;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.cache.CacheControl;
+import com.artipie.asto.cache.Remote;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.asto.fs.FileStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link StorageFirstCache}.
+ * @since 0.8
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class StorageFirstCacheTest {
+
+    /**
+     * Test storage.
+     */
+    private Storage storage;
+
+    @BeforeEach
+    void init() {
+        this.storage = new InMemoryStorage();
+    }
+
+    @Test
+    void servesValidItemFromStorageWithoutRemote() {
+        final Key key = new Key.From("abc", "abc-0.1.tar.gz");
+        this.storage.save(key, new Content.From("stored".getBytes())).join();
+        final AtomicInteger requests = new AtomicInteger();
+        MatcherAssert.assertThat(
+            "Returns stored item",
+            this.load(key, StorageFirstCacheTest.remote(requests, "remote"), true),
+            new IsEqual<>("stored")
+        );
+        MatcherAssert.assertThat(
+            "Remote is not requested",
+            requests.get(),
+            new IsEqual<>(0)
+        );
+    }
+
+    @Test
+    void loadsMissingItemFromRemote() {
+        final Key key = new Key.From("abc", "abc-0.1.tar.gz");
+        final AtomicInteger requests = new AtomicInteger();
+        MatcherAssert.assertThat(
+            "Returns remote item",
+            this.load(key, StorageFirstCacheTest.remote(requests, "remote"), true),
+            new IsEqual<>("remote")
+        );
+        MatcherAssert.assertThat(
+            "Stores remote item",
+            new String(new BlockingStorage(this.storage).value(key)),
+            new IsEqual<>("remote")
+        );
+    }
+
+    @Test
+    void revalidatesItemWithRemote() {
+        final Key key = new Key.From("abc");
+        this.storage.save(key, new Content.From("old".getBytes())).join();
+        final AtomicInteger requests = new AtomicInteger();
+        MatcherAssert.assertThat(
+            "Returns remote item",
+            this.load(key, StorageFirstCacheTest.remote(requests, "new"), false),
+            new IsEqual<>("new")
+        );
+        MatcherAssert.assertThat(
+            "Remote is requested once",
+            requests.get(),
+            new IsEqual<>(1)
+        );
+    }
+
+    @Test
+    void servesStoredItemWhenRemoteIsNotAvailable() {
+        final Key key = new Key.From("abc");
+        this.storage.save(key, new Content.From("old".getBytes())).join();
+        MatcherAssert.assertThat(
+            this.load(key, new Remote.Failed(new IllegalStateException()), false),
+            new IsEqual<>("old")
+        );
+    }
+
+    @Test
+    void movesLegacyIndexPage() {
+        this.storage.save(new Key.From("abc"), new Content.From("legacy".getBytes())).join();
+        this.assertMovesLegacyIndexPage();
+    }
+
+    @Test
+    void movesLegacyIndexPageInFileStorage(@TempDir final Path dir) {
+        this.storage = new FileStorage(dir);
+        this.storage.save(new Key.From("abc"), new Content.From("legacy".getBytes())).join();
+        this.assertMovesLegacyIndexPage();
+    }
+
+    /**
+     * Check that index page stored with legacy key is served with the new key when
+     * remote is not available and is moved to the new key.
+     */
+    private void assertMovesLegacyIndexPage() {
+        final Key key = new Key.From("abc", "index.html");
+        MatcherAssert.assertThat(
+            "Serves legacy page",
+            this.load(key, new Remote.Failed(new IllegalStateException()), false),
+            new IsEqual<>("legacy")
+        );
+        MatcherAssert.assertThat(
+            "Moves legacy page to the new key",
+            new String(new BlockingStorage(this.storage).value(key)),
+            new IsEqual<>("legacy")
+        );
+        MatcherAssert.assertThat(
+            "Deletes legacy key",
+            this.storage.list(Key.ROOT).join(),
+            Matchers.contains(key)
+        );
+    }
+
+    /**
+     * Load item with the cache.
+     * @param key Item key
+     * @param remote Remote
+     * @param valid Is stored item valid
+     * @return Item content as string
+     */
+    private String load(final Key key, final Remote remote, final boolean valid) {
+        CacheControl control = CacheControl.Standard.NO_CACHE;
+        if (valid) {
+            control = CacheControl.Standard.ALWAYS;
+        }
+        return new StorageFirstCache(this.storage).load(key, remote, control)
+            .thenCompose(content -> new PublisherAs(content.get()).asciiString())
+            .toCompletableFuture().join();
+    }
+
+    /**
+     * Remote counting requests.
+     * @param requests Requests counter
+     * @param data Remote item
+     * @return Remote
+     */
+    private static Remote remote(final AtomicInteger requests, final String data) {
+        return () -> {
+            requests.incrementAndGet();
+            return CompletableFuture.completedFuture(
+                Optional.of(new Content.From(data.getBytes()))
+            );
+        };
+    }
+}
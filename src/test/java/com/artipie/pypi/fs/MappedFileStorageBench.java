@@ -0,0 +1,124 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.fs;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.fs.FileStorage;
+import io.reactivex.Flowable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Artifact read throughput of {@link FileStorage} and {@link MappedFileStorage}.
+ * @since 0.8
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MappedFileStorageBench {
+
+    /**
+     * Artifact key.
+     */
+    private static final Key KEY = new Key.From("abc", "abc-0.1-py3-none-any.whl");
+
+    /**
+     * Artifact size in megabytes.
+     */
+    @Param({"1", "64"})
+    public int size;
+
+    /**
+     * Storage directory.
+     */
+    private Path dir;
+
+    /**
+     * File storage.
+     */
+    private Storage files;
+
+    /**
+     * Mapped file storage.
+     */
+    private Storage mapped;
+
+    /**
+     * Sink buffer.
+     */
+    private final byte[] sink = new byte[64 * 1024];
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.dir = Files.createTempDirectory("bench");
+        final byte[] data = new byte[this.size * 1024 * 1024];
+        new Random().nextBytes(data);
+        Files.createDirectories(this.dir.resolve("abc"));
+        Files.write(this.dir.resolve(MappedFileStorageBench.KEY.string()), data);
+        this.files = new FileStorage(this.dir);
+        this.mapped = new MappedFileStorage(this.dir);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.delete(this.dir.resolve(MappedFileStorageBench.KEY.string()));
+        Files.delete(this.dir.resolve("abc"));
+        Files.delete(this.dir);
+    }
+
+    @Benchmark
+    public long fileStorage() {
+        return MappedFileStorageBench.read(this.files, this.sink);
+    }
+
+    @Benchmark
+    public long mappedFileStorage() {
+        return MappedFileStorageBench.read(this.mapped, this.sink);
+    }
+
+    /**
+     * Read artifact bytes copying them to the sink, as HTTP server copies them to socket.
+     * @param storage Storage
+     * @param sink Sink buffer
+     * @return Bytes count
+     */
+    private static long read(final Storage storage, final byte[] sink) {
+        return Flowable.fromPublisher(storage.value(MappedFileStorageBench.KEY).join())
+            .reduce(
+                0L,
+                (acc, buf) -> {
+                    final int length = buf.remaining();
+                    while (buf.hasRemaining()) {
+                        buf.get(sink, 0, Math.min(sink.length, buf.remaining()));
+                    }
+                    return acc + length;
+                }
+            )
+            .blockingGet();
+    }
+}
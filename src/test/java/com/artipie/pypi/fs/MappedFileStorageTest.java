@@ -0,0 +1,137 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.fs;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.ext.PublisherAs;
+import io.reactivex.Flowable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link MappedFileStorage}.
+ * @since 0.8
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class MappedFileStorageTest {
+
+    /**
+     * Temporary directory.
+     * @checkstyle VisibilityModifierCheck (5 lines)
+     */
+    @TempDir
+    Path tmp;
+
+    /**
+     * Storage to test.
+     */
+    private MappedFileStorage storage;
+
+    @BeforeEach
+    void init() {
+        this.storage = new MappedFileStorage(this.tmp);
+    }
+
+    @Test
+    void readsValueInChunks() throws Exception {
+        final byte[] data = new byte[3 * 1024 * 1024 + 17];
+        new Random().nextBytes(data);
+        Files.createDirectories(this.tmp.resolve("abc"));
+        Files.write(this.tmp.resolve("abc").resolve("abc-0.1.whl"), data);
+        final Content content = this.storage.value(new Key.From("abc", "abc-0.1.whl")).join();
+        MatcherAssert.assertThat(
+            "Has size",
+            content.size().get(),
+            new IsEqual<>((long) data.length)
+        );
+        MatcherAssert.assertThat(
+            "Reads all bytes",
+            new PublisherAs(content).bytes().toCompletableFuture().join(),
+            new IsEqual<>(data)
+        );
+    }
+
+    @Test
+    void mapsFileOnBlockingExecutor() throws Exception {
+        final ExecutorService exec = Executors.newSingleThreadExecutor(
+            task -> new Thread(task, "blocking-test")
+        );
+        try {
+            Files.write(this.tmp.resolve("file"), new byte[10]);
+            final List<String> threads = new CopyOnWriteArrayList<>();
+            Flowable.fromPublisher(
+                new MappedFileStorage(this.tmp, exec).value(new Key.From("file")).join()
+            ).doOnNext(buf -> threads.add(Thread.currentThread().getName())).blockingSubscribe();
+            MatcherAssert.assertThat(
+                threads,
+                Matchers.contains("blocking-test")
+            );
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+    @Test
+    void readsEmptyValue() {
+        this.storage.save(new Key.From("empty"), Content.EMPTY).join();
+        MatcherAssert.assertThat(
+            new PublisherAs(this.storage.value(new Key.From("empty")).join())
+                .bytes().toCompletableFuture().join().length,
+            new IsEqual<>(0)
+        );
+    }
+
+    @Test
+    void failsOnMissingValue() {
+        Assertions.assertThrows(
+            CompletionException.class,
+            () -> this.storage.value(new Key.From("missing")).join()
+        );
+    }
+
+    @Test
+    void delegatesToFileStorage() {
+        final Key key = new Key.From("one", "file.txt");
+        final Key moved = new Key.From("two", "file.txt");
+        this.storage.save(key, new Content.From("data".getBytes())).join();
+        this.storage.move(key, moved).join();
+        MatcherAssert.assertThat(
+            "Saves and moves",
+            this.storage.list(Key.ROOT).join(),
+            Matchers.contains(moved)
+        );
+        MatcherAssert.assertThat(
+            "Has size",
+            this.storage.size(moved).join(),
+            new IsEqual<>(4L)
+        );
+        MatcherAssert.assertThat(
+            "Reads exclusively",
+            this.storage.exclusively(moved, sto -> sto.exists(moved))
+                .toCompletableFuture().join(),
+            new IsEqual<>(true)
+        );
+        this.storage.delete(moved).join();
+        MatcherAssert.assertThat(
+            "Deletes",
+            this.storage.exists(moved).join(),
+            new IsEqual<>(false)
+        );
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Storage which fails to save and to move items to the keys matching the predicate.
+ * @since 0.8
+ */
+final class FailingStorage implements Storage {
+
+    /**
+     * Origin storage.
+     */
+    private final Storage origin;
+
+    /**
+     * Keys which can not be written.
+     */
+    private final Predicate<Key> failing;
+
+    /**
+     * Ctor.
+     * @param origin Origin storage
+     * @param failing Keys which can not be written
+     */
+    FailingStorage(final Storage origin, final Predicate<Key> failing) {
+        this.origin = origin;
+        this.failing = failing;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exists(final Key key) {
+        return this.origin.exists(key);
+    }
+
+    @Override
+    public CompletableFuture<Collection<Key>> list(final Key prefix) {
+        return this.origin.list(prefix);
+    }
+
+    @Override
+    public CompletableFuture<Void> save(final Key key, final Content content) {
+        final CompletableFuture<Void> res;
+        if (this.failing.test(key)) {
+            res = FailingStorage.failed(key);
+        } else {
+            res = this.origin.save(key, content);
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<Void> move(final Key source, final Key destination) {
+        final CompletableFuture<Void> res;
+        if (this.failing.test(destination)) {
+            res = FailingStorage.failed(destination);
+        } else {
+            res = this.origin.move(source, destination);
+        }
+        return res;
+    }
+
+    @Override
+    public CompletableFuture<Long> size(final Key key) {
+        return this.origin.size(key);
+    }
+
+    @Override
+    public CompletableFuture<Content> value(final Key key) {
+        return this.origin.value(key);
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(final Key key) {
+        return this.origin.delete(key);
+    }
+
+    @Override
+    public <T> CompletionStage<T> exclusively(final Key key,
+        final Function<Storage, CompletionStage<T>> operation) {
+        return this.origin.exclusively(key, operation);
+    }
+
+    /**
+     * Failed write.
+     * @param key Key
+     * @return Failed future
+     */
+    private static CompletableFuture<Void> failed(final Key key) {
+        final CompletableFuture<Void> res = new CompletableFuture<>();
+        res.completeExceptionally(
+            new IllegalStateException(String.format("Failed to write %s", key.string()))
+        );
+        return res;
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Content;
+import com.artipie.http.Headers;
+import com.artipie.http.Slice;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.pypi.metrics.Metrics;
+import com.artipie.pypi.metrics.MicrometerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsSame;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test for {@link FetchQueue}.
+ * @since 0.8
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class FetchQueueTest {
+
+    /**
+     * Amount of queued requests completed synchronously.
+     */
+    private static final int BACKLOG = 100_000;
+
+    /**
+     * Started requests paths.
+     */
+    private final List<String> started = new CopyOnWriteArrayList<>();
+
+    /**
+     * Completions of started requests by path.
+     */
+    private final Map<String, CompletableFuture<Void>> running = new ConcurrentHashMap<>();
+
+    @Test
+    void limitsRequestsInFlight() {
+        final FetchQueue queue = new FetchQueue(2);
+        final Slice slice = queue.slice(this.upstream());
+        final List<CompletableFuture<Void>> sent = new CopyOnWriteArrayList<>();
+        for (final String path : new String[] {"/a/", "/b/", "/c/"}) {
+            sent.add(FetchQueueTest.send(slice, path));
+        }
+        MatcherAssert.assertThat(
+            "Starts requests up to the limit",
+            this.started,
+            Matchers.contains("/a/", "/b/")
+        );
+        MatcherAssert.assertThat(
+            "Queues the rest",
+            queue.waiting(),
+            new IsEqual<>(1)
+        );
+        this.running.get("/a/").complete(null);
+        MatcherAssert.assertThat(
+            "Starts queued request when slot is free",
+            this.started,
+            Matchers.contains("/a/", "/b/", "/c/")
+        );
+        this.running.get("/b/").complete(null);
+        this.running.get("/c/").complete(null);
+        CompletableFuture.allOf(sent.toArray(new CompletableFuture<?>[0])).join();
+        MatcherAssert.assertThat(
+            "Frees all slots",
+            queue.inflight(),
+            new IsEqual<>(0)
+        );
+        MatcherAssert.assertThat(
+            "Counts fetches",
+            queue.fetches(),
+            new IsEqual<>(3L)
+        );
+    }
+
+    @Test
+    void startsIndexBeforeSmallAndLargeArtifacts() {
+        final FetchQueue queue = new FetchQueue(1);
+        final Slice slice = queue.slice(this.upstream());
+        FetchQueueTest.send(slice, "/first/");
+        FetchQueueTest.send(slice, "/torch/torch-1.0-cp38-cp38-manylinux1_x86_64.whl");
+        FetchQueueTest.send(slice, "/abc/abc-0.1-py3-none-any.whl");
+        FetchQueueTest.send(slice, "/abc/abc-0.1.tar.gz");
+        FetchQueueTest.send(slice, "/abc/");
+        for (final String path : new String[] {
+            "/first/", "/abc/", "/abc/abc-0.1-py3-none-any.whl", "/abc/abc-0.1.tar.gz",
+        }) {
+            this.running.get(path).complete(null);
+        }
+        MatcherAssert.assertThat(
+            this.started,
+            Matchers.contains(
+                "/first/", "/abc/", "/abc/abc-0.1-py3-none-any.whl", "/abc/abc-0.1.tar.gz",
+                "/torch/torch-1.0-cp38-cp38-manylinux1_x86_64.whl"
+            )
+        );
+    }
+
+    @Test
+    void measuresQueueingDelay() throws Exception {
+        final FetchQueue queue = new FetchQueue(1);
+        final Slice slice = queue.slice(this.upstream());
+        FetchQueueTest.send(slice, "/one/");
+        final CompletableFuture<Void> second = FetchQueueTest.send(slice, "/two/");
+        Thread.sleep(50);
+        this.running.get("/one/").complete(null);
+        this.running.get("/two/").complete(null);
+        second.join();
+        MatcherAssert.assertThat(
+            "Measures total delay",
+            queue.delay(TimeUnit.MILLISECONDS),
+            Matchers.greaterThanOrEqualTo(50L)
+        );
+        MatcherAssert.assertThat(
+            "Measures max delay",
+            queue.maxDelay(),
+            Matchers.allOf(
+                Matchers.greaterThanOrEqualTo(50L),
+                Matchers.lessThanOrEqualTo(queue.delay())
+            )
+        );
+    }
+
+    @Test
+    void recordsQueueingDelayByUpstream() {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final Slice slice = new FetchQueues(1, new MicrometerMetrics(registry))
+            .queue(URI.create("https://pypi.org/simple"))
+            .slice(this.upstream());
+        FetchQueueTest.send(slice, "/one/");
+        final CompletableFuture<Void> second = FetchQueueTest.send(slice, "/two/");
+        this.running.get("/one/").complete(null);
+        this.running.get("/two/").complete(null);
+        second.join();
+        MatcherAssert.assertThat(
+            registry.get(Metrics.FETCH_WAIT).tag("upstream", "pypi.org").timer().count(),
+            new IsEqual<>(2L)
+        );
+    }
+
+    @Test
+    void drainsSynchronousBacklogWithoutRecursion() throws Exception {
+        final FetchQueue queue = new FetchQueue(1);
+        final CompletableFuture<Void> first = FetchQueueTest.send(
+            queue.slice(this.upstream()), "/first/"
+        );
+        final Slice slice = queue.slice(
+            (line, headers, body) -> connection -> connection.accept(
+                RsStatus.OK, Headers.EMPTY, Content.EMPTY
+            )
+        );
+        final List<CompletableFuture<Void>> sent = new ArrayList<>(FetchQueueTest.BACKLOG);
+        for (int idx = 0; idx < FetchQueueTest.BACKLOG; idx = idx + 1) {
+            sent.add(FetchQueueTest.send(slice, "/abc/"));
+        }
+        this.running.get("/first/").complete(null);
+        first.join();
+        CompletableFuture.allOf(sent.toArray(new CompletableFuture<?>[0]))
+            .get(1, TimeUnit.MINUTES);
+        MatcherAssert.assertThat(
+            queue.inflight(),
+            new IsEqual<>(0)
+        );
+    }
+
+    @Test
+    void releasesSlotOnFailure() {
+        final FetchQueue queue = new FetchQueue(1);
+        final Slice slice = queue.slice(
+            (line, headers, body) -> {
+                throw new IllegalStateException("Failed");
+            }
+        );
+        final CompletableFuture<Void> res = FetchQueueTest.send(slice, "/abc/");
+        Assertions.assertThrows(Exception.class, res::join);
+        MatcherAssert.assertThat(
+            queue.inflight(),
+            new IsEqual<>(0)
+        );
+    }
+
+    @Test
+    void rejectsWrongLimit() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new FetchQueue(0));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "/simple/abc/,0",
+        "/abc/abc-0.1.tar.gz,1",
+        "/abc/abc-0.1-py2.py3-none-any.whl,1",
+        "/abc/abc-0.1-cp39-cp39-win_amd64.whl,2"
+    })
+    void prioritizesRequests(final String path, final int priority) {
+        MatcherAssert.assertThat(
+            FetchQueue.priority(new RequestLine(RqMethod.GET, path).toString()),
+            new IsEqual<>(priority)
+        );
+    }
+
+    @Test
+    void sharesQueueByHost() {
+        final FetchQueues queues = new FetchQueues(1);
+        MatcherAssert.assertThat(
+            "Returns the same queue for the host",
+            queues.queue(URI.create("https://pypi.org/simple")),
+            new IsSame<>(queues.queue(URI.create("https://pypi.org/other")))
+        );
+        queues.queue(URI.create("https://files.pythonhosted.org"));
+        MatcherAssert.assertThat(
+            "Keeps queue per host",
+            queues.queues().keySet(),
+            Matchers.containsInAnyOrder("pypi.org", "files.pythonhosted.org")
+        );
+    }
+
+    /**
+     * Upstream slice: records started requests, every request is completed by the test.
+     * @return Slice
+     */
+    private Slice upstream() {
+        return (line, headers, body) -> connection -> {
+            final String path = new RequestLineFrom(line).uri().getPath();
+            final CompletableFuture<Void> done = new CompletableFuture<>();
+            this.running.put(path, done);
+            this.started.add(path);
+            return done.thenCompose(
+                nothing -> connection.accept(RsStatus.OK, Headers.EMPTY, Content.EMPTY)
+            );
+        };
+    }
+
+    /**
+     * Send GET request to slice.
+     * @param slice Slice
+     * @param path Path
+     * @return Completion of the response sending
+     */
+    private static CompletableFuture<Void> send(final Slice slice, final String path) {
+        return slice.response(
+            new RequestLine(RqMethod.GET, path).toString(), Headers.EMPTY, Content.EMPTY
+        ).send((status, headers, body) -> CompletableFuture.allOf()).toCompletableFuture();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.pypi.meta.PackageInfo;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link FormFields}.
+ * @since 0.8
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class FormFieldsTest {
+
+    /**
+     * File bytes.
+     */
+    private static final byte[] FILE = "abc".getBytes();
+
+    /**
+     * SHA-256 of file bytes.
+     */
+    private static final String SHA =
+        "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    /**
+     * Package metadata.
+     */
+    private static final PackageInfo INFO = new PackageInfo.FromMetadata(
+        "Metadata-Version: 2.1\nName: My_Project\nVersion: 1.0\nSummary: My project\n"
+    );
+
+    @Test
+    void detectsDeclaredMetadata() {
+        MatcherAssert.assertThat(
+            "Declares metadata",
+            new FormFields(FormFieldsTest.data("my-project", "1.0", FormFieldsTest.SHA))
+                .declared(),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Does not declare metadata",
+            new FormFields(new Multipart.Data("my_project-1.0.tar.gz", FormFieldsTest.FILE))
+                .declared(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void acceptsCorrespondingFields() {
+        MatcherAssert.assertThat(
+            new FormFields(
+                FormFieldsTest.data("my.project", "1.0", FormFieldsTest.SHA.toUpperCase())
+            ).verified(FormFieldsTest.INFO).name(),
+            new IsEqual<>("My_Project")
+        );
+    }
+
+    @Test
+    void rejectsOtherName() {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new FormFields(FormFieldsTest.data("project", "1.0", FormFieldsTest.SHA))
+                .verified(FormFieldsTest.INFO)
+        );
+    }
+
+    @Test
+    void rejectsOtherVersion() {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new FormFields(FormFieldsTest.data("my-project", "1.1", FormFieldsTest.SHA))
+                .verified(FormFieldsTest.INFO)
+        );
+    }
+
+    @Test
+    void rejectsOtherDigest() {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new FormFields(FormFieldsTest.data("my-project", "1.0", "0123"))
+                .verified(FormFieldsTest.INFO)
+        );
+    }
+
+    /**
+     * Upload form data.
+     * @param name Name field
+     * @param version Version field
+     * @param digest SHA-256 digest field
+     * @return Data
+     */
+    private static Multipart.Data data(final String name, final String version,
+        final String digest) {
+        final Map<String, List<String>> fields = new HashMap<>();
+        fields.put("metadata_version", Collections.singletonList("2.1"));
+        fields.put("name", Collections.singletonList(name));
+        fields.put("version", Collections.singletonList(version));
+        fields.put("sha256_digest", Collections.singletonList(digest));
+        return new Multipart.Data("my_project-1.0.tar.gz", FormFieldsTest.FILE, fields);
+    }
+}
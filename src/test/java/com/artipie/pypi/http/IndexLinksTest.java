@@ -0,0 +1,117 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.ext.PublisherAs;
+import io.reactivex.Flowable;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test for {@link IndexLinks}.
+ * @since 0.8
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class IndexLinksTest {
+
+    /**
+     * Upstream html index page.
+     */
+    private static final String HTML = String.join(
+        "\n",
+        "<!DOCTYPE html><html><body>",
+        // @checkstyle LineLengthCheck (2 lines)
+        "<a href=\"https://files.pythonhosted.org/packages/a1/b2/alarmtime-0.1.4.tar.gz#sha256=abc\">alarmtime-0.1.4.tar.gz</a><br/>",
+        "<a href=\"https://files.pythonhosted.org/packages/c3/d4/alarmtime-0.1.5-py3-none-any.whl#sha256=def\" data-requires-python=\"&gt;=3.6\">alarmtime-0.1.5-py3-none-any.whl</a><br/>",
+        "<a href=\"alarmtime-0.1.6.zip#sha256=123\">alarmtime-0.1.6.zip</a><br/>",
+        "</body></html>"
+    );
+
+    /**
+     * Expected rewritten html index page.
+     */
+    private static final String EXPECTED = String.join(
+        "\n",
+        "<!DOCTYPE html><html><body>",
+        "<a href=\"/alarmtime/alarmtime-0.1.4.tar.gz#sha256=abc\">alarmtime-0.1.4.tar.gz</a><br/>",
+        // @checkstyle LineLengthCheck (1 line)
+        "<a href=\"/alarmtime/alarmtime-0.1.5-py3-none-any.whl#sha256=def\" data-requires-python=\"&gt;=3.6\">alarmtime-0.1.5-py3-none-any.whl</a><br/>",
+        "<a href=\"alarmtime-0.1.6.zip#sha256=123\">alarmtime-0.1.6.zip</a><br/>",
+        "</body></html>"
+    );
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 64, 4096})
+    void rewritesHtmlLinksSplitToChunks(final int size) {
+        final byte[] bytes = IndexLinksTest.HTML.getBytes(StandardCharsets.UTF_8);
+        final Flowable<ByteBuffer> page = Flowable.range(0, (bytes.length + size - 1) / size)
+            .map(
+                idx -> ByteBuffer.wrap(
+                    bytes, idx * size, Math.min(size, bytes.length - idx * size)
+                ).slice()
+            );
+        MatcherAssert.assertThat(
+            new PublisherAs(new IndexLinks("/alarmtime").rewrite(page))
+                .string(StandardCharsets.UTF_8).toCompletableFuture().join(),
+            new IsEqual<>(IndexLinksTest.EXPECTED)
+        );
+    }
+
+    @Test
+    void rewritesJsonLinks() {
+        MatcherAssert.assertThat(
+            new PublisherAs(
+                new IndexLinks("/prefix/abc").rewrite(
+                    Flowable.just(
+                        ByteBuffer.wrap(
+                            // @checkstyle LineLengthCheck (1 line)
+                            "{\"files\":[{\"filename\":\"abc-1.0.tar.gz\",\"url\":\"https://files.example.com/p/abc-1.0.tar.gz\"}]}"
+                                .getBytes(StandardCharsets.UTF_8)
+                        )
+                    )
+                )
+            ).string(StandardCharsets.UTF_8).toCompletableFuture().join(),
+            new IsEqual<>(
+                "{\"files\":[{\"filename\":\"abc-1.0.tar.gz\",\"url\":\"/prefix/abc/abc-1.0.tar.gz\"}]}"
+            )
+        );
+    }
+
+    @Test
+    void findsOriginUrl() {
+        MatcherAssert.assertThat(
+            IndexLinks.origin(IndexLinksTest.HTML, "alarmtime-0.1.5-py3-none-any.whl"),
+            new IsEqual<>(
+                Optional.of(
+                    URI.create(
+                        // @checkstyle LineLengthCheck (1 line)
+                        "https://files.pythonhosted.org/packages/c3/d4/alarmtime-0.1.5-py3-none-any.whl"
+                    )
+                )
+            )
+        );
+    }
+
+    @Test
+    void doesNotFindRelativeOrAbsentLinks() {
+        MatcherAssert.assertThat(
+            "Relative link is not found",
+            IndexLinks.origin(IndexLinksTest.HTML, "alarmtime-0.1.6.zip").isPresent(),
+            new IsEqual<>(false)
+        );
+        MatcherAssert.assertThat(
+            "Absent file is not found",
+            IndexLinks.origin(IndexLinksTest.HTML, "alarmtime-0.2.tar.gz").isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Content;
+import com.artipie.http.Headers;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsFull;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.slice.SliceSimple;
+import com.artipie.pypi.metrics.Metrics;
+import com.artipie.pypi.metrics.MicrometerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link MeteredSlice}.
+ * @since 0.8
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class MeteredSliceTest {
+
+    @Test
+    void reportsRequestMetrics() {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MatcherAssert.assertThat(
+            "Returns origin response",
+            new MeteredSlice(
+                new SliceSimple(
+                    new RsFull(RsStatus.OK, Headers.EMPTY, new Content.From("abc".getBytes()))
+                ),
+                "index",
+                new MicrometerMetrics(registry)
+            ),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.OK), new RequestLine(RqMethod.GET, "/abc")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Records request by status",
+            registry.get(Metrics.REQUESTS).tags("route", "index", "status", "200").timer()
+                .count(),
+            new IsEqual<>(1L)
+        );
+        MatcherAssert.assertThat(
+            "Counts response bytes",
+            registry.get(Metrics.BYTES).tag("route", "index").counter().count(),
+            new IsEqual<>(3.0)
+        );
+        MatcherAssert.assertThat(
+            "Request is not in flight",
+            registry.get(Metrics.INFLIGHT).tag("route", "index").gauge().value(),
+            new IsEqual<>(0.0)
+        );
+    }
+
+    @Test
+    void routerReportsRouteName() {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MatcherAssert.assertThat(
+            "Returns route response",
+            new PyRouter(
+                Collections.singletonMap(
+                    PyRoute.ARTIFACT,
+                    new SliceSimple(new RsFull(RsStatus.OK, Headers.EMPTY, Content.EMPTY))
+                ),
+                new MicrometerMetrics(registry)
+            ),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.OK), new RequestLine(RqMethod.GET, "/abc/abc-0.1.whl")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Records request by route name",
+            registry.get(Metrics.REQUESTS).tag("route", "artifact").timer().count(),
+            new IsEqual<>(1L)
+        );
+    }
+}
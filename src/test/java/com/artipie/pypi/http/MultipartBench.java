@@ -0,0 +1,118 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.http.Headers;
+import com.artipie.http.headers.ContentType;
+import io.reactivex.Flowable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Upload form parsing with {@link Multipart}: twine-like form with metadata fields and
+ * artifact of several sizes, body is received in 64 KB chunks.
+ * @since 0.8
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MultipartBench {
+
+    /**
+     * Body chunk size.
+     */
+    private static final int CHUNK = 64 * 1024;
+
+    /**
+     * Form boundary.
+     */
+    private static final String BOUNDARY = "--------------------------3f2a9c1d5e7b";
+
+    /**
+     * Artifact size in kilobytes.
+     */
+    @Param({"1", "1024", "16384"})
+    public int size;
+
+    /**
+     * Request headers.
+     */
+    private Headers headers;
+
+    /**
+     * Body chunks.
+     */
+    private List<ByteBuffer> chunks;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        final byte[] artifact = new byte[this.size * 1024];
+        new Random().nextBytes(artifact);
+        final MultipartEntityBuilder form = MultipartEntityBuilder.create()
+            .setBoundary(MultipartBench.BOUNDARY);
+        final String[][] fields = {
+            {":action", "file_upload"}, {"protocol_version", "1"}, {"metadata_version", "2.1"},
+            {"name", "my-project"}, {"version", "1.2.3"}, {"filetype", "bdist_wheel"},
+            {"pyversion", "py3"}, {"summary", "Sample project"}, {"license", "MIT"},
+            {"requires_python", ">=3.6"}, {"sha256_digest", "0123456789abcdef"},
+        };
+        for (final String[] field : fields) {
+            form.addTextBody(field[0], field[1]);
+        }
+        form.addBinaryBody(
+            "content", artifact, org.apache.http.entity.ContentType.APPLICATION_OCTET_STREAM,
+            "my_project-1.2.3-py3-none-any.whl"
+        );
+        final byte[] body;
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            form.build().writeTo(out);
+            body = out.toByteArray();
+        }
+        this.chunks = new ArrayList<>(body.length / MultipartBench.CHUNK + 1);
+        for (int pos = 0; pos < body.length; pos = pos + MultipartBench.CHUNK) {
+            this.chunks.add(
+                ByteBuffer.wrap(body, pos, Math.min(MultipartBench.CHUNK, body.length - pos))
+                    .slice()
+            );
+        }
+        this.headers = new Headers.From(
+            new ContentType(
+                String.format("multipart/form-data; boundary=%s", MultipartBench.BOUNDARY)
+            )
+        );
+    }
+
+    @Benchmark
+    public Multipart.Data content() {
+        return new Multipart(
+            this.headers,
+            Flowable.fromIterable(this.chunks).map(ByteBuffer::duplicate)
+        ).content().toCompletableFuture().join();
+    }
+}
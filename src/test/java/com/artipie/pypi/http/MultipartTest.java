@@ -10,12 +10,18 @@ import io.reactivex.Flowable;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.cactoos.list.ListOf;
 import org.hamcrest.Matcher;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.hamcrest.core.AllOf;
 import org.hamcrest.core.IsEqual;
 import org.junit.jupiter.api.Assertions;
@@ -91,6 +97,87 @@ class MultipartTest {
         );
     }
 
+    @Test
+    void readsFormFields() throws IOException {
+        final String boundary = "123";
+        try (ByteArrayOutputStream body = new ByteArrayOutputStream()) {
+            MultipartEntityBuilder.create()
+                .setBoundary(boundary)
+                .addTextBody("name", "my-project")
+                .addTextBody("classifiers", "Programming Language :: Python :: 3")
+                .addTextBody("classifiers", "Topic :: Utilities")
+                .addBinaryBody(
+                    "content", "code".getBytes(), org.apache.http.entity.ContentType.TEXT_PLAIN,
+                    "my_project-0.1.tar.gz"
+                )
+                .addTextBody("version", "0.1")
+                .build()
+                .writeTo(body);
+            final Multipart.Data res = new Multipart(
+                new Headers.From(new ContentType(String.format("Multipart;boundary=%s", boundary))),
+                Flowable.fromArray(ByteBuffer.wrap(body.toByteArray()))
+            ).content().toCompletableFuture().join();
+            MatcherAssert.assertThat(
+                "Reads field before file",
+                res.field("name"),
+                new IsEqual<>(Optional.of("my-project"))
+            );
+            MatcherAssert.assertThat(
+                "Reads field after file",
+                res.field("version"),
+                new IsEqual<>(Optional.of("0.1"))
+            );
+            MatcherAssert.assertThat(
+                "Reads all values of field",
+                res.fields().get("classifiers"),
+                Matchers.contains("Programming Language :: Python :: 3", "Topic :: Utilities")
+            );
+            MatcherAssert.assertThat(
+                "Reads file",
+                res.fileName(),
+                new IsEqual<>("my_project-0.1.tar.gz")
+            );
+        }
+    }
+
+    @Test
+    void checksFileNameBeforeFileData() throws IOException {
+        final String boundary = "456";
+        final byte[] body = this.multipartBody(new byte[64 * 1024], "my_project-0.1.whl", boundary);
+        final AtomicInteger read = new AtomicInteger();
+        final List<String> checked = new ArrayList<>(1);
+        Assertions.assertThrows(
+            CompletionException.class,
+            () -> new Multipart(
+                new Headers.From(new ContentType(String.format("Multipart;boundary=%s", boundary))),
+                Flowable.range(0, body.length / 100 + 1)
+                    .map(
+                        idx -> ByteBuffer.wrap(
+                            body, idx * 100, Math.min(100, body.length - idx * 100)
+                        )
+                    )
+                    .doOnNext(buf -> read.addAndGet(buf.remaining()))
+            ).content(
+                name -> {
+                    checked.add(name);
+                    final CompletableFuture<Void> res = new CompletableFuture<>();
+                    res.completeExceptionally(new IllegalArgumentException("Rejected"));
+                    return res;
+                }
+            ).toCompletableFuture().join()
+        );
+        MatcherAssert.assertThat(
+            "Checks file name",
+            checked,
+            Matchers.contains("my_project-0.1.whl")
+        );
+        MatcherAssert.assertThat(
+            "Does not read file data",
+            read.get(),
+            Matchers.lessThan(1024)
+        );
+    }
+
     private byte[] multipartBody(final byte[] input, final String filename, final String boundary)
         throws IOException {
         try (ByteArrayOutputStream res = new ByteArrayOutputStream()) {
@@ -0,0 +1,158 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Random;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test for {@link PartHeaders}.
+ * @since 0.8
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class PartHeadersTest {
+
+    @ParameterizedTest
+    @CsvSource(
+        delimiter = '|',
+        value = {
+            "form-data; name=\"content\"; filename=\"abc-0.1.tar.gz\"|abc-0.1.tar.gz",
+            "form-data; filename=abc-0.1.whl; name=content|abc-0.1.whl",
+            "form-data;name=\"content\";filename=\"a;b=c.whl\"|a;b=c.whl",
+            "form-data; name=\"content\"; filename=\"C:\\dir\\abc-0.1.whl\"|abc-0.1.whl",
+            "form-data; name=\"content\"; filename=\"../../abc-0.1.whl\"|abc-0.1.whl",
+            "form-data; name=\"content\"; filename=\"a\\\"b.whl\"|a\"b.whl",
+            "form-data; FileName=\"abc-0.1.whl\"|abc-0.1.whl",
+            "form-data; filename*=UTF-8''%C3%A4bc-0.1.whl; filename=\"abc-0.1.whl\"|äbc-0.1.whl",
+            "form-data; filename=\"abc.whl\"; filename*=iso-8859-1'en'%E4bc.whl|äbc.whl",
+            "form-data; filename=\"abc.whl\"; filename*=UTF-8''%ZZ.whl|abc.whl",
+            "form-data; filename=\"abc.whl\"; filename*=unknown''abc.whl|abc.whl"
+        }
+    )
+    void readsFilename(final String disposition, final String filename) {
+        MatcherAssert.assertThat(
+            new PartHeaders(
+                String.format(
+                    "Content-Disposition: %s\r\nContent-Type: text/plain\r\n", disposition
+                )
+            ).filename(),
+            new IsEqual<>(Optional.of(filename))
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = {
+            "Content-Disposition: form-data; name=\"version\"\r\n",
+            "Content-Disposition: form-data; name=\"content\"; filename=\"\"\r\n",
+            "Content-Type: text/plain\r\n",
+            ""
+        }
+    )
+    void hasNoFilenameForFields(final String headers) {
+        MatcherAssert.assertThat(
+            new PartHeaders(headers).filename().isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void readsNameAndContentType() {
+        final PartHeaders headers = new PartHeaders(
+            String.join(
+                "\r\n",
+                "content-type: application/octet-stream",
+                "Content-Disposition: form-data;",
+                " name=\"content\"",
+                ""
+            )
+        );
+        MatcherAssert.assertThat(
+            "Reads name from folded header",
+            headers.name(),
+            new IsEqual<>(Optional.of("content"))
+        );
+        MatcherAssert.assertThat(
+            "Reads content type",
+            headers.contentType(),
+            new IsEqual<>(Optional.of("application/octet-stream"))
+        );
+    }
+
+    @Test
+    void parsesPathologicalHeadersInLinearTime() {
+        final int size = 1_000_000;
+        final String[] inputs = {
+            PartHeadersTest.repeat("Content-Disposition: filename=\"", "\" \t", size),
+            PartHeadersTest.repeat("Content-Disposition: form-data", "; filename=\"a\"\r\n", size),
+            PartHeadersTest.repeat("", "x\r\n", size),
+            PartHeadersTest.repeat("Content-Disposition: a", ";filename*=UTF-8''%", size),
+            PartHeadersTest.repeat("Content-Disposition: a; filename=\"", "\\", size),
+        };
+        Assertions.assertTimeoutPreemptively(
+            Duration.ofSeconds(5),
+            () -> {
+                for (final String input : inputs) {
+                    final PartHeaders headers = new PartHeaders(input);
+                    headers.filename();
+                    headers.name();
+                    headers.contentType();
+                }
+            }
+        );
+    }
+
+    @Test
+    void survivesRandomHeaders() {
+        final Random random = new Random(42);
+        final char[] alphabet = {
+            '"', ';', '=', ' ', '\t', '\\', '\r', '\n', ':', '%', '*', '\'', '/', 'a', 'F', '0',
+        };
+        final String[] words = {"Content-Disposition:", "filename", "filename*", "name", "UTF-8"};
+        Assertions.assertTimeoutPreemptively(
+            Duration.ofSeconds(10),
+            () -> {
+                for (int iter = 0; iter < 10_000; iter = iter + 1) {
+                    final StringBuilder input = new StringBuilder();
+                    final int length = random.nextInt(2000);
+                    while (input.length() < length) {
+                        if (random.nextInt(8) == 0) {
+                            input.append(words[random.nextInt(words.length)]);
+                        } else {
+                            input.append(alphabet[random.nextInt(alphabet.length)]);
+                        }
+                    }
+                    final PartHeaders headers = new PartHeaders(input.toString());
+                    headers.filename();
+                    headers.name();
+                    headers.contentType();
+                }
+            }
+        );
+    }
+
+    /**
+     * String of prefix and repeated part.
+     * @param prefix Prefix
+     * @param part Part to repeat
+     * @param size Min length of the string
+     * @return String
+     */
+    private static String repeat(final String prefix, final String part, final int size) {
+        final StringBuilder res = new StringBuilder(prefix);
+        while (res.length() < size) {
+            res.append(part);
+        }
+        return res.toString();
+    }
+}
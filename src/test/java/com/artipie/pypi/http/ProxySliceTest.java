@@ -9,7 +9,7 @@ import com.artipie.asto.FailedCompletionStage;
 import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
 import com.artipie.asto.blocking.BlockingStorage;
-import com.artipie.asto.cache.FromRemoteCache;
+import com.artipie.asto.fs.FileStorage;
 import com.artipie.asto.memory.InMemoryStorage;
 import com.artipie.http.Headers;
 import com.artipie.http.hm.RsHasBody;
@@ -17,17 +17,29 @@ import com.artipie.http.hm.RsHasHeaders;
 import com.artipie.http.hm.RsHasStatus;
 import com.artipie.http.hm.SliceHasResponse;
 import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RequestLineFrom;
 import com.artipie.http.rq.RqMethod;
 import com.artipie.http.rs.RsFull;
 import com.artipie.http.rs.RsStatus;
 import com.artipie.http.rs.RsWithStatus;
 import com.artipie.http.slice.SliceSimple;
+import com.artipie.pypi.cache.StorageFirstCache;
+import com.artipie.pypi.metrics.Metrics;
+import com.artipie.pypi.metrics.MicrometerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import org.cactoos.map.MapEntry;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.hamcrest.core.IsEqual;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
@@ -36,7 +48,7 @@ import org.junit.jupiter.params.provider.CsvSource;
  * @since 0.7
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  */
-@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+@SuppressWarnings({"PMD.AvoidDuplicateLiterals", "PMD.TooManyMethods"})
 class ProxySliceTest {
 
     /**
@@ -62,7 +74,7 @@ class ProxySliceTest {
                         new Content.From(body)
                     )
                 ),
-                new FromRemoteCache(this.storage)
+                new StorageFirstCache(this.storage)
             ),
             new SliceHasResponse(
                 Matchers.allOf(
@@ -77,24 +89,25 @@ class ProxySliceTest {
         );
         MatcherAssert.assertThat(
             "Stores index in cache",
-            new BlockingStorage(this.storage).value(new Key.From(key)),
+            new BlockingStorage(this.storage).value(new Key.From(key, "index.html")),
             new IsEqual<>(body)
         );
     }
 
     @ParameterizedTest
     @CsvSource({
-        "my project versions list in html,text/html,my-project",
-        "my project wheel,multipart/form-data,my-project.whl"
+        "my project versions list in html,text/html,my-project,my-project/index.html",
+        "my project wheel,multipart/form-data,my-project.whl,my-project.whl"
     })
-    void getsFromCacheOnError(final String data, final String header, final String key) {
+    void getsFromCacheOnError(final String data, final String header, final String path,
+        final String key) {
         final byte[] body = data.getBytes();
         this.storage.save(new Key.From(key), new Content.From(body)).join();
         MatcherAssert.assertThat(
             "Returns body from cache",
             new ProxySlice(
                 new SliceSimple(new RsWithStatus(RsStatus.INTERNAL_ERROR)),
-                new FromRemoteCache(this.storage)
+                new StorageFirstCache(this.storage)
             ),
             new SliceHasResponse(
                 Matchers.allOf(
@@ -104,7 +117,7 @@ class ProxySliceTest {
                         new MapEntry<>("Content-Length", String.valueOf(body.length))
                     )
                 ),
-                new RequestLine(RqMethod.GET, String.format("/%s", key))
+                new RequestLine(RqMethod.GET, String.format("/%s", path))
             )
         );
         MatcherAssert.assertThat(
@@ -120,7 +133,7 @@ class ProxySliceTest {
             "Status 400 returned",
             new ProxySlice(
                 new SliceSimple(new RsWithStatus(RsStatus.BAD_REQUEST)),
-                new FromRemoteCache(this.storage)
+                new StorageFirstCache(this.storage)
             ),
             new SliceHasResponse(
                 new RsHasStatus(RsStatus.NOT_FOUND),
@@ -136,10 +149,10 @@ class ProxySliceTest {
 
     @ParameterizedTest
     @CsvSource({
-        "My_Project,my-project",
+        "My_Project,my-project/index.html",
         "My.Project.whl,My.Project.whl",
         "Johns.Project.tar.gz,Johns.Project.tar.gz",
-        "AnotherIndex,anotherindex"
+        "AnotherIndex,anotherindex/index.html"
     })
     void normalisesNamesWhenNecessary(final String line, final String key) {
         final byte[] body = "python artifact".getBytes();
@@ -152,7 +165,7 @@ class ProxySliceTest {
                         new Content.From(body)
                     )
                 ),
-                new FromRemoteCache(this.storage)
+                new StorageFirstCache(this.storage)
             ),
             new SliceHasResponse(
                 Matchers.allOf(
@@ -195,4 +208,303 @@ class ProxySliceTest {
         );
     }
 
+    @Test
+    void rewritesAbsoluteLinksOfIndexPage() {
+        final String page = String.join(
+            "",
+            "<a href=\"https://files.example.com/packages/ab/my-project-0.1.tar.gz#sha256=0a\">",
+            "my-project-0.1.tar.gz</a>"
+        );
+        MatcherAssert.assertThat(
+            new ProxySlice(
+                new SliceSimple(
+                    new RsFull(
+                        RsStatus.OK, new Headers.From("content-type", "text/html"),
+                        new Content.From(page.getBytes())
+                    )
+                ),
+                new StorageFirstCache(this.storage),
+                uri -> new SliceSimple(new RsWithStatus(RsStatus.NOT_FOUND))
+            ),
+            new SliceHasResponse(
+                new RsHasBody(
+                    String.join(
+                        "",
+                        "<a href=\"/username/pypi/my-project/my-project-0.1.tar.gz#sha256=0a\">",
+                        "my-project-0.1.tar.gz</a>"
+                    ).getBytes()
+                ),
+                new RequestLine(RqMethod.GET, "/My_Project/"),
+                new Headers.From("X-FullPath", "/username/pypi/My_Project/"),
+                Content.EMPTY
+            )
+        );
+        MatcherAssert.assertThat(
+            "Original index page is stored in cache",
+            new BlockingStorage(this.storage).value(new Key.From("my-project", "index.html")),
+            new IsEqual<>(page.getBytes())
+        );
+    }
+
+    @Test
+    void loadsArtifactByAbsoluteLinkFromCachedIndex() {
+        final byte[] artifact = "artifact".getBytes();
+        this.storage.save(
+            new Key.From("abc", "index.html"),
+            new Content.From(
+                "<a href=\"https://files.example.com/packages/ab/abc-0.1.tar.gz\">abc</a>"
+                    .getBytes()
+            )
+        ).join();
+        final AtomicReference<String> host = new AtomicReference<>();
+        final AtomicReference<String> path = new AtomicReference<>();
+        MatcherAssert.assertThat(
+            new ProxySlice(
+                new SliceSimple(new RsWithStatus(RsStatus.NOT_FOUND)),
+                new StorageFirstCache(this.storage),
+                uri -> {
+                    host.set(uri.toString());
+                    return (line, headers, body) -> {
+                        path.set(new RequestLineFrom(line).uri().getPath());
+                        return new RsFull(RsStatus.OK, Headers.EMPTY, new Content.From(artifact));
+                    };
+                }
+            ),
+            new SliceHasResponse(
+                new RsHasBody(artifact),
+                new RequestLine(RqMethod.GET, "/abc/abc-0.1.tar.gz")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Artifact is loaded from files host",
+            host.get(),
+            new IsEqual<>("https://files.example.com")
+        );
+        MatcherAssert.assertThat(
+            "Artifact is loaded by original path",
+            path.get(),
+            new IsEqual<>("/packages/ab/abc-0.1.tar.gz")
+        );
+        MatcherAssert.assertThat(
+            "Artifact is stored in cache",
+            new BlockingStorage(this.storage).value(new Key.From("abc", "abc-0.1.tar.gz")),
+            new IsEqual<>(artifact)
+        );
+    }
+
+    @Test
+    void cachesIndexAndArtifactsInFileStorage(@TempDir final Path temp) {
+        final Storage files = new FileStorage(temp);
+        final byte[] artifact = "artifact".getBytes();
+        final ProxySlice slice = new ProxySlice(
+            new SliceSimple(
+                new RsFull(
+                    RsStatus.OK, Headers.EMPTY,
+                    new Content.From(
+                        "<a href=\"https://files.example.com/packages/abc-0.1.tar.gz\">abc</a>"
+                            .getBytes()
+                    )
+                )
+            ),
+            new StorageFirstCache(files),
+            uri -> new SliceSimple(
+                new RsFull(RsStatus.OK, Headers.EMPTY, new Content.From(artifact))
+            )
+        );
+        MatcherAssert.assertThat(
+            "Returns index page",
+            slice,
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.OK), new RequestLine(RqMethod.GET, "/abc/")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Returns artifact",
+            slice,
+            new SliceHasResponse(
+                new RsHasBody(artifact), new RequestLine(RqMethod.GET, "/abc/abc-0.1.tar.gz")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Stores index page and artifact in project directory",
+            files.list(new Key.From("abc")).join().stream().map(Key::string)
+                .collect(Collectors.toList()),
+            Matchers.containsInAnyOrder("abc/index.html", "abc/abc-0.1.tar.gz")
+        );
+    }
+
+    @Test
+    void loadsArtifactFromOriginWhenIndexIsNotCached() {
+        final byte[] artifact = "whl".getBytes();
+        MatcherAssert.assertThat(
+            new ProxySlice(
+                new SliceSimple(
+                    new RsFull(RsStatus.OK, Headers.EMPTY, new Content.From(artifact))
+                ),
+                new StorageFirstCache(this.storage),
+                uri -> new SliceSimple(new RsWithStatus(RsStatus.NOT_FOUND))
+            ),
+            new SliceHasResponse(
+                new RsHasBody(artifact),
+                new RequestLine(RqMethod.GET, "/xyz/xyz-0.1-py3-none-any.whl")
+            )
+        );
+    }
+
+    @Test
+    void releasesFetchQueueSlotOnNotFound() throws Exception {
+        final int limit = 2;
+        final ProxySlice slice = new ProxySlice(
+            new FetchQueue(limit).slice(new SliceSimple(new RsWithStatus(RsStatus.NOT_FOUND))),
+            new StorageFirstCache(this.storage)
+        );
+        for (int idx = 0; idx <= limit; idx = idx + 1) {
+            final AtomicReference<RsStatus> status = new AtomicReference<>();
+            slice.response(
+                new RequestLine(RqMethod.GET, String.format("/missing-%d/", idx)).toString(),
+                Headers.EMPTY, Content.EMPTY
+            ).send(
+                (rsstatus, rsheaders, rsbody) -> {
+                    status.set(rsstatus);
+                    return CompletableFuture.allOf();
+                }
+            ).toCompletableFuture().get(10, TimeUnit.SECONDS);
+            MatcherAssert.assertThat(
+                String.format("Request %d is not blocked by the queue", idx),
+                status.get(),
+                new IsEqual<>(RsStatus.NOT_FOUND)
+            );
+        }
+    }
+
+    @Test
+    void servesCachedArtifactWithoutRemoteRequest() {
+        final byte[] artifact = "cached wheel".getBytes();
+        this.storage.save(
+            new Key.From("abc", "abc-0.1-py3-none-any.whl"), new Content.From(artifact)
+        ).join();
+        final AtomicInteger requests = new AtomicInteger();
+        MatcherAssert.assertThat(
+            new ProxySlice(
+                (line, headers, body) -> {
+                    requests.incrementAndGet();
+                    return new RsWithStatus(RsStatus.INTERNAL_ERROR);
+                },
+                new StorageFirstCache(this.storage),
+                uri -> (line, headers, body) -> {
+                    requests.incrementAndGet();
+                    return new RsWithStatus(RsStatus.INTERNAL_ERROR);
+                }
+            ),
+            new SliceHasResponse(
+                new RsHasBody(artifact),
+                new RequestLine(RqMethod.GET, "/abc/abc-0.1-py3-none-any.whl")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Remotes are not requested",
+            requests.get(),
+            new IsEqual<>(0)
+        );
+    }
+
+    @Test
+    void loadsCoreMetadataByAbsoluteLinkOfArtifact() {
+        final byte[] metadata = "Metadata-Version: 2.1".getBytes();
+        this.storage.save(
+            new Key.From("abc", "index.html"),
+            new Content.From(
+                String.join(
+                    "",
+                    "<a href=\"https://files.example.com/packages/ab/abc-0.1-py3-none-any.whl",
+                    "#sha256=0a\" data-dist-info-metadata=\"sha256=0b\">abc</a>"
+                ).getBytes()
+            )
+        ).join();
+        final AtomicReference<String> path = new AtomicReference<>();
+        MatcherAssert.assertThat(
+            new ProxySlice(
+                new SliceSimple(new RsWithStatus(RsStatus.NOT_FOUND)),
+                new StorageFirstCache(this.storage),
+                uri -> (line, headers, body) -> {
+                    path.set(new RequestLineFrom(line).uri().getPath());
+                    return new RsFull(RsStatus.OK, Headers.EMPTY, new Content.From(metadata));
+                }
+            ),
+            new SliceHasResponse(
+                new RsHasBody(metadata),
+                new RequestLine(RqMethod.GET, "/abc/abc-0.1-py3-none-any.whl.metadata")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Core metadata is loaded from files host next to the artifact",
+            path.get(),
+            new IsEqual<>("/packages/ab/abc-0.1-py3-none-any.whl.metadata")
+        );
+        MatcherAssert.assertThat(
+            "Core metadata is stored in cache",
+            new BlockingStorage(this.storage)
+                .value(new Key.From("abc", "abc-0.1-py3-none-any.whl.metadata")),
+            new IsEqual<>(metadata)
+        );
+    }
+
+    @Test
+    void reportsCacheHitsMissesAndStaleItems() {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final Metrics metrics = new MicrometerMetrics(registry);
+        final RequestLine line = new RequestLine(RqMethod.GET, "/simple/abc/");
+        this.storage.save(
+            new Key.From("simple", "abc", "abc-0.1.tar.gz"), new Content.From("abc".getBytes())
+        ).join();
+        MatcherAssert.assertThat(
+            "Returns index from remote",
+            new ProxySlice(
+                new SliceSimple(
+                    new RsFull(RsStatus.OK, Headers.EMPTY, new Content.From("abc".getBytes()))
+                ),
+                new StorageFirstCache(this.storage),
+                uri -> new SliceSimple(new RsWithStatus(RsStatus.NOT_FOUND)),
+                metrics
+            ),
+            new SliceHasResponse(new RsHasStatus(RsStatus.OK), line)
+        );
+        final ProxySlice failing = new ProxySlice(
+            new SliceSimple(new RsWithStatus(RsStatus.INTERNAL_ERROR)),
+            new StorageFirstCache(this.storage),
+            uri -> new SliceSimple(new RsWithStatus(RsStatus.NOT_FOUND)),
+            metrics
+        );
+        MatcherAssert.assertThat(
+            "Returns index from cache",
+            failing,
+            new SliceHasResponse(new RsHasStatus(RsStatus.OK), line)
+        );
+        MatcherAssert.assertThat(
+            "Returns artifact from cache",
+            failing,
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.OK),
+                new RequestLine(RqMethod.GET, "/simple/abc/abc-0.1.tar.gz")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Counts miss",
+            registry.get(Metrics.CACHE).tags("result", "miss", "item", "index").counter()
+                .count(),
+            new IsEqual<>(1.0)
+        );
+        MatcherAssert.assertThat(
+            "Counts stale",
+            registry.get(Metrics.CACHE).tags("result", "stale", "item", "index").counter()
+                .count(),
+            new IsEqual<>(1.0)
+        );
+        MatcherAssert.assertThat(
+            "Counts hit",
+            registry.get(Metrics.CACHE).tags("result", "hit", "item", "artifact").counter()
+                .count(),
+            new IsEqual<>(1.0)
+        );
+    }
 }
@@ -92,7 +92,8 @@ final class PyProxySliceCacheITCase {
         new TestResource("pypi_repo/alarmtime-0.1.5.tar.gz")
             .saveTo(this.storage, new Key.From("alarmtime/alarmtime-0.1.5.tar.gz"));
         this.storage.save(
-            new Key.From("alarmtime"), new Content.From(this.indexHtml().getBytes())
+            new Key.From("alarmtime", "index.html"),
+            new Content.From(this.indexHtml().getBytes())
         ).join();
         try (PypiContainer runtime = new PypiContainer()) {
             MatcherAssert.assertThat(
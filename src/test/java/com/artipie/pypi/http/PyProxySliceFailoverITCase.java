@@ -0,0 +1,149 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.http.Headers;
+import com.artipie.http.client.auth.Authenticator;
+import com.artipie.http.client.jetty.JettyClientSlices;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsFull;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithStatus;
+import com.artipie.http.slice.LoggingSlice;
+import com.artipie.http.slice.SliceSimple;
+import com.artipie.vertx.VertxSliceServer;
+import io.vertx.reactivex.core.Vertx;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.cactoos.text.TextOf;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link PyProxySlice} with several remotes.
+ * @since 0.8
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+final class PyProxySliceFailoverITCase {
+
+    /**
+     * Vertx instance.
+     */
+    private static final Vertx VERTX = Vertx.vertx();
+
+    /**
+     * Index page served by the mirror.
+     */
+    private static final String INDEX = "<a href=\"abc-0.1.whl\">abc-0.1.whl</a>";
+
+    /**
+     * Jetty client.
+     */
+    private final JettyClientSlices client = new JettyClientSlices();
+
+    /**
+     * Broken remote server, always returns 500 status.
+     */
+    private VertxSliceServer broken;
+
+    /**
+     * Working mirror server.
+     */
+    private VertxSliceServer mirror;
+
+    /**
+     * Proxy server.
+     */
+    private VertxSliceServer server;
+
+    /**
+     * Proxy server port.
+     */
+    private int port;
+
+    /**
+     * Test storage.
+     */
+    private Storage storage;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.client.start();
+        this.storage = new InMemoryStorage();
+        this.broken = new VertxSliceServer(
+            PyProxySliceFailoverITCase.VERTX,
+            new SliceSimple(new RsWithStatus(RsStatus.INTERNAL_ERROR))
+        );
+        this.mirror = new VertxSliceServer(
+            PyProxySliceFailoverITCase.VERTX,
+            new SliceSimple(
+                new RsFull(
+                    RsStatus.OK, new Headers.From("content-type", "text/html"),
+                    new Content.From(
+                        PyProxySliceFailoverITCase.INDEX.getBytes(StandardCharsets.UTF_8)
+                    )
+                )
+            )
+        );
+        this.server = new VertxSliceServer(
+            PyProxySliceFailoverITCase.VERTX,
+            new LoggingSlice(
+                new PyProxySlice(
+                    this.client,
+                    Arrays.asList(
+                        URI.create(String.format("http://localhost:%d", this.broken.start())),
+                        URI.create(String.format("http://localhost:%d", this.mirror.start()))
+                    ),
+                    Authenticator.ANONYMOUS,
+                    this.storage
+                )
+            )
+        );
+        this.port = this.server.start();
+    }
+
+    @Test
+    void failsOverToWorkingMirror() throws Exception {
+        final HttpURLConnection con = (HttpURLConnection) new URL(
+            String.format("http://localhost:%s/abc/", this.port)
+        ).openConnection();
+        con.setRequestMethod(RqMethod.GET.value());
+        MatcherAssert.assertThat(
+            "Response status is 200",
+            con.getResponseCode(),
+            new IsEqual<>(Integer.parseInt(RsStatus.OK.code()))
+        );
+        MatcherAssert.assertThat(
+            "Response body is mirror index",
+            new TextOf(con.getInputStream()).asString(),
+            new IsEqual<>(PyProxySliceFailoverITCase.INDEX)
+        );
+        MatcherAssert.assertThat(
+            "Index page was added to storage",
+            this.storage.exists(new Key.From("abc", "index.html")).join(),
+            new IsEqual<>(true)
+        );
+        con.disconnect();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        this.client.stop();
+        this.server.stop();
+        this.broken.stop();
+        this.mirror.stop();
+    }
+
+}
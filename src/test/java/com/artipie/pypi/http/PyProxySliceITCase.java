@@ -169,8 +169,9 @@ final class PyProxySliceITCase {
         );
         MatcherAssert.assertThat(
             "Alarm time index page was added to storage",
-            new PublisherAs(this.storage.value(new Key.From("alarmtime")).join()).asciiString()
-                .toCompletableFuture().join(),
+            new PublisherAs(
+                this.storage.value(new Key.From("alarmtime", "index.html")).join()
+            ).asciiString().toCompletableFuture().join(),
             new StringContainsInOrder(new ListOf<>("<!DOCTYPE html>", "Links for AlarmTime"))
         );
         con.disconnect();
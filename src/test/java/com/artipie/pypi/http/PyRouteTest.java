@@ -0,0 +1,96 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.http.Headers;
+import com.artipie.http.rq.RequestLine;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test for {@link PyRoute}.
+ * @since 0.8
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class PyRouteTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "/abc/abc-0.1.whl,ARTIFACT",
+        "/abc/abc-0.1.tar.gz,ARTIFACT",
+        "/abc/abc-0.1.tar.Z,ARTIFACT",
+        "/abc/abc-0.1.tar.bz2,ARTIFACT",
+        "/abc/abc-0.1.zip,ARTIFACT",
+        "/abc/abc-0.1.egg,ARTIFACT",
+        "/abc/abc-0.1.tar,ARTIFACT",
+        "/.whl,ARTIFACT",
+        "/abc/abc-0.1-py3-none-any.whl.metadata,ARTIFACT",
+        "/,INDEX",
+        "/abc,INDEX",
+        "/simple/abc/,INDEX",
+        "/simple/my-project-2,INDEX",
+        "/Abc,REDIRECT",
+        "/my_project/,REDIRECT",
+        "/abc//,REDIRECT",
+        "/abc/abc-0.1.WHL,REDIRECT",
+        "/abc/abc-0.1.tar.z,REDIRECT"
+    })
+    void sortsGetRequests(final String path, final PyRoute route) {
+        MatcherAssert.assertThat(
+            PyRoute.of(new RequestLine("GET", path).toString(), Collections.emptyList()),
+            new IsEqual<>(route)
+        );
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "multipart/form-data; boundary=123,UPLOAD",
+        "Multipart/form-data,UPLOAD",
+        "text/xml,SEARCH",
+        "TEXT/xml,SEARCH",
+        "application/json,NOT_FOUND"
+    })
+    void sortsPostRequests(final String type, final PyRoute route) {
+        MatcherAssert.assertThat(
+            PyRoute.of(
+                new RequestLine("POST", "/").toString(),
+                new Headers.From("Content-Type", type)
+            ),
+            new IsEqual<>(route)
+        );
+    }
+
+    @Test
+    void prefersUploadToSearch() {
+        MatcherAssert.assertThat(
+            PyRoute.of(
+                new RequestLine("POST", "/").toString(),
+                new Headers.From(
+                    new Headers.From("content-type", "text/plain"),
+                    "Content-type", "multipart/form-data"
+                )
+            ),
+            new IsEqual<>(PyRoute.UPLOAD)
+        );
+    }
+
+    @Test
+    void doesNotRouteOtherRequests() {
+        MatcherAssert.assertThat(
+            "POST without content type",
+            PyRoute.of(new RequestLine("POST", "/").toString(), Collections.emptyList()),
+            new IsEqual<>(PyRoute.NOT_FOUND)
+        );
+        MatcherAssert.assertThat(
+            "PUT",
+            PyRoute.of(new RequestLine("PUT", "/abc").toString(), Collections.emptyList()),
+            new IsEqual<>(PyRoute.NOT_FOUND)
+        );
+    }
+}
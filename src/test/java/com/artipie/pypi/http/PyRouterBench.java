@@ -0,0 +1,159 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithStatus;
+import com.artipie.http.rt.ByMethodsRule;
+import com.artipie.http.rt.RtRule;
+import com.artipie.http.rt.RtRulePath;
+import com.artipie.http.rt.SliceRoute;
+import com.artipie.http.slice.SliceSimple;
+import io.reactivex.Flowable;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-request routing overhead of regular expressions route chain, which was used by
+ * {@link PySlice} before, and of {@link PyRouter}. Route slices are stubs.
+ * @since 0.8
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PyRouterBench {
+
+    /**
+     * Request kind.
+     */
+    @Param({"artifact", "index", "upload", "redirect"})
+    public String request;
+
+    /**
+     * Request line.
+     */
+    private String line;
+
+    /**
+     * Request headers.
+     */
+    private Headers headers;
+
+    /**
+     * Regular expressions route chain.
+     */
+    private Slice chain;
+
+    /**
+     * Router.
+     */
+    private Slice router;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Map<String, String> paths = new HashMap<>();
+        paths.put("artifact", "/simple/abc/abc-0.1-py3-none-any.whl");
+        paths.put("index", "/simple/abc/");
+        paths.put("upload", "/");
+        paths.put("redirect", "/simple/ABC_def");
+        RqMethod method = RqMethod.GET;
+        this.headers = Headers.EMPTY;
+        if ("upload".equals(this.request)) {
+            method = RqMethod.POST;
+            this.headers = new Headers.From(
+                "Content-Type", "multipart/form-data; boundary=1234567890"
+            );
+        }
+        this.line = new RequestLine(method, paths.get(this.request)).toString();
+        final Slice stub = new SliceSimple(new RsWithStatus(RsStatus.OK));
+        this.chain = PyRouterBench.chain(stub);
+        final Map<PyRoute, Slice> routes = new EnumMap<>(PyRoute.class);
+        for (final PyRoute route : PyRoute.values()) {
+            routes.put(route, stub);
+        }
+        this.router = new PyRouter(routes);
+    }
+
+    @Benchmark
+    public Response chain() {
+        return this.chain.response(this.line, this.headers, Flowable.empty());
+    }
+
+    @Benchmark
+    public Response router() {
+        return this.router.response(this.line, this.headers, Flowable.empty());
+    }
+
+    /**
+     * Regular expressions route chain with the same rules as {@link PyRoute}.
+     * @param stub Route slice
+     * @return Slice
+     */
+    private static Slice chain(final Slice stub) {
+        return new SliceRoute(
+            new RtRulePath(
+                new RtRule.All(
+                    new ByMethodsRule(RqMethod.GET),
+                    new RtRule.ByPath(".*\\.(whl|tar\\.gz|zip|tar\\.bz2|tar\\.Z|tar|egg)")
+                ),
+                stub
+            ),
+            new RtRulePath(
+                new RtRule.All(
+                    new ByMethodsRule(RqMethod.POST),
+                    new RtRule.ByHeader(
+                        "content-type", Pattern.compile("multipart.*", Pattern.CASE_INSENSITIVE)
+                    )
+                ),
+                stub
+            ),
+            new RtRulePath(
+                new RtRule.All(
+                    new ByMethodsRule(RqMethod.POST),
+                    new RtRule.ByHeader(
+                        "content-type", Pattern.compile("text.*", Pattern.CASE_INSENSITIVE)
+                    )
+                ),
+                stub
+            ),
+            new RtRulePath(
+                new RtRule.All(
+                    new ByMethodsRule(RqMethod.GET),
+                    new RtRule.ByPath("(^\\/)|(.*(\\/[a-z0-9\\-]+?\\/?$))")
+                ),
+                stub
+            ),
+            new RtRulePath(new ByMethodsRule(RqMethod.GET), stub),
+            new RtRulePath(RtRule.FALLBACK, stub)
+        );
+    }
+}
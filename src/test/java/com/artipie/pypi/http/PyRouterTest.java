@@ -0,0 +1,57 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.http.Slice;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithStatus;
+import com.artipie.http.slice.SliceSimple;
+import java.util.Collections;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link PyRouter}.
+ * @since 0.8
+ */
+class PyRouterTest {
+
+    @Test
+    void passesRequestToRouteSlice() {
+        MatcherAssert.assertThat(
+            new PyRouter(PyRouterTest.routes()),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.ACCEPTED),
+                new RequestLine(RqMethod.GET, "/abc/abc-0.1.whl")
+            )
+        );
+    }
+
+    @Test
+    void returnsNotFoundForRouteWithoutSlice() {
+        MatcherAssert.assertThat(
+            new PyRouter(PyRouterTest.routes()),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_FOUND),
+                new RequestLine(RqMethod.GET, "/abc")
+            )
+        );
+    }
+
+    /**
+     * Routes with artifact slice only.
+     * @return Slices by route
+     */
+    private static Map<PyRoute, Slice> routes() {
+        return Collections.singletonMap(
+            PyRoute.ARTIFACT, new SliceSimple(new RsWithStatus(RsStatus.ACCEPTED))
+        );
+    }
+}
@@ -7,8 +7,11 @@ package com.artipie.pypi.http;
 import com.artipie.asto.Content;
 import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
+import com.artipie.asto.fs.FileStorage;
 import com.artipie.asto.memory.InMemoryStorage;
 import com.artipie.http.Headers;
+import com.artipie.http.auth.Authentication;
+import com.artipie.http.auth.Permissions;
 import com.artipie.http.headers.Header;
 import com.artipie.http.hm.IsHeader;
 import com.artipie.http.hm.IsString;
@@ -19,12 +22,14 @@ import com.artipie.http.hm.RsHasStatus;
 import com.artipie.http.rq.RequestLine;
 import com.artipie.http.rs.RsStatus;
 import io.reactivex.Flowable;
+import java.nio.file.Path;
 import java.util.Collections;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.hamcrest.core.StringContains;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
@@ -152,4 +157,22 @@ class PySliceTest {
         );
     }
 
+    @Test
+    void downloadsArtifactThroughMappedFiles(@TempDir final Path dir) {
+        final byte[] content = "python wheel".getBytes();
+        final String key = "my/my-project.whl";
+        final Storage files = new FileStorage(dir);
+        files.save(new Key.From(key), new Content.From(content)).join();
+        MatcherAssert.assertThat(
+            new PySlice(
+                files, Permissions.FREE, Authentication.ANONYMOUS,
+                new PySlice.Settings().withMappedFiles(dir)
+            ).response(
+                new RequestLine("GET", key).toString(),
+                Collections.emptyList(),
+                Flowable.empty()
+            ),
+            new ResponseMatcher(RsStatus.OK, content)
+        );
+    }
 }
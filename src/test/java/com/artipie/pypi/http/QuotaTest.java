@@ -0,0 +1,61 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link Quota}.
+ * @since 0.8
+ */
+class QuotaTest {
+
+    @Test
+    void reservesWithinQuotaCountingStoredArchives() {
+        final Storage storage = new InMemoryStorage();
+        storage.save(new Key.From("a", "a-0.1.tar.gz"), new Content.From(new byte[60])).join();
+        storage.save(
+            new Key.From("a", "a-0.1.tar.gz.metadata"), new Content.From(new byte[50])
+        ).join();
+        storage.save(new Key.From("a", ".catalog.json"), new Content.From(new byte[50])).join();
+        final Quota quota = new Quota(storage, 100);
+        MatcherAssert.assertThat(
+            "Reserves bytes within quota",
+            quota.reserve(30).toCompletableFuture().join(),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Does not reserve bytes over quota",
+            quota.reserve(20).toCompletableFuture().join(),
+            new IsEqual<>(false)
+        );
+        quota.release(30);
+        MatcherAssert.assertThat(
+            "Reserves released bytes",
+            quota.reserve(40).toCompletableFuture().join(),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Returns part of reservation",
+            quota.reserve(-10).toCompletableFuture().join(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void alwaysReservesWithoutQuota() {
+        MatcherAssert.assertThat(
+            new Quota(new InMemoryStorage(), Long.MAX_VALUE).reserve(Long.MAX_VALUE / 2)
+                .toCompletableFuture().join(),
+            new IsEqual<>(true)
+        );
+    }
+}
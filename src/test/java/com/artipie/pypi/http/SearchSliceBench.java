@@ -0,0 +1,109 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.TestResource;
+import com.artipie.http.Headers;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Search queries with {@link SearchSlice} on {@link InMemoryStorage}: query of existing
+ * project with several artifacts and query of missing project.
+ * @since 0.8
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SearchSliceBench {
+
+    /**
+     * Searched project.
+     */
+    @Param({"artipie-sample", "missing-project"})
+    public String project;
+
+    /**
+     * Search slice.
+     */
+    private SearchSlice slice;
+
+    /**
+     * Request line.
+     */
+    private String line;
+
+    /**
+     * Request body.
+     */
+    private byte[] xml;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Storage storage = new InMemoryStorage();
+        final String[] archives = {
+            "artipie-sample-0.2.tar.gz", "artipie_sample-0.2-py3-none-any.whl",
+            "artipie-sample-2.1.tar.bz2", "artipie_sample-2.1-py3.7.egg",
+        };
+        for (final String archive : archives) {
+            new TestResource(String.format("pypi_repo/%s", archive))
+                .saveTo(storage, new Key.From("artipie-sample", archive));
+        }
+        this.slice = new SearchSlice(storage);
+        this.line = new RequestLine(RqMethod.POST, "/").toString();
+        this.xml = String.join(
+            "\n", "<?xml version='1.0'?>",
+            "<methodCall>",
+            "<methodName>search</methodName>",
+            "<params>",
+            "<param>",
+            "<value><struct>",
+            "<member>",
+            "<name>name</name>",
+            "<value><array><data>",
+            String.format("<value><string>%s</string></value>", this.project),
+            "</data></array></value>",
+            "</member>",
+            "</struct></value>",
+            "</param>",
+            "<param>",
+            "<value><string>or</string></value>",
+            "</param>",
+            "</params>",
+            "</methodCall>"
+        ).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] search() {
+        return SliceIndexBench.body(
+            this.slice.response(this.line, Headers.EMPTY, new Content.From(this.xml))
+        );
+    }
+}
@@ -10,6 +10,7 @@ import com.artipie.asto.Storage;
 import com.artipie.asto.memory.InMemoryStorage;
 import com.artipie.asto.test.TestResource;
 import com.artipie.http.Headers;
+import com.artipie.http.headers.ContentType;
 import com.artipie.http.hm.RsHasBody;
 import com.artipie.http.hm.RsHasHeaders;
 import com.artipie.http.hm.RsHasStatus;
@@ -18,6 +19,9 @@ import com.artipie.http.rq.RequestLine;
 import com.artipie.http.rq.RqMethod;
 import com.artipie.http.rs.RsStatus;
 import com.artipie.pypi.meta.Metadata;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.cactoos.map.MapEntry;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
@@ -96,6 +100,38 @@ class SearchSliceTest {
         );
     }
 
+    @Test
+    void findsUploadedWheel() throws IOException {
+        final String pckg = "artipie_sample-0.2-py3-none-any.whl";
+        final TestResource resource = new TestResource(String.format("pypi_repo/%s", pckg));
+        final ByteArrayOutputStream form = new ByteArrayOutputStream();
+        MultipartEntityBuilder.create().setBoundary("159").addBinaryBody(
+            "content", resource.asBytes(), org.apache.http.entity.ContentType.TEXT_PLAIN, pckg
+        ).build().writeTo(form);
+        MatcherAssert.assertThat(
+            "Uploads wheel",
+            new WheelSlice(this.storage),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.CREATED),
+                new RequestLine(RqMethod.POST, "/"),
+                new Headers.From(new ContentType("multipart/form-data; boundary=159")),
+                new Content.From(form.toByteArray())
+            )
+        );
+        MatcherAssert.assertThat(
+            "Finds wheel rather than its sidecar files",
+            new SearchSlice(this.storage),
+            new SliceHasResponse(
+                new RsHasBody(
+                    SearchSlice.found(new Metadata.FromArchive(resource.asPath()).read())
+                ),
+                new RequestLine(RqMethod.POST, "/"),
+                Headers.EMPTY,
+                new Content.From(this.xml("artipie-sample").getBytes())
+            )
+        );
+    }
+
     private String xml(final String name) {
         return String.join(
             "\n", "<?xml version='1.0'?>",
@@ -0,0 +1,105 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import io.reactivex.Flowable;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Project index page rendering with {@link SliceIndex} on {@link InMemoryStorage}
+ * for projects with several amounts of 16 KB artifacts.
+ * @since 0.8
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SliceIndexBench {
+
+    /**
+     * Artifact size.
+     */
+    private static final int SIZE = 16 * 1024;
+
+    /**
+     * Amount of project artifacts.
+     */
+    @Param({"10", "100", "1000"})
+    public int files;
+
+    /**
+     * Index slice.
+     */
+    private SliceIndex slice;
+
+    /**
+     * Request line.
+     */
+    private String line;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Storage storage = new InMemoryStorage();
+        final Random random = new Random();
+        for (int num = 0; num < this.files; num = num + 1) {
+            final byte[] data = new byte[SliceIndexBench.SIZE];
+            random.nextBytes(data);
+            storage.save(
+                new Key.From("my-project", String.format("my_project-1.%d-py3-none-any.whl", num)),
+                new Content.From(data)
+            ).join();
+        }
+        this.slice = new SliceIndex(storage);
+        this.line = new RequestLine(RqMethod.GET, "/my-project/").toString();
+    }
+
+    @Benchmark
+    public byte[] render() {
+        return SliceIndexBench.body(
+            this.slice.response(this.line, Headers.EMPTY, Flowable.empty())
+        );
+    }
+
+    /**
+     * Response body.
+     * @param response Response
+     * @return Body bytes
+     */
+    static byte[] body(final Response response) {
+        final CompletableFuture<byte[]> res = new CompletableFuture<>();
+        response.send(
+            (status, headers, body) -> new PublisherAs(body).bytes().thenAccept(res::complete)
+        ).toCompletableFuture().join();
+        return res.join();
+    }
+}
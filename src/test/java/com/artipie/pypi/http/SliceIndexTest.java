@@ -7,21 +7,38 @@ package com.artipie.pypi.http;
 import com.artipie.asto.Content;
 import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
 import com.artipie.asto.memory.InMemoryStorage;
 import com.artipie.http.Headers;
+import com.artipie.http.Response;
 import com.artipie.http.hm.IsHeader;
 import com.artipie.http.hm.ResponseMatcher;
 import com.artipie.http.hm.RsHasBody;
 import com.artipie.http.rq.RequestLine;
 import com.artipie.http.rs.RsStatus;
+import com.artipie.pypi.index.Catalog;
+import com.artipie.pypi.index.Catalogs;
+import com.artipie.pypi.index.Generations;
 import io.reactivex.Flowable;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.json.Json;
+import javax.json.JsonObject;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.cactoos.map.MapEntry;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNot;
+import org.hamcrest.core.StringContains;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -229,6 +246,216 @@ class SliceIndexTest {
         );
     }
 
+    @Test
+    void advertisesCoreMetadata() {
+        final String wheel = "def/def-0.2-py3-none-any.whl";
+        final byte[] meta = "Metadata-Version: 2.1\nName: def\nVersion: 0.2\n".getBytes();
+        this.storage.save(new Key.From(wheel), new Content.From(wheel.getBytes())).join();
+        this.storage.save(new Key.From(String.format("%s.metadata", wheel)), new Content.From(meta))
+            .join();
+        MatcherAssert.assertThat(
+            new SliceIndex(this.storage).response(
+                new RequestLine("GET", "/def").toString(),
+                Collections.emptyList(),
+                Flowable.empty()
+            ),
+            new RsHasBody(
+                String.format(
+                    "<!DOCTYPE html>\n<html>\n  </body>\n%s\n</body>\n</html>",
+                    String.format(
+                        // @checkstyle LineLengthCheck (1 line)
+                        "<a href=\"/%s#sha256=%s\" data-dist-info-metadata=\"sha256=%s\" data-core-metadata=\"sha256=%3$s\">%s</a><br/>",
+                        wheel, DigestUtils.sha256Hex(wheel.getBytes()),
+                        DigestUtils.sha256Hex(meta), "def-0.2-py3-none-any.whl"
+                    )
+                ),
+                StandardCharsets.UTF_8
+            )
+        );
+    }
+
+    @Test
+    void buildsLinksFromCatalog() {
+        final String gzip = "def/def-0.1.tar.gz";
+        final String wheel = "def/def-0.2-py3-none-any.whl";
+        this.storage.save(new Key.From(gzip), new Content.From(gzip.getBytes())).join();
+        this.storage.save(new Key.From(wheel), new Content.From(wheel.getBytes())).join();
+        new Catalogs(this.storage).add(
+            new Key.From("def"),
+            Collections.singleton(
+                new Catalog.Entry(
+                    "def-0.2-py3-none-any.whl", "0a1b", Optional.of("2c3d"), Optional.of(">=3.8")
+                )
+            )
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new SliceIndex(this.storage).response(
+                new RequestLine("GET", "/def").toString(),
+                Collections.emptyList(),
+                Flowable.empty()
+            ),
+            new RsHasBody(
+                String.format(
+                    "<!DOCTYPE html>\n<html>\n  </body>\n%s%s\n</body>\n</html>",
+                    String.format(
+                        "<a href=\"/%s#sha256=%s\">%s</a><br/>",
+                        gzip, DigestUtils.sha256Hex(gzip.getBytes()), "def-0.1.tar.gz"
+                    ),
+                    String.format(
+                        // @checkstyle LineLengthCheck (1 line)
+                        "<a href=\"/%s#sha256=0a1b\" data-requires-python=\"&gt;=3.8\" data-dist-info-metadata=\"sha256=2c3d\" data-core-metadata=\"sha256=2c3d\">%s</a><br/>",
+                        wheel, "def-0.2-py3-none-any.whl"
+                    )
+                ),
+                StandardCharsets.UTF_8
+            )
+        );
+    }
+
+    @Test
+    void servesCachedLinksWhileGenerationIsSame() {
+        final SliceIndex slice = new SliceIndex(this.storage);
+        final Key dir = new Key.From("def");
+        this.storage.save(new Key.From(dir, "def-0.1.tar.gz"), new Content.From("1".getBytes()))
+            .join();
+        new Generations(this.storage).next(dir).join();
+        MatcherAssert.assertThat(
+            "Lists artifact",
+            SliceIndexTest.page(slice),
+            new StringContains("def-0.1.tar.gz")
+        );
+        this.storage.save(new Key.From(dir, "def-0.2.tar.gz"), new Content.From("2".getBytes()))
+            .join();
+        MatcherAssert.assertThat(
+            "Serves cached links while generation is the same",
+            SliceIndexTest.page(slice),
+            new IsNot<>(new StringContains("def-0.2.tar.gz"))
+        );
+        new Generations(this.storage).next(dir).join();
+        MatcherAssert.assertThat(
+            "Reloads links of next generation",
+            SliceIndexTest.page(slice),
+            new StringContains("def-0.2.tar.gz")
+        );
+    }
+
+    @Test
+    void advertisesEscapedRequiresPython() {
+        final String gzip = "def/def-0.1.tar.gz";
+        this.storage.save(new Key.From(gzip), new Content.From(gzip.getBytes())).join();
+        this.storage.save(
+            new Key.From(String.format("%s.requires-python", gzip)),
+            new Content.From(">=3.6, <4".getBytes())
+        ).join();
+        MatcherAssert.assertThat(
+            new SliceIndex(this.storage).response(
+                new RequestLine("GET", "/def").toString(),
+                Collections.emptyList(),
+                Flowable.empty()
+            ),
+            new RsHasBody(
+                String.format(
+                    "<!DOCTYPE html>\n<html>\n  </body>\n%s\n</body>\n</html>",
+                    String.format(
+                        "<a href=\"/%s#sha256=%s\" data-requires-python=\"%s\">%s</a><br/>",
+                        gzip, DigestUtils.sha256Hex(gzip.getBytes()), "&gt;=3.6, &lt;4",
+                        "def-0.1.tar.gz"
+                    )
+                ),
+                StandardCharsets.UTF_8
+            )
+        );
+    }
+
+    @Test
+    void returnsJsonIndexIfPreferred() {
+        final String wheel = "def/def-0.2-py3-none-any.whl";
+        final String gzip = "def/def-0.1.tar.gz";
+        final byte[] meta = "Metadata-Version: 2.1\nName: def\nVersion: 0.2\n".getBytes();
+        this.storage.save(new Key.From(wheel), new Content.From(wheel.getBytes())).join();
+        this.storage.save(new Key.From(gzip), new Content.From(gzip.getBytes())).join();
+        this.storage.save(new Key.From(String.format("%s.metadata", wheel)), new Content.From(meta))
+            .join();
+        this.storage.save(
+            new Key.From(String.format("%s.requires-python", gzip)),
+            new Content.From(">=3.6".getBytes())
+        ).join();
+        final Response rsp = new SliceIndex(this.storage).response(
+            new RequestLine("GET", "/def").toString(),
+            new Headers.From(
+                "Accept",
+                // @checkstyle LineLengthCheck (1 line)
+                "application/vnd.pypi.simple.v1+json, application/vnd.pypi.simple.v1+html; q=0.1, text/html; q=0.01"
+            ),
+            Flowable.empty()
+        );
+        final List<Map.Entry<String, String>> hdrs = new ArrayList<>(3);
+        final JsonObject json = Json.createReader(
+            new StringReader(
+                new String(SliceIndexTest.body(rsp, hdrs), StandardCharsets.UTF_8)
+            )
+        ).readObject();
+        MatcherAssert.assertThat(
+            "Returns json content type",
+            hdrs,
+            Matchers.hasItem(new IsHeader("Content-Type", "application/vnd.pypi.simple.v1+json"))
+        );
+        final Map<String, JsonObject> files = json.getJsonArray("files")
+            .getValuesAs(JsonObject.class).stream()
+            .collect(Collectors.toMap(file -> file.getString("filename"), file -> file));
+        MatcherAssert.assertThat(
+            "Lists artifacts only",
+            files.keySet(),
+            Matchers.containsInAnyOrder("def-0.2-py3-none-any.whl", "def-0.1.tar.gz")
+        );
+        MatcherAssert.assertThat(
+            "Returns artifact digest",
+            files.get("def-0.1.tar.gz").getJsonObject("hashes").getString("sha256"),
+            new IsEqual<>(DigestUtils.sha256Hex(gzip.getBytes()))
+        );
+        MatcherAssert.assertThat(
+            "Returns core metadata digest",
+            files.get("def-0.2-py3-none-any.whl").getJsonObject("core-metadata")
+                .getString("sha256"),
+            new IsEqual<>(DigestUtils.sha256Hex(meta))
+        );
+        MatcherAssert.assertThat(
+            "Returns supported python versions",
+            files.get("def-0.1.tar.gz").getString("requires-python"),
+            new IsEqual<>(">=3.6")
+        );
+        MatcherAssert.assertThat(
+            "Does not return core metadata of sdist",
+            files.get("def-0.1.tar.gz").containsKey("core-metadata"),
+            new IsEqual<>(false)
+        );
+    }
+
+    private static byte[] body(final Response rsp, final List<Map.Entry<String, String>> hdrs) {
+        final CompletableFuture<byte[]> res = new CompletableFuture<>();
+        rsp.send(
+            (status, headers, body) -> {
+                headers.forEach(hdrs::add);
+                return new PublisherAs(body).bytes().thenAccept(res::complete);
+            }
+        ).toCompletableFuture().join();
+        return res.join();
+    }
+
+    private static String page(final SliceIndex slice) {
+        return new String(
+            SliceIndexTest.body(
+                slice.response(
+                    new RequestLine("GET", "/def").toString(),
+                    Collections.emptyList(),
+                    Flowable.empty()
+                ),
+                new ArrayList<>(0)
+            ),
+            StandardCharsets.UTF_8
+        );
+    }
+
     private static byte[] html(final Map.Entry<String, byte[]>... items) {
         return
             String.format(
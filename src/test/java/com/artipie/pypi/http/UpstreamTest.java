@@ -0,0 +1,70 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.http.rs.StandardRs;
+import com.artipie.http.slice.SliceSimple;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link Upstream}.
+ * @since 0.8
+ */
+class UpstreamTest {
+
+    @Test
+    void tracksLatencyAverage() {
+        final Upstream upstream = new Upstream("any", new SliceSimple(StandardRs.OK));
+        upstream.success(TimeUnit.MILLISECONDS.toNanos(100));
+        upstream.success(TimeUnit.MILLISECONDS.toNanos(200));
+        MatcherAssert.assertThat(
+            upstream.latency(),
+            Matchers.closeTo(130.0, 0.001)
+        );
+    }
+
+    @Test
+    void becomesUnhealthyOnErrorsAndRecoversAfterCooldown() {
+        final AtomicLong clock = new AtomicLong();
+        final Upstream upstream = new Upstream(
+            "mirror", new SliceSimple(StandardRs.OK), 1000, clock::get
+        );
+        upstream.failure();
+        MatcherAssert.assertThat(
+            "Single failure does not make upstream unhealthy",
+            upstream.healthy(),
+            new IsEqual<>(true)
+        );
+        upstream.failure();
+        upstream.failure();
+        MatcherAssert.assertThat(
+            "Upstream is unhealthy after several failures",
+            upstream.healthy(),
+            new IsEqual<>(false)
+        );
+        clock.set(TimeUnit.SECONDS.toNanos(1));
+        MatcherAssert.assertThat(
+            "Upstream is healthy again after cooldown",
+            upstream.healthy(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void successDecreasesErrorRate() {
+        final Upstream upstream = new Upstream("pypi", new SliceSimple(StandardRs.OK));
+        upstream.failure();
+        upstream.success(1);
+        MatcherAssert.assertThat(
+            upstream.toString(),
+            new IsEqual<>("pypi[latency=0.0ms, errors=0.21]")
+        );
+    }
+}
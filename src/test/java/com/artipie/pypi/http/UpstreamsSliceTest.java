@@ -0,0 +1,257 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.http;
+
+import com.artipie.asto.Content;
+import com.artipie.http.Headers;
+import com.artipie.http.Slice;
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsFull;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithStatus;
+import com.artipie.http.slice.SliceSimple;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link UpstreamsSlice}.
+ * @since 0.8
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class UpstreamsSliceTest {
+
+    @Test
+    void sendsRequestToFastestUpstream() {
+        final AtomicInteger slow = new AtomicInteger();
+        final AtomicInteger fast = new AtomicInteger();
+        final Upstream first = new Upstream("slow", UpstreamsSliceTest.counting(slow, "slow"));
+        first.success(TimeUnit.MILLISECONDS.toNanos(500));
+        final Upstream second = new Upstream("fast", UpstreamsSliceTest.counting(fast, "fast"));
+        second.success(TimeUnit.MILLISECONDS.toNanos(5));
+        MatcherAssert.assertThat(
+            "Responds from the fastest upstream",
+            new UpstreamsSlice(Arrays.asList(first, second)),
+            new SliceHasResponse(
+                new RsHasBody("fast".getBytes(StandardCharsets.UTF_8)),
+                new RequestLine(RqMethod.GET, "/simple/")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Slow upstream is not requested",
+            slow.get(),
+            new IsEqual<>(0)
+        );
+    }
+
+    @Test
+    void failsOverOnServerError() {
+        final Upstream broken = new Upstream(
+            "broken", new SliceSimple(new RsWithStatus(RsStatus.INTERNAL_ERROR))
+        );
+        final AtomicInteger count = new AtomicInteger();
+        MatcherAssert.assertThat(
+            "Responds from the working upstream",
+            new UpstreamsSlice(
+                Arrays.asList(broken, new Upstream("ok", UpstreamsSliceTest.counting(count, "ok")))
+            ),
+            new SliceHasResponse(
+                Matchers.allOf(
+                    new RsHasStatus(RsStatus.OK),
+                    new RsHasBody("ok".getBytes(StandardCharsets.UTF_8))
+                ),
+                new RequestLine(RqMethod.GET, "/simple/abc/")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Broken upstream error rate is tracked",
+            broken.errorRate(),
+            Matchers.greaterThan(0.0)
+        );
+    }
+
+    @Test
+    void failsOverOnException() {
+        final Slice failing = (line, headers, body) -> {
+            throw new IllegalStateException("Connection refused");
+        };
+        MatcherAssert.assertThat(
+            new UpstreamsSlice(
+                Arrays.asList(
+                    new Upstream("failing", failing),
+                    new Upstream("ok", UpstreamsSliceTest.counting(new AtomicInteger(), "data"))
+                )
+            ),
+            new SliceHasResponse(
+                new RsHasBody("data".getBytes(StandardCharsets.UTF_8)),
+                new RequestLine(RqMethod.GET, "/simple/abc/")
+            )
+        );
+    }
+
+    @Test
+    void returnsUnavailableWhenAllUpstreamsFail() {
+        MatcherAssert.assertThat(
+            new UpstreamsSlice(
+                Arrays.asList(
+                    new Upstream("one", new SliceSimple(new RsWithStatus(RsStatus.UNAVAILABLE))),
+                    new Upstream("two", new SliceSimple(new RsWithStatus(RsStatus.INTERNAL_ERROR)))
+                )
+            ),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.UNAVAILABLE),
+                new RequestLine(RqMethod.GET, "/simple/abc/")
+            )
+        );
+    }
+
+    @Test
+    void doesNotFailOverOnClientError() {
+        final AtomicInteger count = new AtomicInteger();
+        MatcherAssert.assertThat(
+            "Not found is returned as is",
+            new UpstreamsSlice(
+                Arrays.asList(
+                    new Upstream("first", new SliceSimple(new RsWithStatus(RsStatus.NOT_FOUND))),
+                    new Upstream("second", UpstreamsSliceTest.counting(count, "any"))
+                )
+            ),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_FOUND),
+                new RequestLine(RqMethod.GET, "/simple/unknown/")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Second upstream is not requested",
+            count.get(),
+            new IsEqual<>(0)
+        );
+    }
+
+    @Test
+    void sendsHedgedRequestWhenUpstreamIsSlow() {
+        final CompletableFuture<Void> never = new CompletableFuture<>();
+        final Slice hanging = (line, headers, body) -> connection -> never;
+        MatcherAssert.assertThat(
+            new UpstreamsSlice(
+                Arrays.asList(
+                    new Upstream("hanging", hanging),
+                    new Upstream("hedge", UpstreamsSliceTest.counting(new AtomicInteger(), "hedged"))
+                ),
+                Optional.of(Duration.ofMillis(10))
+            ),
+            new SliceHasResponse(
+                new RsHasBody("hedged".getBytes(StandardCharsets.UTF_8)),
+                new RequestLine(RqMethod.GET, "/simple/abc/")
+            )
+        );
+    }
+
+    @Test
+    void cancelsBodyOfLosingResponse() {
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        final CompletableFuture<Void> late = new CompletableFuture<>();
+        final Slice slow = (line, headers, body) -> connection -> late.thenCompose(
+            nothing -> connection.accept(
+                RsStatus.OK, Headers.EMPTY,
+                Flowable.just(ByteBuffer.wrap("slow".getBytes(StandardCharsets.UTF_8)))
+                    .doOnCancel(() -> cancelled.set(true))
+            )
+        );
+        MatcherAssert.assertThat(
+            "Responds from hedged upstream",
+            new UpstreamsSlice(
+                Arrays.asList(
+                    new Upstream("slow", slow),
+                    new Upstream(
+                        "hedge", UpstreamsSliceTest.counting(new AtomicInteger(), "fast")
+                    )
+                ),
+                Optional.of(Duration.ofMillis(10))
+            ),
+            new SliceHasResponse(
+                new RsHasBody("fast".getBytes(StandardCharsets.UTF_8)),
+                new RequestLine(RqMethod.GET, "/simple/abc/")
+            )
+        );
+        late.complete(null);
+        MatcherAssert.assertThat(
+            "Body of losing response is cancelled",
+            cancelled.get(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void ranksColdUpstreamByMeanLatency() {
+        final AtomicInteger cold = new AtomicInteger();
+        final Upstream fast = new Upstream(
+            "fast", UpstreamsSliceTest.counting(new AtomicInteger(), "fast")
+        );
+        fast.success(TimeUnit.MILLISECONDS.toNanos(5));
+        final Upstream slow = new Upstream(
+            "slow", UpstreamsSliceTest.counting(new AtomicInteger(), "slow")
+        );
+        slow.success(TimeUnit.MILLISECONDS.toNanos(500));
+        MatcherAssert.assertThat(
+            "Responds from the fastest upstream rather than the cold one",
+            new UpstreamsSlice(
+                Arrays.asList(
+                    new Upstream("cold", UpstreamsSliceTest.counting(cold, "cold")), slow, fast
+                )
+            ),
+            new SliceHasResponse(
+                new RsHasBody("fast".getBytes(StandardCharsets.UTF_8)),
+                new RequestLine(RqMethod.GET, "/simple/")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Cold upstream is not requested",
+            cold.get(),
+            new IsEqual<>(0)
+        );
+    }
+
+    @Test
+    void failsOnEmptyUpstreams() {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new UpstreamsSlice(Collections.emptyList())
+        );
+    }
+
+    /**
+     * Slice responding with body and counting requests.
+     * @param count Counter
+     * @param body Response body
+     * @return Slice
+     */
+    private static Slice counting(final AtomicInteger count, final String body) {
+        return (line, headers, pub) -> {
+            count.incrementAndGet();
+            return new RsFull(
+                RsStatus.OK, Headers.EMPTY, new Content.From(body.getBytes(StandardCharsets.UTF_8))
+            );
+        };
+    }
+}
@@ -4,25 +4,62 @@
  */
 package com.artipie.pypi.http;
 
+import com.artipie.asto.Content;
 import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
 import com.artipie.asto.ext.PublisherAs;
 import com.artipie.asto.memory.InMemoryStorage;
 import com.artipie.asto.test.TestResource;
 import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.headers.ContentLength;
 import com.artipie.http.headers.ContentType;
+import com.artipie.http.hm.IsString;
+import com.artipie.http.hm.RsHasBody;
 import com.artipie.http.hm.RsHasStatus;
 import com.artipie.http.rq.RequestLine;
 import com.artipie.http.rs.RsStatus;
+import com.artipie.pypi.Blocking;
+import com.artipie.pypi.index.Catalog;
+import com.artipie.pypi.index.Catalogs;
+import com.artipie.pypi.index.Generations;
+import com.artipie.pypi.index.Sidecars;
+import com.artipie.pypi.meta.Metadata;
+import com.artipie.pypi.metrics.Metrics;
 import io.reactivex.Flowable;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.hamcrest.collection.IsEmptyCollection;
 import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNot;
+import org.hamcrest.core.StringContains;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 /**
  * Test for {@link WheelSlice}.
@@ -89,6 +126,105 @@ class WheelSliceTest {
         );
     }
 
+    @Test
+    void savesCoreMetadataOfWheel() throws IOException {
+        final Storage storage = new InMemoryStorage();
+        final String boundary = "135";
+        final String filename = "artipie_sample-0.2-py3-none-any.whl";
+        final Path wheel = new TestResource(String.format("pypi_repo/%s", filename)).asPath();
+        MatcherAssert.assertThat(
+            "Returns CREATED status",
+            new WheelSlice(storage).response(
+                new RequestLine("POST", "/").toString(),
+                new Headers.From(new ContentType(String.format("Multipart;boundary=%s", boundary))),
+                Flowable.fromArray(
+                    ByteBuffer.wrap(
+                        this.multipartBody(Files.readAllBytes(wheel), boundary, filename)
+                    )
+                )
+            ),
+            new RsHasStatus(RsStatus.CREATED)
+        );
+        MatcherAssert.assertThat(
+            "Saves metadata file next to wheel",
+            new PublisherAs(
+                storage.value(
+                    new Key.From("artipie-sample", String.format("%s.metadata", filename))
+                ).join()
+            ).bytes().toCompletableFuture().join(),
+            new IsEqual<>(new Metadata.FromEntry(wheel, filename).file().get())
+        );
+        MatcherAssert.assertThat(
+            "Saves supported python versions next to wheel",
+            new PublisherAs(
+                storage.value(
+                    new Key.From("artipie-sample", String.format("%s.requires-python", filename))
+                ).join()
+            ).asciiString().toCompletableFuture().join(),
+            new IsEqual<>(">=3.5, <4")
+        );
+        final Catalog.Entry entry = new Catalogs(storage).load(new Key.From("artipie-sample"))
+            .toCompletableFuture().join().get().entry(filename).get();
+        MatcherAssert.assertThat(
+            "Adds wheel digests to project catalog",
+            Arrays.asList(entry.sha256(), entry.core().get(), entry.python().get()),
+            Matchers.contains(
+                DigestUtils.sha256Hex(Files.readAllBytes(wheel)),
+                DigestUtils.sha256Hex(new Metadata.FromEntry(wheel, filename).file().get()),
+                ">=3.5, <4"
+            )
+        );
+    }
+
+    @Test
+    void addsConcurrentUploadsOfProjectToCatalog() {
+        final Storage storage = new InMemoryStorage();
+        final WheelSlice slice = new WheelSlice(storage);
+        final int count = 12;
+        CompletableFuture.allOf(
+            IntStream.range(0, count).mapToObj(
+                idx -> CompletableFuture.runAsync(
+                    () -> this.upload(slice, "burst", String.format("1.%d", idx))
+                )
+            ).toArray(CompletableFuture[]::new)
+        ).join();
+        MatcherAssert.assertThat(
+            new Catalogs(storage).load(new Key.From("burst"))
+                .toCompletableFuture().join().get().entries().size(),
+            new IsEqual<>(count)
+        );
+    }
+
+    @Test
+    void updatesIndexOfNodesSharingStorage() {
+        final Storage storage = new InMemoryStorage();
+        final WheelSlice slice = new WheelSlice(storage);
+        final SliceIndex first = new SliceIndex(storage);
+        final SliceIndex second = new SliceIndex(storage);
+        this.upload(slice, "shared", "0.1");
+        MatcherAssert.assertThat(
+            "Index of first node lists uploaded file",
+            WheelSliceTest.index(first, "shared"),
+            new RsHasBody(new IsString(new StringContains("shared-0.1-py3-none-any.whl")))
+        );
+        MatcherAssert.assertThat(
+            "Index of second node lists uploaded file",
+            WheelSliceTest.index(second, "shared"),
+            new RsHasBody(new IsString(new StringContains("shared-0.1-py3-none-any.whl")))
+        );
+        this.upload(slice, "shared", "0.2");
+        MatcherAssert.assertThat(
+            "Cached index of first node lists next uploaded file",
+            WheelSliceTest.index(first, "shared"),
+            new RsHasBody(new IsString(new StringContains("shared-0.2-py3-none-any.whl")))
+        );
+        MatcherAssert.assertThat(
+            "Cached index of second node lists next uploaded file",
+            WheelSliceTest.index(second, "shared"),
+            new RsHasBody(new IsString(new StringContains("shared-0.2-py3-none-any.whl")))
+        );
+    }
+
     @Test
     void returnsBadRequestIfFileNameIsInvalid() throws IOException {
         final Storage storage = new InMemoryStorage();
@@ -134,8 +270,311 @@ class WheelSliceTest {
         );
     }
 
-    private byte[] multipartBody(final byte[] input, final String boundary, final String filename)
+    @ParameterizedTest
+    @CsvSource({
+        "artipie-sample,0.2,CREATED",
+        "Artipie_Sample,0.2,CREATED",
+        "artipie-sample,0.3,BAD_REQUEST",
+        "other,0.2,BAD_REQUEST"
+    })
+    void checksTwineFormFields(final String name, final String version, final RsStatus status)
         throws IOException {
+        final Storage storage = new InMemoryStorage();
+        final String boundary = "777";
+        final String filename = "artipie_sample-0.2-py3-none-any.whl";
+        final byte[] body = new TestResource(String.format("pypi_repo/%s", filename)).asBytes();
+        try (ByteArrayOutputStream form = new ByteArrayOutputStream()) {
+            MultipartEntityBuilder.create()
+                .setBoundary(boundary)
+                .addTextBody("metadata_version", "2.1")
+                .addTextBody("name", name)
+                .addTextBody("version", version)
+                .addBinaryBody(
+                    "content", body, org.apache.http.entity.ContentType.TEXT_PLAIN, filename
+                )
+                .build()
+                .writeTo(form);
+            MatcherAssert.assertThat(
+                new WheelSlice(storage).response(
+                    new RequestLine("POST", "/").toString(),
+                    new Headers.From(
+                        new ContentType(String.format("Multipart;boundary=%s", boundary))
+                    ),
+                    Flowable.fromArray(ByteBuffer.wrap(form.toByteArray()))
+                ),
+                new RsHasStatus(status)
+            );
+        }
+    }
+
+    @Test
+    void rejectsTooLargeUploadBeforeReadingBody() {
+        final AtomicBoolean subscribed = new AtomicBoolean();
+        MatcherAssert.assertThat(
+            "Returns PAYLOAD_TOO_LARGE status",
+            new WheelSlice(
+                new InMemoryStorage(), Metrics.NOP, new Blocking(), new UploadLimits(100, 1000)
+            ).response(
+                new RequestLine("POST", "/").toString(),
+                new Headers.From(
+                    new ContentType("Multipart;boundary=123"), new ContentLength(101)
+                ),
+                Flowable.just(ByteBuffer.wrap(new byte[101]))
+                    .doOnSubscribe(sub -> subscribed.set(true))
+            ),
+            new RsHasStatus(RsStatus.PAYLOAD_TOO_LARGE)
+        );
+        MatcherAssert.assertThat(
+            "Does not read body",
+            subscribed.get(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void rejectsTooLargeBodyWithoutLength() throws IOException {
+        final Storage storage = new InMemoryStorage();
+        final String boundary = "543";
+        final String filename = "artipie-sample-0.2.tar";
+        MatcherAssert.assertThat(
+            "Returns PAYLOAD_TOO_LARGE status",
+            new WheelSlice(
+                storage, Metrics.NOP, new Blocking(), new UploadLimits(1024, Long.MAX_VALUE)
+            ).response(
+                new RequestLine("POST", "/").toString(),
+                new Headers.From(new ContentType(String.format("Multipart;boundary=%s", boundary))),
+                WheelSliceTest.chunks(
+                    this.multipartBody(
+                        new TestResource(String.format("pypi_repo/%s", filename)).asBytes(),
+                        boundary, filename
+                    ),
+                    new AtomicInteger()
+                )
+            ),
+            new RsHasStatus(RsStatus.PAYLOAD_TOO_LARGE)
+        );
+        MatcherAssert.assertThat(
+            "Storage is empty",
+            storage.list(Key.ROOT).join(),
+            new IsEmptyCollection<>()
+        );
+    }
+
+    @Test
+    void rejectsUploadOverQuota() throws IOException {
+        final Storage storage = new InMemoryStorage();
+        final Key existing = new Key.From("artipie-sample", "artipie-sample-0.1.tar");
+        storage.save(existing, new Content.From(new byte[1024])).join();
+        final String boundary = "321";
+        final String filename = "artipie-sample-0.2.tar";
+        MatcherAssert.assertThat(
+            "Returns PAYLOAD_TOO_LARGE status",
+            new WheelSlice(
+                storage, Metrics.NOP, new Blocking(), new UploadLimits(Long.MAX_VALUE, 2048)
+            ).response(
+                new RequestLine("POST", "/").toString(),
+                new Headers.From(new ContentType(String.format("Multipart;boundary=%s", boundary))),
+                Flowable.just(
+                    ByteBuffer.wrap(
+                        this.multipartBody(
+                            new TestResource(String.format("pypi_repo/%s", filename)).asBytes(),
+                            boundary, filename
+                        )
+                    )
+                )
+            ),
+            new RsHasStatus(RsStatus.PAYLOAD_TOO_LARGE)
+        );
+        MatcherAssert.assertThat(
+            "Does not save file",
+            storage.list(Key.ROOT).join(),
+            Matchers.contains(existing)
+        );
+    }
+
+    @Test
+    void deletesArchiveCopyWhenCommitFails() {
+        final Storage storage = new InMemoryStorage();
+        final String filename = "abc-0.1-py3-none-any.whl";
+        MatcherAssert.assertThat(
+            "Returns BAD_REQUEST status",
+            new WheelSlice(
+                new FailingStorage(storage, key -> key.string().endsWith(filename))
+            ).response(
+                new RequestLine("POST", "/").toString(),
+                new Headers.From(new ContentType("Multipart;boundary=357")),
+                Flowable.just(
+                    ByteBuffer.wrap(
+                        this.multipartBody(WheelSliceTest.wheel("abc", "0.1"), "357", filename)
+                    )
+                )
+            ),
+            new RsHasStatus(RsStatus.BAD_REQUEST)
+        );
+        MatcherAssert.assertThat(
+            "Does not leave archive copy in storage",
+            storage.list(Key.ROOT).join().stream()
+                .filter(key -> !Sidecars.derived(key))
+                .collect(Collectors.toList()),
+            new IsEmptyCollection<>()
+        );
+    }
+
+    @Test
+    void startsNextGenerationWhenCatalogUpdateFails() {
+        final Storage storage = new InMemoryStorage();
+        final Key dir = new Key.From("abc");
+        final Generations generations = new Generations(storage);
+        generations.next(dir).join();
+        final String before = generations.current(dir).toCompletableFuture().join().get();
+        final String filename = "abc-0.1-py3-none-any.whl";
+        MatcherAssert.assertThat(
+            "Returns CREATED status",
+            new WheelSlice(
+                new FailingStorage(storage, key -> key.string().endsWith(Catalogs.NAME))
+            ).response(
+                new RequestLine("POST", "/").toString(),
+                new Headers.From(new ContentType("Multipart;boundary=357")),
+                Flowable.just(
+                    ByteBuffer.wrap(
+                        this.multipartBody(WheelSliceTest.wheel("abc", "0.1"), "357", filename)
+                    )
+                )
+            ),
+            new RsHasStatus(RsStatus.CREATED)
+        );
+        MatcherAssert.assertThat(
+            "Saves archive",
+            storage.exists(new Key.From(dir, filename)).join(),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Starts next generation of the project",
+            generations.current(dir).toCompletableFuture().join().get(),
+            new IsNot<>(new IsEqual<>(before))
+        );
+    }
+
+    @Test
+    void releasesQuotaWhenTempDirectoryFails() {
+        final String filename = "abc-0.1-py3-none-any.whl";
+        final byte[] body = this.multipartBody(WheelSliceTest.wheel("abc", "0.1"), "357", filename);
+        final AtomicBoolean rejected = new AtomicBoolean();
+        final WheelSlice slice = new WheelSlice(
+            new InMemoryStorage(), Metrics.NOP,
+            new Blocking(
+                task -> {
+                    if (rejected.compareAndSet(false, true)) {
+                        throw new RejectedExecutionException("Temp directory is not created");
+                    }
+                    ForkJoinPool.commonPool().execute(task);
+                },
+                Metrics.NOP
+            ),
+            new UploadLimits(Long.MAX_VALUE, body.length + body.length / 2)
+        );
+        Assertions.assertThrows(
+            CompletionException.class,
+            () -> this.upload(slice, body).toCompletableFuture().join()
+        );
+        MatcherAssert.assertThat(
+            "Accepts next upload within quota",
+            this.upload(slice, body).toCompletableFuture().join(),
+            new IsEqual<>(RsStatus.CREATED)
+        );
+    }
+
+    @Test
+    void rejectsExistingFileBeforeReadingFileData() throws IOException {
+        final Storage storage = new InMemoryStorage();
+        final String filename = "artipie-sample-0.2.tar";
+        final Key key = new Key.From("artipie-sample", filename);
+        storage.save(key, new Content.From("old".getBytes())).join();
+        final String boundary = "654";
+        final byte[] body = this.multipartBody(
+            new TestResource(String.format("pypi_repo/%s", filename)).asBytes(),
+            boundary, filename
+        );
+        final AtomicInteger read = new AtomicInteger();
+        MatcherAssert.assertThat(
+            "Returns CONFLICT status",
+            new WheelSlice(storage).response(
+                new RequestLine("POST", "/").toString(),
+                new Headers.From(new ContentType(String.format("Multipart;boundary=%s", boundary))),
+                WheelSliceTest.chunks(body, read)
+            ),
+            new RsHasStatus(RsStatus.CONFLICT)
+        );
+        MatcherAssert.assertThat(
+            "Does not read file data",
+            read.get(),
+            Matchers.lessThan(body.length / 2)
+        );
+        MatcherAssert.assertThat(
+            "Does not overwrite file",
+            new PublisherAs(storage.value(key).join()).asciiString()
+                .toCompletableFuture().join(),
+            new IsEqual<>("old")
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"artipie$sample-0.2.tar", "artipie sample-0.2.tar", "artipie.tar"})
+    void rejectsInvalidFileNameBeforeReadingFileData(final String filename) throws IOException {
+        final String boundary = "987";
+        final byte[] body = this.multipartBody(
+            new TestResource("pypi_repo/artipie-sample-0.2.tar").asBytes(), boundary, filename
+        );
+        final AtomicInteger read = new AtomicInteger();
+        MatcherAssert.assertThat(
+            "Returns BAD_REQUEST status",
+            new WheelSlice(new InMemoryStorage()).response(
+                new RequestLine("POST", "/").toString(),
+                new Headers.From(new ContentType(String.format("Multipart;boundary=%s", boundary))),
+                WheelSliceTest.chunks(body, read)
+            ),
+            new RsHasStatus(RsStatus.BAD_REQUEST)
+        );
+        MatcherAssert.assertThat(
+            "Does not read file data",
+            read.get(),
+            Matchers.lessThan(body.length / 2)
+        );
+    }
+
+    private void upload(final WheelSlice slice, final String project, final String version) {
+        MatcherAssert.assertThat(
+            slice.response(
+                new RequestLine("POST", "/").toString(),
+                new Headers.From(new ContentType("Multipart;boundary=246")),
+                Flowable.fromArray(
+                    ByteBuffer.wrap(
+                        this.multipartBody(
+                            WheelSliceTest.wheel(project, version), "246",
+                            String.format("%s-%s-py3-none-any.whl", project, version)
+                        )
+                    )
+                )
+            ),
+            new RsHasStatus(RsStatus.CREATED)
+        );
+    }
+
+    private static Response index(final SliceIndex slice, final String project) {
+        return slice.response(
+            new RequestLine("GET", String.format("/%s", project)).toString(),
+            Collections.emptyList(), Flowable.empty()
+        );
+    }
+
+    private static Flowable<ByteBuffer> chunks(final byte[] body, final AtomicInteger read) {
+        final int size = 256;
+        return Flowable.range(0, (body.length + size - 1) / size)
+            .map(idx -> ByteBuffer.wrap(body, idx * size, Math.min(size, body.length - idx * size)))
+            .doOnNext(buf -> read.addAndGet(buf.remaining()));
+    }
+
+    private byte[] multipartBody(final byte[] input, final String boundary, final String filename) {
         try (ByteArrayOutputStream res = new ByteArrayOutputStream()) {
             MultipartEntityBuilder.create()
                 .setBoundary(boundary)
@@ -145,7 +584,49 @@ class WheelSliceTest {
                 .build()
                 .writeTo(res);
             return res.toByteArray();
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
         }
     }
 
+    private static byte[] wheel(final String project, final String version) {
+        final ByteArrayOutputStream res = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(res)) {
+            zip.putNextEntry(
+                new ZipEntry(String.format("%s-%s.dist-info/METADATA", project, version))
+            );
+            zip.write(
+                String.join(
+                    "\n", "Metadata-Version: 2.1", String.format("Name: %s", project),
+                    String.format("Version: %s", version), ""
+                ).getBytes(StandardCharsets.UTF_8)
+            );
+            zip.closeEntry();
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return res.toByteArray();
+    }
+
+    /**
+     * Upload multipart body with its length.
+     * @param slice Wheel slice
+     * @param body Multipart body
+     * @return Response status
+     */
+    private CompletionStage<RsStatus> upload(final WheelSlice slice, final byte[] body) {
+        final CompletableFuture<RsStatus> status = new CompletableFuture<>();
+        return slice.response(
+            new RequestLine("POST", "/").toString(),
+            new Headers.From(
+                new ContentType("Multipart;boundary=357"), new ContentLength(body.length)
+            ),
+            Flowable.just(ByteBuffer.wrap(body))
+        ).send(
+            (rsstatus, headers, rsbody) -> {
+                status.complete(rsstatus);
+                return CompletableFuture.allOf();
+            }
+        ).thenCompose(nothing -> status);
+    }
 }
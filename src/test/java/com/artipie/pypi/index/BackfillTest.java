@@ -0,0 +1,198 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.index;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.TestResource;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link Backfill}.
+ * @since 0.8
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class BackfillTest {
+
+    /**
+     * Wheel file name.
+     */
+    private static final String WHEEL = "artipie_sample-0.2-py3-none-any.whl";
+
+    /**
+     * Source distribution file name.
+     */
+    private static final String SDIST = "artipie-sample-0.2.tar.gz";
+
+    /**
+     * Storage.
+     */
+    private Storage storage;
+
+    @BeforeEach
+    void init() {
+        this.storage = new InMemoryStorage();
+        this.put("artipie-sample", BackfillTest.WHEEL);
+        this.put("artipie-sample", BackfillTest.SDIST);
+        this.put("abtests", "ABtests-0.0.2.1-py2.py3-none-any.whl");
+    }
+
+    @Test
+    void indexesAllProjects() {
+        final List<String> messages = new CopyOnWriteArrayList<>();
+        final Backfill.Result res = this.backfill(2, messages::add)
+            .run().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Adds all artifacts to catalogs",
+            this.catalog("artipie-sample").entries().stream()
+                .map(Catalog.Entry::filename).collect(Collectors.toList()),
+            Matchers.contains(BackfillTest.SDIST, BackfillTest.WHEEL)
+        );
+        MatcherAssert.assertThat(
+            "Computes artifact digest",
+            this.catalog("artipie-sample").entry(BackfillTest.WHEEL).get().sha256(),
+            new IsEqual<>(
+                DigestUtils.sha256Hex(
+                    new TestResource(String.format("pypi_repo/%s", BackfillTest.WHEEL)).asBytes()
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            "Reads supported python versions",
+            this.catalog("artipie-sample").entry(BackfillTest.WHEEL).get().python().get(),
+            new IsEqual<>(">=3.5, <4")
+        );
+        MatcherAssert.assertThat(
+            "Saves core metadata file of wheel",
+            this.storage.exists(
+                new Key.From("artipie-sample", String.format("%s.metadata", BackfillTest.WHEEL))
+            ).join(),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Counts indexed projects",
+            res.indexed(),
+            new IsEqual<>(2L)
+        );
+        MatcherAssert.assertThat(
+            "Removes checkpoint when all projects are done",
+            this.storage.exists(Backfill.CHECKPOINT).join(),
+            new IsEqual<>(false)
+        );
+        MatcherAssert.assertThat(
+            "Reports progress",
+            messages,
+            Matchers.hasItem("Indexed 2 files of artipie-sample")
+        );
+    }
+
+    @Test
+    void skipsProjectsInCatalogs() {
+        this.backfill(2, msg -> { }).run()
+            .toCompletableFuture().join();
+        final Backfill.Result res = this.backfill(2, msg -> { })
+            .run().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Finds projects up to date",
+            res.upToDate(),
+            new IsEqual<>(2L)
+        );
+        MatcherAssert.assertThat(
+            "Reads no artifacts",
+            res.bytes(),
+            new IsEqual<>(0L)
+        );
+    }
+
+    @Test
+    void resumesAfterCheckpoint() {
+        this.storage.save(Backfill.CHECKPOINT, new Content.From("abtests".getBytes())).join();
+        final Backfill.Result res = this.backfill(2, msg -> { })
+            .run().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Indexes projects after checkpoint",
+            res.indexed(),
+            new IsEqual<>(1L)
+        );
+        MatcherAssert.assertThat(
+            "Skips projects before checkpoint",
+            new Catalogs(this.storage).load(new Key.From("abtests"))
+                .toCompletableFuture().join().isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void keepsCheckpointBeforeFailedProject() {
+        this.storage.save(
+            new Key.From("alpha", "alpha-0.1-py3-none-any.whl"),
+            new Content.From("not a zip".getBytes())
+        ).join();
+        final Backfill.Result res = this.backfill(1, msg -> { })
+            .run().toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Reports failed artifact",
+            res.failed(),
+            Matchers.contains("alpha/alpha-0.1-py3-none-any.whl")
+        );
+        MatcherAssert.assertThat(
+            "Saves checkpoint before failed project",
+            new PublisherAs(this.storage.value(Backfill.CHECKPOINT).join()).asciiString()
+                .toCompletableFuture().join(),
+            new IsEqual<>("abtests")
+        );
+        MatcherAssert.assertThat(
+            "Indexes projects after failed one",
+            this.catalog("artipie-sample").entries(),
+            Matchers.hasSize(2)
+        );
+    }
+
+    /**
+     * Put test resource artifact to storage.
+     * @param project Project directory
+     * @param filename File name
+     */
+    private void put(final String project, final String filename) {
+        this.storage.save(
+            new Key.From(project, filename),
+            new Content.From(new TestResource(String.format("pypi_repo/%s", filename)).asBytes())
+        ).join();
+    }
+
+    /**
+     * Catalog of the project.
+     * @param project Project directory
+     * @return Catalog
+     */
+    private Catalog catalog(final String project) {
+        return new Catalogs(this.storage).load(new Key.From(project))
+            .toCompletableFuture().join().get();
+    }
+
+    /**
+     * Backfill of the storage.
+     * @param concurrency Maximum amount of artifacts read in parallel
+     * @param progress Progress messages consumer
+     * @return Backfill
+     */
+    private Backfill backfill(final int concurrency, final Consumer<String> progress) {
+        return new Backfill(
+            this.storage, concurrency, Long.MAX_VALUE, progress, new ProjectLock.Striped()
+        );
+    }
+}
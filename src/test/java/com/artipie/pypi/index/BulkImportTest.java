@@ -0,0 +1,231 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.index;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.TestResource;
+import com.artipie.pypi.Blocking;
+import com.artipie.pypi.metrics.Metrics;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link BulkImport}.
+ * @since 0.8
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class BulkImportTest {
+
+    /**
+     * Wheel file name.
+     */
+    private static final String WHEEL = "artipie_sample-0.2-py3-none-any.whl";
+
+    /**
+     * Source distribution file name.
+     */
+    private static final String SDIST = "artipie-sample-0.2.tar.gz";
+
+    /**
+     * Directory to import.
+     * @checkstyle VisibilityModifierCheck (5 lines)
+     */
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void init() throws IOException {
+        Files.createDirectories(this.dir.resolve("artipie-sample"));
+        Files.createDirectories(this.dir.resolve("other"));
+        this.copy(BulkImportTest.WHEEL, String.format("artipie-sample/%s", BulkImportTest.WHEEL));
+        this.copy(BulkImportTest.SDIST, String.format("artipie-sample/%s", BulkImportTest.SDIST));
+        this.copy(
+            "ABtests-0.0.2.1-py2.py3-none-any.whl", "other/ABtests-0.0.2.1-py2.py3-none-any.whl"
+        );
+        this.copy(BulkImportTest.SDIST, "other/renamed-0.2.tar.gz");
+        Files.write(this.dir.resolve("other/index.html"), "<html/>".getBytes());
+    }
+
+    @Test
+    void importsArchivesByNormalizedProjectNames() {
+        final Storage storage = new InMemoryStorage();
+        final BulkImport.Result res = new BulkImport(
+            storage, 2, msg -> { }, new ProjectLock.Striped()
+        ).run(this.dir).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Stores archives and sidecar files",
+            storage.list(Key.ROOT).join().stream().map(Key::string)
+                .filter(key -> !key.endsWith(Catalogs.NAME))
+                .filter(key -> !key.endsWith(Generations.NAME))
+                .collect(Collectors.toList()),
+            Matchers.containsInAnyOrder(
+                "abtests/ABtests-0.0.2.1-py2.py3-none-any.whl",
+                "abtests/ABtests-0.0.2.1-py2.py3-none-any.whl.metadata",
+                String.format("artipie-sample/%s", BulkImportTest.SDIST),
+                String.format("artipie-sample/%s", BulkImportTest.WHEEL),
+                String.format("artipie-sample/%s.metadata", BulkImportTest.WHEEL),
+                String.format("artipie-sample/%s.requires-python", BulkImportTest.WHEEL),
+                String.format("artipie-sample/%s.requires-python", BulkImportTest.SDIST)
+            )
+        );
+        MatcherAssert.assertThat(
+            "Adds archives to catalogs",
+            new Catalogs(storage).load(new Key.From("artipie-sample"))
+                .toCompletableFuture().join().get().entries(),
+            Matchers.hasSize(2)
+        );
+        MatcherAssert.assertThat(
+            "Counts imported archives and projects",
+            new long[] {res.files(), res.projects()},
+            new IsEqual<>(new long[] {3, 2})
+        );
+        MatcherAssert.assertThat(
+            "Reports archive not corresponding to its name",
+            res.failed(),
+            Matchers.contains(this.dir.resolve("other/renamed-0.2.tar.gz").toString())
+        );
+    }
+
+    @Test
+    void skipsExistingArchives() {
+        final Storage storage = new InMemoryStorage();
+        final Key existing = new Key.From("repo", "artipie-sample", BulkImportTest.WHEEL);
+        storage.save(existing, new Content.From("existing".getBytes())).join();
+        final BulkImport.Result res = new BulkImport(
+            storage, new Key.From("repo"), new Blocking(), 4, msg -> { },
+            new ProjectLock.Striped()
+        ).run(this.dir).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Counts existing archive",
+            res.existing(),
+            new IsEqual<>(1L)
+        );
+        MatcherAssert.assertThat(
+            "Does not overwrite existing archive",
+            new PublisherAs(storage.value(existing).join()).asciiString()
+                .toCompletableFuture().join(),
+            new IsEqual<>("existing")
+        );
+        MatcherAssert.assertThat(
+            "Does not add existing archive to catalog",
+            new Catalogs(storage).load(new Key.From("repo", "artipie-sample"))
+                .toCompletableFuture().join().get().entry(BulkImportTest.WHEEL).isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void importsPlatformWheels() throws IOException {
+        final String filename = "numpy-1.21.0-cp39-cp39-manylinux_2_17_x86_64.whl";
+        Files.createDirectories(this.dir.resolve("numpy"));
+        Files.write(
+            this.dir.resolve(String.format("numpy/%s", filename)),
+            BulkImportTest.wheel("numpy", "1.21.0")
+        );
+        final Storage storage = new InMemoryStorage();
+        final BulkImport.Result res = new BulkImport(
+            storage, 2, msg -> { }, new ProjectLock.Striped()
+        ).run(this.dir).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Stores platform wheel",
+            storage.exists(new Key.From("numpy", filename)).join(),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Adds platform wheel to catalog",
+            new Catalogs(storage).load(new Key.From("numpy"))
+                .toCompletableFuture().join().get().entry(filename).isPresent(),
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Counts platform wheel",
+            res.files(),
+            new IsEqual<>(4L)
+        );
+    }
+
+    @Test
+    void importsDuplicatedArchiveOnce() throws IOException {
+        this.copy(BulkImportTest.WHEEL, String.format("other/%s", BulkImportTest.WHEEL));
+        final Storage storage = new InMemoryStorage();
+        final ExecutorService exec = Executors.newSingleThreadExecutor();
+        final BulkImport.Result res;
+        try {
+            res = new BulkImport(
+                storage, Key.ROOT, new Blocking(exec, Metrics.NOP), 4, msg -> { },
+                new ProjectLock.Striped()
+            ).run(this.dir).toCompletableFuture().join();
+        } finally {
+            exec.shutdown();
+        }
+        MatcherAssert.assertThat(
+            "Skips duplicated archive",
+            new long[] {res.files(), res.existing()},
+            new IsEqual<>(new long[] {3, 1})
+        );
+        MatcherAssert.assertThat(
+            "Adds archive to catalog once",
+            new Catalogs(storage).load(new Key.From("artipie-sample"))
+                .toCompletableFuture().join().get().entries(),
+            Matchers.hasSize(2)
+        );
+    }
+
+    /**
+     * Copy test resource to the directory.
+     * @param resource Resource file name
+     * @param path Path in the directory
+     * @throws IOException On error
+     */
+    private void copy(final String resource, final String path) throws IOException {
+        Files.write(
+            this.dir.resolve(path),
+            new TestResource(String.format("pypi_repo/%s", resource)).asBytes()
+        );
+    }
+
+    /**
+     * Wheel with metadata file only.
+     * @param project Project name
+     * @param version Version
+     * @return Wheel bytes
+     * @throws IOException On error
+     */
+    private static byte[] wheel(final String project, final String version)
+        throws IOException {
+        final ByteArrayOutputStream res = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(res)) {
+            zip.putNextEntry(
+                new ZipEntry(String.format("%s-%s.dist-info/METADATA", project, version))
+            );
+            zip.write(
+                String.join(
+                    "\n", "Metadata-Version: 2.1", String.format("Name: %s", project),
+                    String.format("Version: %s", version), ""
+                ).getBytes(StandardCharsets.UTF_8)
+            );
+            zip.closeEntry();
+        }
+        return res.toByteArray();
+    }
+}
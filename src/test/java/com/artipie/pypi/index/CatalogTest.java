@@ -0,0 +1,72 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.json.JsonException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test for {@link Catalog}.
+ * @since 0.8
+ */
+class CatalogTest {
+
+    @Test
+    void readsWrittenEntries() {
+        final Catalog.Entry entry = Catalog.read(
+            new Catalog(
+                Arrays.asList(
+                    new Catalog.Entry("abc-0.2.tar.gz", "02", Optional.empty(), Optional.empty()),
+                    new Catalog.Entry(
+                        "abc-0.1-py3-none-any.whl", "01", Optional.of("0f"), Optional.of(">=3.6")
+                    )
+                )
+            ).bytes()
+        ).entry("abc-0.1-py3-none-any.whl").get();
+        MatcherAssert.assertThat(
+            Arrays.asList(entry.filename(), entry.sha256(), entry.core(), entry.python()),
+            Matchers.contains(
+                "abc-0.1-py3-none-any.whl", "01", Optional.of("0f"), Optional.of(">=3.6")
+            )
+        );
+    }
+
+    @Test
+    void replacesEntriesOfSameFiles() {
+        MatcherAssert.assertThat(
+            new Catalog(
+                Arrays.asList(
+                    new Catalog.Entry("abc-0.2.tar.gz", "02", Optional.empty(), Optional.empty()),
+                    new Catalog.Entry("abc-0.1.tar.gz", "01", Optional.empty(), Optional.empty())
+                )
+            ).with(
+                Collections.singleton(
+                    new Catalog.Entry("abc-0.2.tar.gz", "22", Optional.empty(), Optional.empty())
+                )
+            ).entries().stream().map(Catalog.Entry::sha256).collect(Collectors.toList()),
+            new IsEqual<>(Arrays.asList("01", "22"))
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"{}", "{\"files\":[{\"filename\":\"abc-0.1.tar.gz\"}]}", "[]"})
+    void failsOnMalformedCatalog(final String json) {
+        Assertions.assertThrows(
+            JsonException.class,
+            () -> Catalog.read(json.getBytes(StandardCharsets.UTF_8))
+        );
+    }
+}
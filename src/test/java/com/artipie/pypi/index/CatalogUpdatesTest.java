@@ -0,0 +1,132 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.index;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link CatalogUpdates}.
+ * @since 0.8
+ */
+class CatalogUpdatesTest {
+
+    @Test
+    void coalescesEntriesAddedWithinWindow() {
+        final Storage storage = new InMemoryStorage();
+        final Counting lock = new Counting();
+        final CatalogUpdates updates = new CatalogUpdates(
+            storage, lock, Duration.ofMillis(200)
+        );
+        final Key dir = new Key.From("abc");
+        CompletableFuture.allOf(
+            IntStream.range(0, 5).mapToObj(
+                idx -> updates.add(
+                    dir, CatalogUpdatesTest.entry(String.format("abc-0.%d.tar.gz", idx))
+                ).toCompletableFuture()
+            ).toArray(CompletableFuture[]::new)
+        ).join();
+        MatcherAssert.assertThat(
+            "Adds all entries to catalog",
+            new Catalogs(storage).load(dir).toCompletableFuture().join().get().entries()
+                .stream().map(Catalog.Entry::filename).collect(Collectors.toList()),
+            Matchers.contains(
+                "abc-0.0.tar.gz", "abc-0.1.tar.gz", "abc-0.2.tar.gz", "abc-0.3.tar.gz",
+                "abc-0.4.tar.gz"
+            )
+        );
+        MatcherAssert.assertThat(
+            "Updates catalog once",
+            lock.count.get(),
+            new IsEqual<>(1)
+        );
+    }
+
+    @Test
+    void completesWhenCatalogIsSaved() {
+        final Storage storage = new InMemoryStorage();
+        final Key dir = new Key.From("abc");
+        final CompletableFuture<Void> added = new CatalogUpdates(
+            storage, new ProjectLock.Striped(), Duration.ofMillis(100)
+        ).add(dir, CatalogUpdatesTest.entry("abc-0.1.tar.gz")).toCompletableFuture();
+        MatcherAssert.assertThat(
+            "Waits for the window",
+            added.isDone(),
+            new IsEqual<>(false)
+        );
+        added.join();
+        MatcherAssert.assertThat(
+            "Entry is visible when addition is completed",
+            new Catalogs(storage).load(dir).toCompletableFuture().join().get()
+                .entry("abc-0.1.tar.gz").isPresent(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void updatesProjectsSeparately() {
+        final Storage storage = new InMemoryStorage();
+        final Counting lock = new Counting();
+        final CatalogUpdates updates = new CatalogUpdates(storage, lock, Duration.ZERO);
+        CompletableFuture.allOf(
+            updates.add(new Key.From("abc"), CatalogUpdatesTest.entry("abc-0.1.tar.gz"))
+                .toCompletableFuture(),
+            updates.add(new Key.From("xyz"), CatalogUpdatesTest.entry("xyz-0.1.tar.gz"))
+                .toCompletableFuture()
+        ).join();
+        MatcherAssert.assertThat(
+            "Updates catalog of every project",
+            lock.count.get(),
+            new IsEqual<>(2)
+        );
+        MatcherAssert.assertThat(
+            "Adds entry to its project catalog",
+            new Catalogs(storage).load(new Key.From("xyz")).toCompletableFuture().join()
+                .get().entry("abc-0.1.tar.gz").isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
+    private static Catalog.Entry entry(final String name) {
+        return new Catalog.Entry(name, "abc123", Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * Striped lock counting actions.
+     * @since 0.8
+     */
+    private static final class Counting implements ProjectLock {
+
+        /**
+         * Actions count.
+         */
+        private final AtomicInteger count = new AtomicInteger();
+
+        /**
+         * Origin lock.
+         */
+        private final ProjectLock origin = new ProjectLock.Striped();
+
+        @Override
+        public <T> CompletionStage<T> exclusively(final Key dir,
+            final Supplier<CompletionStage<T>> action) {
+            this.count.incrementAndGet();
+            return this.origin.exclusively(dir, action);
+        }
+    }
+}
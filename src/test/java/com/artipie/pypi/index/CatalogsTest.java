@@ -0,0 +1,78 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.index;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link Catalogs}.
+ * @since 0.8
+ */
+class CatalogsTest {
+
+    @Test
+    void loadsNothingIfCatalogIsAbsent() {
+        MatcherAssert.assertThat(
+            new Catalogs(new InMemoryStorage()).load(new Key.From("abc"))
+                .toCompletableFuture().join().isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void addsEntriesToCatalog() {
+        final Storage storage = new InMemoryStorage();
+        final Catalogs catalogs = new Catalogs(storage);
+        final Key dir = new Key.From("abc");
+        catalogs.add(dir, Collections.singleton(CatalogsTest.entry("abc-0.1.tar.gz")))
+            .toCompletableFuture().join();
+        catalogs.add(dir, Collections.singleton(CatalogsTest.entry("abc-0.2.tar.gz")))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            catalogs.load(dir).toCompletableFuture().join().get().entries().stream()
+                .map(Catalog.Entry::filename).collect(Collectors.toList()),
+            Matchers.contains("abc-0.1.tar.gz", "abc-0.2.tar.gz")
+        );
+    }
+
+    @Test
+    void replacesMalformedCatalog() {
+        final Storage storage = new InMemoryStorage();
+        final Catalogs catalogs = new Catalogs(storage);
+        final Key dir = new Key.From("abc");
+        storage.save(Catalogs.key(dir), new Content.From("{\"files\":".getBytes())).join();
+        MatcherAssert.assertThat(
+            "Treats malformed catalog as absent",
+            catalogs.load(dir).toCompletableFuture().join().isPresent(),
+            new IsEqual<>(false)
+        );
+        catalogs.add(dir, Collections.singleton(CatalogsTest.entry("abc-0.1.tar.gz")))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Replaces malformed catalog",
+            catalogs.load(dir).toCompletableFuture().join().get().entries(),
+            Matchers.hasSize(1)
+        );
+    }
+
+    /**
+     * Catalog entry.
+     * @param filename File name
+     * @return Entry
+     */
+    private static Catalog.Entry entry(final String filename) {
+        return new Catalog.Entry(filename, "01", Optional.empty(), Optional.empty());
+    }
+}
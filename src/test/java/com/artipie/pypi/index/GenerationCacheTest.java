@@ -0,0 +1,90 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.index;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link GenerationCache}.
+ * @since 0.8
+ */
+class GenerationCacheTest {
+
+    @Test
+    void cachesDataWhileGenerationIsSame() {
+        final Storage storage = new InMemoryStorage();
+        final Key dir = new Key.From("abc");
+        new Generations(storage).next(dir).join();
+        final GenerationCache<Integer> cache = new GenerationCache<>(storage, 10);
+        final AtomicInteger loads = new AtomicInteger();
+        cache.get(dir, "", () -> CompletableFuture.completedFuture(loads.incrementAndGet()))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            cache.get(dir, "", () -> CompletableFuture.completedFuture(loads.incrementAndGet()))
+                .toCompletableFuture().join(),
+            new IsEqual<>(1)
+        );
+    }
+
+    @Test
+    void reloadsDataOfNextGeneration() {
+        final Storage storage = new InMemoryStorage();
+        final Key dir = new Key.From("abc");
+        final Generations generations = new Generations(storage);
+        generations.next(dir).join();
+        final GenerationCache<Integer> cache = new GenerationCache<>(storage, 10);
+        final AtomicInteger loads = new AtomicInteger();
+        cache.get(dir, "", () -> CompletableFuture.completedFuture(loads.incrementAndGet()))
+            .toCompletableFuture().join();
+        generations.next(dir).join();
+        MatcherAssert.assertThat(
+            cache.get(dir, "", () -> CompletableFuture.completedFuture(loads.incrementAndGet()))
+                .toCompletableFuture().join(),
+            new IsEqual<>(2)
+        );
+    }
+
+    @Test
+    void doesNotCacheDataOfProjectWithoutMarker() {
+        final GenerationCache<Integer> cache = new GenerationCache<>(new InMemoryStorage(), 10);
+        final AtomicInteger loads = new AtomicInteger();
+        final Key dir = new Key.From("abc");
+        cache.get(dir, "", () -> CompletableFuture.completedFuture(loads.incrementAndGet()))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            cache.get(dir, "", () -> CompletableFuture.completedFuture(loads.incrementAndGet()))
+                .toCompletableFuture().join(),
+            new IsEqual<>(2)
+        );
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedData() {
+        final Storage storage = new InMemoryStorage();
+        final Generations generations = new Generations(storage);
+        final Key first = new Key.From("abc");
+        final Key second = new Key.From("xyz");
+        generations.next(first).join();
+        generations.next(second).join();
+        final GenerationCache<Integer> cache = new GenerationCache<>(storage, 1);
+        final AtomicInteger loads = new AtomicInteger();
+        cache.get(first, "", () -> CompletableFuture.completedFuture(loads.incrementAndGet()))
+            .toCompletableFuture().join();
+        cache.get(second, "", () -> CompletableFuture.completedFuture(loads.incrementAndGet()))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            cache.get(first, "", () -> CompletableFuture.completedFuture(loads.incrementAndGet()))
+                .toCompletableFuture().join(),
+            new IsEqual<>(3)
+        );
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.index;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import java.util.Collections;
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNot;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link Generations}.
+ * @since 0.8
+ */
+class GenerationsTest {
+
+    @Test
+    void readsNothingIfMarkerIsAbsent() {
+        MatcherAssert.assertThat(
+            new Generations(new InMemoryStorage()).current(new Key.From("abc"))
+                .toCompletableFuture().join().isPresent(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void startsNextGeneration() {
+        final Generations generations = new Generations(new InMemoryStorage());
+        final Key dir = new Key.From("abc");
+        generations.next(dir).join();
+        final String first = generations.current(dir).toCompletableFuture().join().get();
+        generations.next(dir).join();
+        MatcherAssert.assertThat(
+            generations.current(dir).toCompletableFuture().join().get(),
+            new IsNot<>(new IsEqual<>(first))
+        );
+    }
+
+    @Test
+    void startsNextGenerationOnCatalogUpdate() {
+        final Storage storage = new InMemoryStorage();
+        final Key dir = new Key.From("abc");
+        new Catalogs(storage).add(
+            dir,
+            Collections.singleton(
+                new Catalog.Entry("abc-0.1.tar.gz", "01", Optional.empty(), Optional.empty())
+            )
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new Generations(storage).current(dir).toCompletableFuture().join().isPresent(),
+            new IsEqual<>(true)
+        );
+    }
+}
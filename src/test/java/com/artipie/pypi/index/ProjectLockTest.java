@@ -0,0 +1,144 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.index;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ProjectLock}.
+ * @since 0.8
+ */
+class ProjectLockTest {
+
+    @Test
+    void serializesActionsOfSameProject() {
+        final ProjectLock lock = new ProjectLock.Striped();
+        final CompletableFuture<String> gate = new CompletableFuture<>();
+        final AtomicBoolean started = new AtomicBoolean();
+        final CompletableFuture<String> first = lock.exclusively(
+            new Key.From("alpha"), () -> gate
+        ).toCompletableFuture();
+        final CompletableFuture<Boolean> second = lock.exclusively(
+            new Key.From("alpha"),
+            () -> CompletableFuture.completedFuture(started.getAndSet(true))
+        ).toCompletableFuture();
+        MatcherAssert.assertThat(
+            "Waits for previous action of the project",
+            started.get(),
+            new IsEqual<>(false)
+        );
+        gate.complete("done");
+        MatcherAssert.assertThat(
+            "Completes first action with its result",
+            first.join(),
+            new IsEqual<>("done")
+        );
+        MatcherAssert.assertThat(
+            "Starts next action when previous one is completed",
+            second.join(),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void runsActionsOfDifferentProjectsInParallel() {
+        final ProjectLock lock = new ProjectLock.Striped();
+        final CompletableFuture<Void> gate = new CompletableFuture<>();
+        lock.exclusively(new Key.From("alpha"), () -> gate);
+        MatcherAssert.assertThat(
+            lock.exclusively(
+                new Key.From("beta"), () -> CompletableFuture.completedFuture("beta")
+            ).toCompletableFuture().getNow("waiting"),
+            new IsEqual<>("beta")
+        );
+        gate.complete(null);
+    }
+
+    @Test
+    void continuesAfterFailedAction() {
+        final ProjectLock lock = new ProjectLock.Striped(1);
+        final CompletableFuture<Void> first = lock.<Void>exclusively(
+            new Key.From("alpha"),
+            () -> {
+                throw new IllegalStateException("Failed action");
+            }
+        ).toCompletableFuture();
+        MatcherAssert.assertThat(
+            "Runs next action after failed one",
+            lock.exclusively(
+                new Key.From("alpha"), () -> CompletableFuture.completedFuture("next")
+            ).toCompletableFuture().join(),
+            new IsEqual<>("next")
+        );
+        Assertions.assertThrows(CompletionException.class, first::join);
+    }
+
+    @Test
+    void serializesActionsOfNodesSharingStorage() throws Exception {
+        final Storage storage = new InMemoryStorage();
+        final Duration ttl = Duration.ofMinutes(1);
+        final CompletableFuture<Void> gate = new CompletableFuture<>();
+        final AtomicBoolean started = new AtomicBoolean();
+        final CompletableFuture<Void> entered = new CompletableFuture<>();
+        final CompletableFuture<Void> first = new ProjectLock.Leased(storage, ttl)
+            .exclusively(new Key.From("alpha"), () -> ProjectLockTest.enter(entered, gate))
+            .toCompletableFuture();
+        entered.get(10, TimeUnit.SECONDS);
+        final CompletableFuture<Boolean> second = new ProjectLock.Leased(storage, ttl)
+            .exclusively(
+                new Key.From("alpha"),
+                () -> CompletableFuture.completedFuture(started.getAndSet(true))
+            ).toCompletableFuture();
+        TimeUnit.MILLISECONDS.sleep(100);
+        MatcherAssert.assertThat(
+            "Waits for lease of another node",
+            started.get(),
+            new IsEqual<>(false)
+        );
+        gate.complete(null);
+        first.join();
+        MatcherAssert.assertThat(
+            "Starts action when lease is released",
+            second.get(10, TimeUnit.SECONDS),
+            new IsEqual<>(false)
+        );
+    }
+
+    @Test
+    void failsWhenLeaseIsNotAcquiredInTime() throws Exception {
+        final Storage storage = new InMemoryStorage();
+        final CompletableFuture<Void> gate = new CompletableFuture<>();
+        final CompletableFuture<Void> entered = new CompletableFuture<>();
+        new ProjectLock.Leased(storage, Duration.ofMinutes(1))
+            .exclusively(new Key.From("alpha"), () -> ProjectLockTest.enter(entered, gate));
+        entered.get(10, TimeUnit.SECONDS);
+        Assertions.assertThrows(
+            CompletionException.class,
+            () -> new ProjectLock.Leased(
+                storage, Duration.ofMinutes(1), Duration.ofMillis(50), new ProjectLock.Striped()
+            ).exclusively(
+                new Key.From("alpha"), () -> CompletableFuture.completedFuture("late")
+            ).toCompletableFuture().join()
+        );
+        gate.complete(null);
+    }
+
+    private static CompletableFuture<Void> enter(final CompletableFuture<Void> entered,
+        final CompletableFuture<Void> gate) {
+        entered.complete(null);
+        return gate;
+    }
+}
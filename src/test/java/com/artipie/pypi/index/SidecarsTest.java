@@ -0,0 +1,103 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.index;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.TestResource;
+import com.artipie.pypi.Blocking;
+import com.artipie.pypi.meta.Metadata;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test for {@link Sidecars}.
+ * @since 0.8
+ */
+class SidecarsTest {
+
+    @Test
+    void savesWheelSidecars() throws IOException {
+        final Storage storage = new InMemoryStorage();
+        final String filename = "artipie_sample-0.2-py3-none-any.whl";
+        final Path wheel = new TestResource(String.format("pypi_repo/%s", filename)).asPath();
+        final Key dest = new Key.From("artipie-sample", filename);
+        final Catalog.Entry entry = new Sidecars(storage, new Blocking())
+            .save(dest, wheel, Optional.of(">=3.5"))
+            .toCompletableFuture().join();
+        final byte[] meta = new Metadata.FromEntry(wheel, filename).file().get();
+        MatcherAssert.assertThat(
+            "Returns catalog entry",
+            Arrays.asList(entry.filename(), entry.sha256(), entry.core(), entry.python()),
+            Matchers.contains(
+                filename, DigestUtils.sha256Hex(Files.readAllBytes(wheel)),
+                Optional.of(DigestUtils.sha256Hex(meta)), Optional.of(">=3.5")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Saves core metadata file",
+            new PublisherAs(
+                storage.value(new Key.From(String.format("%s.metadata", dest.string()))).join()
+            ).bytes().toCompletableFuture().join(),
+            new IsEqual<>(meta)
+        );
+        MatcherAssert.assertThat(
+            "Saves supported python versions",
+            new PublisherAs(
+                storage.value(new Key.From(String.format("%s.requires-python", dest.string())))
+                    .join()
+            ).asciiString().toCompletableFuture().join(),
+            new IsEqual<>(">=3.5")
+        );
+    }
+
+    @Test
+    void savesNothingForSourceDistributionWithoutPythonVersions() {
+        final Storage storage = new InMemoryStorage();
+        final String filename = "artipie-sample-0.2.tar.gz";
+        final Catalog.Entry entry = new Sidecars(storage, new Blocking()).save(
+            new Key.From("artipie-sample", filename),
+            new TestResource(String.format("pypi_repo/%s", filename)).asPath(),
+            Optional.empty()
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Has no core metadata digest",
+            entry.core().isPresent(),
+            new IsEqual<>(false)
+        );
+        MatcherAssert.assertThat(
+            "Saves no sidecar files",
+            storage.list(Key.ROOT).join(),
+            Matchers.empty()
+        );
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "abc/abc-0.1.tar.gz,false",
+        "abc/abc-0.1-py3-none-any.whl.metadata,true",
+        "abc/abc-0.1.tar.gz.requires-python,true",
+        "abc/.catalog.json,true",
+        ".pypi/backfill,true"
+    })
+    void findsDerivedKeys(final String key, final boolean derived) {
+        MatcherAssert.assertThat(
+            Sidecars.derived(new Key.From(key)),
+            new IsEqual<>(derived)
+        );
+    }
+}
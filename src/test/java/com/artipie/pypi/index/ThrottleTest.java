@@ -0,0 +1,67 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.index;
+
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link Throttle}.
+ * @since 0.8
+ */
+class ThrottleTest {
+
+    @Test
+    void delaysBytesOverRate() {
+        final Throttle throttle = new Throttle(1024);
+        MatcherAssert.assertThat(
+            "Passes first bytes at once",
+            throttle.delay(512),
+            Matchers.lessThanOrEqualTo(0L)
+        );
+        MatcherAssert.assertThat(
+            "Delays next bytes until first bytes are paid for",
+            throttle.delay(512),
+            Matchers.allOf(
+                Matchers.greaterThan(TimeUnit.MILLISECONDS.toNanos(400)),
+                Matchers.lessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(500))
+            )
+        );
+    }
+
+    @Test
+    void passesContentAtRate() {
+        final long start = System.nanoTime();
+        final long bytes = Flowable.fromPublisher(
+            new Throttle(64 * 1024).content(
+                Flowable.range(0, 5).map(idx -> ByteBuffer.allocate(4 * 1024))
+            )
+        ).reduce(0L, (acc, buf) -> acc + buf.remaining()).blockingGet();
+        MatcherAssert.assertThat(
+            "Passes all bytes",
+            bytes,
+            new IsEqual<>(20L * 1024)
+        );
+        MatcherAssert.assertThat(
+            "Passes bytes at the rate",
+            System.nanoTime() - start,
+            Matchers.greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(240))
+        );
+    }
+
+    @Test
+    void doesNotDelayUnlimitedContent() {
+        final Flowable<ByteBuffer> content = Flowable.just(ByteBuffer.allocate(1));
+        MatcherAssert.assertThat(
+            new Throttle(Long.MAX_VALUE).content(content),
+            new IsEqual<>(content)
+        );
+    }
+}
@@ -0,0 +1,11 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+
+/**
+ * Tests for index data derived from artifacts.
+ *
+ * @since 0.8
+ */
+package com.artipie.pypi.index;
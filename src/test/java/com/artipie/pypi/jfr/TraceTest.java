@@ -0,0 +1,91 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsSame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link Trace}.
+ * @since 0.8
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class TraceTest {
+
+    @Test
+    void doesNotRecordWhenRecordingIsOff() {
+        MatcherAssert.assertThat(
+            Trace.UPLOAD.start("move"),
+            new IsSame<>(Span.NONE)
+        );
+    }
+
+    @Test
+    void recordsPhaseEvent(@TempDir final Path dir) throws IOException {
+        final Path file = dir.resolve("trace.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.artipie.pypi.Upload").withoutThreshold();
+            recording.start();
+            Trace.UPLOAD.start("move").end("abc", 123, "abc/abc-0.1.whl");
+            recording.stop();
+            recording.dump(file);
+        }
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        MatcherAssert.assertThat(
+            "Records one event",
+            events,
+            Matchers.hasSize(1)
+        );
+        final RecordedEvent event = events.get(0);
+        MatcherAssert.assertThat(
+            "Records phase",
+            event.getString("phase"),
+            new IsEqual<>("move")
+        );
+        MatcherAssert.assertThat(
+            "Records project",
+            event.getString("project"),
+            new IsEqual<>("abc")
+        );
+        MatcherAssert.assertThat(
+            "Records size",
+            event.getLong("size"),
+            new IsEqual<>(123L)
+        );
+        MatcherAssert.assertThat(
+            "Records key",
+            event.getString("key"),
+            new IsEqual<>("abc/abc-0.1.whl")
+        );
+    }
+
+    @Test
+    void recordsOnlyEnabledEvents(@TempDir final Path dir) throws IOException {
+        final Path file = dir.resolve("index.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.artipie.pypi.Index").withoutThreshold();
+            recording.disable("com.artipie.pypi.Metadata");
+            recording.start();
+            Trace.METADATA.start("upload").end("abc", 1, "abc-0.1.whl");
+            Trace.INDEX.start("list").end("abc", -1, "abc");
+            recording.stop();
+            recording.dump(file);
+        }
+        MatcherAssert.assertThat(
+            RecordingFile.readAllEvents(file).get(0).getEventType().getName(),
+            new IsEqual<>("com.artipie.pypi.Index")
+        );
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.Optional;
+
+/**
+ * Blocking HTTP client recording latencies of requests.
+ * @since 0.8
+ */
+final class Http {
+
+    /**
+     * Connect and read timeout in milliseconds.
+     */
+    private static final int TIMEOUT = 60_000;
+
+    /**
+     * Latencies.
+     */
+    private final Latencies latencies;
+
+    /**
+     * Ctor.
+     * @param latencies Latencies
+     */
+    Http(final Latencies latencies) {
+        this.latencies = latencies;
+    }
+
+    /**
+     * GET request, response body is read fully.
+     * @param operation Operation to record
+     * @param uri URI
+     * @return Body of successful response
+     */
+    Optional<byte[]> get(final String operation, final URI uri) {
+        return this.send(operation, uri, "GET", "", new byte[0]);
+    }
+
+    /**
+     * POST request.
+     * @param operation Operation to record
+     * @param uri URI
+     * @param type Content type
+     * @param body Request body
+     * @return True if successful
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    boolean post(final String operation, final URI uri, final String type, final byte[] body) {
+        return this.send(operation, uri, "POST", type, body).isPresent();
+    }
+
+    /**
+     * Send request and record its latency, request succeeds with 2xx status.
+     * @param operation Operation to record
+     * @param uri URI
+     * @param method Method
+     * @param type Content type of request body
+     * @param body Request body, sent if not empty
+     * @return Body of successful response
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private Optional<byte[]> send(final String operation, final URI uri, final String method,
+        final String type, final byte[] body) {
+        final long start = System.nanoTime();
+        Optional<byte[]> res = Optional.empty();
+        try {
+            final HttpURLConnection conn = (HttpURLConnection) uri.toURL().openConnection();
+            conn.setConnectTimeout(Http.TIMEOUT);
+            conn.setReadTimeout(Http.TIMEOUT);
+            conn.setRequestMethod(method);
+            conn.setInstanceFollowRedirects(false);
+            if (body.length > 0) {
+                conn.setDoOutput(true);
+                conn.setRequestProperty("Content-Type", type);
+                conn.setFixedLengthStreamingMode(body.length);
+                try (OutputStream out = conn.getOutputStream()) {
+                    out.write(body);
+                }
+            }
+            final int status = conn.getResponseCode();
+            final InputStream input;
+            if (status >= 400) {
+                input = conn.getErrorStream();
+            } else {
+                input = conn.getInputStream();
+            }
+            final byte[] bytes = Http.read(input);
+            if (status >= 200 && status < 300) {
+                res = Optional.of(bytes);
+            }
+        } catch (final IOException ignored) {
+            res = Optional.empty();
+        }
+        this.latencies.record(operation, System.nanoTime() - start, res.isPresent());
+        return res;
+    }
+
+    /**
+     * Read stream fully.
+     * @param input Stream, may be null
+     * @return Bytes
+     * @throws IOException On error
+     */
+    private static byte[] read(final InputStream input) throws IOException {
+        final ByteArrayOutputStream res = new ByteArrayOutputStream();
+        if (input != null) {
+            try (InputStream in = input) {
+                final byte[] buf = new byte[8192];
+                int len = in.read(buf);
+                while (len >= 0) {
+                    res.write(buf, 0, len);
+                    len = in.read(buf);
+                }
+            }
+        }
+        return res.toByteArray();
+    }
+}
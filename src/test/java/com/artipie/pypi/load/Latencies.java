@@ -0,0 +1,134 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.load;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies and errors of requests by operation.
+ * @since 0.8
+ */
+final class Latencies {
+
+    /**
+     * Highest trackable latency in microseconds.
+     */
+    private static final long HIGHEST = TimeUnit.MINUTES.toMicros(10);
+
+    /**
+     * Latency histograms in microseconds by operation.
+     */
+    private final Map<String, Histogram> all;
+
+    /**
+     * Errors by operation.
+     */
+    private final Map<String, AtomicLong> errors;
+
+    /**
+     * Ctor.
+     */
+    Latencies() {
+        this.all = new ConcurrentHashMap<>();
+        this.errors = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Record request.
+     * @param operation Operation
+     * @param nanos Latency in nanoseconds
+     * @param success Is request successful?
+     */
+    void record(final String operation, final long nanos, final boolean success) {
+        this.all.computeIfAbsent(operation, name -> new ConcurrentHistogram(Latencies.HIGHEST, 3))
+            .recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), Latencies.HIGHEST));
+        final AtomicLong errs = this.errors.computeIfAbsent(operation, name -> new AtomicLong());
+        if (!success) {
+            errs.incrementAndGet();
+        }
+    }
+
+    /**
+     * Amount of recorded requests of operation.
+     * @param operation Operation
+     * @return Requests count
+     */
+    long count(final String operation) {
+        final Histogram hist = this.all.get(operation);
+        final long res;
+        if (hist == null) {
+            res = 0;
+        } else {
+            res = hist.getTotalCount();
+        }
+        return res;
+    }
+
+    /**
+     * Amount of failed requests of operation.
+     * @param operation Operation
+     * @return Errors count
+     */
+    long errors(final String operation) {
+        final AtomicLong errs = this.errors.get(operation);
+        final long res;
+        if (errs == null) {
+            res = 0;
+        } else {
+            res = errs.get();
+        }
+        return res;
+    }
+
+    /**
+     * Forget recorded requests, e.g. after warmup.
+     */
+    void reset() {
+        this.all.values().forEach(Histogram::reset);
+        this.errors.values().forEach(errs -> errs.set(0));
+    }
+
+    /**
+     * Print throughput and latency percentiles of operations.
+     * @param out Output
+     * @param seconds Measured duration
+     */
+    void report(final PrintStream out, final double seconds) {
+        out.printf(
+            "%-10s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+            "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms",
+            "p99.9 ms", "max ms"
+        );
+        for (final Map.Entry<String, Histogram> entry : new TreeMap<>(this.all).entrySet()) {
+            final Histogram hist = entry.getValue();
+            out.printf(
+                "%-10s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                entry.getKey(), hist.getTotalCount(), this.errors(entry.getKey()),
+                hist.getTotalCount() / seconds,
+                Latencies.millis(hist.getValueAtPercentile(50)),
+                Latencies.millis(hist.getValueAtPercentile(90)),
+                Latencies.millis(hist.getValueAtPercentile(99)),
+                Latencies.millis(hist.getValueAtPercentile(99.9)),
+                Latencies.millis(hist.getMaxValue())
+            );
+        }
+    }
+
+    /**
+     * Microseconds to milliseconds.
+     * @param micros Microseconds
+     * @return Milliseconds
+     */
+    private static double millis(final long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.load;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.fs.FileStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.http.Slice;
+import com.artipie.http.client.auth.Authenticator;
+import com.artipie.http.client.jetty.JettyClientSlices;
+import com.artipie.pypi.http.PyProxySlice;
+import com.artipie.pypi.http.PySlice;
+import com.artipie.vertx.VertxSliceServer;
+import io.vertx.reactivex.core.Vertx;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+
+/**
+ * Load test of python repository: simulated pip and twine clients drive
+ * {@link PySlice} (hosted scenario) or {@link PyProxySlice} with two stub upstreams
+ * (proxy scenario) on vertx server and report throughput and latency percentiles.
+ * In proxy scenario faults are injected to the first upstream only, failed requests
+ * of index pages are retried by the proxy on the second one, see {@link StubUpstream}.
+ * <p>
+ * Every client repeatedly performs random operation: reads index page of random project,
+ * downloads random artifact of the project (index page and artifact requests) or uploads
+ * new version of the project, operations are chosen by weights of the mix. Proxy
+ * repository is read only, so there are no uploads in proxy scenario. Clients are
+ * closed-loop: next request is sent when previous one is completed. See
+ * {@link LoadOptions} for options, e.g. {@code --scenario proxy --clients 64
+ * --duration 60 --latency 50 --faults 5}.
+ *
+ * @since 0.8
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+public final class LoadHarness {
+
+    /**
+     * Command line arguments.
+     */
+    private final String[] args;
+
+    /**
+     * Ctor.
+     * @param args Command line arguments
+     */
+    public LoadHarness(final String... args) {
+        this.args = args.clone();
+    }
+
+    /**
+     * Entry point.
+     * @param args Command line arguments
+     * @throws Exception On error
+     */
+    @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+    public static void main(final String... args) throws Exception {
+        Logger.getRootLogger().setLevel(Level.WARN);
+        new LoadHarness(args).exec(System.out);
+        System.exit(0);
+    }
+
+    /**
+     * Run load test and print report.
+     * @param out Report output
+     * @return Latencies of the measured run
+     * @throws Exception On error
+     */
+    Latencies exec(final PrintStream out) throws Exception {
+        final LoadOptions opts = new LoadOptions(this.args);
+        final List<Wheel> wheels = new ArrayList<>(opts.projects() * opts.versions());
+        for (int prj = 0; prj < opts.projects(); prj = prj + 1) {
+            for (int ver = 0; ver < opts.versions(); ver = ver + 1) {
+                wheels.add(
+                    new Wheel(
+                        String.format("load-project-%d", prj), String.format("1.0.%d", ver),
+                        opts.size()
+                    )
+                );
+            }
+        }
+        final Optional<Path> dir;
+        final Storage storage;
+        if (opts.memory()) {
+            dir = Optional.empty();
+            storage = new InMemoryStorage();
+        } else {
+            dir = Optional.of(Files.createTempDirectory("load"));
+            storage = new FileStorage(dir.get());
+        }
+        final Vertx vertx = Vertx.vertx();
+        final JettyClientSlices clients = new JettyClientSlices();
+        final List<VertxSliceServer> servers = new ArrayList<>(2);
+        final List<StubUpstream> stubs = new ArrayList<>(2);
+        if (opts.proxy()) {
+            stubs.add(new StubUpstream(wheels, opts.latency(), opts.faults()));
+            stubs.add(new StubUpstream(wheels, opts.latency(), 0));
+        }
+        final int[] mix = opts.mix();
+        clients.start();
+        try {
+            final Slice repo;
+            if (stubs.isEmpty()) {
+                for (final Wheel wheel : wheels) {
+                    storage.save(
+                        new Key.From(wheel.project(), wheel.filename()),
+                        new Content.From(wheel.bytes())
+                    ).join();
+                }
+                repo = new PySlice(storage);
+            } else {
+                final List<URI> remotes = new ArrayList<>(stubs.size());
+                for (final StubUpstream stub : stubs) {
+                    final VertxSliceServer upstream = new VertxSliceServer(vertx, stub);
+                    servers.add(upstream);
+                    remotes.add(
+                        URI.create(String.format("http://localhost:%d", upstream.start()))
+                    );
+                }
+                repo = new PyProxySlice(
+                    clients, remotes, Authenticator.ANONYMOUS, storage
+                );
+                mix[2] = 0;
+            }
+            final VertxSliceServer server = new VertxSliceServer(vertx, repo);
+            servers.add(server);
+            final URI uri = URI.create(String.format("http://localhost:%d", server.start()));
+            final Latencies latencies = new Latencies();
+            final double seconds = LoadHarness.run(opts, mix, uri, latencies);
+            final String scenario;
+            if (stubs.isEmpty()) {
+                scenario = "hosted";
+            } else {
+                scenario = "proxy";
+            }
+            final String kind;
+            if (opts.memory()) {
+                kind = "memory";
+            } else {
+                kind = "file";
+            }
+            out.printf("Scenario %s, %s storage%n", scenario, kind);
+            out.printf(
+                "%d clients, %d projects x %d versions of %d KB, mix %d:%d:%d%n",
+                opts.clients(), opts.projects(), opts.versions(), opts.size(),
+                mix[0], mix[1], mix[2]
+            );
+            if (!stubs.isEmpty()) {
+                out.printf(
+                    "Upstreams latency %d ms, faults %d%%, served %d and %d requests%n",
+                    opts.latency(), opts.faults(), stubs.get(0).served(), stubs.get(1).served()
+                );
+            }
+            latencies.report(out, seconds);
+            return latencies;
+        } finally {
+            servers.forEach(VertxSliceServer::stop);
+            stubs.forEach(StubUpstream::close);
+            clients.stop();
+            vertx.close();
+            if (dir.isPresent()) {
+                FileUtils.deleteDirectory(dir.get().toFile());
+            }
+        }
+    }
+
+    /**
+     * Run clients for warmup and measured duration.
+     * @param opts Options
+     * @param mix Operations weights
+     * @param uri Repository URI
+     * @param latencies Latencies to record
+     * @return Measured duration in seconds
+     * @throws InterruptedException If interrupted
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static double run(final LoadOptions opts, final int[] mix, final URI uri,
+        final Latencies latencies) throws InterruptedException {
+        final Http http = new Http(latencies);
+        final PipClient pip = new PipClient(uri, http);
+        final TwineClient twine = new TwineClient(uri, http);
+        final AtomicBoolean stop = new AtomicBoolean();
+        final ExecutorService pool = Executors.newFixedThreadPool(opts.clients());
+        final int total = mix[0] + mix[1] + mix[2];
+        for (int client = 0; client < opts.clients(); client = client + 1) {
+            final int num = client;
+            pool.execute(
+                () -> {
+                    final ThreadLocalRandom random = ThreadLocalRandom.current();
+                    int iter = 0;
+                    while (!stop.get()) {
+                        final String project = String.format(
+                            "load-project-%d", random.nextInt(opts.projects())
+                        );
+                        final int op = random.nextInt(total);
+                        if (op < mix[0]) {
+                            pip.index(project);
+                        } else if (op < mix[0] + mix[1]) {
+                            pip.install(project, random);
+                        } else {
+                            twine.upload(
+                                new Wheel(project, String.format("2.%d.%d", num, iter), opts.size())
+                            );
+                        }
+                        iter = iter + 1;
+                    }
+                }
+            );
+        }
+        TimeUnit.SECONDS.sleep(opts.warmup());
+        latencies.reset();
+        final long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(opts.duration());
+        stop.set(true);
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        return seconds;
+    }
+}
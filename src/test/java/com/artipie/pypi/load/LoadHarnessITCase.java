@@ -0,0 +1,71 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Short runs of {@link LoadHarness} to check that scenarios work.
+ * @since 0.8
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class LoadHarnessITCase {
+
+    @Test
+    void runsHostedScenario() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Latencies latencies = new LoadHarness(
+            "--clients", "2", "--duration", "1", "--warmup", "1", "--projects", "2",
+            "--versions", "2", "--size", "1", "--mix", "1:1:1"
+        ).exec(new PrintStream(out, true, StandardCharsets.UTF_8.name()));
+        MatcherAssert.assertThat(
+            "Sends all operations",
+            latencies.count("index") > 0 && latencies.count("download") > 0
+                && latencies.count("upload") > 0,
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Operations succeed",
+            latencies.errors("index") + latencies.errors("download")
+                + latencies.errors("upload"),
+            new IsEqual<>(0L)
+        );
+        MatcherAssert.assertThat(
+            "Reports percentiles",
+            new String(out.toByteArray(), StandardCharsets.UTF_8),
+            Matchers.containsString("p99.9 ms")
+        );
+    }
+
+    @Test
+    void runsProxyScenario() throws Exception {
+        final Latencies latencies = new LoadHarness(
+            "--scenario", "proxy", "--storage", "file", "--clients", "2", "--duration", "1",
+            "--warmup", "1", "--projects", "2", "--versions", "2", "--size", "1",
+            "--latency", "2", "--faults", "50"
+        ).exec(new PrintStream(new ByteArrayOutputStream(), true, "UTF-8"));
+        MatcherAssert.assertThat(
+            "Downloads through proxy by absolute links",
+            latencies.count("download") > 0 && latencies.errors("download") == 0,
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Fails over to another upstream",
+            latencies.count("index") > 0 && latencies.errors("index") == 0,
+            new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            "Does not upload to proxy",
+            latencies.count("upload"),
+            new IsEqual<>(0L)
+        );
+    }
+}
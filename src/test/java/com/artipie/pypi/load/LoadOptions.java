@@ -0,0 +1,159 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.load;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load test options from command line arguments of {@code --name value} form.
+ * <p>
+ * Options: {@code --scenario hosted|proxy}, {@code --storage memory|file},
+ * {@code --clients N}, {@code --duration SECONDS}, {@code --warmup SECONDS},
+ * {@code --projects N}, {@code --versions N}, {@code --size KB},
+ * {@code --mix INDEX:DOWNLOAD:UPLOAD} weights of operations, {@code --latency MS} and
+ * {@code --faults PERCENT} of index pages of the first stub upstream in proxy scenario.
+ *
+ * @since 0.8
+ */
+final class LoadOptions {
+
+    /**
+     * Options by name.
+     */
+    private final Map<String, String> opts;
+
+    /**
+     * Ctor.
+     * @param args Command line arguments
+     */
+    LoadOptions(final String... args) {
+        this.opts = new HashMap<>();
+        for (int idx = 0; idx < args.length; idx = idx + 2) {
+            if (!args[idx].startsWith("--") || idx + 1 >= args.length) {
+                throw new IllegalArgumentException(
+                    String.format("Expected --name value option at '%s'", args[idx])
+                );
+            }
+            this.opts.put(args[idx].substring(2), args[idx + 1]);
+        }
+    }
+
+    /**
+     * Is it proxy scenario?
+     * @return True for proxy, false for hosted repository
+     */
+    boolean proxy() {
+        return "proxy".equals(this.text("scenario", "hosted"));
+    }
+
+    /**
+     * Is storage in memory?
+     * @return True for in-memory, false for file storage
+     */
+    boolean memory() {
+        return "memory".equals(this.text("storage", "memory"));
+    }
+
+    /**
+     * Amount of concurrent clients.
+     * @return Clients
+     */
+    int clients() {
+        return this.number("clients", 16);
+    }
+
+    /**
+     * Measured run duration.
+     * @return Seconds
+     */
+    int duration() {
+        return this.number("duration", 30);
+    }
+
+    /**
+     * Warmup duration, not measured.
+     * @return Seconds
+     */
+    int warmup() {
+        return this.number("warmup", 5);
+    }
+
+    /**
+     * Amount of projects in repository.
+     * @return Projects
+     */
+    int projects() {
+        return this.number("projects", 20);
+    }
+
+    /**
+     * Amount of versions of each project.
+     * @return Versions
+     */
+    int versions() {
+        return this.number("versions", 5);
+    }
+
+    /**
+     * Artifacts size.
+     * @return Kilobytes
+     */
+    int size() {
+        return this.number("size", 64);
+    }
+
+    /**
+     * Weights of index, download and upload operations.
+     * @return Weights
+     */
+    int[] mix() {
+        final String[] parts = this.text("mix", "60:35:5").split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Mix should be INDEX:DOWNLOAD:UPLOAD weights");
+        }
+        final int[] res = new int[parts.length];
+        for (int idx = 0; idx < parts.length; idx = idx + 1) {
+            res[idx] = Integer.parseInt(parts[idx]);
+        }
+        return res;
+    }
+
+    /**
+     * Stub upstream average response latency.
+     * @return Milliseconds
+     */
+    int latency() {
+        return this.number("latency", 20);
+    }
+
+    /**
+     * Share of stub upstream responses failed with 503 status.
+     * @return Percents
+     */
+    int faults() {
+        return this.number("faults", 0);
+    }
+
+    /**
+     * Text option.
+     * @param name Name
+     * @param def Default value
+     * @return Value
+     */
+    private String text(final String name, final String def) {
+        return this.opts.getOrDefault(name, def);
+    }
+
+    /**
+     * Number option.
+     * @param name Name
+     * @param def Default value
+     * @return Value
+     */
+    private int number(final String name, final int def) {
+        return Integer.parseInt(this.text(name, String.valueOf(def)));
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.load;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Simulated pip client: reads simple index page of the project and downloads
+ * artifact by one of its links, as pip does to install a requirement.
+ * @since 0.8
+ */
+final class PipClient {
+
+    /**
+     * Link in index page.
+     */
+    private static final Pattern HREF = Pattern.compile("href=\"([^\"#]+)[^\"]*\"");
+
+    /**
+     * Repository URI.
+     */
+    private final URI repo;
+
+    /**
+     * HTTP client.
+     */
+    private final Http http;
+
+    /**
+     * Ctor.
+     * @param repo Repository URI
+     * @param http HTTP client
+     */
+    PipClient(final URI repo, final Http http) {
+        this.repo = repo;
+        this.http = http;
+    }
+
+    /**
+     * Read project index page.
+     * @param project Project name
+     * @return Artifacts links of the page, empty if request failed
+     */
+    List<URI> index(final String project) {
+        final URI page = this.repo.resolve(String.format("/%s/", project));
+        final Optional<byte[]> body = this.http.get("index", page);
+        final List<URI> links = new ArrayList<>(0);
+        if (body.isPresent()) {
+            final Matcher matcher = PipClient.HREF.matcher(
+                new String(body.get(), StandardCharsets.UTF_8)
+            );
+            while (matcher.find()) {
+                links.add(page.resolve(matcher.group(1)));
+            }
+        }
+        return links;
+    }
+
+    /**
+     * Read project index page and download random artifact of the project.
+     * @param project Project name
+     * @param random Random
+     */
+    void install(final String project, final Random random) {
+        final List<URI> links = this.index(project);
+        if (!links.isEmpty()) {
+            this.http.get("download", links.get(random.nextInt(links.size())));
+        }
+    }
+}
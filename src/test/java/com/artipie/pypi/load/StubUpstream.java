@@ -0,0 +1,184 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.load;
+
+import com.artipie.asto.Content;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RqHeaders;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithBody;
+import com.artipie.http.rs.RsWithStatus;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.reactivestreams.Publisher;
+
+/**
+ * Stub python upstream with injected latency and faults.
+ * <p>
+ * Serves simple index pages of projects and artifacts bytes at {@code /packages/} path.
+ * Like public index, pages link artifacts by absolute URLs of the host from request
+ * {@code Host} header (relative links are used if there is no such header), so the proxy
+ * rewrites the links and downloads artifacts from the files host. Every response is delayed
+ * by random latency from half to one and a half of the average latency, given share of index
+ * pages responses fails with 503 status, so the proxy fails over to another upstream.
+ *
+ * @since 0.8
+ */
+final class StubUpstream implements Slice, AutoCloseable {
+
+    /**
+     * Artifacts path prefix.
+     */
+    private static final String PACKAGES = "/packages/";
+
+    /**
+     * Artifacts file names by project.
+     */
+    private final Map<String, List<String>> projects;
+
+    /**
+     * Artifacts by file name.
+     */
+    private final Map<String, byte[]> files;
+
+    /**
+     * Average latency in milliseconds.
+     */
+    private final int latency;
+
+    /**
+     * Share of failed responses in percents.
+     */
+    private final int faults;
+
+    /**
+     * Timer to delay responses.
+     */
+    private final ScheduledExecutorService timer;
+
+    /**
+     * Amount of served requests.
+     */
+    private final AtomicLong served;
+
+    /**
+     * Ctor.
+     * @param wheels Wheels to serve
+     * @param latency Average latency in milliseconds
+     * @param faults Share of failed responses in percents
+     */
+    StubUpstream(final Collection<Wheel> wheels, final int latency, final int faults) {
+        this.projects = wheels.stream().collect(
+            Collectors.groupingBy(
+                Wheel::project, Collectors.mapping(Wheel::filename, Collectors.toList())
+            )
+        );
+        this.files = new HashMap<>();
+        for (final Wheel wheel : wheels) {
+            this.files.put(wheel.filename(), wheel.bytes());
+        }
+        this.latency = latency;
+        this.faults = faults;
+        this.timer = Executors.newSingleThreadScheduledExecutor();
+        this.served = new AtomicLong();
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers, final Publisher<ByteBuffer> body) {
+        final String path = new RequestLineFrom(line).uri().getPath();
+        final List<String> host = new RqHeaders(headers, "Host");
+        final CompletableFuture<Response> res = new CompletableFuture<>();
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final boolean fault = !path.startsWith(StubUpstream.PACKAGES)
+            && random.nextInt(100) < this.faults;
+        this.timer.schedule(
+            () -> {
+                this.served.incrementAndGet();
+                if (fault) {
+                    res.complete(new RsWithStatus(RsStatus.UNAVAILABLE));
+                } else {
+                    res.complete(this.serve(path, host));
+                }
+            },
+            random.nextInt(this.latency + 1) + this.latency / 2,
+            TimeUnit.MILLISECONDS
+        );
+        return new AsyncResponse(res);
+    }
+
+    /**
+     * Amount of served requests.
+     * @return Requests count
+     */
+    long served() {
+        return this.served.get();
+    }
+
+    @Override
+    public void close() {
+        this.timer.shutdownNow();
+    }
+
+    /**
+     * Response to the path.
+     * @param path Request path
+     * @param host Request host header values
+     * @return Response
+     */
+    private Response serve(final String path, final List<String> host) {
+        final byte[] bytes;
+        if (path.startsWith(StubUpstream.PACKAGES)) {
+            bytes = this.files.get(path.substring(StubUpstream.PACKAGES.length()));
+        } else {
+            bytes = Optional.ofNullable(this.projects.get(path.replace("/", ""))).map(
+                names -> StubUpstream.page(names, host)
+            ).orElse(null);
+        }
+        final Response res;
+        if (bytes == null) {
+            res = new RsWithStatus(RsStatus.NOT_FOUND);
+        } else {
+            res = new RsWithBody(new Content.From(bytes));
+        }
+        return res;
+    }
+
+    /**
+     * Index page of the project.
+     * @param names Artifacts file names
+     * @param host Request host header values
+     * @return Page bytes
+     */
+    private static byte[] page(final List<String> names, final List<String> host) {
+        final String base;
+        if (host.isEmpty()) {
+            base = "..";
+        } else {
+            base = String.format("http://%s", host.get(0));
+        }
+        return names.stream().map(
+            name -> String.format(
+                "<a href=\"%s%s%s\">%s</a><br/>", base, StubUpstream.PACKAGES, name, name
+            )
+        ).collect(Collectors.joining("\n", "<html><body>\n", "\n</body></html>"))
+            .getBytes(StandardCharsets.UTF_8);
+    }
+}
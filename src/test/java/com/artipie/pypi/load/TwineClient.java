@@ -0,0 +1,68 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+
+/**
+ * Simulated twine client: uploads wheel with multipart form of metadata fields and file.
+ * @since 0.8
+ */
+final class TwineClient {
+
+    /**
+     * Repository URI.
+     */
+    private final URI repo;
+
+    /**
+     * HTTP client.
+     */
+    private final Http http;
+
+    /**
+     * Ctor.
+     * @param repo Repository URI
+     * @param http HTTP client
+     */
+    TwineClient(final URI repo, final Http http) {
+        this.repo = repo;
+        this.http = http;
+    }
+
+    /**
+     * Upload wheel.
+     * @param wheel Wheel
+     * @return True if uploaded
+     */
+    boolean upload(final Wheel wheel) {
+        final HttpEntity form = MultipartEntityBuilder.create()
+            .addTextBody(":action", "file_upload")
+            .addTextBody("protocol_version", "1")
+            .addTextBody("metadata_version", "2.1")
+            .addTextBody("name", wheel.project())
+            .addTextBody("filetype", "bdist_wheel")
+            .addTextBody("pyversion", "py3")
+            .addBinaryBody(
+                "content", wheel.bytes(), ContentType.APPLICATION_OCTET_STREAM, wheel.filename()
+            )
+            .build();
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try {
+            form.writeTo(body);
+        } catch (final IOException err) {
+            throw new UncheckedIOException(err);
+        }
+        return this.http.post(
+            "upload", this.repo.resolve("/"), form.getContentType().getValue(), body.toByteArray()
+        );
+    }
+}
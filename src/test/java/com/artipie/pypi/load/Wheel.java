@@ -0,0 +1,101 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Generated wheel with metadata and random payload.
+ * @since 0.8
+ */
+final class Wheel {
+
+    /**
+     * Project name.
+     */
+    private final String project;
+
+    /**
+     * Version.
+     */
+    private final String version;
+
+    /**
+     * Payload size in kilobytes.
+     */
+    private final int size;
+
+    /**
+     * Ctor.
+     * @param project Project name
+     * @param version Version
+     * @param size Payload size in kilobytes
+     */
+    Wheel(final String project, final String version, final int size) {
+        this.project = project;
+        this.version = version;
+        this.size = size;
+    }
+
+    /**
+     * Project name.
+     * @return Name
+     */
+    String project() {
+        return this.project;
+    }
+
+    /**
+     * Wheel file name.
+     * @return File name
+     */
+    String filename() {
+        return String.format("%s-%s-py3-none-any.whl", this.dist(), this.version);
+    }
+
+    /**
+     * Wheel bytes.
+     * @return Zip archive bytes
+     */
+    byte[] bytes() {
+        final byte[] payload = new byte[this.size * 1024];
+        new Random(this.filename().hashCode()).nextBytes(payload);
+        final ByteArrayOutputStream res = new ByteArrayOutputStream(payload.length + 1024);
+        try (ZipOutputStream zip = new ZipOutputStream(res)) {
+            zip.putNextEntry(
+                new ZipEntry(String.format("%s-%s.dist-info/METADATA", this.dist(), this.version))
+            );
+            zip.write(
+                String.join(
+                    "\n", "Metadata-Version: 2.1",
+                    String.format("Name: %s", this.project),
+                    String.format("Version: %s", this.version),
+                    "Summary: Load test project", ""
+                ).getBytes(StandardCharsets.UTF_8)
+            );
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry(String.format("%s/payload.bin", this.dist())));
+            zip.write(payload);
+            zip.closeEntry();
+        } catch (final IOException err) {
+            throw new UncheckedIOException(err);
+        }
+        return res.toByteArray();
+    }
+
+    /**
+     * Distribution name of wheel file name.
+     * @return Name
+     */
+    private String dist() {
+        return this.project.replace('-', '_');
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test for {@link ArchiveName}.
+ * @since 0.8
+ */
+class ArchiveNameTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "my-project-0.3.tar.gz,my-project,0.3",
+        "Another_project-123.93.zip,Another_project,123.93",
+        "very_difficult_project-1.0a2-py3-none-any.whl,very_difficult_project,1.0a2",
+        "ABtests-0.0.2.1-py2.py3-none-any.whl,ABtests,0.0.2.1",
+        "numpy-1.21.0-cp39-cp39-manylinux_2_17_x86_64.manylinux2014_x86_64.whl,numpy,1.21.0",
+        "my_pkg-2.0.post1-1-cp36-abi3-win_amd64.whl,my_pkg,2.0.post1"
+    })
+    void readsNameAndVersion(final String filename, final String name, final String version) {
+        final ArchiveName archive = new ArchiveName(filename);
+        MatcherAssert.assertThat(
+            "Reads name",
+            archive.project(),
+            new IsEqual<>(Optional.of(name))
+        );
+        MatcherAssert.assertThat(
+            "Reads version",
+            archive.version(),
+            new IsEqual<>(Optional.of(version))
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"myproject.whl", "my-project", "my-project-0.1"})
+    void returnsEmptyForInvalidName(final String filename) {
+        MatcherAssert.assertThat(
+            new ArchiveName(filename).project(),
+            new IsEqual<>(Optional.empty())
+        );
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import com.artipie.asto.test.TestResource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Metadata reading from archive with {@link Metadata.FromArchive} per archive type.
+ * @since 0.8
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MetadataBench {
+
+    /**
+     * Archive from test resources.
+     */
+    @Param({
+        "artipie_sample-0.2-py3-none-any.whl",
+        "artipie-sample-0.2.tar.gz",
+        "artipie-sample-0.2.zip",
+        "artipie-sample-0.2.tar",
+        "artipie-sample-2.1.tar.bz2",
+        "artipie-sample-2.1.tar.Z",
+        "artipie_sample-2.1-py3.7.egg"
+    })
+    public String archive;
+
+    /**
+     * Temp directory.
+     */
+    private Path dir;
+
+    /**
+     * Archive path.
+     */
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.dir = Files.createTempDirectory("bench");
+        this.file = this.dir.resolve(this.archive);
+        Files.write(
+            this.file, new TestResource(String.format("pypi_repo/%s", this.archive)).asBytes()
+        );
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(this.dir.toFile());
+    }
+
+    @Benchmark
+    public PackageInfo read() {
+        return new Metadata.FromArchive(this.file).read();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import com.artipie.asto.test.TestResource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test for {@link Metadata.FromEntry}.
+ * @since 0.8
+ */
+class MetadataFromEntryTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "artipie-sample-0.2.zip,artipie-sample,0.2",
+        "artipie-sample-0.2.tar,artipie-sample,0.2",
+        "artipie-sample-0.2.tar.gz,artipie-sample,0.2",
+        "artipie-sample-2.1.tar.Z,artipie-sample,2.1",
+        "artipie-sample-2.1.tar.bz2,artipie-sample,2.1",
+        "artipie_sample-2.1-py3.7.egg,artipie-sample,2.1",
+        "artipie_sample-0.2-py3-none-any.whl,artipie-sample,0.2",
+        "alarmtime-0.1.5.tar.gz,AlarmTime,0.1.5",
+        "ABtests-0.0.2.1-py2.py3-none-any.whl,ABtests,0.0.2.1"
+    })
+    void readsMetadataFile(final String filename, final String name, final String version) {
+        final PackageInfo info = new Metadata.FromEntry(
+            new TestResource(String.format("pypi_repo/%s", filename)).asPath(), filename
+        ).read();
+        MatcherAssert.assertThat(
+            "Reads name",
+            info.name(),
+            new IsEqual<>(name)
+        );
+        MatcherAssert.assertThat(
+            "Reads version",
+            info.version(),
+            new IsEqual<>(version)
+        );
+    }
+
+    @Test
+    void returnsMetadataFileAsIs() {
+        final String filename = "artipie_sample-0.2-py3-none-any.whl";
+        MatcherAssert.assertThat(
+            new String(
+                new Metadata.FromEntry(
+                    new TestResource(String.format("pypi_repo/%s", filename)).asPath(), filename
+                ).file().get(),
+                StandardCharsets.UTF_8
+            ),
+            Matchers.allOf(
+                Matchers.startsWith("Metadata-Version: "),
+                Matchers.containsString("Name: artipie-sample")
+            )
+        );
+    }
+
+    @Test
+    void scansArchiveWhenMetadataIsNotInTopDirectory(@TempDir final Path dir)
+        throws IOException {
+        final Path zip = dir.resolve("my-project-1.0.zip");
+        try (
+            OutputStream file = Files.newOutputStream(zip);
+            ZipOutputStream out = new ZipOutputStream(file)
+        ) {
+            out.putNextEntry(new ZipEntry("my-project-1.0/src/my_project.egg-info/PKG-INFO"));
+            out.write(
+                "Metadata-Version: 2.1\nName: my-project\nVersion: 1.0\n"
+                    .getBytes(StandardCharsets.US_ASCII)
+            );
+            out.closeEntry();
+        }
+        MatcherAssert.assertThat(
+            new Metadata.FromEntry(zip, zip.getFileName().toString()).read().name(),
+            new IsEqual<>("my-project")
+        );
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Metadata parsing with {@link PackageInfo.FromMetadata}: name, version and summary
+ * of metadata with long description.
+ * @since 0.8
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PackageInfoBench {
+
+    /**
+     * Lines of description.
+     */
+    @Param({"0", "100", "1000"})
+    public int lines;
+
+    /**
+     * Metadata.
+     */
+    private String metadata;
+
+    @Setup
+    public void setup() {
+        this.metadata = String.join(
+            "\n",
+            "Metadata-Version: 2.1",
+            "Name: my-project",
+            "Version: 1.2.3",
+            "Summary: Sample project",
+            "Home-page: https://example.com/my-project",
+            "Author: Someone",
+            "Author-email: someone@example.com",
+            "License: MIT",
+            "Requires-Python: >=3.6",
+            "Description-Content-Type: text/markdown",
+            "",
+            IntStream.range(0, this.lines)
+                .mapToObj(num -> String.format("Description line %d of the project.", num))
+                .collect(Collectors.joining("\n"))
+        );
+    }
+
+    @Benchmark
+    public String read() {
+        final PackageInfo info = new PackageInfo.FromMetadata(this.metadata);
+        return String.join(" ", info.name(), info.version(), info.summary());
+    }
+}
@@ -4,8 +4,10 @@
  */
 package com.artipie.pypi.meta;
 
+import java.util.Optional;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -60,6 +62,24 @@ class PackageInfoFromMetadataTest {
         );
     }
 
+    @Test
+    void readsRequiresPython() {
+        MatcherAssert.assertThat(
+            new PackageInfo.FromMetadata(
+                String.join("\n", "Name: abc", "Version: 0.1", "Requires-Python: >=3.5, <4\r")
+            ).requiresPython(),
+            new IsEqual<>(Optional.of(">=3.5, <4"))
+        );
+    }
+
+    @Test
+    void returnsEmptyIfRequiresPythonNotFound() {
+        MatcherAssert.assertThat(
+            new PackageInfo.FromMetadata(this.metadata("abc", "0.1", "Abc")).requiresPython(),
+            new IsEqual<>(Optional.empty())
+        );
+    }
+
     private String metadata(final String name, final String version, final String summary) {
         return String.join(
             "\n",
@@ -0,0 +1,64 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.meta;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Artifact file name validation with {@link ValidFilename}.
+ * @since 0.8
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ValidFilenameBench {
+
+    /**
+     * Artifact file name.
+     */
+    @Param({
+        "my-project-1.2.3.tar.gz",
+        "my_project-1.2.3-cp39-cp39-manylinux_2_17_x86_64.manylinux2014_x86_64.whl",
+        "other-project-1.2.3.zip"
+    })
+    public String filename;
+
+    /**
+     * Package info.
+     */
+    private PackageInfo info;
+
+    @Setup
+    public void setup() {
+        this.info = new PackageInfo.FromMetadata(
+            String.join(
+                "\n", "Metadata-Version: 2.1", "Name: my-project", "Version: 1.2.3",
+                "Summary: Project"
+            )
+        );
+    }
+
+    @Benchmark
+    public boolean valid() {
+        return new ValidFilename(this.info, this.filename).valid();
+    }
+}
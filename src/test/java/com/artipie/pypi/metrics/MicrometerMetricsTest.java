@@ -0,0 +1,91 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2021 artipie.com
+ * https://github.com/artipie/python-adapter/LICENSE.txt
+ */
+package com.artipie.pypi.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link MicrometerMetrics}.
+ * @since 0.8
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+class MicrometerMetricsTest {
+
+    /**
+     * Meter registry.
+     */
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void init() {
+        this.registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void incrementsCounterByTags() {
+        final Metrics metrics = new MicrometerMetrics(this.registry);
+        metrics.counter(Metrics.UPLOADS, 1, "result", "success");
+        metrics.counter(Metrics.UPLOADS, 2, "result", "success");
+        metrics.counter(Metrics.UPLOADS, 1, "result", "failure");
+        MatcherAssert.assertThat(
+            "Counts successful uploads",
+            this.registry.get(Metrics.UPLOADS).tag("result", "success").counter().count(),
+            new IsEqual<>(3.0)
+        );
+        MatcherAssert.assertThat(
+            "Counts failed uploads",
+            this.registry.get(Metrics.UPLOADS).tag("result", "failure").counter().count(),
+            new IsEqual<>(1.0)
+        );
+    }
+
+    @Test
+    void recordsTimer() {
+        new MicrometerMetrics(this.registry).timer(
+            Metrics.REQUESTS, TimeUnit.MILLISECONDS.toNanos(5), "route", "index"
+        );
+        MatcherAssert.assertThat(
+            this.registry.get(Metrics.REQUESTS).tag("route", "index").timer()
+                .totalTime(TimeUnit.MILLISECONDS),
+            new IsEqual<>(5.0)
+        );
+    }
+
+    @Test
+    void recordsTimerByTags() {
+        final Metrics metrics = new MicrometerMetrics(this.registry);
+        metrics.timer(Metrics.REQUESTS, TimeUnit.MILLISECONDS.toNanos(5), "route", "index");
+        metrics.timer(Metrics.REQUESTS, TimeUnit.MILLISECONDS.toNanos(3), "route", "index");
+        metrics.timer(Metrics.REQUESTS, TimeUnit.MILLISECONDS.toNanos(7), "route", "upload");
+        MatcherAssert.assertThat(
+            "Records to the timer of the tags",
+            this.registry.get(Metrics.REQUESTS).tag("route", "index").timer().count(),
+            new IsEqual<>(2L)
+        );
+        MatcherAssert.assertThat(
+            "Registers timer per tags",
+            this.registry.get(Metrics.REQUESTS).timers().size(),
+            new IsEqual<>(2)
+        );
+    }
+
+    @Test
+    void changesGauge() {
+        final Metrics metrics = new MicrometerMetrics(this.registry);
+        metrics.gauge(Metrics.INFLIGHT, 1, "route", "upload");
+        metrics.gauge(Metrics.INFLIGHT, 1, "route", "upload");
+        metrics.gauge(Metrics.INFLIGHT, -1, "route", "upload");
+        metrics.gauge(Metrics.INFLIGHT, 1, "route", "index");
+        MatcherAssert.assertThat(
+            this.registry.get(Metrics.INFLIGHT).tag("route", "upload").gauge().value(),
+            new IsEqual<>(1.0)
+        );
+    }
+}